@@ -51,6 +51,8 @@ public class TenantController {
                 dto.setExpiresAt(tenant.getExpiresAt() != null ? tenant.getExpiresAt().toString() : null);
                 dto.setMaxUsers(tenant.getMaxUsers());
                 dto.setMaxStorageGb(tenant.getMaxStorageGb());
+                dto.setSchedulingWeight(tenant.getSchedulingWeight());
+                dto.setSchedulingMaxConcurrency(tenant.getSchedulingMaxConcurrency());
                 dto.setContactName(tenant.getContactName());
                 dto.setContactEmail(tenant.getContactEmail());
                 dto.setContactPhone(tenant.getContactPhone());
@@ -1,6 +1,8 @@
 package com.tiny.platform.application.oauth.export;
 
+import com.tiny.platform.infrastructure.export.core.ExportPartition;
 import com.tiny.platform.infrastructure.export.core.FilterAwareDataProvider;
+import com.tiny.platform.infrastructure.export.core.PartitionedDataProvider;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
@@ -25,17 +27,31 @@ import java.util.Objects;
  * - 兼容导出当前页 & 导出全部：
  *   - 导出当前页：filters 中会包含 __mode=page、__page、__pageSize
  *   - 导出全部：只包含业务 filters（username/nickname），按分页迭代全量导出
+ * - 导出全部时可按 id 范围切分为多个分区并行读取（PartitionedDataProvider）
  *
  * 输出数据字段（需与前端列字段一致）：
  *   id, username, nickname, enabled, accountNonExpired, accountNonLocked, credentialsNonExpired, lastLoginAt
  */
 @Component("user")
-public class UserDataProvider implements FilterAwareDataProvider<Map<String, Object>> {
+public class UserDataProvider implements FilterAwareDataProvider<Map<String, Object>>,
+        PartitionedDataProvider<Map<String, Object>> {
 
     private final JdbcTemplate jdbcTemplate;
 
     private static final ThreadLocal<Map<String, Object>> FILTERS_HOLDER = new ThreadLocal<>();
 
+    private static final String BASE_SQL = """
+        SELECT id,
+               username,
+               nickname,
+               enabled,
+               account_non_expired,
+               account_non_locked,
+               credentials_non_expired,
+               last_login_at
+          FROM user
+        """;
+
     public UserDataProvider(JdbcTemplate jdbcTemplate) {
         this.jdbcTemplate = jdbcTemplate;
     }
@@ -56,36 +72,7 @@ public class UserDataProvider implements FilterAwareDataProvider<Map<String, Obj
 
         // 构建 WHERE 子句和参数
         List<Object> params = new ArrayList<>();
-        StringBuilder whereClause = new StringBuilder();
-
-        if (filters != null) {
-            if (filters.containsKey("username") && filters.get("username") != null) {
-                String username = filters.get("username").toString().trim();
-                if (!username.isEmpty()) {
-                    whereClause.append(" AND username = ?");
-                    params.add(username);
-                }
-            }
-            if (filters.containsKey("nickname") && filters.get("nickname") != null) {
-                String nickname = filters.get("nickname").toString().trim();
-                if (!nickname.isEmpty()) {
-                    whereClause.append(" AND nickname = ?");
-                    params.add(nickname);
-                }
-            }
-        }
-
-        String baseSql = """
-            SELECT id,
-                   username,
-                   nickname,
-                   enabled,
-                   account_non_expired,
-                   account_non_locked,
-                   credentials_non_expired,
-                   last_login_at
-              FROM user
-            """;
+        StringBuilder whereClause = buildWhereClause(filters, params);
 
         boolean hasWhereClause = whereClause.length() > 0;
         String whereSql = hasWhereClause
@@ -95,7 +82,7 @@ public class UserDataProvider implements FilterAwareDataProvider<Map<String, Obj
         String orderBySql = " ORDER BY id DESC";
 
         // 导出当前页：根据 __mode=page 及 __page/__pageSize 一次性返回当前页数据
-        if (filters != null && "page".equals(filters.get("__mode"))) {
+        if (isPageMode(filters)) {
             int page = parseInt(filters.get("__page"), 1);
             int pageSizeForPage = parseInt(filters.get("__pageSize"), batchSize);
             if (page <= 0) {
@@ -106,7 +93,7 @@ public class UserDataProvider implements FilterAwareDataProvider<Map<String, Obj
             }
             int offset = (page - 1) * pageSizeForPage;
 
-            String sql = baseSql + whereSql + orderBySql + " LIMIT ? OFFSET ?";
+            String sql = BASE_SQL + whereSql + orderBySql + " LIMIT ? OFFSET ?";
             List<Object> pageParams = new ArrayList<>(params);
             pageParams.add(pageSizeForPage);
             pageParams.add(offset);
@@ -116,7 +103,69 @@ public class UserDataProvider implements FilterAwareDataProvider<Map<String, Obj
         }
 
         // 导出全部：使用 keyset 分页（id 游标），避免深分页 offset 退化
-        return new KeysetIterator(batchSize, baseSql + whereSql, params, hasWhereClause);
+        return new KeysetIterator(batchSize, BASE_SQL + whereSql, params, hasWhereClause, null);
+    }
+
+    /**
+     * 按 id 范围切分：先取过滤后的 MIN(id)/MAX(id)，再均分为降序区间，与 fetchIterator 的 ORDER BY id DESC 一致。
+     * 导出当前页不切分。
+     */
+    @Override
+    public List<ExportPartition> partitions(int maxPartitions) {
+        Map<String, Object> filters = FILTERS_HOLDER.get();
+        if (maxPartitions <= 1 || isPageMode(filters)) {
+            return List.of();
+        }
+        List<Object> params = new ArrayList<>();
+        StringBuilder whereClause = buildWhereClause(filters, params);
+        String sql = "SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM user"
+            + (whereClause.length() > 0 ? " WHERE " + whereClause.substring(5) : "");
+        List<long[]> bounds = jdbcTemplate.query(sql, (rs, rowNum) -> {
+            long min = rs.getLong("min_id");
+            if (rs.wasNull()) {
+                return null;
+            }
+            return new long[]{min, rs.getLong("max_id")};
+        }, params.toArray());
+        if (bounds.isEmpty() || bounds.get(0) == null) {
+            return List.of();
+        }
+        return ExportPartition.splitDescending(bounds.get(0)[0], bounds.get(0)[1], maxPartitions);
+    }
+
+    @Override
+    public Iterator<Map<String, Object>> fetchPartition(ExportPartition partition, int batchSize) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder whereClause = buildWhereClause(FILTERS_HOLDER.get(), params);
+        whereClause.append(" AND id >= ?");
+        params.add(partition.lowerBound());
+        String whereSql = " WHERE " + whereClause.substring(5);
+        return new KeysetIterator(batchSize, BASE_SQL + whereSql, params, true, partition.upperBound());
+    }
+
+    private StringBuilder buildWhereClause(Map<String, Object> filters, List<Object> params) {
+        StringBuilder whereClause = new StringBuilder();
+        if (filters != null) {
+            if (filters.containsKey("username") && filters.get("username") != null) {
+                String username = filters.get("username").toString().trim();
+                if (!username.isEmpty()) {
+                    whereClause.append(" AND username = ?");
+                    params.add(username);
+                }
+            }
+            if (filters.containsKey("nickname") && filters.get("nickname") != null) {
+                String nickname = filters.get("nickname").toString().trim();
+                if (!nickname.isEmpty()) {
+                    whereClause.append(" AND nickname = ?");
+                    params.add(nickname);
+                }
+            }
+        }
+        return whereClause;
+    }
+
+    private static boolean isPageMode(Map<String, Object> filters) {
+        return filters != null && "page".equals(filters.get("__mode"));
     }
 
     private int parseInt(Object value, int defaultVal) {
@@ -160,13 +209,17 @@ public class UserDataProvider implements FilterAwareDataProvider<Map<String, Obj
         private List<Map<String, Object>> currentBatch = new ArrayList<>();
         private int currentBatchIndex = 0;
         private boolean hasMore = true;
-        private Long lastSeenId = null;
+        private Long lastSeenId;
 
-        KeysetIterator(int batchSize, String baseSql, List<Object> baseParams, boolean hasWhereClause) {
+        /**
+         * @param upperBound 游标初始值（不含），为 null 时从最大 id 开始
+         */
+        KeysetIterator(int batchSize, String baseSql, List<Object> baseParams, boolean hasWhereClause, Long upperBound) {
             this.batchSize = batchSize;
             this.baseSql = baseSql;
             this.baseParams = new ArrayList<>(baseParams);
             this.hasWhereClause = hasWhereClause;
+            this.lastSeenId = upperBound;
             loadNextBatch();
         }
 
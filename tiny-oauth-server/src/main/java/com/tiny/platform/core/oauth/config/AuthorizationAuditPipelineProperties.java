@@ -0,0 +1,100 @@
+package com.tiny.platform.core.oauth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "security.authorization-audit.pipeline")
+public class AuthorizationAuditPipelineProperties {
+
+    /**
+     * 是否启用异步审计管道；关闭后 API 统一守卫退回同步 JPA 写入。
+     */
+    private boolean enabled = true;
+
+    /**
+     * 环形缓冲容量（条），满后 ALLOWED 直接丢弃计数，DENIED 进入背压处理。
+     */
+    private int bufferCapacity = 8_192;
+
+    /**
+     * 单次多行 INSERT 的最大行数。
+     */
+    private int batchSize = 200;
+
+    /**
+     * 后台写线程最长等待间隔（毫秒），未攒满一批时到点也会落库。
+     */
+    private long flushIntervalMs = 200L;
+
+    /**
+     * ALLOWED 决策采样率，取值 [0, 1]；DENIED 决策始终记录，不参与采样。
+     */
+    private double allowedSampleRate = 1.0d;
+
+    /**
+     * 缓冲已满时 DENIED 事件在请求线程上的最长等待时间（毫秒），超时后改为同步直写。
+     */
+    private long deniedOfferTimeoutMs = 20L;
+
+    /**
+     * 应用关闭时排空缓冲的最长等待时间（毫秒）。
+     */
+    private long shutdownTimeoutMs = 10_000L;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getBufferCapacity() {
+        return bufferCapacity;
+    }
+
+    public void setBufferCapacity(int bufferCapacity) {
+        this.bufferCapacity = bufferCapacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getFlushIntervalMs() {
+        return flushIntervalMs;
+    }
+
+    public void setFlushIntervalMs(long flushIntervalMs) {
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    public double getAllowedSampleRate() {
+        return allowedSampleRate;
+    }
+
+    public void setAllowedSampleRate(double allowedSampleRate) {
+        this.allowedSampleRate = allowedSampleRate;
+    }
+
+    public long getDeniedOfferTimeoutMs() {
+        return deniedOfferTimeoutMs;
+    }
+
+    public void setDeniedOfferTimeoutMs(long deniedOfferTimeoutMs) {
+        this.deniedOfferTimeoutMs = deniedOfferTimeoutMs;
+    }
+
+    public long getShutdownTimeoutMs() {
+        return shutdownTimeoutMs;
+    }
+
+    public void setShutdownTimeoutMs(long shutdownTimeoutMs) {
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+    }
+}
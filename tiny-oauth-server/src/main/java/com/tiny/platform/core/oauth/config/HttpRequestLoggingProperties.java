@@ -66,6 +66,21 @@ public class HttpRequestLoggingProperties {
             "/export"
     ));
 
+    /**
+     * 请求日志写入缓冲（write-behind）配置
+     */
+    private final Writer writer = new Writer();
+
+    /**
+     * 原始请求日志按天分区与保留配置
+     */
+    private final Retention retention = new Retention();
+
+    /**
+     * 分钟级聚合（rollup）配置
+     */
+    private final Rollup rollup = new Rollup();
+
     public boolean isEnabled() {
         return enabled;
     }
@@ -145,8 +160,181 @@ public class HttpRequestLoggingProperties {
         this.responseBodyPassthroughPathPrefixes = responseBodyPassthroughPathPrefixes;
     }
 
+    public Writer getWriter() {
+        return writer;
+    }
+
+    public Retention getRetention() {
+        return retention;
+    }
+
+    public Rollup getRollup() {
+        return rollup;
+    }
+
     public enum TraceIdFallbackStrategy {
         REQUEST_ID,
         GENERATED
     }
+
+    /**
+     * 请求日志异步写入配置：请求线程只入队，单个写线程攒批后多行 INSERT。
+     */
+    public static class Writer {
+
+        /**
+         * 缓冲队列容量（条），超过后新日志直接丢弃并计数
+         */
+        private int queueCapacity = 20_000;
+
+        /**
+         * 攒满多少条立即落库
+         */
+        private int batchSize = 200;
+
+        /**
+         * 未攒满时的最长落库间隔，单位毫秒
+         */
+        private long flushIntervalMs = 500L;
+
+        /**
+         * 应用关闭时排空队列的最长等待时间，单位毫秒
+         */
+        private long shutdownTimeoutMs = 10_000L;
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getFlushIntervalMs() {
+            return flushIntervalMs;
+        }
+
+        public void setFlushIntervalMs(long flushIntervalMs) {
+            this.flushIntervalMs = flushIntervalMs;
+        }
+
+        public long getShutdownTimeoutMs() {
+            return shutdownTimeoutMs;
+        }
+
+        public void setShutdownTimeoutMs(long shutdownTimeoutMs) {
+            this.shutdownTimeoutMs = shutdownTimeoutMs;
+        }
+    }
+
+    /**
+     * 原始请求日志保留配置：MySQL 上按天 RANGE 分区，过期整分区 DROP；其他数据库退化为分批 DELETE。
+     */
+    public static class Retention {
+
+        /**
+         * 是否启用分区维护与过期清理
+         */
+        private boolean enabled = true;
+
+        /**
+         * 原始日志保留天数
+         */
+        private int retentionDays = 30;
+
+        /**
+         * 提前创建未来多少天的分区
+         */
+        private int partitionAheadDays = 7;
+
+        /**
+         * 非分区数据库兜底 DELETE 的单批行数
+         */
+        private int fallbackDeleteChunkSize = 5_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getRetentionDays() {
+            return retentionDays;
+        }
+
+        public void setRetentionDays(int retentionDays) {
+            this.retentionDays = retentionDays;
+        }
+
+        public int getPartitionAheadDays() {
+            return partitionAheadDays;
+        }
+
+        public void setPartitionAheadDays(int partitionAheadDays) {
+            this.partitionAheadDays = partitionAheadDays;
+        }
+
+        public int getFallbackDeleteChunkSize() {
+            return fallbackDeleteChunkSize;
+        }
+
+        public void setFallbackDeleteChunkSize(int fallbackDeleteChunkSize) {
+            this.fallbackDeleteChunkSize = fallbackDeleteChunkSize;
+        }
+    }
+
+    /**
+     * 分钟聚合配置：写线程按 路径模板 × 状态码 × 租户 累计请求数与耗时分位，分钟结束后合并写入聚合表。
+     */
+    public static class Rollup {
+
+        /**
+         * 是否维护分钟聚合
+         */
+        private boolean enabled = true;
+
+        /**
+         * 分钟窗口结束后等待迟到日志的宽限时间，单位毫秒
+         */
+        private long closeGraceMs = 5_000L;
+
+        /**
+         * 聚合数据保留天数
+         */
+        private int retentionDays = 90;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getCloseGraceMs() {
+            return closeGraceMs;
+        }
+
+        public void setCloseGraceMs(long closeGraceMs) {
+            this.closeGraceMs = closeGraceMs;
+        }
+
+        public int getRetentionDays() {
+            return retentionDays;
+        }
+
+        public void setRetentionDays(int retentionDays) {
+            this.retentionDays = retentionDays;
+        }
+    }
 }
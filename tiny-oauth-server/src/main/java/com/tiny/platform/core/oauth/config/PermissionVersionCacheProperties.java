@@ -0,0 +1,62 @@
+package com.tiny.platform.core.oauth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "security.permission-version-cache")
+public class PermissionVersionCacheProperties {
+
+    /**
+     * 是否启用 permissionsVersion 指纹本地缓存；关闭后每次请求都实时回源计算。
+     */
+    private boolean enabled = true;
+
+    /**
+     * 单条指纹最长存活时间（毫秒），兜底覆盖 role_assignment start/end_time 到期、
+     * 以及未发布失效事件的写入路径。
+     */
+    private long ttlMs = 60_000L;
+
+    /**
+     * 本地缓存最大条目数，超过后整体清空重建（指纹重算成本可接受，避免引入 LRU 依赖）。
+     */
+    private int maxEntries = 100_000;
+
+    /**
+     * 集群 authz epoch 同步周期（毫秒），决定跨节点失效的最大收敛时延。
+     */
+    private long epochSyncIntervalMs = 2_000L;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getTtlMs() {
+        return ttlMs;
+    }
+
+    public void setTtlMs(long ttlMs) {
+        this.ttlMs = ttlMs;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public long getEpochSyncIntervalMs() {
+        return epochSyncIntervalMs;
+    }
+
+    public void setEpochSyncIntervalMs(long epochSyncIntervalMs) {
+        this.epochSyncIntervalMs = epochSyncIntervalMs;
+    }
+}
@@ -0,0 +1,20 @@
+package com.tiny.platform.core.oauth.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * http_request_log_minute 聚合行：某分钟内 路径模板 × 状态码 × 租户 的请求数与耗时分布。
+ *
+ * @param tenantId 租户ID，无租户时为 0
+ */
+public record HttpRequestLogMinuteRollup(LocalDateTime bucketMinute,
+                                         long tenantId,
+                                         String pathTemplate,
+                                         int status,
+                                         long requestCount,
+                                         long durationSumMs,
+                                         long durationMaxMs,
+                                         long p50Ms,
+                                         long p95Ms,
+                                         long p99Ms) {
+}
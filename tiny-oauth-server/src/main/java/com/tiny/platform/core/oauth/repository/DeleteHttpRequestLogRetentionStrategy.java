@@ -0,0 +1,40 @@
+package com.tiny.platform.core.oauth.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+/**
+ * 不支持分区时的兜底保留策略：按 {@code request_at} 分批 DELETE，单批受限，避免长事务与大范围锁。
+ */
+public class DeleteHttpRequestLogRetentionStrategy implements HttpRequestLogRetentionStrategy {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int chunkSize;
+
+    public DeleteHttpRequestLogRetentionStrategy(JdbcTemplate jdbcTemplate, int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    @Override
+    public void ensurePartitions(LocalDate today, int aheadDays) {
+        // 无分区可维护
+    }
+
+    @Override
+    public int purgeBefore(LocalDate cutoff) {
+        Timestamp cutoffAt = Timestamp.valueOf(cutoff.atStartOfDay());
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(
+                "DELETE FROM http_request_log WHERE request_at < ? LIMIT " + chunkSize,
+                cutoffAt
+            );
+            total += deleted;
+        } while (deleted >= chunkSize);
+        return total;
+    }
+}
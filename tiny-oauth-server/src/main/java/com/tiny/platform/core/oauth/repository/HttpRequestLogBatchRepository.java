@@ -0,0 +1,84 @@
+package com.tiny.platform.core.oauth.repository;
+
+import com.tiny.platform.core.oauth.model.HttpRequestLog;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * http_request_log 多行批量写入。
+ *
+ * <p>一批日志拼成单条 {@code INSERT ... VALUES (...), (...)}，一个事务、一次往返；
+ * 不回填自增主键（请求日志写入后不再被应用引用）。</p>
+ */
+@Repository
+public class HttpRequestLogBatchRepository {
+
+    private static final String INSERT_PREFIX = """
+        INSERT INTO http_request_log
+          (trace_id, span_id, request_id, client_request_id, trace_source, service_name, env, module,
+           user_id, tenant_id, issuer, client_ip, host, user_agent, http_version, method, path_template,
+           raw_path, query_string, request_size, response_size, status, success, duration_ms, error,
+           request_body, response_body, request_at, created_at)
+        VALUES
+        """;
+    private static final int COLUMN_COUNT = 29;
+    private static final String ROW_PLACEHOLDERS = "(" + "?, ".repeat(COLUMN_COUNT - 1) + "?)";
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public HttpRequestLogBatchRepository(NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    public int insertAll(List<HttpRequestLog> logs) {
+        if (logs == null || logs.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + logs.size() * (ROW_PLACEHOLDERS.length() + 2))
+            .append(INSERT_PREFIX);
+        Object[] args = new Object[logs.size() * COLUMN_COUNT];
+        LocalDateTime now = LocalDateTime.now();
+        int index = 0;
+        for (int i = 0; i < logs.size(); i++) {
+            HttpRequestLog log = logs.get(i);
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+            args[index++] = log.getTraceId();
+            args[index++] = log.getSpanId();
+            args[index++] = log.getRequestId();
+            args[index++] = log.getClientRequestId();
+            args[index++] = log.getTraceSource();
+            args[index++] = log.getServiceName();
+            args[index++] = log.getEnv();
+            args[index++] = log.getModule();
+            args[index++] = log.getUserId();
+            args[index++] = log.getActiveTenantId();
+            args[index++] = log.getIssuer();
+            args[index++] = log.getClientIp();
+            args[index++] = log.getHost();
+            args[index++] = log.getUserAgent();
+            args[index++] = log.getHttpVersion();
+            args[index++] = log.getMethod();
+            args[index++] = log.getPathTemplate();
+            args[index++] = log.getRawPath();
+            args[index++] = log.getQueryString();
+            args[index++] = log.getRequestSize();
+            args[index++] = log.getResponseSize();
+            args[index++] = log.getStatus();
+            args[index++] = log.getSuccess() == null ? Boolean.TRUE : log.getSuccess();
+            args[index++] = log.getDurationMs();
+            args[index++] = log.getError();
+            args[index++] = log.getRequestBody();
+            args[index++] = log.getResponseBody();
+            args[index++] = Timestamp.valueOf(log.getRequestAt() == null ? now : log.getRequestAt());
+            args[index++] = Timestamp.valueOf(now);
+        }
+        return namedParameterJdbcTemplate.getJdbcOperations().update(sql.toString(), args);
+    }
+}
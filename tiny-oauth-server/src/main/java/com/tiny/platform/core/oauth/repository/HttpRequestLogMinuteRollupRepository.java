@@ -0,0 +1,161 @@
+package com.tiny.platform.core.oauth.repository;
+
+import com.tiny.platform.core.oauth.model.HttpRequestLogMinuteRollup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * http_request_log_minute 分钟聚合读写。
+ *
+ * <p>写入为增量合并：请求数、耗时总和累加，最大值取较大者；同一分钟被多个节点（或迟到日志）
+ * 多次写入时，分位数按请求数加权合并，属近似值。看板按时间窗读取本表，不再扫描原始日志。</p>
+ *
+ * <p>聚合表由 Liquibase 172 仅在 MySQL 上创建，写入也依赖 {@code ON DUPLICATE KEY UPDATE}；
+ * 其他数据库（测试用 H2）由 {@link #isSupported()} 返回 false，调用方不启用聚合。</p>
+ */
+@Repository
+public class HttpRequestLogMinuteRollupRepository {
+
+    private static final String UPSERT_PREFIX = """
+        INSERT INTO http_request_log_minute
+          (bucket_minute, tenant_id, path_template, status, request_count, duration_sum_ms,
+           duration_max_ms, p50_ms, p95_ms, p99_ms, created_at, updated_at)
+        VALUES
+        """;
+    // MySQL 按书写顺序求值：分位数须在 request_count 累加之前用旧值加权
+    private static final String UPSERT_SUFFIX = """
+         ON DUPLICATE KEY UPDATE
+          p50_ms = ROUND((p50_ms * request_count + VALUES(p50_ms) * VALUES(request_count)) / (request_count + VALUES(request_count))),
+          p95_ms = ROUND((p95_ms * request_count + VALUES(p95_ms) * VALUES(request_count)) / (request_count + VALUES(request_count))),
+          p99_ms = ROUND((p99_ms * request_count + VALUES(p99_ms) * VALUES(request_count)) / (request_count + VALUES(request_count))),
+          duration_sum_ms = duration_sum_ms + VALUES(duration_sum_ms),
+          duration_max_ms = GREATEST(duration_max_ms, VALUES(duration_max_ms)),
+          request_count = request_count + VALUES(request_count),
+          updated_at = VALUES(updated_at)
+        """;
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int COLUMN_COUNT = 12;
+
+    private static final Logger log = LoggerFactory.getLogger(HttpRequestLogMinuteRollupRepository.class);
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private volatile Boolean supported;
+
+    public HttpRequestLogMinuteRollupRepository(NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    /**
+     * 当前数据库是否支持分钟聚合表，首次调用时读取连接元数据并缓存。
+     */
+    public boolean isSupported() {
+        Boolean current = supported;
+        if (current == null) {
+            try {
+                current = isSupported(namedParameterJdbcTemplate.getJdbcTemplate().execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()));
+            } catch (Exception ex) {
+                log.warn("识别数据库类型失败，关闭 http_request_log 分钟聚合: {}", ex.getMessage());
+                current = Boolean.FALSE;
+            }
+            supported = current;
+            if (!current) {
+                log.info("当前数据库不支持 http_request_log_minute（仅 MySQL），请求日志分钟聚合不启用");
+            }
+        }
+        return current;
+    }
+
+    static boolean isSupported(String productName) {
+        if (productName == null) {
+            return false;
+        }
+        String name = productName.toLowerCase(Locale.ROOT);
+        return name.contains("mysql") || name.contains("mariadb");
+    }
+
+    public int upsertAll(List<HttpRequestLogMinuteRollup> rollups) {
+        if (rollups == null || rollups.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder(UPSERT_PREFIX.length() + UPSERT_SUFFIX.length()
+            + rollups.size() * (ROW_PLACEHOLDERS.length() + 2))
+            .append(UPSERT_PREFIX);
+        Object[] args = new Object[rollups.size() * COLUMN_COUNT];
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int index = 0;
+        for (int i = 0; i < rollups.size(); i++) {
+            HttpRequestLogMinuteRollup rollup = rollups.get(i);
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+            args[index++] = Timestamp.valueOf(rollup.bucketMinute());
+            args[index++] = rollup.tenantId();
+            args[index++] = rollup.pathTemplate();
+            args[index++] = rollup.status();
+            args[index++] = rollup.requestCount();
+            args[index++] = rollup.durationSumMs();
+            args[index++] = rollup.durationMaxMs();
+            args[index++] = rollup.p50Ms();
+            args[index++] = rollup.p95Ms();
+            args[index++] = rollup.p99Ms();
+            args[index++] = now;
+            args[index++] = now;
+        }
+        sql.append(UPSERT_SUFFIX);
+        return namedParameterJdbcTemplate.getJdbcOperations().update(sql.toString(), args);
+    }
+
+    /**
+     * 读取 [from, to) 窗口内的分钟聚合；tenantId 为空时不按租户过滤。
+     */
+    public List<HttpRequestLogMinuteRollup> findWindow(@Nullable Long tenantId,
+                                                      LocalDateTime fromInclusive,
+                                                      LocalDateTime toExclusive) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("from", Timestamp.valueOf(fromInclusive))
+            .addValue("to", Timestamp.valueOf(toExclusive));
+        String sql = """
+            SELECT bucket_minute, tenant_id, path_template, status, request_count, duration_sum_ms,
+                   duration_max_ms, p50_ms, p95_ms, p99_ms
+              FROM http_request_log_minute
+             WHERE bucket_minute >= :from
+               AND bucket_minute < :to
+            """;
+        if (tenantId != null) {
+            sql += " AND tenant_id = :tenantId";
+            params.addValue("tenantId", tenantId);
+        }
+        sql += " ORDER BY bucket_minute, path_template, status";
+        return namedParameterJdbcTemplate.query(sql, params, (rs, rowNum) -> new HttpRequestLogMinuteRollup(
+            rs.getTimestamp("bucket_minute").toLocalDateTime(),
+            rs.getLong("tenant_id"),
+            rs.getString("path_template"),
+            rs.getInt("status"),
+            rs.getLong("request_count"),
+            rs.getLong("duration_sum_ms"),
+            rs.getLong("duration_max_ms"),
+            rs.getLong("p50_ms"),
+            rs.getLong("p95_ms"),
+            rs.getLong("p99_ms")
+        ));
+    }
+
+    public int deleteBefore(LocalDateTime cutoff) {
+        return namedParameterJdbcTemplate.update(
+            "DELETE FROM http_request_log_minute WHERE bucket_minute < :cutoff",
+            new MapSqlParameterSource("cutoff", Timestamp.valueOf(cutoff))
+        );
+    }
+}
@@ -0,0 +1,21 @@
+package com.tiny.platform.core.oauth.repository;
+
+import java.time.LocalDate;
+
+/**
+ * http_request_log 存储保留策略。
+ *
+ * <p>MySQL 生产库按天 RANGE 分区，过期数据整分区 DROP；H2 等不支持分区的库退化为分批 DELETE。</p>
+ */
+public interface HttpRequestLogRetentionStrategy {
+
+    /**
+     * 确保 {@code today} 起（含）未来 {@code aheadDays} 天的分区已存在；不支持分区时为空操作。
+     */
+    void ensurePartitions(LocalDate today, int aheadDays);
+
+    /**
+     * 删除 {@code request_at < cutoff} 的原始日志，返回删除的分区数（分区策略）或行数（兜底策略）。
+     */
+    int purgeBefore(LocalDate cutoff);
+}
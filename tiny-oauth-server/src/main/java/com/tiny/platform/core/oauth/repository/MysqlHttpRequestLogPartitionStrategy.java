@@ -0,0 +1,159 @@
+package com.tiny.platform.core.oauth.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * MySQL 按天 RANGE 分区维护。
+ *
+ * <p>表结构由 Liquibase 172 转为 {@code PARTITION BY RANGE (UNIX_TIMESTAMP(request_at))}，初始只有
+ * {@code p_history} 与兜底的 {@code p_future (MAXVALUE)}。本策略从 {@code p_future} 中
+ * REORGANIZE 出未来若干天的日分区（{@code pYYYYMMDD}），{@code p_future} 始终保持为空，重组只改元数据；
+ * 过期数据按分区上界整分区 DROP，代价与分区行数无关。</p>
+ */
+public class MysqlHttpRequestLogPartitionStrategy implements HttpRequestLogRetentionStrategy {
+
+    static final String FUTURE_PARTITION = "p_future";
+
+    private static final Logger log = LoggerFactory.getLogger(MysqlHttpRequestLogPartitionStrategy.class);
+    private static final Pattern DAY_PARTITION = Pattern.compile("p(\\d{8})");
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MysqlHttpRequestLogPartitionStrategy(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void ensurePartitions(LocalDate today, int aheadDays) {
+        List<PartitionInfo> partitions = loadPartitions();
+        if (!isPartitioned(partitions)) {
+            log.warn("http_request_log 尚未分区，跳过分区维护");
+            return;
+        }
+        List<LocalDate> missing = missingDays(partitions, today, aheadDays);
+        if (missing.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute(reorganizeSql(missing));
+        log.info("http_request_log 新增日分区: from={}, to={}", missing.getFirst(), missing.getLast());
+    }
+
+    @Override
+    public int purgeBefore(LocalDate cutoff) {
+        List<PartitionInfo> partitions = loadPartitions();
+        if (!isPartitioned(partitions)) {
+            return 0;
+        }
+        Long cutoffEpoch = jdbcTemplate.queryForObject(
+            "SELECT UNIX_TIMESTAMP(?)", Long.class, Timestamp.valueOf(cutoff.atStartOfDay()));
+        if (cutoffEpoch == null) {
+            return 0;
+        }
+        List<String> expired = expiredPartitions(partitions, cutoffEpoch);
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.execute("ALTER TABLE `http_request_log` DROP PARTITION " + String.join(", ", expired));
+        log.info("http_request_log 删除过期分区: {}", expired);
+        return expired.size();
+    }
+
+    private List<PartitionInfo> loadPartitions() {
+        return jdbcTemplate.query(
+            """
+            SELECT partition_name, partition_description
+              FROM information_schema.partitions
+             WHERE table_schema = DATABASE()
+               AND table_name = 'http_request_log'
+             ORDER BY partition_ordinal_position
+            """,
+            (rs, rowNum) -> new PartitionInfo(rs.getString(1), rs.getString(2))
+        );
+    }
+
+    static boolean isPartitioned(List<PartitionInfo> partitions) {
+        return partitions.stream().anyMatch(partition -> FUTURE_PARTITION.equals(partition.name()));
+    }
+
+    /**
+     * 需要新建的日分区：从已有最后一个日分区的次日（或 today）到 today + aheadDays。
+     */
+    static List<LocalDate> missingDays(List<PartitionInfo> partitions, LocalDate today, int aheadDays) {
+        LocalDate lastDay = null;
+        for (PartitionInfo partition : partitions) {
+            LocalDate day = dayOf(partition.name());
+            if (day != null && (lastDay == null || day.isAfter(lastDay))) {
+                lastDay = day;
+            }
+        }
+        LocalDate from = lastDay == null || lastDay.isBefore(today) ? today : lastDay.plusDays(1);
+        LocalDate to = today.plusDays(Math.max(0, aheadDays));
+        List<LocalDate> missing = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            missing.add(day);
+        }
+        return missing;
+    }
+
+    /**
+     * 上界不超过 cutoff 的分区即整体过期（分区内全部行 {@code request_at < cutoff}）。
+     */
+    static List<String> expiredPartitions(List<PartitionInfo> partitions, long cutoffEpoch) {
+        List<String> expired = new ArrayList<>();
+        for (PartitionInfo partition : partitions) {
+            if (partition.name() == null || FUTURE_PARTITION.equals(partition.name())) {
+                continue;
+            }
+            String description = partition.description();
+            if (description == null || "MAXVALUE".equalsIgnoreCase(description)) {
+                continue;
+            }
+            try {
+                if (Long.parseLong(description.trim()) <= cutoffEpoch) {
+                    expired.add(partition.name());
+                }
+            } catch (NumberFormatException ignored) {
+                // 非本策略管理的分区定义
+            }
+        }
+        return expired;
+    }
+
+    static String reorganizeSql(List<LocalDate> days) {
+        StringBuilder sql = new StringBuilder("ALTER TABLE `http_request_log` REORGANIZE PARTITION ")
+            .append(FUTURE_PARTITION)
+            .append(" INTO (");
+        for (LocalDate day : days) {
+            sql.append("PARTITION p").append(day.format(DAY_FORMAT))
+                .append(" VALUES LESS THAN (UNIX_TIMESTAMP('")
+                .append(day.plusDays(1))
+                .append(" 00:00:00')), ");
+        }
+        return sql.append("PARTITION ").append(FUTURE_PARTITION).append(" VALUES LESS THAN MAXVALUE)").toString();
+    }
+
+    private static LocalDate dayOf(String partitionName) {
+        if (partitionName == null) {
+            return null;
+        }
+        Matcher matcher = DAY_PARTITION.matcher(partitionName);
+        if (!matcher.matches()) {
+            return null;
+        }
+        return LocalDate.parse(matcher.group(1), DAY_FORMAT);
+    }
+
+    record PartitionInfo(String name, String description) {
+    }
+}
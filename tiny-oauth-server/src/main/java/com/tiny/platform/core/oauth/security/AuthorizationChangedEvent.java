@@ -0,0 +1,20 @@
+package com.tiny.platform.core.oauth.security;
+
+/**
+ * 授权输入变更事件：角色分配、组织归属、角色权限、角色继承、权限启停等写路径在提交后发布，
+ * 由 {@link PermissionVersionCache} 据此失效对应租户的 permissionsVersion 指纹。
+ *
+ * @param tenantId 受影响租户；{@code null} 表示平台作用域
+ * @param userId   受影响用户；{@code null} 表示租户内批量影响（如角色权限变更）
+ * @param source   变更来源，仅用于日志与指标标签
+ */
+public record AuthorizationChangedEvent(Long tenantId, Long userId, String source) {
+
+    public static AuthorizationChangedEvent ofTenant(Long tenantId, String source) {
+        return new AuthorizationChangedEvent(tenantId, null, source);
+    }
+
+    public static AuthorizationChangedEvent ofUser(Long tenantId, Long userId, String source) {
+        return new AuthorizationChangedEvent(tenantId, userId, source);
+    }
+}
@@ -0,0 +1,47 @@
+package com.tiny.platform.core.oauth.security;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 租户级 authz epoch 读写。
+ *
+ * <p>每行对应一个租户（平台作用域使用 {@code tenant_id = 0}），epoch 只增不减；
+ * 各节点周期性拉取并与本地已见值比对，以此收敛跨节点的 permissionsVersion 缓存失效。</p>
+ */
+@Repository
+public class AuthorizationEpochRepository {
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public AuthorizationEpochRepository(NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    public void increment(long tenantKey) {
+        namedParameterJdbcTemplate.update(
+                """
+                INSERT INTO authorization_epoch (tenant_id, epoch, updated_at)
+                VALUES (:tenantId, 1, CURRENT_TIMESTAMP)
+                ON DUPLICATE KEY UPDATE epoch = epoch + 1, updated_at = CURRENT_TIMESTAMP
+                """,
+                new MapSqlParameterSource("tenantId", tenantKey)
+        );
+    }
+
+    public Map<Long, Long> findAll() {
+        Map<Long, Long> epochs = new HashMap<>();
+        namedParameterJdbcTemplate.query(
+                "SELECT tenant_id, epoch FROM authorization_epoch",
+                new MapSqlParameterSource(),
+                rs -> {
+                    epochs.put(rs.getLong("tenant_id"), rs.getLong("epoch"));
+                }
+        );
+        return epochs;
+    }
+}
@@ -0,0 +1,209 @@
+package com.tiny.platform.core.oauth.security;
+
+import com.tiny.platform.core.oauth.config.PermissionVersionCacheProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * permissionsVersion 指纹本地缓存。
+ *
+ * <p>以 (userId, tenantId, scopeType, scopeId) 为键缓存指纹，有效性由三部分共同决定：</p>
+ * <ul>
+ *   <li>本地租户代数：收到 {@link AuthorizationChangedEvent} 或发现集群 epoch 前进时自增，
+ *       计算前捕获、写入时携带，代数不一致的条目视为失效，避免"计算中途发生变更"写入陈旧指纹；</li>
+ *   <li>集群 authz epoch：{@code authorization_epoch} 表按租户单调递增，各节点周期拉取收敛；</li>
+ *   <li>TTL：兜底覆盖角色分配生效/到期时间窗与未发布事件的写路径。</li>
+ * </ul>
+ */
+@Component
+public class PermissionVersionCache {
+
+    private static final Logger log = LoggerFactory.getLogger(PermissionVersionCache.class);
+    static final long PLATFORM_TENANT_KEY = 0L;
+
+    private final PermissionVersionCacheProperties properties;
+    private final AuthorizationEpochRepository epochRepository;
+    private final Clock clock;
+    private final Map<CacheKey, CacheEntry> entries = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> localGenerations = new ConcurrentHashMap<>();
+    private final Map<Long, Long> lastSeenClusterEpochs = new ConcurrentHashMap<>();
+    private volatile boolean clusterEpochsPrimed;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter invalidationCounter;
+    private final Counter clusterInvalidationCounter;
+
+    @Autowired
+    public PermissionVersionCache(PermissionVersionCacheProperties properties,
+                                  AuthorizationEpochRepository epochRepository,
+                                  @Nullable MeterRegistry meterRegistry) {
+        this(properties, epochRepository, meterRegistry, Clock.systemUTC());
+    }
+
+    PermissionVersionCache(PermissionVersionCacheProperties properties,
+                           AuthorizationEpochRepository epochRepository,
+                           @Nullable MeterRegistry meterRegistry,
+                           Clock clock) {
+        this.properties = properties;
+        this.epochRepository = epochRepository;
+        this.clock = clock;
+        this.hitCounter = meterRegistry != null
+            ? Counter.builder("tiny.authz.permission-version.cache.hit.total")
+                .description("permissionsVersion cache hits")
+                .register(meterRegistry)
+            : null;
+        this.missCounter = meterRegistry != null
+            ? Counter.builder("tiny.authz.permission-version.cache.miss.total")
+                .description("permissionsVersion cache misses (recomputed from database)")
+                .register(meterRegistry)
+            : null;
+        this.invalidationCounter = meterRegistry != null
+            ? Counter.builder("tiny.authz.permission-version.cache.invalidation.total")
+                .tag("origin", "local")
+                .description("permissionsVersion cache invalidations triggered by local authorization events")
+                .register(meterRegistry)
+            : null;
+        this.clusterInvalidationCounter = meterRegistry != null
+            ? Counter.builder("tiny.authz.permission-version.cache.invalidation.total")
+                .tag("origin", "cluster")
+                .description("permissionsVersion cache invalidations observed via authz epoch sync")
+                .register(meterRegistry)
+            : null;
+        if (meterRegistry != null) {
+            Gauge.builder("tiny.authz.permission-version.cache.size", entries, Map::size)
+                .description("permissionsVersion cache entry count")
+                .register(meterRegistry);
+        }
+    }
+
+    /**
+     * 命中有效缓存时直接返回，否则调用 {@code loader} 回源计算并写入。
+     */
+    public String get(Long userId, Long tenantId, String scopeType, Long scopeId, Supplier<String> loader) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+        long tenantKey = tenantKey(tenantId);
+        CacheKey key = new CacheKey(userId, tenantKey, scopeType, scopeId);
+        long generation = currentGeneration(tenantKey);
+        long now = clock.millis();
+        CacheEntry cached = entries.get(key);
+        if (cached != null && cached.generation() == generation && cached.expiresAtMillis() > now) {
+            increment(hitCounter);
+            return cached.version();
+        }
+        increment(missCounter);
+        String version = loader.get();
+        if (version == null) {
+            entries.remove(key);
+            return null;
+        }
+        if (entries.size() >= properties.getMaxEntries()) {
+            log.info("permissionsVersion cache reached maxEntries={}, clearing", properties.getMaxEntries());
+            entries.clear();
+        }
+        entries.put(key, new CacheEntry(version, generation, now + properties.getTtlMs()));
+        return version;
+    }
+
+    /**
+     * 授权写路径提交后失效本地租户代数，并推进集群 epoch 通知其他节点。
+     *
+     * <p>{@code fallbackExecution = true}：无事务上下文的写入（如单测、脚本）同样立即失效。</p>
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAuthorizationChanged(AuthorizationChangedEvent event) {
+        long tenantKey = tenantKey(event.tenantId());
+        invalidateTenant(tenantKey);
+        increment(invalidationCounter);
+        try {
+            epochRepository.increment(tenantKey);
+        } catch (RuntimeException ex) {
+            // epoch 推进失败只影响跨节点收敛速度，其他节点仍由 TTL 兜底
+            log.warn("Failed to advance authorization epoch, tenantKey={}, source={}", tenantKey, event.source(), ex);
+        }
+        log.debug("permissionsVersion cache invalidated, tenantId={}, userId={}, source={}",
+            event.tenantId(), event.userId(), event.source());
+    }
+
+    /**
+     * 拉取集群 authz epoch，发现前进的租户即失效本地代数。
+     */
+    @Scheduled(fixedDelayString = "${security.permission-version-cache.epoch-sync-interval-ms:2000}")
+    public void syncClusterEpochs() {
+        // 关闭指纹缓存时仍需同步：租户代数同时驱动 api_endpoint 路由表等其他本地编译产物的失效
+        Map<Long, Long> clusterEpochs;
+        try {
+            clusterEpochs = epochRepository.findAll();
+        } catch (RuntimeException ex) {
+            log.debug("Failed to load authorization epochs, relying on ttl", ex);
+            return;
+        }
+        clusterEpochs.forEach((tenantKey, epoch) -> {
+            Long previous = lastSeenClusterEpochs.put(tenantKey, epoch);
+            // 首轮同步只建立基线；之后新出现的租户行同样意味着其他节点发生过变更
+            if (clusterEpochsPrimed && !Objects.equals(previous, epoch)) {
+                invalidateTenant(tenantKey);
+                increment(clusterInvalidationCounter);
+            }
+        });
+        clusterEpochsPrimed = true;
+    }
+
+    /**
+     * 租户当前本地代数；本地事件或集群 epoch 前进都会使其自增，可供其他按租户编译的本地产物判断陈旧。
+     */
+    public long tenantGeneration(Long tenantId) {
+        return currentGeneration(tenantKey(tenantId));
+    }
+
+    public void invalidateAll() {
+        localGenerations.values().forEach(AtomicLong::incrementAndGet);
+        entries.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void invalidateTenant(long tenantKey) {
+        localGenerations.computeIfAbsent(tenantKey, ignored -> new AtomicLong()).incrementAndGet();
+        entries.keySet().removeIf(key -> key.tenantKey() == tenantKey);
+    }
+
+    private long currentGeneration(long tenantKey) {
+        return localGenerations.computeIfAbsent(tenantKey, ignored -> new AtomicLong()).get();
+    }
+
+    private static long tenantKey(Long tenantId) {
+        return tenantId == null || tenantId <= 0 ? PLATFORM_TENANT_KEY : tenantId;
+    }
+
+    private static void increment(@Nullable Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    private record CacheKey(Long userId, long tenantKey, String scopeType, Long scopeId) {
+    }
+
+    private record CacheEntry(String version, long generation, long expiresAtMillis) {
+    }
+}
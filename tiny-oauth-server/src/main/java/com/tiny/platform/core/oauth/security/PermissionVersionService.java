@@ -27,6 +27,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -43,6 +44,7 @@ public class PermissionVersionService {
     private final PermissionVersionReadRepository permissionVersionReadRepository;
     private final PermissionRefactorObservabilityProperties observabilityProperties;
     private final Clock clock;
+    private final PermissionVersionCache permissionVersionCache;
     private final Map<String, VersionInputDigest> latestDigestByContext = new ConcurrentHashMap<>();
 
     @Autowired
@@ -52,8 +54,9 @@ public class PermissionVersionService {
                                     EffectiveRoleResolutionService effectiveRoleResolutionService,
                                     PermissionAuthorityReadRepository permissionAuthorityReadRepository,
                                     PermissionVersionReadRepository permissionVersionReadRepository,
-                                    PermissionRefactorObservabilityProperties observabilityProperties) {
-        this(tenantUserRepository, userUnitRepository, roleAssignmentRepository, effectiveRoleResolutionService, permissionAuthorityReadRepository, permissionVersionReadRepository, observabilityProperties, Clock.systemUTC());
+                                    PermissionRefactorObservabilityProperties observabilityProperties,
+                                    PermissionVersionCache permissionVersionCache) {
+        this(tenantUserRepository, userUnitRepository, roleAssignmentRepository, effectiveRoleResolutionService, permissionAuthorityReadRepository, permissionVersionReadRepository, observabilityProperties, Clock.systemUTC(), permissionVersionCache);
     }
 
     PermissionVersionService(TenantUserRepository tenantUserRepository,
@@ -64,6 +67,18 @@ public class PermissionVersionService {
                              PermissionVersionReadRepository permissionVersionReadRepository,
                              PermissionRefactorObservabilityProperties observabilityProperties,
                              Clock clock) {
+        this(tenantUserRepository, userUnitRepository, roleAssignmentRepository, effectiveRoleResolutionService, permissionAuthorityReadRepository, permissionVersionReadRepository, observabilityProperties, clock, null);
+    }
+
+    PermissionVersionService(TenantUserRepository tenantUserRepository,
+                             UserUnitRepository userUnitRepository,
+                             RoleAssignmentRepository roleAssignmentRepository,
+                             EffectiveRoleResolutionService effectiveRoleResolutionService,
+                             PermissionAuthorityReadRepository permissionAuthorityReadRepository,
+                             PermissionVersionReadRepository permissionVersionReadRepository,
+                             PermissionRefactorObservabilityProperties observabilityProperties,
+                             Clock clock,
+                             PermissionVersionCache permissionVersionCache) {
         this.tenantUserRepository = tenantUserRepository;
         this.userUnitRepository = userUnitRepository;
         this.roleAssignmentRepository = roleAssignmentRepository;
@@ -72,6 +87,7 @@ public class PermissionVersionService {
         this.permissionVersionReadRepository = permissionVersionReadRepository;
         this.observabilityProperties = observabilityProperties;
         this.clock = clock;
+        this.permissionVersionCache = permissionVersionCache;
     }
 
     public String resolvePermissionsVersion(Long userId, Long activeTenantId) {
@@ -90,23 +106,33 @@ public class PermissionVersionService {
             ? TenantContextContract.SCOPE_TYPE_TENANT
             : activeScopeType.trim().toUpperCase(java.util.Locale.ROOT);
         if (TenantContextContract.SCOPE_TYPE_PLATFORM.equals(normalizedScopeType)) {
-            return resolvePlatformPermissionsVersion(userId, activeScopeId);
+            return cached(userId, null, normalizedScopeType, activeScopeId,
+                () -> resolvePlatformPermissionsVersion(userId, activeScopeId));
         }
         if ("ORG".equals(normalizedScopeType) || "DEPT".equals(normalizedScopeType)) {
             if (activeTenantId == null || activeTenantId <= 0) {
                 return null;
             }
-            return resolveTenantScopedPermissionsVersion(userId, activeTenantId, normalizedScopeType, activeScopeId);
+            return cached(userId, activeTenantId, normalizedScopeType, activeScopeId,
+                () -> resolveTenantScopedPermissionsVersion(userId, activeTenantId, normalizedScopeType, activeScopeId));
         }
         if (activeTenantId == null || activeTenantId <= 0) {
             return null;
         }
-        return resolveTenantScopedPermissionsVersion(
-            userId,
-            activeTenantId,
-            TenantContextContract.SCOPE_TYPE_TENANT,
-            activeTenantId
-        );
+        return cached(userId, activeTenantId, TenantContextContract.SCOPE_TYPE_TENANT, activeTenantId,
+            () -> resolveTenantScopedPermissionsVersion(
+                userId,
+                activeTenantId,
+                TenantContextContract.SCOPE_TYPE_TENANT,
+                activeTenantId
+            ));
+    }
+
+    private String cached(Long userId, Long tenantId, String scopeType, Long scopeId, Supplier<String> loader) {
+        if (permissionVersionCache == null) {
+            return loader.get();
+        }
+        return permissionVersionCache.get(userId, tenantId, scopeType, scopeId, loader);
     }
 
     private String resolveTenantScopedPermissionsVersion(Long userId,
@@ -0,0 +1,112 @@
+package com.tiny.platform.core.oauth.service.impl;
+
+import com.tiny.platform.core.oauth.config.HttpRequestLoggingProperties;
+import com.tiny.platform.core.oauth.repository.DeleteHttpRequestLogRetentionStrategy;
+import com.tiny.platform.core.oauth.repository.HttpRequestLogMinuteRollupRepository;
+import com.tiny.platform.core.oauth.repository.HttpRequestLogRetentionStrategy;
+import com.tiny.platform.core.oauth.repository.MysqlHttpRequestLogPartitionStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * http_request_log 分区维护与过期清理任务。
+ *
+ * <p>每轮先补齐未来日分区，再按保留天数整分区删除原始日志，最后清理过期的分钟聚合。
+ * 首次执行时按数据库类型选择策略：MySQL 走分区，其他数据库退化为分批 DELETE；
+ * 分钟聚合表仅存在于 MySQL，其他数据库跳过聚合清理。</p>
+ */
+@Component
+public class HttpRequestLogRetentionScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpRequestLogRetentionScheduler.class);
+
+    private final HttpRequestLoggingProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final HttpRequestLogMinuteRollupRepository rollupRepository;
+    private final Clock clock;
+    private volatile HttpRequestLogRetentionStrategy strategy;
+
+    @Autowired
+    public HttpRequestLogRetentionScheduler(HttpRequestLoggingProperties properties,
+                                            JdbcTemplate jdbcTemplate,
+                                            HttpRequestLogMinuteRollupRepository rollupRepository) {
+        this(properties, jdbcTemplate, rollupRepository, null, Clock.systemDefaultZone());
+    }
+
+    HttpRequestLogRetentionScheduler(HttpRequestLoggingProperties properties,
+                                     JdbcTemplate jdbcTemplate,
+                                     HttpRequestLogMinuteRollupRepository rollupRepository,
+                                     HttpRequestLogRetentionStrategy strategy,
+                                     Clock clock) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.rollupRepository = rollupRepository;
+        this.strategy = strategy;
+        this.clock = clock;
+    }
+
+    @Scheduled(fixedDelayString = "${http.request-log.retention.fixed-delay-ms:3600000}")
+    public void maintain() {
+        HttpRequestLoggingProperties.Retention retention = properties.getRetention();
+        if (!retention.isEnabled()) {
+            return;
+        }
+        LocalDate today = LocalDate.now(clock);
+        HttpRequestLogRetentionStrategy current = resolveStrategy();
+        try {
+            current.ensurePartitions(today, retention.getPartitionAheadDays());
+        } catch (Exception ex) {
+            log.warn("http_request_log 分区维护失败: {}", ex.getMessage());
+        }
+        try {
+            int purged = current.purgeBefore(today.minusDays(Math.max(1, retention.getRetentionDays())));
+            if (purged > 0) {
+                log.info("Purged expired http_request_log data count={}", purged);
+            }
+        } catch (Exception ex) {
+            log.warn("http_request_log 过期清理失败: {}", ex.getMessage());
+        }
+        if (properties.getRollup().isEnabled() && rollupRepository.isSupported()) {
+            try {
+                LocalDateTime rollupCutoff = LocalDateTime.now(clock)
+                    .minusDays(Math.max(1, properties.getRollup().getRetentionDays()))
+                    .truncatedTo(ChronoUnit.MINUTES);
+                int removed = rollupRepository.deleteBefore(rollupCutoff);
+                if (removed > 0) {
+                    log.info("Cleaned expired http_request_log_minute buckets count={}", removed);
+                }
+            } catch (Exception ex) {
+                log.warn("http_request_log_minute 过期清理失败: {}", ex.getMessage());
+            }
+        }
+    }
+
+    private HttpRequestLogRetentionStrategy resolveStrategy() {
+        HttpRequestLogRetentionStrategy current = strategy;
+        if (current != null) {
+            return current;
+        }
+        String productName = null;
+        try {
+            productName = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        } catch (Exception ex) {
+            log.warn("识别数据库类型失败，http_request_log 使用 DELETE 兜底清理: {}", ex.getMessage());
+        }
+        current = productName != null && productName.toLowerCase().contains("mysql")
+            ? new MysqlHttpRequestLogPartitionStrategy(jdbcTemplate)
+            : new DeleteHttpRequestLogRetentionStrategy(jdbcTemplate, properties.getRetention().getFallbackDeleteChunkSize());
+        strategy = current;
+        return current;
+    }
+}
@@ -0,0 +1,245 @@
+package com.tiny.platform.core.oauth.service.impl;
+
+import com.tiny.platform.core.oauth.config.HttpRequestLoggingProperties;
+import com.tiny.platform.core.oauth.model.HttpRequestLog;
+import com.tiny.platform.core.oauth.model.HttpRequestLogMinuteRollup;
+import com.tiny.platform.core.oauth.repository.HttpRequestLogMinuteRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 请求日志分钟聚合器，由 {@link HttpRequestLogWriter} 在写线程上驱动。
+ *
+ * <p>已落库的日志按 分钟 × 租户 × 路径模板 × 状态码 累计到内存直方图；分钟窗口结束并超过宽限期后，
+ * 一次性合并写入 http_request_log_minute（每个键每分钟一行 upsert）。迟到日志会开出新窗口，
+ * 写入时与已有行累加合并。</p>
+ */
+@Component
+public class HttpRequestLogRollupAggregator {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpRequestLogRollupAggregator.class);
+    private static final String UNKNOWN_PATH = "UNKNOWN";
+
+    private final HttpRequestLoggingProperties.Rollup properties;
+    private final HttpRequestLogMinuteRollupRepository repository;
+    private final Clock clock;
+    private final boolean storageSupported;
+    private final Map<RollupKey, DurationHistogram> windows = new HashMap<>();
+
+    /**
+     * 启动时识别一次数据库类型：聚合表仅存在于 MySQL，其他数据库上聚合不启用，不再每分钟写入失败告警。
+     */
+    @Autowired
+    public HttpRequestLogRollupAggregator(HttpRequestLoggingProperties properties,
+                                          HttpRequestLogMinuteRollupRepository repository) {
+        this(properties, repository, Clock.systemDefaultZone(),
+            properties.getRollup().isEnabled() && repository.isSupported());
+    }
+
+    HttpRequestLogRollupAggregator(HttpRequestLoggingProperties properties,
+                                   HttpRequestLogMinuteRollupRepository repository,
+                                   Clock clock) {
+        this(properties, repository, clock, true);
+    }
+
+    HttpRequestLogRollupAggregator(HttpRequestLoggingProperties properties,
+                                   HttpRequestLogMinuteRollupRepository repository,
+                                   Clock clock,
+                                   boolean storageSupported) {
+        this.properties = properties.getRollup();
+        this.repository = repository;
+        this.clock = clock;
+        this.storageSupported = storageSupported;
+    }
+
+    public boolean isEnabled() {
+        return storageSupported && properties.isEnabled();
+    }
+
+    /**
+     * 累计一批已成功写入的日志。
+     */
+    public synchronized void record(List<HttpRequestLog> logs) {
+        if (!isEnabled() || logs == null || logs.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = null;
+        for (HttpRequestLog requestLog : logs) {
+            LocalDateTime requestAt = requestLog.getRequestAt();
+            if (requestAt == null) {
+                if (now == null) {
+                    now = LocalDateTime.now(clock);
+                }
+                requestAt = now;
+            }
+            RollupKey key = new RollupKey(
+                requestAt.truncatedTo(ChronoUnit.MINUTES),
+                requestLog.getActiveTenantId() == null ? 0L : requestLog.getActiveTenantId(),
+                StringUtils.hasText(requestLog.getPathTemplate()) ? requestLog.getPathTemplate() : UNKNOWN_PATH,
+                requestLog.getStatus() == null ? 0 : requestLog.getStatus()
+            );
+            windows.computeIfAbsent(key, ignored -> new DurationHistogram())
+                .add(requestLog.getDurationMs() == null ? 0 : requestLog.getDurationMs());
+        }
+    }
+
+    /**
+     * 写出已结束（超过宽限期）的分钟窗口，返回写出的聚合行数。
+     */
+    public int flushClosed() {
+        LocalDateTime boundary = LocalDateTime.now(clock)
+            .minus(properties.getCloseGraceMs(), ChronoUnit.MILLIS)
+            .truncatedTo(ChronoUnit.MINUTES);
+        return write(drain(boundary));
+    }
+
+    /**
+     * 写出全部窗口（关闭时调用）。
+     */
+    public int flushAll() {
+        return write(drain(null));
+    }
+
+    synchronized int openWindowCount() {
+        return windows.size();
+    }
+
+    private synchronized List<HttpRequestLogMinuteRollup> drain(LocalDateTime boundaryExclusive) {
+        if (windows.isEmpty()) {
+            return List.of();
+        }
+        List<HttpRequestLogMinuteRollup> closed = new ArrayList<>();
+        Iterator<Map.Entry<RollupKey, DurationHistogram>> iterator = windows.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<RollupKey, DurationHistogram> entry = iterator.next();
+            RollupKey key = entry.getKey();
+            if (boundaryExclusive != null && !key.bucketMinute().isBefore(boundaryExclusive)) {
+                continue;
+            }
+            DurationHistogram histogram = entry.getValue();
+            closed.add(new HttpRequestLogMinuteRollup(
+                key.bucketMinute(),
+                key.tenantId(),
+                key.pathTemplate(),
+                key.status(),
+                histogram.count(),
+                histogram.sum(),
+                histogram.max(),
+                histogram.quantile(0.50d),
+                histogram.quantile(0.95d),
+                histogram.quantile(0.99d)
+            ));
+            iterator.remove();
+        }
+        return closed;
+    }
+
+    private int write(List<HttpRequestLogMinuteRollup> rollups) {
+        if (rollups.isEmpty()) {
+            return 0;
+        }
+        try {
+            repository.upsertAll(rollups);
+            return rollups.size();
+        } catch (RuntimeException ex) {
+            log.warn("写入请求日志分钟聚合失败: rows={}, error={}", rollups.size(), ex.getMessage());
+            return 0;
+        }
+    }
+
+    private record RollupKey(LocalDateTime bucketMinute, long tenantId, String pathTemplate, int status) {
+    }
+
+    /**
+     * 对数分桶耗时直方图：0–100ms 按 1ms 精确计数，更长耗时按 5% 相对精度分桶，内存固定。
+     */
+    static final class DurationHistogram {
+
+        private static final int LINEAR_LIMIT_MS = 100;
+        private static final double GROWTH = 1.05d;
+        private static final long[] UPPER_BOUNDS = buildUpperBounds();
+
+        private final int[] counts = new int[UPPER_BOUNDS.length];
+        private long count;
+        private long sum;
+        private long max;
+
+        void add(long durationMs) {
+            long value = Math.max(0L, durationMs);
+            counts[bucketOf(value)]++;
+            count++;
+            sum += value;
+            max = Math.max(max, value);
+        }
+
+        long count() {
+            return count;
+        }
+
+        long sum() {
+            return sum;
+        }
+
+        long max() {
+            return max;
+        }
+
+        long quantile(double quantile) {
+            if (count == 0) {
+                return 0L;
+            }
+            long rank = Math.max(1L, (long) Math.ceil(quantile * count));
+            long seen = 0L;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(UPPER_BOUNDS[i], max);
+                }
+            }
+            return max;
+        }
+
+        private static int bucketOf(long value) {
+            if (value <= LINEAR_LIMIT_MS) {
+                return (int) value;
+            }
+            int low = LINEAR_LIMIT_MS + 1;
+            int high = UPPER_BOUNDS.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (UPPER_BOUNDS[mid] >= value) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return low;
+        }
+
+        private static long[] buildUpperBounds() {
+            List<Long> bounds = new ArrayList<>();
+            for (long i = 0; i <= LINEAR_LIMIT_MS; i++) {
+                bounds.add(i);
+            }
+            double bound = LINEAR_LIMIT_MS;
+            while (bound < 3_600_000d) {
+                bound = Math.ceil(bound * GROWTH);
+                bounds.add((long) bound);
+            }
+            bounds.add(Long.MAX_VALUE);
+            return bounds.stream().mapToLong(Long::longValue).toArray();
+        }
+    }
+}
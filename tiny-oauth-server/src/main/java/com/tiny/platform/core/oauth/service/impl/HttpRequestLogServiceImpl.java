@@ -6,7 +6,8 @@ import com.tiny.platform.core.oauth.service.HttpRequestLogService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
@@ -18,33 +19,42 @@ public class HttpRequestLogServiceImpl implements HttpRequestLogService {
     private static final Logger log = LoggerFactory.getLogger(HttpRequestLogServiceImpl.class);
 
     private final HttpRequestLogRepository repository;
+    private final HttpRequestLogWriter writer;
 
     public HttpRequestLogServiceImpl(HttpRequestLogRepository repository) {
+        this(repository, null);
+    }
+
+    /**
+     * writer 为空时退回逐条 {@code saveAndFlush}；否则仅入队，由 {@link HttpRequestLogWriter} 批量落库并输出 REQ_LOG。
+     */
+    @Autowired
+    public HttpRequestLogServiceImpl(HttpRequestLogRepository repository, @Nullable HttpRequestLogWriter writer) {
         this.repository = repository;
+        this.writer = writer;
     }
 
+    /**
+     * 有写入器时请求线程只入队：落库与 REQ_LOG 行都在写线程完成，不占用请求线程。
+     */
     @Override
-    @Async
     public void save(HttpRequestLog requestLog) {
+        if (writer != null) {
+            try {
+                if (!writer.offer(requestLog)) {
+                    log.debug("HTTP 请求日志写入队列已满，丢弃: requestId={}",
+                            requestLog != null ? requestLog.getRequestId() : null);
+                }
+            } catch (Exception ex) {
+                log.warn("保存 HTTP 请求日志失败: {}", ex.getMessage(), ex);
+            }
+            return;
+        }
         Map<String, String> previous = MDC.getCopyOfContextMap();
         try {
             bindLogMdc(requestLog);
             repository.saveAndFlush(requestLog);
-            if (log.isInfoEnabled()) {
-                log.info("REQ_LOG service={} env={} method={} path={} status={} duration={}ms user={} activeTenantId={} traceId={} requestId={} clientRequestId={} traceSource={}",
-                        requestLog.getServiceName(),
-                        requestLog.getEnv(),
-                        requestLog.getMethod(),
-                        requestLog.getPathTemplate(),
-                        requestLog.getStatus(),
-                        requestLog.getDurationMs(),
-                        requestLog.getUserId(),
-                        requestLog.getActiveTenantId(),
-                        requestLog.getTraceId(),
-                        requestLog.getRequestId(),
-                        requestLog.getClientRequestId(),
-                        requestLog.getTraceSource());
-            }
+            logRequestLine(requestLog);
         } catch (Exception ex) {
             log.warn("保存 HTTP 请求日志失败: {}", ex.getMessage(), ex);
         } finally {
@@ -52,7 +62,35 @@ public class HttpRequestLogServiceImpl implements HttpRequestLogService {
         }
     }
 
-    private void bindLogMdc(HttpRequestLog requestLog) {
+    /**
+     * 输出 REQ_LOG 访问日志行，期间把该请求的 traceId / requestId 等绑定到 MDC。
+     */
+    static void logRequestLine(HttpRequestLog requestLog) {
+        if (requestLog == null || !log.isInfoEnabled()) {
+            return;
+        }
+        Map<String, String> previous = MDC.getCopyOfContextMap();
+        try {
+            bindLogMdc(requestLog);
+            log.info("REQ_LOG service={} env={} method={} path={} status={} duration={}ms user={} activeTenantId={} traceId={} requestId={} clientRequestId={} traceSource={}",
+                    requestLog.getServiceName(),
+                    requestLog.getEnv(),
+                    requestLog.getMethod(),
+                    requestLog.getPathTemplate(),
+                    requestLog.getStatus(),
+                    requestLog.getDurationMs(),
+                    requestLog.getUserId(),
+                    requestLog.getActiveTenantId(),
+                    requestLog.getTraceId(),
+                    requestLog.getRequestId(),
+                    requestLog.getClientRequestId(),
+                    requestLog.getTraceSource());
+        } finally {
+            restoreMdc(previous);
+        }
+    }
+
+    private static void bindLogMdc(HttpRequestLog requestLog) {
         if (requestLog == null) {
             return;
         }
@@ -64,14 +102,14 @@ public class HttpRequestLogServiceImpl implements HttpRequestLogService {
         }
     }
 
-    private void putIfText(String key, String value) {
+    private static void putIfText(String key, String value) {
         if (!StringUtils.hasText(value)) {
             return;
         }
         MDC.put(key, value);
     }
 
-    private void restoreMdc(Map<String, String> previous) {
+    private static void restoreMdc(Map<String, String> previous) {
         if (previous == null || previous.isEmpty()) {
             MDC.clear();
             return;
@@ -0,0 +1,301 @@
+package com.tiny.platform.core.oauth.service.impl;
+
+import com.tiny.platform.core.oauth.config.HttpRequestLoggingProperties;
+import com.tiny.platform.core.oauth.model.HttpRequestLog;
+import com.tiny.platform.core.oauth.repository.HttpRequestLogBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * HTTP 请求日志 write-behind 写入器。
+ *
+ * <p>多生产者（请求线程）无锁入队到 {@link ConcurrentLinkedQueue}，容量由原子计数约束，
+ * 超限直接丢弃并计数；单个写线程在攒满 {@code batch-size} 条或距上次落库超过
+ * {@code flush-interval-ms} 时，以多行 INSERT 一次写入一批。队列满批时由生产者唤醒写线程。</p>
+ *
+ * <p>不使用通用 {@code taskExecutor}，请求日志高峰不会挤占或拒绝其他 {@code @Async} 任务。
+ * REQ_LOG 访问日志行也在写线程输出。生命周期阶段晚于 Web 服务器停止，关闭时排空队列。</p>
+ *
+ * <p>成功落库的批次同时喂给 {@link HttpRequestLogRollupAggregator}，分钟聚合在写线程上增量维护。</p>
+ */
+@Component
+public class HttpRequestLogWriter implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpRequestLogWriter.class);
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final HttpRequestLoggingProperties.Writer properties;
+    private final HttpRequestLogBatchRepository batchRepository;
+    private final HttpRequestLogRollupAggregator rollupAggregator;
+    private final Queue<HttpRequestLog> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final Counter queuedCounter;
+    private final Counter droppedCounter;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizeSummary;
+
+    private volatile boolean running;
+    private volatile boolean stopped;
+    private volatile Thread writerThread;
+
+    public HttpRequestLogWriter(HttpRequestLoggingProperties properties,
+                                HttpRequestLogBatchRepository batchRepository,
+                                @Nullable MeterRegistry meterRegistry) {
+        this(properties, batchRepository, null, meterRegistry);
+    }
+
+    @Autowired
+    public HttpRequestLogWriter(HttpRequestLoggingProperties properties,
+                                HttpRequestLogBatchRepository batchRepository,
+                                @Nullable HttpRequestLogRollupAggregator rollupAggregator,
+                                @Nullable MeterRegistry meterRegistry) {
+        this.properties = properties.getWriter();
+        this.batchRepository = batchRepository;
+        this.rollupAggregator = rollupAggregator;
+        if (meterRegistry != null) {
+            this.queuedCounter = Counter.builder("tiny.http.request-log.writer.queued.total")
+                .description("Request logs accepted into the write-behind queue")
+                .register(meterRegistry);
+            this.droppedCounter = Counter.builder("tiny.http.request-log.writer.dropped.total")
+                .description("Request logs dropped because the write-behind queue was full")
+                .register(meterRegistry);
+            this.writtenCounter = Counter.builder("tiny.http.request-log.writer.written.total")
+                .description("Request logs written by batch inserts")
+                .register(meterRegistry);
+            this.failedCounter = Counter.builder("tiny.http.request-log.writer.failed.total")
+                .description("Request logs lost because the insert failed")
+                .register(meterRegistry);
+            this.flushTimer = Timer.builder("tiny.http.request-log.writer.flush")
+                .description("Request log batch insert latency")
+                .register(meterRegistry);
+            this.batchSizeSummary = DistributionSummary.builder("tiny.http.request-log.writer.batch.size")
+                .description("Rows per request log batch insert")
+                .register(meterRegistry);
+            Gauge.builder("tiny.http.request-log.writer.queue.size", size, AtomicInteger::get)
+                .description("Request logs waiting to be written")
+                .register(meterRegistry);
+        } else {
+            this.queuedCounter = null;
+            this.droppedCounter = null;
+            this.writtenCounter = null;
+            this.failedCounter = null;
+            this.flushTimer = null;
+            this.batchSizeSummary = null;
+        }
+    }
+
+    /**
+     * 请求线程入口：无锁入队，队列已满时丢弃并返回 {@code false}。
+     * 启动前到达的日志同样入队，由写线程启动后落库；只有写入器停止后才退回同步直写。
+     */
+    public boolean offer(HttpRequestLog requestLog) {
+        if (requestLog == null) {
+            return false;
+        }
+        if (stopped) {
+            write(List.of(requestLog));
+            flushClosedRollups();
+            return true;
+        }
+        int current = size.incrementAndGet();
+        if (current > Math.max(1, properties.getQueueCapacity())) {
+            size.decrementAndGet();
+            increment(droppedCounter, 1);
+            return false;
+        }
+        queue.offer(requestLog);
+        increment(queuedCounter, 1);
+        if (current >= properties.getBatchSize()) {
+            Thread thread = writerThread;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+        if (stopped) {
+            // 与 stop() 并发入队时写线程和关闭线程可能都已排空退出，由提交线程补排空
+            while (flushOnce() > 0) {
+                // drain after stop
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 取出至多一批并写入，返回本次处理的条数。
+     */
+    int flushOnce() {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        List<HttpRequestLog> batch = new ArrayList<>(Math.min(batchSize, Math.max(1, size.get())));
+        HttpRequestLog next;
+        while (batch.size() < batchSize && (next = queue.poll()) != null) {
+            batch.add(next);
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        size.addAndGet(-batch.size());
+        write(batch);
+        return batch.size();
+    }
+
+    int pendingCount() {
+        return size.get();
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        stopped = false;
+        running = true;
+        Thread thread = new Thread(this::runWriter, "http-request-log-writer");
+        thread.setDaemon(true);
+        writerThread = thread;
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        stopped = true;
+        running = false;
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(properties.getShutdownTimeoutMs());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // 写线程未能在超时内退出时，由关闭线程接手排空
+        while (flushOnce() > 0) {
+            // drain
+        }
+        if (rollupAggregator != null) {
+            rollupAggregator.flushAll();
+        }
+        writerThread = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void runWriter() {
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1L, properties.getFlushIntervalMs()));
+        long lastFlushNanos = System.nanoTime();
+        while (running) {
+            long elapsed = System.nanoTime() - lastFlushNanos;
+            if (size.get() >= properties.getBatchSize() || (elapsed >= flushIntervalNanos && size.get() > 0)) {
+                try {
+                    flushOnce();
+                } catch (RuntimeException ex) {
+                    log.warn("HTTP 请求日志批量写入线程异常", ex);
+                }
+                lastFlushNanos = System.nanoTime();
+                continue;
+            }
+            flushClosedRollups();
+            if (elapsed >= flushIntervalNanos) {
+                lastFlushNanos = System.nanoTime();
+                elapsed = 0L;
+            }
+            LockSupport.parkNanos(this, flushIntervalNanos - elapsed);
+        }
+        while (flushOnce() > 0) {
+            // drain on shutdown
+        }
+    }
+
+    private void write(List<HttpRequestLog> batch) {
+        for (HttpRequestLog requestLog : batch) {
+            HttpRequestLogServiceImpl.logRequestLine(requestLog);
+        }
+        long start = System.nanoTime();
+        try {
+            batchRepository.insertAll(batch);
+            increment(writtenCounter, batch.size());
+            recordRollups(batch);
+        } catch (RuntimeException ex) {
+            // 多行 INSERT 是原子的：一条坏数据（如 request_id 重复）会拖垮整批，逐条重试隔离坏行
+            log.warn("HTTP 请求日志批量写入失败，逐条重试: size={}, error={}", batch.size(), ex.getMessage());
+            retryOneByOne(batch);
+        } finally {
+            if (flushTimer != null) {
+                flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            if (batchSizeSummary != null) {
+                batchSizeSummary.record(batch.size());
+            }
+        }
+    }
+
+    private void retryOneByOne(List<HttpRequestLog> batch) {
+        if (batch.size() == 1) {
+            increment(failedCounter, 1);
+            return;
+        }
+        for (HttpRequestLog requestLog : batch) {
+            try {
+                batchRepository.insertAll(List.of(requestLog));
+                increment(writtenCounter, 1);
+                recordRollups(List.of(requestLog));
+            } catch (RuntimeException ex) {
+                increment(failedCounter, 1);
+                log.warn("保存 HTTP 请求日志失败: requestId={}, error={}", requestLog.getRequestId(), ex.getMessage());
+            }
+        }
+    }
+
+    private void recordRollups(List<HttpRequestLog> written) {
+        if (rollupAggregator != null) {
+            rollupAggregator.record(written);
+        }
+    }
+
+    private void flushClosedRollups() {
+        if (rollupAggregator == null) {
+            return;
+        }
+        try {
+            rollupAggregator.flushClosed();
+        } catch (RuntimeException ex) {
+            log.warn("HTTP 请求日志分钟聚合写出失败", ex);
+        }
+    }
+
+    private static void increment(@Nullable Counter counter, int amount) {
+        if (counter != null) {
+            counter.increment(amount);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.tiny.platform.infrastructure.auth.audit.repository;
+
+import com.tiny.platform.infrastructure.auth.audit.domain.AuthorizationAuditLog;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * authorization_audit_log 多行批量写入。
+ *
+ * <p>供异步审计管道使用：一批记录拼成单条 {@code INSERT ... VALUES (...), (...)}，
+ * 绕开 JPA 逐条 persist 与 IDENTITY 回填，单次往返即可落库。</p>
+ */
+@Repository
+public class AuthorizationAuditLogBatchRepository {
+
+    private static final String INSERT_PREFIX = """
+        INSERT INTO authorization_audit_log
+          (tenant_id, event_type, actor_user_id, target_user_id, scope_type, scope_id, role_id,
+           module, resource_permission, event_detail, result, result_reason, ip_address, created_at)
+        VALUES
+        """;
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int COLUMN_COUNT = 14;
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public AuthorizationAuditLogBatchRepository(NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    public int insertAll(List<AuthorizationAuditLog> entries) {
+        if (entries == null || entries.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + entries.size() * (ROW_PLACEHOLDERS.length() + 2))
+            .append(INSERT_PREFIX);
+        Object[] args = new Object[entries.size() * COLUMN_COUNT];
+        int index = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            AuthorizationAuditLog entry = entries.get(i);
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+            args[index++] = entry.getTenantId();
+            args[index++] = entry.getEventType();
+            args[index++] = entry.getActorUserId();
+            args[index++] = entry.getTargetUserId();
+            args[index++] = entry.getScopeType();
+            args[index++] = entry.getScopeId();
+            args[index++] = entry.getRoleId();
+            args[index++] = entry.getModule();
+            args[index++] = entry.getResourcePermission();
+            args[index++] = entry.getEventDetail();
+            args[index++] = entry.getResult();
+            args[index++] = entry.getResultReason();
+            args[index++] = entry.getIpAddress();
+            args[index++] = entry.getCreatedAt() == null ? null : Timestamp.valueOf(entry.getCreatedAt());
+        }
+        return namedParameterJdbcTemplate.getJdbcOperations().update(sql.toString(), args);
+    }
+}
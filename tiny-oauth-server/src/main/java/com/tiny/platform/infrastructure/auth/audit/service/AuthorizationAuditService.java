@@ -7,10 +7,13 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.Nullable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -33,7 +36,8 @@ import java.util.stream.Collectors;
  * （{@link Propagation#REQUIRES_NEW}），确保即使业务事务回滚也能持久化审计记录。</p>
  *
  * <p>审计入口方法 {@link #log} 和便捷的 {@link #logAsync} 支持同步和异步两种写入模式。
- * 推荐在关键授权路径使用同步写入，在批量操作或非关键路径使用异步写入。</p>
+ * 推荐在关键授权路径使用同步写入，在批量操作或非关键路径使用异步写入；逐请求的 requirement-aware
+ * 访问审计使用 {@link #submitRequirementAware}，经 {@link RequirementAwareAuditPipeline} 采样攒批落库。</p>
  */
 @Service
 public class AuthorizationAuditService {
@@ -42,11 +46,25 @@ public class AuthorizationAuditService {
 
     private final AuthorizationAuditLogRepository auditLogRepository;
     private final ObjectMapper objectMapper;
+    private final RequirementAwareAuditPipeline requirementAwareAuditPipeline;
+
+    /** 自注入，用于通过代理调用 @Transactional 方法，避免同类内部调用导致事务不生效 */
+    @Autowired
+    @Lazy
+    private AuthorizationAuditService self;
 
     public AuthorizationAuditService(AuthorizationAuditLogRepository auditLogRepository,
                                      ObjectMapper objectMapper) {
+        this(auditLogRepository, objectMapper, null);
+    }
+
+    @Autowired
+    public AuthorizationAuditService(AuthorizationAuditLogRepository auditLogRepository,
+                                     ObjectMapper objectMapper,
+                                     @Nullable RequirementAwareAuditPipeline requirementAwareAuditPipeline) {
         this.auditLogRepository = auditLogRepository;
         this.objectMapper = objectMapper;
+        this.requirementAwareAuditPipeline = requirementAwareAuditPipeline;
     }
 
     /**
@@ -131,7 +149,22 @@ public class AuthorizationAuditService {
         );
     }
 
-    private String extractTopLevelPermission(RequirementAwareAuditDetail detail) {
+    /**
+     * 热路径 requirement-aware 审计入口（如 API 统一守卫）：交给异步管道采样、攒批写入，
+     * 调用方不再承担审计 INSERT 延迟。管道未启用时退回 {@link #logRequirementAware} 同步写入。
+     */
+    public void submitRequirementAware(String eventType,
+                                       Long tenantId,
+                                       String module,
+                                       RequirementAwareAuditDetail detail) {
+        if (requirementAwareAuditPipeline == null || !requirementAwareAuditPipeline.isEnabled()) {
+            (self != null ? self : this).logRequirementAware(eventType, tenantId, module, detail);
+            return;
+        }
+        requirementAwareAuditPipeline.submit(eventType, tenantId, module, detail, extractCurrentUserId(), extractIpAddress());
+    }
+
+    static String extractTopLevelPermission(RequirementAwareAuditDetail detail) {
         if (detail == null) {
             return null;
         }
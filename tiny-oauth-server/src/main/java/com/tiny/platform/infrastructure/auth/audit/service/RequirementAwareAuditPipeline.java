@@ -0,0 +1,305 @@
+package com.tiny.platform.infrastructure.auth.audit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tiny.platform.core.oauth.config.AuthorizationAuditPipelineProperties;
+import com.tiny.platform.infrastructure.auth.audit.domain.AuthorizationAuditLog;
+import com.tiny.platform.infrastructure.auth.audit.domain.RequirementAwareAuditDetail;
+import com.tiny.platform.infrastructure.auth.audit.repository.AuthorizationAuditLogBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * requirement-aware 授权审计的异步写入管道。
+ *
+ * <p>请求线程只做采样判断与入队：ALLOWED 按 {@code allowed-sample-rate} 采样，缓冲满即丢弃并计数；
+ * DENIED 始终记录，缓冲满时先短暂等待，仍失败则在请求线程同步直写（背压，绝不丢弃拒绝记录）。
+ * 单个后台写线程攒批后以多行 INSERT 落库，序列化 JSON 也在写线程完成。</p>
+ *
+ * <p>生命周期阶段晚于 Web 服务器停止：关闭时先停止接收请求，再排空缓冲；
+ * 管道停止后到达的事件退回同步直写，与停止并发入队的事件由提交线程补排空。</p>
+ */
+@Component
+public class RequirementAwareAuditPipeline implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequirementAwareAuditPipeline.class);
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final AuthorizationAuditPipelineProperties properties;
+    private final AuthorizationAuditLogBatchRepository batchRepository;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<PendingAudit> buffer;
+    private final Counter enqueuedCounter;
+    private final Counter sampledOutCounter;
+    private final Counter allowedDroppedCounter;
+    private final Counter deniedSyncFallbackCounter;
+    private final Counter writtenCounter;
+    private final Counter writeFailureCounter;
+
+    private volatile boolean running;
+    private volatile Thread writerThread;
+
+    public RequirementAwareAuditPipeline(AuthorizationAuditPipelineProperties properties,
+                                         AuthorizationAuditLogBatchRepository batchRepository,
+                                         ObjectMapper objectMapper,
+                                         @Nullable MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.batchRepository = batchRepository;
+        this.objectMapper = objectMapper;
+        this.buffer = new ArrayBlockingQueue<>(Math.max(1, properties.getBufferCapacity()));
+        this.enqueuedCounter = counter(meterRegistry, "tiny.authz.audit.pipeline.enqueued.total", null,
+            "Requirement-aware audit events accepted into the buffer");
+        this.sampledOutCounter = counter(meterRegistry, "tiny.authz.audit.pipeline.sampled-out.total", null,
+            "ALLOWED audit events skipped by sampling");
+        this.allowedDroppedCounter = counter(meterRegistry, "tiny.authz.audit.pipeline.overflow.total", "dropped",
+            "ALLOWED audit events dropped because the buffer was full");
+        this.deniedSyncFallbackCounter = counter(meterRegistry, "tiny.authz.audit.pipeline.overflow.total", "sync_fallback",
+            "DENIED audit events written synchronously because the buffer was full");
+        this.writtenCounter = counter(meterRegistry, "tiny.authz.audit.pipeline.written.total", null,
+            "Requirement-aware audit rows written by batch inserts");
+        this.writeFailureCounter = counter(meterRegistry, "tiny.authz.audit.pipeline.write-failure.total", null,
+            "Requirement-aware audit rows lost because the batch insert failed");
+        if (meterRegistry != null) {
+            Gauge.builder("tiny.authz.audit.pipeline.buffer.size", buffer, BlockingQueue::size)
+                .description("Requirement-aware audit events waiting to be written")
+                .register(meterRegistry);
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * 请求线程入口：捕获操作者与来源 IP 后入队，不在调用方线程序列化或访问数据库（背压直写除外）。
+     */
+    public void submit(String eventType,
+                       Long tenantId,
+                       String module,
+                       RequirementAwareAuditDetail detail,
+                       Long actorUserId,
+                       String ipAddress) {
+        if (detail == null) {
+            return;
+        }
+        boolean denied = !"ALLOW".equalsIgnoreCase(detail.decision());
+        if (!denied && !sampled()) {
+            increment(sampledOutCounter);
+            return;
+        }
+        PendingAudit pending = new PendingAudit(eventType, tenantId, module, detail, actorUserId, ipAddress, LocalDateTime.now());
+        if (!running) {
+            writeNow(List.of(pending));
+            return;
+        }
+        if (buffer.offer(pending)) {
+            onEnqueued();
+            return;
+        }
+        if (!denied) {
+            increment(allowedDroppedCounter);
+            return;
+        }
+        try {
+            if (buffer.offer(pending, properties.getDeniedOfferTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                onEnqueued();
+                return;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        increment(deniedSyncFallbackCounter);
+        writeNow(List.of(pending));
+    }
+
+    /**
+     * 入队成功后复查运行状态：入队与 {@link #stop()} 并发时，写线程和关闭线程可能已排空并退出，
+     * 此时由提交线程自行排空，避免事件滞留在缓冲中丢失。
+     */
+    private void onEnqueued() {
+        increment(enqueuedCounter);
+        if (!running) {
+            while (flushOnce() > 0) {
+                // drain after stop
+            }
+        }
+    }
+
+    /**
+     * 取出至多一批并写入，返回本次处理的条数。
+     */
+    int flushOnce() {
+        List<PendingAudit> batch = new ArrayList<>(Math.min(properties.getBatchSize(), buffer.size()));
+        buffer.drainTo(batch, Math.max(1, properties.getBatchSize()));
+        if (!batch.isEmpty()) {
+            writeNow(batch);
+        }
+        return batch.size();
+    }
+
+    int pendingCount() {
+        return buffer.size();
+    }
+
+    @Override
+    public void start() {
+        if (running || !properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::runWriter, "authz-audit-writer");
+        thread.setDaemon(true);
+        writerThread = thread;
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        Thread thread = writerThread;
+        if (thread != null) {
+            // 不中断写线程，避免打断进行中的 JDBC 写入；poll 超时后写线程自行退出并排空
+            try {
+                thread.join(properties.getShutdownTimeoutMs());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // 写线程未能在超时内退出时，由关闭线程接手排空
+        while (flushOnce() > 0) {
+            // drain
+        }
+        writerThread = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void runWriter() {
+        List<PendingAudit> batch = new ArrayList<>(properties.getBatchSize());
+        while (running) {
+            try {
+                PendingAudit first = buffer.poll(properties.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, properties.getBatchSize() - 1);
+                writeNow(batch);
+                batch.clear();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException ex) {
+                logger.warn("Requirement-aware audit writer iteration failed", ex);
+                batch.clear();
+            }
+        }
+        while (flushOnce() > 0) {
+            // drain on shutdown
+        }
+    }
+
+    private void writeNow(List<PendingAudit> batch) {
+        List<AuthorizationAuditLog> rows = new ArrayList<>(batch.size());
+        for (PendingAudit pending : batch) {
+            AuthorizationAuditLog row = toEntry(pending);
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            batchRepository.insertAll(rows);
+            increment(writtenCounter, rows.size());
+        } catch (RuntimeException ex) {
+            increment(writeFailureCounter, rows.size());
+            logger.warn("Failed to write {} requirement-aware audit rows", rows.size(), ex);
+        }
+    }
+
+    private AuthorizationAuditLog toEntry(PendingAudit pending) {
+        RequirementAwareAuditDetail detail = pending.detail();
+        AuthorizationAuditLog entry = new AuthorizationAuditLog();
+        try {
+            entry.setEventDetail(objectMapper.writeValueAsString(detail));
+        } catch (Exception ex) {
+            increment(writeFailureCounter);
+            logger.warn("Failed to serialize requirement-aware audit detail, carrierId={}", detail.carrierId(), ex);
+            return null;
+        }
+        entry.setTenantId(pending.tenantId());
+        entry.setEventType(pending.eventType());
+        entry.setActorUserId(pending.actorUserId());
+        entry.setModule(pending.module());
+        entry.setResourcePermission(AuthorizationAuditService.extractTopLevelPermission(detail));
+        entry.setResult("ALLOW".equalsIgnoreCase(detail.decision()) ? "SUCCESS" : "DENIED");
+        entry.setResultReason(detail.reason());
+        entry.setIpAddress(pending.ipAddress());
+        entry.setCreatedAt(pending.createdAt());
+        return entry;
+    }
+
+    private boolean sampled() {
+        double rate = properties.getAllowedSampleRate();
+        if (rate >= 1.0d) {
+            return true;
+        }
+        return rate > 0.0d && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    private static Counter counter(@Nullable MeterRegistry meterRegistry, String name, @Nullable String outcome, String description) {
+        if (meterRegistry == null) {
+            return null;
+        }
+        Counter.Builder builder = Counter.builder(name).description(description);
+        if (outcome != null) {
+            builder.tag("outcome", outcome);
+        }
+        return builder.register(meterRegistry);
+    }
+
+    private static void increment(@Nullable Counter counter) {
+        increment(counter, 1);
+    }
+
+    private static void increment(@Nullable Counter counter, int amount) {
+        if (counter != null) {
+            counter.increment(amount);
+        }
+    }
+
+    private record PendingAudit(String eventType,
+                                Long tenantId,
+                                String module,
+                                RequirementAwareAuditDetail detail,
+                                Long actorUserId,
+                                String ipAddress,
+                                LocalDateTime createdAt) {
+    }
+}
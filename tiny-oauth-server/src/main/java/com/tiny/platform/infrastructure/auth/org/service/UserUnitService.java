@@ -11,10 +11,13 @@ import com.tiny.platform.infrastructure.auth.org.dto.UserUnitResponseDto;
 import com.tiny.platform.infrastructure.auth.org.repository.OrganizationUnitRepository;
 import com.tiny.platform.infrastructure.auth.org.repository.UserUnitRepository;
 import com.tiny.platform.core.oauth.model.SecurityUser;
+import com.tiny.platform.core.oauth.security.AuthorizationChangedEvent;
 import com.tiny.platform.infrastructure.core.exception.code.ErrorCode;
 import com.tiny.platform.infrastructure.core.exception.exception.BusinessException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -49,13 +52,23 @@ public class UserUnitService {
     private final UserUnitRepository userUnitRepository;
     private final OrganizationUnitRepository orgUnitRepository;
     private final AuthorizationAuditService auditService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public UserUnitService(UserUnitRepository userUnitRepository,
                            OrganizationUnitRepository orgUnitRepository,
                            AuthorizationAuditService auditService) {
+        this(userUnitRepository, orgUnitRepository, auditService, event -> { });
+    }
+
+    @Autowired
+    public UserUnitService(UserUnitRepository userUnitRepository,
+                           OrganizationUnitRepository orgUnitRepository,
+                           AuthorizationAuditService auditService,
+                           ApplicationEventPublisher eventPublisher) {
         this.userUnitRepository = userUnitRepository;
         this.orgUnitRepository = orgUnitRepository;
         this.auditService = auditService;
+        this.eventPublisher = eventPublisher;
     }
 
     @DataScope(module = "org")
@@ -102,6 +115,7 @@ public class UserUnitService {
         uu.setStatus("ACTIVE");
 
         uu = userUnitRepository.save(uu);
+        publishUserUnitChanged(tenantId, userId);
         logger.info("Added user {} to unit {} (tenantId={}, primary={})", userId, unitId, tenantId, isPrimary);
         auditService.logSuccess(AuthorizationAuditEventType.USER_UNIT_ASSIGN,
             tenantId, userId, null, unit.getUnitType(), unitId,
@@ -121,6 +135,7 @@ public class UserUnitService {
         uu.setLeftAt(LocalDateTime.now());
         uu.setIsPrimary(false);
         userUnitRepository.save(uu);
+        publishUserUnitChanged(tenantId, userId);
         logger.info("Removed user {} from unit {} (tenantId={})", userId, unitId, tenantId);
         auditService.logSuccess(AuthorizationAuditEventType.USER_UNIT_REMOVE,
             tenantId, userId, null, null, unitId, null);
@@ -206,6 +221,8 @@ public class UserUnitService {
             }
         }
 
+        publishUserUnitChanged(tenantId, userId);
+
         List<UserUnit> activeMemberships = userUnitRepository.findByTenantIdAndUserIdAndStatus(tenantId, userId, "ACTIVE");
         for (UserUnit membership : activeMemberships) {
             if (requestedUnitIds.contains(membership.getUnitId())) {
@@ -227,6 +244,10 @@ public class UserUnitService {
         }
     }
 
+    private void publishUserUnitChanged(Long tenantId, Long userId) {
+        eventPublisher.publishEvent(AuthorizationChangedEvent.ofUser(tenantId, userId, "user_unit"));
+    }
+
     private void clearPrimaryFlag(Long tenantId, Long userId) {
         userUnitRepository.findPrimaryByTenantIdAndUserId(tenantId, userId)
             .ifPresent(existing -> {
@@ -1,10 +1,13 @@
 package com.tiny.platform.infrastructure.auth.permission.service;
 
+import com.tiny.platform.core.oauth.security.AuthorizationChangedEvent;
 import com.tiny.platform.core.oauth.tenant.TenantContext;
 import com.tiny.platform.infrastructure.auth.permission.dto.PermissionManagementDtos.PermissionDetailDto;
 import com.tiny.platform.infrastructure.auth.permission.dto.PermissionManagementDtos.PermissionListItemDto;
 import com.tiny.platform.infrastructure.auth.permission.dto.PermissionManagementDtos.PermissionRoleBindingDto;
 import com.tiny.platform.infrastructure.auth.permission.repository.PermissionManagementRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -17,9 +20,17 @@ import java.util.Optional;
 public class PermissionManagementServiceImpl implements PermissionManagementService {
 
     private final PermissionManagementRepository permissionManagementRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public PermissionManagementServiceImpl(PermissionManagementRepository permissionManagementRepository) {
+        this(permissionManagementRepository, event -> { });
+    }
+
+    @Autowired
+    public PermissionManagementServiceImpl(PermissionManagementRepository permissionManagementRepository,
+                                           ApplicationEventPublisher eventPublisher) {
         this.permissionManagementRepository = permissionManagementRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -67,12 +78,16 @@ public class PermissionManagementServiceImpl implements PermissionManagementServ
     @Override
     @Transactional
     public boolean updateEnabled(Long permissionId, boolean enabled) {
+        Long tenantId = currentManagedTenantId();
         int updated = permissionManagementRepository.updatePermissionEnabled(
-            currentManagedTenantId(),
+            tenantId,
             permissionId,
             enabled,
             LocalDateTime.now()
         );
+        if (updated > 0) {
+            eventPublisher.publishEvent(AuthorizationChangedEvent.ofTenant(tenantId, "permission_enabled"));
+        }
         return updated > 0;
     }
 
@@ -30,4 +30,18 @@ public interface ApiEndpointEntryRepository extends JpaRepository<ApiEndpointEnt
         """)
     boolean existsByRequiredPermissionIdAndTenantScope(@Param("permissionId") Long permissionId,
                                                        @Param("tenantId") Long tenantId);
+
+    /**
+     * 路由表编译专用：一次性加载作用域内全部已启用端点。
+     */
+    @Query("""
+        SELECT e
+        FROM ApiEndpointEntry e
+        WHERE ((:tenantId IS NULL AND e.tenantId IS NULL) OR e.tenantId = :tenantId)
+          AND e.resourceLevel = :resourceLevel
+          AND e.enabled = true
+        ORDER BY e.id ASC
+        """)
+    List<ApiEndpointEntry> findEnabledByScope(@Param("tenantId") Long tenantId,
+                                              @Param("resourceLevel") String resourceLevel);
 }
@@ -0,0 +1,207 @@
+package com.tiny.platform.infrastructure.auth.resource.service;
+
+import com.tiny.platform.core.oauth.security.AuthorizationChangedEvent;
+import com.tiny.platform.core.oauth.security.PermissionVersionCache;
+import com.tiny.platform.infrastructure.auth.resource.domain.ApiEndpointEntry;
+import com.tiny.platform.infrastructure.auth.resource.repository.ApiEndpointEntryRepository;
+import com.tiny.platform.infrastructure.auth.resource.repository.ApiEndpointPermissionRequirementRepository;
+import com.tiny.platform.infrastructure.auth.resource.repository.CarrierPermissionRequirementRow;
+import com.tiny.platform.infrastructure.auth.resource.support.ApiEndpointRouteTable;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按 (tenantId, resourceLevel) 缓存编译后的 {@link ApiEndpointRouteTable}。
+ *
+ * <p>统一守卫每个请求都要匹配 api_endpoint；这里把"按作用域查全部端点 + 逐条模板比对 + 再查 requirement 行"
+ * 前移到编译期，请求路径只做一次 O(路径段数) 的前缀树匹配。</p>
+ *
+ * <p>失效依据：</p>
+ * <ul>
+ *   <li>租户代数：复用 {@link PermissionVersionCache#tenantGeneration(Long)}，本地授权事件与集群 authz epoch
+ *       前进都会推进代数；编译前捕获代数，编译期间发生的变更会在下一次请求触发重新编译；</li>
+ *   <li>刷新间隔：兜底覆盖未经应用写路径（如 Liquibase、运维 SQL）修改的端点与 requirement 行。</li>
+ * </ul>
+ */
+@Service
+public class ApiEndpointRouteRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiEndpointRouteRegistry.class);
+    private static final int REQUIREMENT_FETCH_CHUNK_SIZE = 500;
+
+    private final ApiEndpointEntryRepository apiEndpointEntryRepository;
+    private final ApiEndpointPermissionRequirementRepository apiEndpointPermissionRequirementRepository;
+    private final PermissionVersionCache permissionVersionCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long refreshIntervalMs;
+    private final Clock clock;
+    private final Map<ScopeKey, ApiEndpointRouteTable> tables = new ConcurrentHashMap<>();
+    private final Timer compileTimer;
+
+    @Autowired
+    public ApiEndpointRouteRegistry(ApiEndpointEntryRepository apiEndpointEntryRepository,
+                                    ApiEndpointPermissionRequirementRepository apiEndpointPermissionRequirementRepository,
+                                    PermissionVersionCache permissionVersionCache,
+                                    ApplicationEventPublisher eventPublisher,
+                                    @Nullable MeterRegistry meterRegistry,
+                                    @Value("${security.api-endpoint-route.refresh-interval-ms:60000}") long refreshIntervalMs) {
+        this(apiEndpointEntryRepository, apiEndpointPermissionRequirementRepository, permissionVersionCache,
+            eventPublisher, meterRegistry, refreshIntervalMs, Clock.systemUTC());
+    }
+
+    ApiEndpointRouteRegistry(ApiEndpointEntryRepository apiEndpointEntryRepository,
+                             ApiEndpointPermissionRequirementRepository apiEndpointPermissionRequirementRepository,
+                             PermissionVersionCache permissionVersionCache,
+                             ApplicationEventPublisher eventPublisher,
+                             @Nullable MeterRegistry meterRegistry,
+                             long refreshIntervalMs,
+                             Clock clock) {
+        this.apiEndpointEntryRepository = apiEndpointEntryRepository;
+        this.apiEndpointPermissionRequirementRepository = apiEndpointPermissionRequirementRepository;
+        this.permissionVersionCache = permissionVersionCache;
+        this.eventPublisher = eventPublisher;
+        this.refreshIntervalMs = refreshIntervalMs;
+        this.clock = clock;
+        this.compileTimer = meterRegistry != null
+            ? Timer.builder("tiny.authz.api-endpoint.route-table.compile")
+                .description("api_endpoint route table compilation latency")
+                .register(meterRegistry)
+            : null;
+    }
+
+    /**
+     * 返回当前作用域的路由表；陈旧时同步重新编译，同一作用域的并发请求只编译一次。
+     */
+    public ApiEndpointRouteTable routeTable(Long tenantId, String resourceLevel) {
+        ScopeKey key = new ScopeKey(tenantId, resourceLevel);
+        long generation = permissionVersionCache.tenantGeneration(tenantId);
+        long now = clock.millis();
+        ApiEndpointRouteTable current = tables.get(key);
+        if (isFresh(current, generation, now)) {
+            return current;
+        }
+        return tables.compute(key, (ignored, existing) ->
+            isFresh(existing, generation, now) ? existing : compile(key, generation, now));
+    }
+
+    /**
+     * api_endpoint 写路径调用：提交后推进租户代数（本地 + 集群 epoch），各节点下一次请求重新编译。
+     */
+    public void markChanged(Long tenantId, String source) {
+        eventPublisher.publishEvent(AuthorizationChangedEvent.ofTenant(tenantId, source));
+    }
+
+    public void invalidateAll() {
+        tables.clear();
+    }
+
+    int size() {
+        return tables.size();
+    }
+
+    private boolean isFresh(ApiEndpointRouteTable table, long generation, long now) {
+        return table != null
+            && table.generation() == generation
+            && now - table.compiledAtMillis() < refreshIntervalMs;
+    }
+
+    private ApiEndpointRouteTable compile(ScopeKey key, long generation, long now) {
+        long startNanos = System.nanoTime();
+        List<ApiEndpointEntry> endpoints = apiEndpointEntryRepository.findEnabledByScope(key.tenantId(), key.resourceLevel());
+        List<Long> endpointIds = endpoints.stream().map(ApiEndpointEntry::getId).filter(Objects::nonNull).toList();
+        Map<Long, List<CarrierPermissionRequirementRow>> requirementRows = new HashMap<>();
+        for (int from = 0; from < endpointIds.size(); from += REQUIREMENT_FETCH_CHUNK_SIZE) {
+            List<Long> chunk = endpointIds.subList(from, Math.min(from + REQUIREMENT_FETCH_CHUNK_SIZE, endpointIds.size()));
+            List<CarrierPermissionRequirementRow> rows = apiEndpointPermissionRequirementRepository.findRowsByApiEndpointIdIn(chunk);
+            if (rows == null) {
+                continue;
+            }
+            for (CarrierPermissionRequirementRow row : rows) {
+                if (row == null || row.getCarrierId() == null) {
+                    continue;
+                }
+                requirementRows.computeIfAbsent(row.getCarrierId(), ignored -> new ArrayList<>())
+                    .add(RequirementRowSnapshot.of(row));
+            }
+        }
+        ApiEndpointRouteTable table = ApiEndpointRouteTable.compile(endpoints, requirementRows, generation, now);
+        long elapsedNanos = System.nanoTime() - startNanos;
+        if (compileTimer != null) {
+            compileTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+        log.debug("Compiled api_endpoint route table, tenantId={}, resourceLevel={}, endpoints={}, generation={}, costMs={}",
+            key.tenantId(), key.resourceLevel(), table.endpointCount(), generation, elapsedNanos / 1_000_000);
+        return table;
+    }
+
+    private record ScopeKey(Long tenantId, String resourceLevel) {
+    }
+
+    /**
+     * requirement 行的不可变快照，脱离查询结果生命周期后仍可安全复用。
+     */
+    private record RequirementRowSnapshot(Long carrierId,
+                                          Integer requirementGroup,
+                                          Integer sortOrder,
+                                          String permissionCode,
+                                          Boolean negated,
+                                          Boolean permissionEnabled) implements CarrierPermissionRequirementRow {
+
+        private static RequirementRowSnapshot of(CarrierPermissionRequirementRow row) {
+            return new RequirementRowSnapshot(
+                row.getCarrierId(),
+                row.getRequirementGroup(),
+                row.getSortOrder(),
+                row.getPermissionCode(),
+                row.getNegated(),
+                row.getPermissionEnabled()
+            );
+        }
+
+        @Override
+        public Long getCarrierId() {
+            return carrierId;
+        }
+
+        @Override
+        public Integer getRequirementGroup() {
+            return requirementGroup;
+        }
+
+        @Override
+        public Integer getSortOrder() {
+            return sortOrder;
+        }
+
+        @Override
+        public String getPermissionCode() {
+            return permissionCode;
+        }
+
+        @Override
+        public Boolean getNegated() {
+            return negated;
+        }
+
+        @Override
+        public Boolean getPermissionEnabled() {
+            return permissionEnabled;
+        }
+    }
+}
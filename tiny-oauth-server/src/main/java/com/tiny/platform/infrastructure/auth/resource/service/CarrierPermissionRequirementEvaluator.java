@@ -99,6 +99,15 @@ public class CarrierPermissionRequirementEvaluator {
         return entry != null && entry.getId() != null && resolveAllowedApiEndpointIds(List.of(entry), authorityCodes).contains(entry.getId());
     }
 
+    /**
+     * 使用预先加载的 requirement 行判定，不访问数据库。
+     */
+    public boolean isApiEndpointAllowed(ApiEndpointEntry entry,
+                                        List<CarrierPermissionRequirementRow> rows,
+                                        Collection<String> authorityCodes) {
+        return entry != null && entry.getId() != null && isAllowed(rows, normalizeAuthorities(authorityCodes));
+    }
+
     public Map<Long, RequirementAwareAuditDetail> resolveMenuRequirementDetails(Collection<MenuEntry> menus,
                                                                                    Collection<String> authorityCodes) {
         if (menus == null || menus.isEmpty()) {
@@ -159,6 +168,19 @@ public class CarrierPermissionRequirementEvaluator {
 
     public RequirementAwareAuditDetail evaluateApiEndpointRequirementDetail(ApiEndpointEntry endpoint,
                                                                                  Collection<String> authorityCodes) {
+        boolean requiresRows = endpoint != null && endpoint.getId() != null && endpoint.getRequiredPermissionId() != null;
+        List<CarrierPermissionRequirementRow> rows = requiresRows
+            ? apiEndpointPermissionRequirementRepository.findRowsByApiEndpointIdIn(List.of(endpoint.getId()))
+            : List.of();
+        return evaluateApiEndpointRequirementDetail(endpoint, rows, authorityCodes);
+    }
+
+    /**
+     * 使用调用方预先加载的 requirement 行（如编译后的路由表）评估，不访问数据库。
+     */
+    public RequirementAwareAuditDetail evaluateApiEndpointRequirementDetail(ApiEndpointEntry endpoint,
+                                                                                 List<CarrierPermissionRequirementRow> rows,
+                                                                                 Collection<String> authorityCodes) {
         if (endpoint == null) {
             return new RequirementAwareAuditDetail(
                 "api_endpoint",
@@ -206,7 +228,6 @@ public class CarrierPermissionRequirementEvaluator {
             );
         }
 
-        List<CarrierPermissionRequirementRow> rows = apiEndpointPermissionRequirementRepository.findRowsByApiEndpointIdIn(List.of(carrierId));
         if (rows == null || rows.isEmpty()) {
             boolean hasPermission = StringUtils.hasText(fallbackPermission);
             String normalized = hasPermission ? fallbackPermission.trim() : null;
@@ -253,7 +274,10 @@ public class CarrierPermissionRequirementEvaluator {
                               String fallbackPermission,
                               Set<String> authorityCodes,
                               Map<Long, List<CarrierPermissionRequirementRow>> requirementMap) {
-        List<CarrierPermissionRequirementRow> rows = requirementMap.get(carrierId);
+        return isAllowed(requirementMap.get(carrierId), authorityCodes);
+    }
+
+    private boolean isAllowed(List<CarrierPermissionRequirementRow> rows, Set<String> authorityCodes) {
         if (rows == null || rows.isEmpty()) {
             return false;
         }
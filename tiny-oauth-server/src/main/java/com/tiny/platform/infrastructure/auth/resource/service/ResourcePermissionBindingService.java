@@ -3,6 +3,7 @@ package com.tiny.platform.infrastructure.auth.resource.service;
 import com.tiny.platform.infrastructure.core.exception.code.ErrorCode;
 import com.tiny.platform.infrastructure.core.exception.exception.BusinessException;
 import com.tiny.platform.infrastructure.auth.resource.domain.Resource;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
@@ -21,9 +22,20 @@ import java.util.List;
 public class ResourcePermissionBindingService {
 
     private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final ApiEndpointRouteRegistry apiEndpointRouteRegistry;
 
     public ResourcePermissionBindingService(NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this(namedParameterJdbcTemplate, null);
+    }
+
+    /**
+     * @param apiEndpointRouteRegistry 回填 api_endpoint.required_permission_id 后推进路由表代数；为 {@code null} 时不通知
+     */
+    @Autowired
+    public ResourcePermissionBindingService(NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                                            ApiEndpointRouteRegistry apiEndpointRouteRegistry) {
         this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.apiEndpointRouteRegistry = apiEndpointRouteRegistry;
     }
 
     public void bindResource(Resource resource, Long actorUserId) {
@@ -157,7 +169,7 @@ public class ResourcePermissionBindingService {
               AND TRIM(a.`permission`) <> ''
               AND (a.`required_permission_id` IS NULL OR a.`required_permission_id` <> p.`id`)
             """, params);
-        updated += namedParameterJdbcTemplate.update("""
+        int apiEndpointUpdated = namedParameterJdbcTemplate.update("""
             UPDATE `api_endpoint` e
             JOIN `permission` p
               ON p.`normalized_tenant_id` = IFNULL(e.`tenant_id`, 0)
@@ -168,7 +180,10 @@ public class ResourcePermissionBindingService {
               AND TRIM(e.`permission`) <> ''
               AND (e.`required_permission_id` IS NULL OR e.`required_permission_id` <> p.`id`)
             """, params);
-        return updated;
+        if (apiEndpointUpdated > 0 && apiEndpointRouteRegistry != null) {
+            apiEndpointRouteRegistry.markChanged(tenantId, "api_endpoint");
+        }
+        return updated + apiEndpointUpdated;
     }
 
     private String findPermissionCodeById(Long tenantId, Long permissionId) {
@@ -16,6 +16,8 @@ import com.tiny.platform.infrastructure.auth.resource.dto.ResourceResponseDto;
 import com.tiny.platform.infrastructure.auth.resource.enums.ResourceType;
 import com.tiny.platform.infrastructure.auth.resource.repository.ApiEndpointEntryRepository;
 import com.tiny.platform.infrastructure.auth.resource.repository.UiActionEntryRepository;
+import com.tiny.platform.infrastructure.auth.resource.support.ApiEndpointRouteTable;
+import com.tiny.platform.infrastructure.auth.resource.support.ApiEndpointRouteTable.CompiledApiEndpoint;
 import com.tiny.platform.infrastructure.auth.role.repository.RoleRepository;
 import com.tiny.platform.infrastructure.auth.role.service.EffectiveRoleResolutionService;
 import com.tiny.platform.infrastructure.auth.user.repository.TenantUserRepository;
@@ -67,8 +69,8 @@ public class ResourceServiceImpl implements ResourceService {
     private final CarrierPermissionReferenceSafetyService carrierPermissionReferenceSafetyService;
     private final CarrierPermissionRequirementEvaluator carrierPermissionRequirementEvaluator;
     private final AuthorizationAuditService authorizationAuditService;
+    private final ApiEndpointRouteRegistry apiEndpointRouteRegistry;
 
-    @Autowired
     public ResourceServiceImpl(RoleRepository roleRepository,
                                EffectiveRoleResolutionService effectiveRoleResolutionService,
                                TenantUserRepository tenantUserRepository,
@@ -80,6 +82,27 @@ public class ResourceServiceImpl implements ResourceService {
                                CarrierPermissionReferenceSafetyService carrierPermissionReferenceSafetyService,
                                CarrierPermissionRequirementEvaluator carrierPermissionRequirementEvaluator,
                                AuthorizationAuditService authorizationAuditService) {
+        this(roleRepository, effectiveRoleResolutionService, tenantUserRepository, userUnitRepository,
+            menuEntryRepository, uiActionEntryRepository, apiEndpointEntryRepository, resourcePermissionBindingService,
+            carrierPermissionReferenceSafetyService, carrierPermissionRequirementEvaluator, authorizationAuditService, null);
+    }
+
+    /**
+     * @param apiEndpointRouteRegistry 编译后的 api_endpoint 路由表；为 {@code null} 时退回逐请求查询 + 逐条模板比对
+     */
+    @Autowired
+    public ResourceServiceImpl(RoleRepository roleRepository,
+                               EffectiveRoleResolutionService effectiveRoleResolutionService,
+                               TenantUserRepository tenantUserRepository,
+                               UserUnitRepository userUnitRepository,
+                               MenuEntryRepository menuEntryRepository,
+                               UiActionEntryRepository uiActionEntryRepository,
+                               ApiEndpointEntryRepository apiEndpointEntryRepository,
+                               ResourcePermissionBindingService resourcePermissionBindingService,
+                               CarrierPermissionReferenceSafetyService carrierPermissionReferenceSafetyService,
+                               CarrierPermissionRequirementEvaluator carrierPermissionRequirementEvaluator,
+                               AuthorizationAuditService authorizationAuditService,
+                               ApiEndpointRouteRegistry apiEndpointRouteRegistry) {
         this.roleRepository = roleRepository;
         this.effectiveRoleResolutionService = effectiveRoleResolutionService;
         this.tenantUserRepository = tenantUserRepository;
@@ -91,6 +114,7 @@ public class ResourceServiceImpl implements ResourceService {
         this.carrierPermissionReferenceSafetyService = carrierPermissionReferenceSafetyService;
         this.carrierPermissionRequirementEvaluator = carrierPermissionRequirementEvaluator;
         this.authorizationAuditService = authorizationAuditService;
+        this.apiEndpointRouteRegistry = apiEndpointRouteRegistry;
     }
 
     @Override
@@ -841,6 +865,17 @@ public class ResourceServiceImpl implements ResourceService {
         if (!StringUtils.hasText(normalizedUri)) {
             return false;
         }
+        if (apiEndpointRouteRegistry != null) {
+            List<CompiledApiEndpoint> matched = apiEndpointRouteRegistry
+                .routeTable(currentManagedTenantId(), currentResourceLevel())
+                .match(method, normalizedUri);
+            if (matched.isEmpty()) {
+                return false;
+            }
+            Set<String> authorityCodes = resolveCurrentAuthorityCodes();
+            return matched.stream().anyMatch(compiled -> carrierPermissionRequirementEvaluator.isApiEndpointAllowed(
+                compiled.endpoint(), compiled.requirementRows(), authorityCodes));
+        }
         List<ApiEndpointEntry> endpoints = apiEndpointEntryRepository.findAll(
             apiEndpointAccessSpec(method, normalizedUri, currentManagedTenantId(), currentResourceLevel()),
             Sort.by(Sort.Order.asc("id"))
@@ -868,30 +903,42 @@ public class ResourceServiceImpl implements ResourceService {
             return ApiEndpointRequirementDecision.DENIED;
         }
 
-        List<ApiEndpointEntry> endpoints = apiEndpointEntryRepository.findAll(
-            apiEndpointAccessSpec(method, normalizedUri, currentManagedTenantId(), currentResourceLevel()),
-            Sort.by(Sort.Order.asc("id"))
-        );
-        if (endpoints.isEmpty()) {
-            return ApiEndpointRequirementDecision.DENIED;
-        }
-        // Template match must be strict and deterministic.
-        endpoints = endpoints.stream()
-            .filter(e -> apiEndpointUriTemplateMatches(e.getUri(), normalizedUri))
-            .toList();
-        if (endpoints.isEmpty()) {
-            return ApiEndpointRequirementDecision.DENIED;
-        }
-        if (endpoints.size() != 1) {
-            return ApiEndpointRequirementDecision.DENIED;
+        RequirementAwareAuditDetail detail;
+        if (apiEndpointRouteRegistry != null) {
+            List<CompiledApiEndpoint> matched = apiEndpointRouteRegistry
+                .routeTable(currentManagedTenantId(), currentResourceLevel())
+                .match(method, normalizedUri);
+            // Unregistered or ambiguous requests fail closed, same as the query-based path below.
+            if (matched.size() != 1) {
+                return ApiEndpointRequirementDecision.DENIED;
+            }
+            CompiledApiEndpoint compiled = matched.getFirst();
+            detail = carrierPermissionRequirementEvaluator.evaluateApiEndpointRequirementDetail(
+                compiled.endpoint(), compiled.requirementRows(), resolveCurrentAuthorityCodes());
+        } else {
+            List<ApiEndpointEntry> endpoints = apiEndpointEntryRepository.findAll(
+                apiEndpointAccessSpec(method, normalizedUri, currentManagedTenantId(), currentResourceLevel()),
+                Sort.by(Sort.Order.asc("id"))
+            );
+            if (endpoints.isEmpty()) {
+                return ApiEndpointRequirementDecision.DENIED;
+            }
+            // Template match must be strict and deterministic.
+            endpoints = endpoints.stream()
+                .filter(e -> apiEndpointUriTemplateMatches(e.getUri(), normalizedUri))
+                .toList();
+            if (endpoints.isEmpty()) {
+                return ApiEndpointRequirementDecision.DENIED;
+            }
+            if (endpoints.size() != 1) {
+                return ApiEndpointRequirementDecision.DENIED;
+            }
+            ApiEndpointEntry endpoint = endpoints.getFirst();
+            detail = carrierPermissionRequirementEvaluator.evaluateApiEndpointRequirementDetail(endpoint, resolveCurrentAuthorityCodes());
         }
-        ApiEndpointEntry endpoint = endpoints.getFirst();
-        Set<String> authorityCodes = resolveCurrentAuthorityCodes();
-        RequirementAwareAuditDetail detail =
-            carrierPermissionRequirementEvaluator.evaluateApiEndpointRequirementDetail(endpoint, authorityCodes);
 
         try {
-            authorizationAuditService.logRequirementAware(
+            authorizationAuditService.submitRequirementAware(
                 AuthorizationAuditEventType.REQUIREMENT_AWARE_ACCESS,
                 currentManagedTenantId(),
                 "api-endpoint-unified-guard",
@@ -1242,7 +1289,11 @@ public class ResourceServiceImpl implements ResourceService {
         return switch (resource.getType()) {
             case DIRECTORY, MENU -> toResource(menuEntryRepository.save(toMenuEntry(resource)));
             case BUTTON -> toResource(uiActionEntryRepository.save(toUiActionEntry(resource)));
-            case API -> toResource(apiEndpointEntryRepository.save(toApiEndpointEntry(resource)));
+            case API -> {
+                Resource saved = toResource(apiEndpointEntryRepository.save(toApiEndpointEntry(resource)));
+                markApiEndpointRoutesChanged(resource.getTenantId());
+                yield saved;
+            }
         };
     }
 
@@ -1254,6 +1305,13 @@ public class ResourceServiceImpl implements ResourceService {
         menuEntryRepository.deleteAllByIdInBatch(ids);
         uiActionEntryRepository.deleteAllByIdInBatch(ids);
         apiEndpointEntryRepository.deleteAllByIdInBatch(ids);
+        markApiEndpointRoutesChanged(currentManagedTenantId());
+    }
+
+    private void markApiEndpointRoutesChanged(Long tenantId) {
+        if (apiEndpointRouteRegistry != null) {
+            apiEndpointRouteRegistry.markChanged(tenantId, "api_endpoint");
+        }
     }
 
     private com.tiny.platform.infrastructure.menu.domain.MenuEntry toMenuEntry(Resource resource) {
@@ -1501,22 +1559,7 @@ public class ResourceServiceImpl implements ResourceService {
 
 
     private String normalizeCarrierPath(String path) {
-        if (!StringUtils.hasText(path)) {
-            return null;
-        }
-        String normalized = path.trim();
-        int queryIndex = normalized.indexOf('?');
-        if (queryIndex >= 0) {
-            normalized = normalized.substring(0, queryIndex);
-        }
-        int fragmentIndex = normalized.indexOf('#');
-        if (fragmentIndex >= 0) {
-            normalized = normalized.substring(0, fragmentIndex);
-        }
-        if (normalized.length() > 1 && normalized.endsWith("/")) {
-            normalized = normalized.substring(0, normalized.length() - 1);
-        }
-        return normalized;
+        return ApiEndpointRouteTable.normalizePath(path);
     }
 
     /**
@@ -1570,19 +1613,8 @@ public class ResourceServiceImpl implements ResourceService {
     }
 
     private boolean isTemplatePlaceholderSegment(String segment) {
-        if (!StringUtils.hasText(segment)) {
-            return false;
-        }
         // Placeholder must occupy the whole segment, e.g. "{id}".
-        // Disallow nested braces and any slash.
-        if (segment.length() < 3 || !segment.startsWith("{") || !segment.endsWith("}")) {
-            return false;
-        }
-        String inner = segment.substring(1, segment.length() - 1);
-        if (!StringUtils.hasText(inner)) {
-            return false;
-        }
-        return inner.chars().allMatch(ch -> ch != '/' && ch != '{' && ch != '}');
+        return ApiEndpointRouteTable.isPlaceholderSegment(segment);
     }
 
     private Set<String> resolveCurrentAuthorityCodes() {
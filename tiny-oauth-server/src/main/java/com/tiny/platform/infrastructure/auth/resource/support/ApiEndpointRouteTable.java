@@ -0,0 +1,204 @@
+package com.tiny.platform.infrastructure.auth.resource.support;
+
+import com.tiny.platform.infrastructure.auth.resource.domain.ApiEndpointEntry;
+import com.tiny.platform.infrastructure.auth.resource.repository.CarrierPermissionRequirementRow;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 单个 (tenantId, resourceLevel) 作用域下 api_endpoint 的编译后路由表。
+ *
+ * <p>按 HTTP method 分桶，每个桶是一棵按路径段组织的前缀树：字面量段走哈希子节点，
+ * 整段占位符（如 {@code {id}}）折叠为单个占位子节点；叶子上挂预先关联好的 requirement 行。
+ * 匹配语义与逐条模板比对完全一致（段数相同、占位符匹配任意非空段、无前缀/包含回退），
+ * 复杂度为 O(路径段数)，且全程不访问数据库。</p>
+ *
+ * <p>实例不可变，由 {@code ApiEndpointRouteRegistry} 整体替换。</p>
+ */
+public final class ApiEndpointRouteTable {
+
+    private static final String[] EMPTY_SEGMENTS = new String[0];
+
+    private final Map<String, Node> rootsByMethod;
+    private final long generation;
+    private final long compiledAtMillis;
+    private final int endpointCount;
+
+    private ApiEndpointRouteTable(Map<String, Node> rootsByMethod, long generation, long compiledAtMillis, int endpointCount) {
+        this.rootsByMethod = rootsByMethod;
+        this.generation = generation;
+        this.compiledAtMillis = compiledAtMillis;
+        this.endpointCount = endpointCount;
+    }
+
+    /**
+     * @param endpoints        作用域内已启用的 api_endpoint
+     * @param requirementRows  按 api_endpoint_id 分组的 requirement 行（可缺省，缺省即 fail-closed）
+     */
+    public static ApiEndpointRouteTable compile(Collection<ApiEndpointEntry> endpoints,
+                                                Map<Long, List<CarrierPermissionRequirementRow>> requirementRows,
+                                                long generation,
+                                                long compiledAtMillis) {
+        Map<String, Node> roots = new HashMap<>();
+        int count = 0;
+        if (endpoints != null) {
+            for (ApiEndpointEntry endpoint : endpoints) {
+                if (endpoint == null) {
+                    continue;
+                }
+                String template = normalizePath(endpoint.getUri());
+                if (!StringUtils.hasText(template)) {
+                    continue;
+                }
+                String methodKey = endpoint.getMethod() == null ? "" : endpoint.getMethod().toUpperCase(Locale.ROOT);
+                Node node = roots.computeIfAbsent(methodKey, ignored -> new Node());
+                for (String segment : splitSegments(template)) {
+                    node = isPlaceholderSegment(segment) ? node.placeholderChild() : node.literalChild(segment);
+                }
+                List<CarrierPermissionRequirementRow> rows = endpoint.getId() == null || requirementRows == null
+                    ? List.of()
+                    : requirementRows.getOrDefault(endpoint.getId(), List.of());
+                node.endpoints.add(new CompiledApiEndpoint(endpoint, List.copyOf(rows)));
+                count++;
+            }
+        }
+        return new ApiEndpointRouteTable(roots, generation, compiledAtMillis, count);
+    }
+
+    /**
+     * 返回与请求匹配的全部端点；调用方按原有规则处理 0/多条匹配。
+     *
+     * @param method         请求方法；为空时不按方法过滤
+     * @param normalizedUri  已经 {@link #normalizePath(String)} 处理的请求路径
+     */
+    public List<CompiledApiEndpoint> match(String method, String normalizedUri) {
+        if (!StringUtils.hasText(normalizedUri) || rootsByMethod.isEmpty()) {
+            return List.of();
+        }
+        String[] segments = splitSegments(normalizedUri);
+        List<CompiledApiEndpoint> matched = new ArrayList<>(1);
+        if (StringUtils.hasText(method)) {
+            Node root = rootsByMethod.get(method.trim().toUpperCase(Locale.ROOT));
+            if (root != null) {
+                collect(root, segments, 0, matched);
+            }
+            return matched;
+        }
+        for (Node root : rootsByMethod.values()) {
+            collect(root, segments, 0, matched);
+        }
+        return matched;
+    }
+
+    public long generation() {
+        return generation;
+    }
+
+    public long compiledAtMillis() {
+        return compiledAtMillis;
+    }
+
+    public int endpointCount() {
+        return endpointCount;
+    }
+
+    /**
+     * 去掉 query/fragment 与末尾 "/"，与控制面载体路径归一化规则一致。
+     */
+    public static String normalizePath(String path) {
+        if (!StringUtils.hasText(path)) {
+            return null;
+        }
+        String normalized = path.trim();
+        int queryIndex = normalized.indexOf('?');
+        if (queryIndex >= 0) {
+            normalized = normalized.substring(0, queryIndex);
+        }
+        int fragmentIndex = normalized.indexOf('#');
+        if (fragmentIndex >= 0) {
+            normalized = normalized.substring(0, fragmentIndex);
+        }
+        if (normalized.length() > 1 && normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized;
+    }
+
+    /**
+     * 占位符必须占满整段，例如 "{id}"；不允许嵌套花括号或斜杠。
+     */
+    public static boolean isPlaceholderSegment(String segment) {
+        if (!StringUtils.hasText(segment)) {
+            return false;
+        }
+        if (segment.length() < 3 || !segment.startsWith("{") || !segment.endsWith("}")) {
+            return false;
+        }
+        String inner = segment.substring(1, segment.length() - 1);
+        if (!StringUtils.hasText(inner)) {
+            return false;
+        }
+        return inner.chars().allMatch(ch -> ch != '/' && ch != '{' && ch != '}');
+    }
+
+    private static String[] splitSegments(String uri) {
+        String normalized = uri.startsWith("/") ? uri.substring(1) : uri;
+        if (!StringUtils.hasText(normalized)) {
+            return EMPTY_SEGMENTS;
+        }
+        return normalized.split("/", -1);
+    }
+
+    private static void collect(Node node, String[] segments, int depth, List<CompiledApiEndpoint> matched) {
+        if (depth == segments.length) {
+            matched.addAll(node.endpoints);
+            return;
+        }
+        String segment = segments[depth];
+        Node literal = node.literals == null ? null : node.literals.get(segment);
+        if (literal != null) {
+            collect(literal, segments, depth + 1, matched);
+        }
+        // placeholder matches exactly one non-blank path segment
+        if (node.placeholder != null && StringUtils.hasText(segment)) {
+            collect(node.placeholder, segments, depth + 1, matched);
+        }
+    }
+
+    /**
+     * 编译后的端点：实体快照 + 预关联的 requirement 行（按 group/sort 有序）。
+     */
+    public record CompiledApiEndpoint(ApiEndpointEntry endpoint, List<CarrierPermissionRequirementRow> requirementRows) {
+
+        public Long id() {
+            return endpoint.getId();
+        }
+    }
+
+    private static final class Node {
+        private Map<String, Node> literals;
+        private Node placeholder;
+        private final List<CompiledApiEndpoint> endpoints = new ArrayList<>(1);
+
+        private Node literalChild(String segment) {
+            if (literals == null) {
+                literals = new HashMap<>();
+            }
+            return literals.computeIfAbsent(Objects.requireNonNull(segment), ignored -> new Node());
+        }
+
+        private Node placeholderChild() {
+            if (placeholder == null) {
+                placeholder = new Node();
+            }
+            return placeholder;
+        }
+    }
+}
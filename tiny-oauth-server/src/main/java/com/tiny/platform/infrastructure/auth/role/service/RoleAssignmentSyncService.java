@@ -1,5 +1,6 @@
 package com.tiny.platform.infrastructure.auth.role.service;
 
+import com.tiny.platform.core.oauth.security.AuthorizationChangedEvent;
 import com.tiny.platform.infrastructure.auth.audit.domain.AuthorizationAuditEventType;
 import com.tiny.platform.infrastructure.auth.audit.service.AuthorizationAuditService;
 import com.tiny.platform.infrastructure.auth.org.domain.OrganizationUnit;
@@ -11,6 +12,8 @@ import com.tiny.platform.infrastructure.auth.user.domain.TenantUser;
 import com.tiny.platform.infrastructure.auth.user.repository.TenantUserRepository;
 import com.tiny.platform.infrastructure.core.exception.code.ErrorCode;
 import com.tiny.platform.infrastructure.core.exception.exception.BusinessException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -41,6 +44,7 @@ public class RoleAssignmentSyncService {
     private final RoleAssignmentRepository roleAssignmentRepository;
     private final RoleConstraintService roleConstraintService;
     private final AuthorizationAuditService auditService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public RoleAssignmentSyncService(TenantUserRepository tenantUserRepository,
                                      OrganizationUnitRepository organizationUnitRepository,
@@ -48,12 +52,25 @@ public class RoleAssignmentSyncService {
                                      RoleAssignmentRepository roleAssignmentRepository,
                                      RoleConstraintService roleConstraintService,
                                      AuthorizationAuditService auditService) {
+        this(tenantUserRepository, organizationUnitRepository, userUnitRepository, roleAssignmentRepository,
+            roleConstraintService, auditService, event -> { });
+    }
+
+    @Autowired
+    public RoleAssignmentSyncService(TenantUserRepository tenantUserRepository,
+                                     OrganizationUnitRepository organizationUnitRepository,
+                                     UserUnitRepository userUnitRepository,
+                                     RoleAssignmentRepository roleAssignmentRepository,
+                                     RoleConstraintService roleConstraintService,
+                                     AuthorizationAuditService auditService,
+                                     ApplicationEventPublisher eventPublisher) {
         this.tenantUserRepository = tenantUserRepository;
         this.organizationUnitRepository = organizationUnitRepository;
         this.userUnitRepository = userUnitRepository;
         this.roleAssignmentRepository = roleAssignmentRepository;
         this.roleConstraintService = roleConstraintService;
         this.auditService = auditService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -72,6 +89,7 @@ public class RoleAssignmentSyncService {
         membership.setLeftAt(null);
         membership.setLastActivatedAt(LocalDateTime.now());
         tenantUserRepository.save(membership);
+        eventPublisher.publishEvent(AuthorizationChangedEvent.ofUser(tenantId, userId, "tenant_membership"));
     }
 
     @Transactional
@@ -103,6 +121,7 @@ public class RoleAssignmentSyncService {
             userId, tenantId, scope.scopeType(), scope.scopeId(), LocalDateTime.now());
         roleAssignmentRepository.deleteUserAssignmentsInScope(userId, tenantId, scope.scopeType(), scope.scopeId());
         saveScopedAssignments(userId, tenantId, scope, roleIds);
+        eventPublisher.publishEvent(AuthorizationChangedEvent.ofUser(tenantId, userId, "role_assignment"));
         auditService.logSuccess(AuthorizationAuditEventType.ROLE_ASSIGNMENT_REPLACE,
             tenantId, userId, null, scope.scopeType(), scope.scopeId(),
             buildReplaceDetail("previousRoleIds", previousRoleIds, "newRoleIds", roleIds, scope));
@@ -127,6 +146,7 @@ public class RoleAssignmentSyncService {
         if (userIds == null || userIds.isEmpty()) {
             // Revocation/cleanup: when caller wants to set role users empty, we keep old behavior.
             roleAssignmentRepository.deleteRoleAssignmentsInScope(roleId, tenantId, scope.scopeType(), scope.scopeId());
+            eventPublisher.publishEvent(AuthorizationChangedEvent.ofTenant(tenantId, "role_assignment"));
             auditService.logSuccess(AuthorizationAuditEventType.ROLE_ASSIGNMENT_REPLACE,
                 tenantId, null, roleId, scope.scopeType(), scope.scopeId(),
                 buildReplaceDetail("previousUserIds", previousUserIds, "newUserIds", List.of(), scope));
@@ -154,6 +174,7 @@ public class RoleAssignmentSyncService {
         // Only after all validations passed, perform replace deletion.
         roleAssignmentRepository.deleteRoleAssignmentsInScope(roleId, tenantId, scope.scopeType(), scope.scopeId());
         roleAssignmentRepository.saveAll(assignments);
+        eventPublisher.publishEvent(AuthorizationChangedEvent.ofTenant(tenantId, "role_assignment"));
         auditService.logSuccess(AuthorizationAuditEventType.ROLE_ASSIGNMENT_REPLACE,
             tenantId, null, roleId, scope.scopeType(), scope.scopeId(),
             buildReplaceDetail("previousUserIds", previousUserIds, "newUserIds", new ArrayList<>(distinctUserIds), scope));
@@ -1,5 +1,6 @@
 package com.tiny.platform.infrastructure.auth.role.service;
 
+import com.tiny.platform.core.oauth.security.AuthorizationChangedEvent;
 import com.tiny.platform.infrastructure.auth.role.domain.RoleCardinality;
 import com.tiny.platform.infrastructure.auth.role.domain.RoleHierarchy;
 import com.tiny.platform.infrastructure.auth.role.domain.RoleMutex;
@@ -15,6 +16,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -31,17 +34,30 @@ public class RoleConstraintRuleAdminService {
     private final RoleMutexRepository roleMutexRepository;
     private final RoleCardinalityRepository roleCardinalityRepository;
     private final RolePrerequisiteRepository rolePrerequisiteRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public RoleConstraintRuleAdminService(
         RoleHierarchyRepository roleHierarchyRepository,
         RoleMutexRepository roleMutexRepository,
         RoleCardinalityRepository roleCardinalityRepository,
         RolePrerequisiteRepository rolePrerequisiteRepository
+    ) {
+        this(roleHierarchyRepository, roleMutexRepository, roleCardinalityRepository, rolePrerequisiteRepository, event -> { });
+    }
+
+    @Autowired
+    public RoleConstraintRuleAdminService(
+        RoleHierarchyRepository roleHierarchyRepository,
+        RoleMutexRepository roleMutexRepository,
+        RoleCardinalityRepository roleCardinalityRepository,
+        RolePrerequisiteRepository rolePrerequisiteRepository,
+        ApplicationEventPublisher eventPublisher
     ) {
         this.roleHierarchyRepository = roleHierarchyRepository;
         this.roleMutexRepository = roleMutexRepository;
         this.roleCardinalityRepository = roleCardinalityRepository;
         this.rolePrerequisiteRepository = rolePrerequisiteRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -62,6 +78,7 @@ public class RoleConstraintRuleAdminService {
         edge.setChildRoleId(childRoleId);
         edge.setParentRoleId(parentRoleId);
         roleHierarchyRepository.save(edge);
+        eventPublisher.publishEvent(AuthorizationChangedEvent.ofTenant(tenantId, "role_hierarchy"));
     }
 
     @Transactional(readOnly = true)
@@ -76,6 +93,7 @@ public class RoleConstraintRuleAdminService {
         requirePositive(childRoleId, "childRoleId");
         requirePositive(parentRoleId, "parentRoleId");
         roleHierarchyRepository.deleteByTenantIdAndChildRoleIdAndParentRoleId(tenantId, childRoleId, parentRoleId);
+        eventPublisher.publishEvent(AuthorizationChangedEvent.ofTenant(tenantId, "role_hierarchy"));
     }
 
     @Transactional
@@ -1,5 +1,6 @@
 package com.tiny.platform.infrastructure.auth.role.service;
 
+import com.tiny.platform.core.oauth.security.AuthorizationChangedEvent;
 import com.tiny.platform.core.oauth.tenant.TenantContext;
 import com.tiny.platform.infrastructure.auth.role.domain.Role;
 import com.tiny.platform.infrastructure.auth.role.dto.RoleCreateUpdateDto;
@@ -8,6 +9,8 @@ import com.tiny.platform.infrastructure.auth.role.dto.RoleResponseDto;
 import com.tiny.platform.infrastructure.auth.role.repository.RoleRepository;
 import com.tiny.platform.infrastructure.auth.user.repository.TenantUserRepository;
 import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
@@ -27,17 +30,30 @@ public class RoleServiceImpl implements RoleService {
     private final RoleAssignmentSyncService roleAssignmentSyncService;
     private final EffectiveRoleResolutionService effectiveRoleResolutionService;
     private final RoleConstraintService roleConstraintService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public RoleServiceImpl(RoleRepository roleRepository,
                            TenantUserRepository tenantUserRepository,
                            RoleAssignmentSyncService roleAssignmentSyncService,
                            EffectiveRoleResolutionService effectiveRoleResolutionService,
                            RoleConstraintService roleConstraintService) {
+        this(roleRepository, tenantUserRepository, roleAssignmentSyncService, effectiveRoleResolutionService,
+            roleConstraintService, event -> { });
+    }
+
+    @Autowired
+    public RoleServiceImpl(RoleRepository roleRepository,
+                           TenantUserRepository tenantUserRepository,
+                           RoleAssignmentSyncService roleAssignmentSyncService,
+                           EffectiveRoleResolutionService effectiveRoleResolutionService,
+                           RoleConstraintService roleConstraintService,
+                           ApplicationEventPublisher eventPublisher) {
         this.roleRepository = roleRepository;
         this.tenantUserRepository = tenantUserRepository;
         this.roleAssignmentSyncService = roleAssignmentSyncService;
         this.effectiveRoleResolutionService = effectiveRoleResolutionService;
         this.roleConstraintService = roleConstraintService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -109,7 +125,10 @@ public class RoleServiceImpl implements RoleService {
     @Override
     public void delete(Long id) {
         findManagedRole(id)
-            .ifPresent(roleRepository::delete);
+            .ifPresent(role -> {
+                roleRepository.delete(role);
+                eventPublisher.publishEvent(AuthorizationChangedEvent.ofTenant(role.getTenantId(), "role_delete"));
+            });
     }
 
     @Override
@@ -171,6 +190,7 @@ public class RoleServiceImpl implements RoleService {
         normalizedPermissionIds.forEach(permissionId ->
             roleRepository.addRolePermissionRelationByPermissionId(tenantId, roleId, permissionId)
         );
+        eventPublisher.publishEvent(AuthorizationChangedEvent.ofTenant(tenantId, "role_permission"));
     }
 
     @Override
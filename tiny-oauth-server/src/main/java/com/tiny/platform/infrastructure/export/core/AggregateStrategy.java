@@ -9,9 +9,19 @@ package com.tiny.platform.infrastructure.export.core;
  *  - isAggregate(fieldName) 用于判断某列是否需要聚合
  *  - accumulate(...) 在流式写入时被调用用于累加
  *  - finalize(...) 在写合计行时将累加值转换为输出（例如 avg 需除以计数）
+ *  - accumulateColumn(...) 导出流水线按批调用；默认逐行委托 accumulate，
+ *    数值列可覆盖为直接遍历 {@link ColumnVector} 的 long[]/double[]，避免逐行装箱
  */
 public interface AggregateStrategy {
     boolean isAggregate(String fieldName);
     Object accumulate(String fieldName, Object currentValue, Object accumulatedValue);
     Object finalize(String fieldName, Object accumulatedValue);
-}
\ No newline at end of file
+
+    default Object accumulateColumn(String fieldName, ColumnVector column, Object accumulatedValue) {
+        Object accumulated = accumulatedValue;
+        for (int i = 0; i < column.size(); i++) {
+            accumulated = accumulate(fieldName, column.get(i), accumulated);
+        }
+        return accumulated;
+    }
+}
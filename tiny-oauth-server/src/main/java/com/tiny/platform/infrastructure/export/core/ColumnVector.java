@@ -0,0 +1,138 @@
+package com.tiny.platform.infrastructure.export.core;
+
+import java.util.Arrays;
+
+/**
+ * ColumnVector —— RowBatch 中的一列
+ *
+ * 说明：
+ *  - 始终保留数据源给出的原始对象，写出时无需重新装箱
+ *  - 整数列（Long/Integer/Short/Byte）同时写入 long[]，Double 列同时写入 double[]，
+ *    聚合与写出可直接按原始类型读取；一批内出现其他类型时该列退化为 OBJECT
+ *  - 数组随批次复用，只在首次需要时分配
+ */
+public final class ColumnVector {
+
+    /**
+     * 列类型：NULL 表示本批该列全为 null
+     */
+    public enum Type { NULL, LONG, DOUBLE, OBJECT }
+
+    private final Object[] values;
+    private long[] longs;
+    private double[] doubles;
+    private Type type = Type.NULL;
+    private int size;
+
+    ColumnVector(int capacity) {
+        this.values = new Object[capacity];
+    }
+
+    public Type type() {
+        return type;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isNull(int index) {
+        return values[index] == null;
+    }
+
+    public Object get(int index) {
+        return values[index];
+    }
+
+    /**
+     * 仅 LONG 列可用；null 单元格返回 0
+     */
+    public long getLong(int index) {
+        if (type != Type.LONG) {
+            throw new IllegalStateException("列类型不是 LONG: " + type);
+        }
+        return longs[index];
+    }
+
+    /**
+     * LONG 与 DOUBLE 列可用；null 单元格返回 0
+     */
+    public double getDouble(int index) {
+        if (type == Type.DOUBLE) {
+            return doubles[index];
+        }
+        if (type == Type.LONG) {
+            return longs[index];
+        }
+        throw new IllegalStateException("列类型不是数值: " + type);
+    }
+
+    void set(int index, Object value) {
+        values[index] = value;
+        if (index >= size) {
+            size = index + 1;
+        }
+        if (value == null) {
+            if (longs != null) {
+                longs[index] = 0L;
+            }
+            if (doubles != null) {
+                doubles[index] = 0D;
+            }
+            return;
+        }
+        switch (type) {
+            case NULL -> {
+                if (isIntegral(value)) {
+                    type = Type.LONG;
+                    setLong(index, ((Number) value).longValue());
+                } else if (value instanceof Double d) {
+                    type = Type.DOUBLE;
+                    setDouble(index, d);
+                } else {
+                    type = Type.OBJECT;
+                }
+            }
+            case LONG -> {
+                if (isIntegral(value)) {
+                    setLong(index, ((Number) value).longValue());
+                } else {
+                    type = Type.OBJECT;
+                }
+            }
+            case DOUBLE -> {
+                if (value instanceof Double d) {
+                    setDouble(index, d);
+                } else {
+                    type = Type.OBJECT;
+                }
+            }
+            case OBJECT -> {
+            }
+        }
+    }
+
+    void clear() {
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+        type = Type.NULL;
+    }
+
+    private void setLong(int index, long value) {
+        if (longs == null) {
+            longs = new long[values.length];
+        }
+        longs[index] = value;
+    }
+
+    private void setDouble(int index, double value) {
+        if (doubles == null) {
+            doubles = new double[values.length];
+        }
+        doubles[index] = value;
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+}
@@ -0,0 +1,61 @@
+package com.tiny.platform.infrastructure.export.core;
+
+import java.util.Locale;
+
+/**
+ * ExportFormat —— 导出文件格式
+ *
+ * 说明：
+ *  - XLSX：默认格式，由 export.writer.type 选定的 WriterAdapter（fesod / poi）写出
+ *  - CSV：UTF-8（带 BOM，便于 Excel 直接打开），逐行流式写出，内存占用与行数无关
+ *  - CSV_GZIP：gzip 压缩的 CSV，适合超大导出的网络传输
+ */
+public enum ExportFormat {
+    XLSX("xlsx", ".xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+    CSV("csv", ".csv", "text/csv;charset=UTF-8"),
+    CSV_GZIP("csv.gz", ".csv.gz", "application/gzip");
+
+    private final String code;
+    private final String extension;
+    private final String contentType;
+
+    ExportFormat(String code, String extension, String contentType) {
+        this.code = code;
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getCode() { return code; }
+    public String getExtension() { return extension; }
+    public String getContentType() { return contentType; }
+
+    /**
+     * 解析请求中的格式，空值为 XLSX；同时接受 code（csv.gz）与枚举名（CSV_GZIP）
+     */
+    public static ExportFormat of(String value) {
+        if (value == null || value.isBlank()) {
+            return XLSX;
+        }
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        for (ExportFormat format : values()) {
+            if (format.code.equals(normalized) || format.name().toLowerCase(Locale.ROOT).equals(normalized)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("不支持的导出格式: " + value);
+    }
+
+    /**
+     * 按文件名后缀识别格式，无法识别时按 XLSX 处理（兼容历史任务文件）
+     */
+    public static ExportFormat fromFileName(String fileName) {
+        String lower = fileName == null ? "" : fileName.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(CSV_GZIP.extension)) {
+            return CSV_GZIP;
+        }
+        if (lower.endsWith(CSV.extension)) {
+            return CSV;
+        }
+        return XLSX;
+    }
+}
@@ -0,0 +1,34 @@
+package com.tiny.platform.infrastructure.export.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ExportPartition —— 数据源键空间中的一段，范围为 [lowerBound, upperBound)
+ *
+ * index 为分区在输出中的顺序，按 index 依次拼接各分区的数据即为完整导出结果。
+ */
+public record ExportPartition(int index, long lowerBound, long upperBound) {
+
+    /**
+     * 将闭区间 [minKey, maxKey] 均分为至多 count 段，按键降序编号（与 ORDER BY id DESC 的 keyset 导出一致）
+     */
+    public static List<ExportPartition> splitDescending(long minKey, long maxKey, int count) {
+        if (maxKey < minKey || count <= 0) {
+            return List.of();
+        }
+        long span = maxKey - minKey + 1;
+        int parts = (int) Math.max(1, Math.min(count, span));
+        long step = span / parts;
+        long remainder = span % parts;
+        List<ExportPartition> partitions = new ArrayList<>(parts);
+        long upper = maxKey + 1;
+        for (int i = 0; i < parts; i++) {
+            long size = step + (i < remainder ? 1 : 0);
+            long lower = upper - size;
+            partitions.add(new ExportPartition(i, lower, upper));
+            upper = lower;
+        }
+        return partitions;
+    }
+}
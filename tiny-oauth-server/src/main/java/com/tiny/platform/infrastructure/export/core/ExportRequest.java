@@ -6,19 +6,23 @@ import java.util.List;
  * ExportRequest —— 统一的导出请求，仅包含 sheets 配置
  *
  * 说明：
- *  - fileName: 最终的输出文件名（无扩展名），默认会加 .xlsx
+ *  - fileName: 最终的输出文件名（无扩展名），按 format 追加扩展名，默认 .xlsx
+ *  - format: 导出格式 xlsx / csv / csv.gz，默认 xlsx，见 {@link ExportFormat}
  *  - async: 是否异步导出
  *  - pageSize: 如果 DataProvider 支持分页，作为每页大小
  *  - sheets: 必填，至少包含一个 SheetConfig
  */
 public class ExportRequest {
     private String fileName;
+    private String format;
     private boolean async = false;
     private int pageSize = 5000;
     private List<SheetConfig> sheets;
 
     public String getFileName() { return fileName; }
     public void setFileName(String fileName) { this.fileName = fileName; }
+    public String getFormat() { return format; }
+    public void setFormat(String format) { this.format = format; }
     public boolean isAsync() { return async; }
     public void setAsync(boolean async) { this.async = async; }
     public int getPageSize() { return pageSize; }
@@ -0,0 +1,31 @@
+package com.tiny.platform.infrastructure.export.core;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 可按键空间切分的 DataProvider 扩展接口。
+ *
+ * <p>说明：
+ * <ul>
+ *   <li>partitions: 按当前过滤条件切分键空间；按返回顺序拼接各分区的 fetchPartition 结果，
+ *       须与 fetchIterator 的输出一致。返回空列表或单个分区时导出退回顺序读取</li>
+ *   <li>fetchPartition: 只读取一个分区的数据，会在不同线程上并发调用；
+ *       FilterAwareDataProvider 的过滤条件由导出框架在调用线程上设置</li>
+ * </ul>
+ */
+public interface PartitionedDataProvider<T> extends DataProvider<T> {
+
+    /**
+     * 切分当前导出的键空间。
+     *
+     * @param maxPartitions 期望的最大分区数
+     * @return 按输出顺序排列的分区
+     */
+    List<ExportPartition> partitions(int maxPartitions);
+
+    /**
+     * 读取单个分区，流式返回数据。
+     */
+    Iterator<T> fetchPartition(ExportPartition partition, int batchSize);
+}
@@ -0,0 +1,160 @@
+package com.tiny.platform.infrastructure.export.core;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * RowBatch —— 导出流水线内部的一批行，按列存储
+ *
+ * 说明：
+ *  - 固定容量、按列保存（{@link ColumnVector}），整批在线程间交接，批次清空后复用
+ *  - {@link #row(int)} / {@link #rows(int, int)} 返回的是视图，只在本批被清空前有效；
+ *    需要跨批保留时用 {@link #copyRow(int)}
+ *  - 非线程安全：同一时刻只应由一个线程读写
+ */
+public final class RowBatch {
+
+    private final ColumnVector[] columns;
+    private final int capacity;
+    private RowView[] rowViews;
+    private int size;
+
+    public RowBatch(int columnCount, int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.columns = new ColumnVector[Math.max(0, columnCount)];
+        for (int c = 0; c < columns.length; c++) {
+            columns[c] = new ColumnVector(this.capacity);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int columnCount() {
+        return columns.length;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean isFull() {
+        return size >= capacity;
+    }
+
+    public ColumnVector column(int column) {
+        return columns[column];
+    }
+
+    /**
+     * 追加一行并返回行号，随后通过 {@link #set(int, int, Object)} 填充各列
+     */
+    public int appendRow() {
+        if (size >= capacity) {
+            throw new IllegalStateException("RowBatch 已满: capacity=" + capacity);
+        }
+        return size++;
+    }
+
+    public void set(int row, int column, Object value) {
+        columns[column].set(row, value);
+    }
+
+    public Object get(int row, int column) {
+        return columns[column].get(row);
+    }
+
+    /**
+     * 第 row 行的只读视图
+     */
+    public List<Object> row(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row=" + row + ", size=" + size);
+        }
+        if (rowViews == null) {
+            rowViews = new RowView[capacity];
+        }
+        RowView view = rowViews[row];
+        if (view == null) {
+            view = new RowView(row);
+            rowViews[row] = view;
+        }
+        return view;
+    }
+
+    /**
+     * [from, to) 行的只读视图，供按 List 行写出的写入器整段写入
+     */
+    public List<List<Object>> rows(int from, int to) {
+        if (from < 0 || to > size || from > to) {
+            throw new IndexOutOfBoundsException("from=" + from + ", to=" + to + ", size=" + size);
+        }
+        return new RowsView(from, to);
+    }
+
+    public List<Object> copyRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row=" + row + ", size=" + size);
+        }
+        List<Object> copy = new ArrayList<>(columns.length);
+        for (ColumnVector column : columns) {
+            copy.add(column.get(row));
+        }
+        return copy;
+    }
+
+    /**
+     * 清空本批（释放对行数据的引用），保留已分配的数组以便复用
+     */
+    public void clear() {
+        for (ColumnVector column : columns) {
+            column.clear();
+        }
+        size = 0;
+    }
+
+    private final class RowView extends AbstractList<Object> implements RandomAccess {
+        private final int index;
+
+        private RowView(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public Object get(int column) {
+            return columns[column].get(index);
+        }
+
+        @Override
+        public int size() {
+            return columns.length;
+        }
+    }
+
+    private final class RowsView extends AbstractList<List<Object>> implements RandomAccess {
+        private final int from;
+        private final int to;
+
+        private RowsView(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public List<Object> get(int index) {
+            return row(from + index);
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+}
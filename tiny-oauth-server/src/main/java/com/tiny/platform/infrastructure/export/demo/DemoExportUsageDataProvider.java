@@ -1,6 +1,8 @@
 package com.tiny.platform.infrastructure.export.demo;
 
+import com.tiny.platform.infrastructure.export.core.ExportPartition;
 import com.tiny.platform.infrastructure.export.core.FilterAwareDataProvider;
+import com.tiny.platform.infrastructure.export.core.PartitionedDataProvider;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 
@@ -27,12 +29,14 @@ import java.util.Map;
  *   <li>✅ 避免导出链路实例化大量托管 Entity，降低一阶缓存压力</li>
  *   <li>✅ 使用 JPA Specification，类型安全，自动复用过滤逻辑</li>
  *   <li>✅ 返回 Map，可被导出框架直接按字段名取值</li>
+ *   <li>✅ 导出全部时可按 id 范围切分为多个分区，由导出框架并行读取</li>
  * </ul>
  *
  * <p>注意：通过 ThreadLocal 存储当前线程的过滤条件，配合 FilterAwareDataProvider 接口使用。</p>
  */
 @Component("demo_export_usage")
-public class DemoExportUsageDataProvider implements FilterAwareDataProvider<Map<String, Object>> {
+public class DemoExportUsageDataProvider implements FilterAwareDataProvider<Map<String, Object>>,
+        PartitionedDataProvider<Map<String, Object>> {
 
     private static final List<String> EXPORT_FIELDS = List.of(
             "id",
@@ -137,7 +141,39 @@ public class DemoExportUsageDataProvider implements FilterAwareDataProvider<Map<
         }
 
         // 默认：导出全部匹配记录 —— 使用 keyset（id 游标）分页，避免深分页 offset 退化
-        return new KeysetRowIterator(batchSize, spec, selectedFields);
+        return new KeysetRowIterator(batchSize, spec, selectedFields, null, null);
+    }
+
+    /**
+     * 按过滤后的 MIN(id)/MAX(id) 均分为降序 id 区间；导出当前页不切分
+     */
+    @Override
+    public List<ExportPartition> partitions(int maxPartitions) {
+        Map<String, Object> filters = FILTERS_HOLDER.get();
+        if (maxPartitions <= 1 || (filters != null && "page".equals(filters.get("__mode")))) {
+            return List.of();
+        }
+        Specification<DemoExportUsageEntity> spec = buildSpecification(filters);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<DemoExportUsageEntity> root = cq.from(DemoExportUsageEntity.class);
+        Predicate predicate = spec.toPredicate(root, cq, cb);
+        cq.multiselect(cb.min(root.<Long>get("id")), cb.max(root.<Long>get("id")));
+        cq.where(predicate == null ? cb.conjunction() : predicate);
+        Tuple bounds = entityManager.createQuery(cq).getSingleResult();
+        Long minId = bounds.get(0, Long.class);
+        Long maxId = bounds.get(1, Long.class);
+        if (minId == null || maxId == null) {
+            return List.of();
+        }
+        return ExportPartition.splitDescending(minId, maxId, maxPartitions);
+    }
+
+    @Override
+    public Iterator<Map<String, Object>> fetchPartition(ExportPartition partition, int batchSize) {
+        Map<String, Object> filters = FILTERS_HOLDER.get();
+        return new KeysetRowIterator(batchSize, buildSpecification(filters), resolveSelectedFields(filters),
+            partition.lowerBound(), partition.upperBound());
     }
 
     @Override
@@ -207,20 +243,28 @@ public class DemoExportUsageDataProvider implements FilterAwareDataProvider<Map<
         private final int batchSize;
         private final Specification<DemoExportUsageEntity> spec;
         private final List<String> selectedFields;
+        private final Long lowerBound;
         private List<Map<String, Object>> currentBatch = null;
         private int currentBatchIndex = 0;
         private boolean hasMore = true;
-        private Long lastSeenId = null;
-
-        KeysetRowIterator(int batchSize, Specification<DemoExportUsageEntity> spec, List<String> selectedFields) {
+        private Long lastSeenId;
+
+        /**
+         * @param lowerBound 分区下界（含），为 null 时不限
+         * @param upperBound 分区上界（不含），为 null 时从最大 id 开始
+         */
+        KeysetRowIterator(int batchSize, Specification<DemoExportUsageEntity> spec, List<String> selectedFields,
+                          Long lowerBound, Long upperBound) {
             this.batchSize = batchSize;
             this.spec = spec;
             this.selectedFields = selectedFields;
+            this.lowerBound = lowerBound;
+            this.lastSeenId = upperBound;
             loadNextBatch();
         }
 
         private void loadNextBatch() {
-            currentBatch = queryBatchByKeyset(spec, selectedFields, lastSeenId, batchSize);
+            currentBatch = queryBatchByKeyset(spec, selectedFields, lowerBound, lastSeenId, batchSize);
             currentBatchIndex = 0;
 
             if (currentBatch == null || currentBatch.isEmpty()) {
@@ -265,6 +309,7 @@ public class DemoExportUsageDataProvider implements FilterAwareDataProvider<Map<
     private List<Map<String, Object>> queryBatchByKeyset(
             Specification<DemoExportUsageEntity> spec,
             List<String> selectedFields,
+            Long lowerBound,
             Long lastSeenId,
             int batchSize
     ) {
@@ -276,6 +321,9 @@ public class DemoExportUsageDataProvider implements FilterAwareDataProvider<Map<
         if (predicate == null) {
             predicate = cb.conjunction();
         }
+        if (lowerBound != null) {
+            predicate = cb.and(predicate, cb.ge(root.get("id"), lowerBound));
+        }
         if (lastSeenId != null) {
             predicate = cb.and(predicate, cb.lt(root.get("id"), lastSeenId));
         }
@@ -6,19 +6,26 @@ import com.tiny.platform.infrastructure.core.exception.code.ErrorCode;
 import com.tiny.platform.infrastructure.core.exception.exception.BusinessException;
 import com.tiny.platform.infrastructure.export.core.AggregateStrategy;
 import com.tiny.platform.infrastructure.export.core.DataProvider;
+import com.tiny.platform.infrastructure.export.core.ExportFormat;
+import com.tiny.platform.infrastructure.export.core.ExportPartition;
 import com.tiny.platform.infrastructure.export.core.ExportRequest;
 import com.tiny.platform.infrastructure.export.core.FilterAwareDataProvider;
+import com.tiny.platform.infrastructure.export.core.PartitionedDataProvider;
+import com.tiny.platform.infrastructure.export.core.RowBatch;
 import com.tiny.platform.infrastructure.export.core.SheetConfig;
 import com.tiny.platform.infrastructure.export.core.TopInfoDecorator;
 import com.tiny.platform.infrastructure.export.persistence.ExportTaskEntity;
 import com.tiny.platform.infrastructure.export.util.HeaderBuilder;
+import com.tiny.platform.infrastructure.export.util.RowExtractor;
 import com.tiny.platform.infrastructure.export.writer.WriterAdapter;
+import com.tiny.platform.infrastructure.export.writer.csv.CsvWriterAdapter;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
@@ -55,8 +62,13 @@ public class ExportService {
     private static final int PREFETCH_QUEUE_MIN_CAPACITY = 256;
     private static final int PREFETCH_QUEUE_MAX_CAPACITY = 2000;
     private static final long PREFETCH_LOG_ROW_INTERVAL = 50_000L;
+    private static final int PREFETCH_BATCH_ROWS = 256;
+    private static final RowBatch END_OF_ROWS = new RowBatch(0, 1);
     private static final Duration RECOVERY_HEARTBEAT_TIMEOUT = Duration.ofMinutes(5);
     private static final int MAX_ATTEMPTS = 3;
+    private static final int PARTITIONS_PER_WORKER = 4;
+    private static final WriterAdapter CSV_WRITER = new CsvWriterAdapter(false);
+    private static final WriterAdapter CSV_GZIP_WRITER = new CsvWriterAdapter(true);
 
     private final WriterAdapter writerAdapter;
     private final Map<String, DataProvider<?>> providers;
@@ -70,6 +82,7 @@ public class ExportService {
     private final int maxUserConcurrent;
     private final int maxPageSize;
     private final long maxSyncRows;
+    private final int partitionParallelism;
     private final MeterRegistry meterRegistry;
     private final Counter exportSyncCounter;
     private final Counter exportAsyncSubmitCounter;
@@ -94,6 +107,25 @@ public class ExportService {
                          @Value("${export.max-page-size:10000}") int maxPageSize,
                          @Value("${export.sync.max-rows:100000}") long maxSyncRows,
                          MeterRegistry meterRegistry) {
+        this(writerAdapter, providers, topInfoDecorator, aggregateMap, executor, exportTaskService, objectMapper,
+            queueRejectThreshold, maxSystemConcurrent, maxUserConcurrent, maxPageSize, maxSyncRows, 1, meterRegistry);
+    }
+
+    @Autowired
+    public ExportService(WriterAdapter writerAdapter,
+                         Map<String, DataProvider<?>> providers,
+                         TopInfoDecorator topInfoDecorator,
+                         Map<String, AggregateStrategy> aggregateMap,
+                         @Qualifier("exportExecutor") ThreadPoolTaskExecutor executor,
+                         ExportTaskService exportTaskService,
+                         ObjectMapper objectMapper,
+                         @Value("${export.executor.queue-reject-threshold:900}") int queueRejectThreshold,
+                         @Value("${export.concurrent.max-system:10}") int maxSystemConcurrent,
+                         @Value("${export.concurrent.max-user:3}") int maxUserConcurrent,
+                         @Value("${export.max-page-size:10000}") int maxPageSize,
+                         @Value("${export.sync.max-rows:100000}") long maxSyncRows,
+                         @Value("${export.partition.parallelism:1}") int partitionParallelism,
+                         MeterRegistry meterRegistry) {
         this.writerAdapter = writerAdapter;
         this.providers = providers;
         this.topInfoDecorator = topInfoDecorator;
@@ -106,6 +138,7 @@ public class ExportService {
         this.maxUserConcurrent = Math.max(1, maxUserConcurrent);
         this.maxPageSize = Math.max(1000, maxPageSize);
         this.maxSyncRows = Math.max(0, maxSyncRows);
+        this.partitionParallelism = Math.max(1, partitionParallelism);
         this.meterRegistry = meterRegistry;
         this.exportSyncCounter = Counter.builder("tiny.export.sync.total")
             .description("Number of synchronous export requests")
@@ -277,7 +310,7 @@ public class ExportService {
             if (runtimeId == null) {
                 runtimeId = acquireRuntimeTaskSlot(userId);
             }
-            tmpFile = Files.createTempFile("export-" + taskId, ".xlsx");
+            tmpFile = Files.createTempFile("export-" + taskId, ExportFormat.of(request.getFormat()).getExtension());
             Path finalTmpFile = tmpFile;
             Path absoluteFile = finalTmpFile.toAbsolutePath();
             Path finalAbsoluteFile = absoluteFile;
@@ -330,18 +363,31 @@ public class ExportService {
         List<SheetWriteModel> sheetModels = buildSheetModels(request, reporter);
         long buildMs = Duration.between(buildStart, Instant.now()).toMillis();
 
+        ExportFormat format = ExportFormat.of(request.getFormat());
         Instant writeStart = Instant.now();
-        writerAdapter.writeMultiSheet(out, sheetModels);
+        writerFor(format).writeMultiSheet(out, sheetModels);
         long writeMs = Duration.between(writeStart, Instant.now()).toMillis();
 
         if (reporter != null) reporter.flush(true);
         Map<String, Object> extras = new HashMap<>();
         extras.put("buildMs", buildMs);
         extras.put("writeMs", writeMs);
+        extras.put("format", format.getCode());
         extras.put("sheetCount", request.getSheets() == null ? 0 : request.getSheets().size());
         logTrace("performExport", null, null, buildMs + writeMs, extras);
     }
 
+    /**
+     * xlsx 使用配置的 WriterAdapter（fesod / poi），csv 系列使用无状态的 CSV 写出器
+     */
+    private WriterAdapter writerFor(ExportFormat format) {
+        return switch (format) {
+            case CSV -> CSV_WRITER;
+            case CSV_GZIP -> CSV_GZIP_WRITER;
+            case XLSX -> writerAdapter;
+        };
+    }
+
     private void validateRequest(ExportRequest request) {
         if (request == null) {
             throw new IllegalArgumentException("请求不能为空");
@@ -349,6 +395,7 @@ public class ExportService {
         if (request.getSheets() == null || request.getSheets().isEmpty()) {
             throw new IllegalArgumentException("sheets 不能为空，至少包含一个 sheet");
         }
+        ExportFormat.of(request.getFormat());
     }
 
     private void executeWithConcurrency(String userId, ExportCallback callback) throws Exception {
@@ -466,7 +513,7 @@ public class ExportService {
                 filtersSnapshot = Collections.unmodifiableMap(mutableFilters);
             }
             int queueCapacity = Math.max(PREFETCH_QUEUE_MIN_CAPACITY, Math.min(pageSize, PREFETCH_QUEUE_MAX_CAPACITY));
-            Iterator<List<Object>> rowIterator = new PrefetchRowIterator(
+            PrefetchRowIterator rowIterator = new PrefetchRowIterator(
                 provider,
                 filterAwareProvider,
                 filtersSnapshot,
@@ -481,31 +528,12 @@ public class ExportService {
             );
 
             SheetWriteModel model = new SheetWriteModel(sheetName, head, rowIterator, topInfoRows, leafFields, strategy, sumMap);
+            model.setBatches(rowIterator.batches());
             sheetModels.add(model);
         }
         return sheetModels;
     }
 
-    private List<Object> convertItemToRow(Object item, List<String> leafFields) {
-        List<Object> row = new ArrayList<>(leafFields.size());
-        if (item instanceof Map<?, ?> map) {
-            for (String f : leafFields) {
-                row.add(map.get(f));
-            }
-        } else {
-            for (String f : leafFields) {
-                try {
-                    var field = item.getClass().getDeclaredField(f);
-                    field.setAccessible(true);
-                    row.add(field.get(item));
-                } catch (Exception e) {
-                    row.add(null);
-                }
-            }
-        }
-        return row;
-    }
-
     private String serializeRequest(ExportRequest request) {
         if (request == null) {
             return null;
@@ -654,6 +682,8 @@ public class ExportService {
     /**
      * 预取流水线迭代器：
      * 生产线程负责 DB 读取 + 行映射 + 聚合累计，消费线程只做写出。
+     * 行按列写入 RowBatch，整批经队列交接并在消费后回收复用；聚合按批累加。
+     * 写入器可通过 {@link #batches()} 直接按批消费，或按行消费（每行复制为独立的 List）。
      */
     private final class PrefetchRowIterator implements Iterator<List<Object>>, AutoCloseable {
         private final DataProvider<?> provider;
@@ -661,19 +691,25 @@ public class ExportService {
         private final Map<String, Object> filters;
         private final int pageSize;
         private final List<String> leafFields;
+        private final RowExtractor rowExtractor;
         private final AggregateStrategy strategy;
+        private final int[] aggregateColumns;
         private final Map<String, Object> sumMap;
         private final TaskProgressReporter reporter;
         private final String exportType;
         private final String sheetName;
-        private final BlockingQueue<RowEnvelope> queue;
+        private final int queueRows;
+        private final int batchRows;
+        private final BlockingQueue<RowBatch> queue;
+        private final BlockingQueue<RowBatch> freeBatches;
         private final Thread producerThread;
         private final AtomicBoolean producerStarted = new AtomicBoolean(false);
 
         private volatile boolean closed = false;
         private volatile Throwable producerError = null;
         private volatile boolean endReached = false;
-        private RowEnvelope current;
+        private RowBatch current;
+        private int currentRow;
 
         private PrefetchRowIterator(DataProvider<?> provider,
                                     FilterAwareDataProvider<?> filterAwareProvider,
@@ -691,12 +727,18 @@ public class ExportService {
             this.filters = filters;
             this.pageSize = pageSize;
             this.leafFields = leafFields;
+            this.rowExtractor = new RowExtractor(leafFields);
             this.strategy = strategy;
+            this.aggregateColumns = resolveAggregateColumns(strategy, leafFields);
             this.sumMap = sumMap;
             this.reporter = reporter;
             this.exportType = exportType;
             this.sheetName = sheetName;
-            this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+            this.queueRows = Math.max(1, queueCapacity);
+            this.batchRows = Math.max(1, Math.min(PREFETCH_BATCH_ROWS, this.queueRows));
+            int queueBatches = Math.max(2, (this.queueRows + batchRows - 1) / batchRows);
+            this.queue = new ArrayBlockingQueue<>(queueBatches);
+            this.freeBatches = new ArrayBlockingQueue<>(queueBatches + 2);
             this.producerThread = new Thread(this::runProducer, "export-prefetch-" + UUID.randomUUID());
             this.producerThread.setDaemon(true);
         }
@@ -719,9 +761,14 @@ public class ExportService {
             if (current == null) {
                 throw new NoSuchElementException();
             }
-            List<Object> row = current.row;
-            current = null;
-            return row;
+            return current.copyRow(currentRow++);
+        }
+
+        /**
+         * 按批消费；返回的批次在下一次调用 hasNext/next 前有效。不要与按行消费混用
+         */
+        Iterator<RowBatch> batches() {
+            return new BatchCursor();
         }
 
         @Override
@@ -731,6 +778,7 @@ public class ExportService {
             }
             closed = true;
             queue.clear();
+            freeBatches.clear();
             if (producerStarted.get()) {
                 producerThread.interrupt();
             }
@@ -738,24 +786,32 @@ public class ExportService {
 
         private void ensureCurrent() {
             ensureProducerStarted();
-            if (current != null || endReached || closed) {
+            if (current != null) {
+                if (currentRow < current.size()) {
+                    return;
+                }
+                recycle(current);
+                current = null;
+            }
+            if (endReached || closed) {
                 return;
             }
             try {
                 while (!closed) {
-                    RowEnvelope envelope = queue.poll(200, TimeUnit.MILLISECONDS);
-                    if (envelope == null) {
-                        if (producerStarted.get() && !producerThread.isAlive()) {
+                    RowBatch batch = queue.poll(200, TimeUnit.MILLISECONDS);
+                    if (batch == null) {
+                        if (producerStarted.get() && !producerThread.isAlive() && queue.isEmpty()) {
                             endReached = true;
                             return;
                         }
                         continue;
                     }
-                    if (envelope.end) {
+                    if (batch == END_OF_ROWS) {
                         endReached = true;
                         return;
                     }
-                    current = envelope;
+                    current = batch;
+                    currentRow = 0;
                     return;
                 }
                 endReached = true;
@@ -774,13 +830,25 @@ public class ExportService {
             }
         }
 
+        private RowBatch acquireBatch() {
+            RowBatch batch = freeBatches.poll();
+            return batch != null ? batch : new RowBatch(leafFields.size(), batchRows);
+        }
+
+        private void recycle(RowBatch batch) {
+            batch.clear();
+            freeBatches.offer(batch);
+        }
+
         private void runProducer() {
             long rows = 0L;
+            long batches = 0L;
             long fetchNanos = 0L;
             long mapNanos = 0L;
             long queueWaitNanos = 0L;
             long startedAt = System.nanoTime();
             Iterator<?> source = null;
+            RowBatch batch = null;
             try {
                 source = createSourceIterator();
                 while (!closed && source.hasNext()) {
@@ -789,40 +857,41 @@ public class ExportService {
                     fetchNanos += System.nanoTime() - fetchStart;
 
                     long mapStart = System.nanoTime();
-                    List<Object> row = convertItemToRow(item, leafFields);
-                    if (strategy != null) {
-                        for (int i = 0; i < leafFields.size(); i++) {
-                            String f = leafFields.get(i);
-                            Object val = row.get(i);
-                            if (strategy.isAggregate(f)) {
-                                synchronized (sumMap) {
-                                    sumMap.put(f, strategy.accumulate(f, val, sumMap.get(f)));
-                                }
-                            }
-                        }
+                    if (batch == null) {
+                        batch = acquireBatch();
                     }
-                    if (reporter != null) {
-                        reporter.increment(1);
+                    rowExtractor.extractInto(item, batch);
+                    rows++;
+                    if (batch.isFull()) {
+                        accumulate(batch);
                     }
                     mapNanos += System.nanoTime() - mapStart;
-                    rows++;
 
-                    while (!closed) {
+                    if (batch.isFull()) {
                         long queueStart = System.nanoTime();
-                        boolean offered = queue.offer(new RowEnvelope(row, false), 200, TimeUnit.MILLISECONDS);
+                        publish(batch);
                         queueWaitNanos += System.nanoTime() - queueStart;
-                        if (offered) {
-                            break;
-                        }
+                        batch = null;
+                        batches++;
                     }
 
                     if (rows % PREFETCH_LOG_ROW_INTERVAL == 0) {
                         logPrefetchProgress(rows, fetchNanos, mapNanos, queueWaitNanos);
                     }
                 }
+                if (batch != null && !batch.isEmpty() && !closed) {
+                    long mapStart = System.nanoTime();
+                    accumulate(batch);
+                    mapNanos += System.nanoTime() - mapStart;
+                    long queueStart = System.nanoTime();
+                    publish(batch);
+                    queueWaitNanos += System.nanoTime() - queueStart;
+                    batches++;
+                }
             } catch (Throwable ex) {
                 producerError = ex;
             } finally {
+                closeSource(source);
                 clearSourceFilters();
                 offerEndMarker();
                 long elapsedNanos = System.nanoTime() - startedAt;
@@ -830,6 +899,8 @@ public class ExportService {
                 extras.put("sheetName", sheetName);
                 extras.put("exportType", exportType);
                 extras.put("rows", rows);
+                extras.put("batches", batches);
+                extras.put("batchRows", batchRows);
                 extras.put("elapsedMs", TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
                 extras.put("fetchMs", TimeUnit.NANOSECONDS.toMillis(fetchNanos));
                 extras.put("mapMs", TimeUnit.NANOSECONDS.toMillis(mapNanos));
@@ -843,6 +914,33 @@ public class ExportService {
             }
         }
 
+        /**
+         * 按批累加聚合列，每批每列只更新一次 sumMap
+         */
+        private void accumulate(RowBatch batch) {
+            if (aggregateColumns.length == 0) {
+                return;
+            }
+            synchronized (sumMap) {
+                for (int column : aggregateColumns) {
+                    String f = leafFields.get(column);
+                    sumMap.put(f, strategy.accumulateColumn(f, batch.column(column), sumMap.get(f)));
+                }
+            }
+        }
+
+        private void publish(RowBatch batch) throws InterruptedException {
+            int size = batch.size();
+            while (!closed) {
+                if (queue.offer(batch, 200, TimeUnit.MILLISECONDS)) {
+                    if (reporter != null) {
+                        reporter.increment(size);
+                    }
+                    return;
+                }
+            }
+        }
+
         private Iterator<?> createSourceIterator() {
             if (filterAwareProvider == null) {
                 return provider.fetchIterator(pageSize);
@@ -851,9 +949,27 @@ public class ExportService {
             if (filters != null && !filters.isEmpty()) {
                 filterAwareProvider.setFilters(filters);
             }
+            if (partitionParallelism > 1 && provider instanceof PartitionedDataProvider<?> partitioned) {
+                List<ExportPartition> partitions = partitioned.partitions(partitionParallelism * PARTITIONS_PER_WORKER);
+                if (partitions != null && partitions.size() > 1) {
+                    return new PartitionedSourceIterator(partitioned, filterAwareProvider, filters, partitions,
+                        pageSize, queueRows, exportType, sheetName);
+                }
+            }
             return provider.fetchIterator(pageSize);
         }
 
+        private void closeSource(Iterator<?> source) {
+            if (!(source instanceof AutoCloseable closeable)) {
+                return;
+            }
+            try {
+                closeable.close();
+            } catch (Exception ex) {
+                log.warn("failed to close export source sheet={} exportType={}", sheetName, exportType, ex);
+            }
+        }
+
         private void clearSourceFilters() {
             if (filterAwareProvider == null) {
                 return;
@@ -880,7 +996,7 @@ public class ExportService {
         private void offerEndMarker() {
             while (!closed) {
                 try {
-                    if (queue.offer(new RowEnvelope(Collections.emptyList(), true), 100, TimeUnit.MILLISECONDS)) {
+                    if (queue.offer(END_OF_ROWS, 100, TimeUnit.MILLISECONDS)) {
                         return;
                     }
                 } catch (InterruptedException ignored) {
@@ -889,9 +1005,258 @@ public class ExportService {
                 }
             }
         }
+
+        private final class BatchCursor implements Iterator<RowBatch>, AutoCloseable {
+
+            @Override
+            public boolean hasNext() {
+                return PrefetchRowIterator.this.hasNext();
+            }
+
+            @Override
+            public RowBatch next() {
+                ensureCurrent();
+                if (current == null) {
+                    throw new NoSuchElementException();
+                }
+                RowBatch batch = current;
+                currentRow = batch.size();
+                return batch;
+            }
+
+            @Override
+            public void close() {
+                PrefetchRowIterator.this.close();
+            }
+        }
+    }
+
+    private static int[] resolveAggregateColumns(AggregateStrategy strategy, List<String> leafFields) {
+        if (strategy == null) {
+            return new int[0];
+        }
+        int[] columns = new int[leafFields.size()];
+        int count = 0;
+        for (int i = 0; i < leafFields.size(); i++) {
+            if (strategy.isAggregate(leafFields.get(i))) {
+                columns[count++] = i;
+            }
+        }
+        return Arrays.copyOf(columns, count);
     }
 
-    private record RowEnvelope(List<Object> row, boolean end) { }
+    /**
+     * 分区并行读取迭代器：
+     * 同时最多 partitionParallelism 个分区各由一个线程读取到自己的有界队列，
+     * 消费方按分区顺序逐个取完，输出顺序与顺序读取一致；一个分区读完后启动下一个分区。
+     */
+    private final class PartitionedSourceIterator implements Iterator<Object>, AutoCloseable {
+        private final PartitionedDataProvider<?> provider;
+        private final FilterAwareDataProvider<?> filterAwareProvider;
+        private final Map<String, Object> filters;
+        private final List<ExportPartition> partitions;
+        private final int pageSize;
+        private final int queueCapacity;
+        private final String exportType;
+        private final String sheetName;
+        private final Deque<PartitionFetch> running = new ArrayDeque<>();
+
+        private volatile boolean closed = false;
+        private int nextPartition = 0;
+        private PartitionFetch current;
+        private Object buffered;
+        private boolean hasBuffered = false;
+
+        private PartitionedSourceIterator(PartitionedDataProvider<?> provider,
+                                          FilterAwareDataProvider<?> filterAwareProvider,
+                                          Map<String, Object> filters,
+                                          List<ExportPartition> partitions,
+                                          int pageSize,
+                                          int queueCapacity,
+                                          String exportType,
+                                          String sheetName) {
+            this.provider = provider;
+            this.filterAwareProvider = filterAwareProvider;
+            this.filters = filters;
+            this.partitions = List.copyOf(partitions);
+            this.pageSize = pageSize;
+            this.queueCapacity = Math.max(1, queueCapacity);
+            this.exportType = exportType;
+            this.sheetName = sheetName;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (hasBuffered) {
+                return true;
+            }
+            try {
+                while (!closed) {
+                    if (current == null) {
+                        fillWindow();
+                        current = running.poll();
+                        if (current == null) {
+                            return false;
+                        }
+                    }
+                    Object item = current.take();
+                    if (item == PartitionFetch.END) {
+                        if (current.error != null) {
+                            throw new IllegalStateException("导出分区读取失败: partition=" + current.partition.index()
+                                + ", " + current.error.getMessage(), current.error);
+                        }
+                        current = null;
+                        continue;
+                    }
+                    buffered = item == PartitionFetch.NULL_ITEM ? null : item;
+                    hasBuffered = true;
+                    return true;
+                }
+                return false;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("导出分区读取被中断", ex);
+            }
+        }
+
+        @Override
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Object item = buffered;
+            buffered = null;
+            hasBuffered = false;
+            return item;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (current != null) {
+                current.thread.interrupt();
+            }
+            for (PartitionFetch fetch : running) {
+                fetch.thread.interrupt();
+            }
+            running.clear();
+        }
+
+        private void fillWindow() {
+            int active = running.size() + (current != null ? 1 : 0);
+            while (active < partitionParallelism && nextPartition < partitions.size()) {
+                PartitionFetch fetch = new PartitionFetch(partitions.get(nextPartition++), queueCapacity);
+                fetch.thread.start();
+                running.add(fetch);
+                active++;
+            }
+        }
+
+        private final class PartitionFetch {
+            private static final Object END = new Object();
+            private static final Object NULL_ITEM = new Object();
+
+            private final ExportPartition partition;
+            private final BlockingQueue<Object> queue;
+            private final Thread thread;
+            private volatile Throwable error;
+
+            private PartitionFetch(ExportPartition partition, int capacity) {
+                this.partition = partition;
+                this.queue = new ArrayBlockingQueue<>(capacity);
+                this.thread = new Thread(this::run, "export-partition-" + partition.index() + "-" + UUID.randomUUID());
+                this.thread.setDaemon(true);
+            }
+
+            private Object take() throws InterruptedException {
+                while (!closed) {
+                    Object item = queue.poll(200, TimeUnit.MILLISECONDS);
+                    if (item != null) {
+                        return item;
+                    }
+                    if (!thread.isAlive() && queue.isEmpty()) {
+                        return END;
+                    }
+                }
+                return END;
+            }
+
+            private void run() {
+                long rows = 0L;
+                long blockedNanos = 0L;
+                long startedAt = System.nanoTime();
+                try {
+                    if (filterAwareProvider != null && filters != null && !filters.isEmpty()) {
+                        filterAwareProvider.setFilters(filters);
+                    }
+                    Iterator<?> source = provider.fetchPartition(partition, pageSize);
+                    while (!closed && source.hasNext()) {
+                        Object item = source.next();
+                        long offerStart = System.nanoTime();
+                        boolean offered = offer(item == null ? NULL_ITEM : item);
+                        blockedNanos += System.nanoTime() - offerStart;
+                        if (!offered) {
+                            return;
+                        }
+                        rows++;
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    if (!closed) {
+                        error = ex;
+                    }
+                } catch (Throwable ex) {
+                    error = ex;
+                } finally {
+                    if (filterAwareProvider != null) {
+                        try {
+                            filterAwareProvider.clearFilters();
+                        } catch (Throwable ex) {
+                            log.warn("failed to clear export filters sheet={} exportType={}", sheetName, exportType, ex);
+                        }
+                    }
+                    offerEnd();
+                    long elapsedNanos = System.nanoTime() - startedAt;
+                    long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+                    Map<String, Object> extras = new HashMap<>();
+                    extras.put("sheetName", sheetName);
+                    extras.put("exportType", exportType);
+                    extras.put("partition", partition.index());
+                    extras.put("partitions", partitions.size());
+                    extras.put("lowerBound", partition.lowerBound());
+                    extras.put("upperBound", partition.upperBound());
+                    extras.put("rows", rows);
+                    extras.put("elapsedMs", elapsedMs);
+                    extras.put("rowsPerSec", elapsedNanos > 0 ? rows * 1_000_000_000L / elapsedNanos : rows);
+                    extras.put("blockedMs", TimeUnit.NANOSECONDS.toMillis(blockedNanos));
+                    if (error != null) {
+                        extras.put("error", error.getClass().getSimpleName() + ":" + error.getMessage());
+                    }
+                    logTrace("prefetch.partition", null, null, elapsedMs, extras);
+                }
+            }
+
+            private boolean offer(Object item) throws InterruptedException {
+                while (!closed) {
+                    if (queue.offer(item, 200, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            private void offerEnd() {
+                try {
+                    offer(END);
+                } catch (InterruptedException ignored) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
 
     private record RuntimeTask(String runtimeId, String userId, Instant startTime) { }
 }
@@ -225,6 +225,8 @@ public class ExportTaskService {
             }
             try {
                 Files.deleteIfExists(Path.of(filePath));
+                // 下载时按需生成的 gzip 预压缩文件
+                Files.deleteIfExists(Path.of(filePath + ".gz"));
             } catch (Exception ex) {
                 log.warn("Failed to delete expired export file taskId={} filePath={}", task.getTaskId(), filePath, ex);
             }
@@ -1,6 +1,7 @@
 package com.tiny.platform.infrastructure.export.service;
 
 import com.tiny.platform.infrastructure.export.core.AggregateStrategy;
+import com.tiny.platform.infrastructure.export.core.RowBatch;
 
 import java.util.Iterator;
 import java.util.List;
@@ -14,6 +15,7 @@ public class SheetWriteModel {
     private List<List<String>> head; // 多级表头
     private List<List<String>> topInfoRows; // 顶部信息行
     private Iterator<List<Object>> rows; // 数据迭代器
+    private Iterator<RowBatch> batches; // 按批数据迭代器（可为 null），与 rows 二选一消费
     private AggregateStrategy strategy; // 合计策略
     private Map<String,Object> sumMap; // 合计临时存储
     private List<String> leafFields; // 表头叶子字段
@@ -64,6 +66,18 @@ public class SheetWriteModel {
         this.rows = rows;
     }
 
+    /**
+     * 按批消费数据；返回的批次在下一次调用 hasNext/next 前有效，之后会被清空复用。
+     * 为 null 时写入器使用 {@link #getRows()}
+     */
+    public Iterator<RowBatch> getBatches() {
+        return batches;
+    }
+
+    public void setBatches(Iterator<RowBatch> batches) {
+        this.batches = batches;
+    }
+
     public AggregateStrategy getStrategy() {
         return strategy;
     }
@@ -0,0 +1,149 @@
+package com.tiny.platform.infrastructure.export.util;
+
+import com.tiny.platform.infrastructure.export.core.RowBatch;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * RowExtractor —— 按叶子字段顺序把数据源的一条记录转换为一行
+ *
+ * 取值规则：
+ *  - Map：按字段名 get；
+ *  - 其他对象：按字段名读取该类（含父类）声明的实例字段，字段不存在或不可访问时为 null。
+ *
+ * 非 Map 记录按（类, 字段列表）编译为 MethodHandle 数组，每个类只在首次出现时反射一次，
+ * 结果按类缓存在 {@link ClassValue} 中，随类卸载释放。一次导出持有一个实例，
+ * 记录类型不变时直接复用上次的访问器，逐字段读取不再查找字段、不抛异常。
+ */
+public final class RowExtractor {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodHandle[] NO_ACCESSORS = new MethodHandle[0];
+
+    private static final ClassValue<Map<List<String>, MethodHandle[]>> COMPILED = new ClassValue<>() {
+        @Override
+        protected Map<List<String>, MethodHandle[]> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final List<String> leafFields;
+    private final String[] fieldNames;
+    private Class<?> lastType;
+    private MethodHandle[] lastAccessors = NO_ACCESSORS;
+
+    public RowExtractor(List<String> leafFields) {
+        this.leafFields = List.copyOf(leafFields);
+        this.fieldNames = this.leafFields.toArray(String[]::new);
+    }
+
+    /**
+     * 转换一条记录；同一实例只应在单个线程内使用
+     */
+    public List<Object> extract(Object item) {
+        List<Object> row = new ArrayList<>(fieldNames.length);
+        if (item instanceof Map<?, ?> map) {
+            for (String f : fieldNames) {
+                row.add(map.get(f));
+            }
+            return row;
+        }
+        if (item == null) {
+            for (int i = 0; i < fieldNames.length; i++) {
+                row.add(null);
+            }
+            return row;
+        }
+        MethodHandle[] accessors = accessorsFor(item.getClass());
+        for (MethodHandle accessor : accessors) {
+            row.add(read(accessor, item));
+        }
+        return row;
+    }
+
+    /**
+     * 转换一条记录并追加到 batch 末尾，列顺序与 leafFields 一致；不分配行对象
+     */
+    public void extractInto(Object item, RowBatch batch) {
+        int row = batch.appendRow();
+        if (item instanceof Map<?, ?> map) {
+            for (int c = 0; c < fieldNames.length; c++) {
+                batch.set(row, c, map.get(fieldNames[c]));
+            }
+            return;
+        }
+        if (item == null) {
+            for (int c = 0; c < fieldNames.length; c++) {
+                batch.set(row, c, null);
+            }
+            return;
+        }
+        MethodHandle[] accessors = accessorsFor(item.getClass());
+        for (int c = 0; c < accessors.length; c++) {
+            batch.set(row, c, read(accessors[c], item));
+        }
+    }
+
+    private MethodHandle[] accessorsFor(Class<?> type) {
+        if (type != lastType) {
+            lastAccessors = COMPILED.get(type).computeIfAbsent(leafFields, fields -> compile(type, fields));
+            lastType = type;
+        }
+        return lastAccessors;
+    }
+
+    private static Object read(MethodHandle accessor, Object item) {
+        if (accessor == null) {
+            return null;
+        }
+        try {
+            return (Object) accessor.invokeExact(item);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("读取导出字段失败", e);
+        }
+    }
+
+    private static MethodHandle[] compile(Class<?> type, List<String> fields) {
+        MethodHandle[] accessors = new MethodHandle[fields.size()];
+        for (int i = 0; i < fields.size(); i++) {
+            Field field = findField(type, fields.get(i));
+            if (field != null) {
+                accessors[i] = getter(field);
+            }
+        }
+        return accessors;
+    }
+
+    /**
+     * 私有字段需在声明类上取得 Lookup；模块未开放等无法访问的情况按字段缺失处理
+     */
+    private static MethodHandle getter(Field field) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
+            return lookup.unreflectGetter(field).asType(GETTER_TYPE);
+        } catch (IllegalAccessException | SecurityException e) {
+            return null;
+        }
+    }
+
+    private static Field findField(Class<?> type, String name) {
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (field.getName().equals(name) && !Modifier.isStatic(field.getModifiers())) {
+                    return field;
+                }
+            }
+        }
+        return null;
+    }
+}
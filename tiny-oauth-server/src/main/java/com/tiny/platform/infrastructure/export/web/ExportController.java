@@ -1,6 +1,7 @@
 package com.tiny.platform.infrastructure.export.web;
 
 import com.tiny.platform.infrastructure.core.exception.exception.BusinessException;
+import com.tiny.platform.infrastructure.export.core.ExportFormat;
 import com.tiny.platform.infrastructure.export.core.ExportRequest;
 import com.tiny.platform.infrastructure.export.persistence.ExportTaskEntity;
 import com.tiny.platform.infrastructure.export.service.ExportService;
@@ -12,6 +13,8 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -51,21 +54,51 @@ public class ExportController {
 
     private final ExportService exportService;
     private final ExportTaskService exportTaskService;
+    private final boolean streamingSync;
+    private final ExportFileDownloader fileDownloader;
 
     public ExportController(ExportService exportService, ExportTaskService exportTaskService) {
+        this(exportService, exportTaskService, false);
+    }
+
+    public ExportController(ExportService exportService, ExportTaskService exportTaskService, boolean streamingSync) {
+        this(exportService, exportTaskService, streamingSync, false);
+    }
+
+    @Autowired
+    public ExportController(ExportService exportService,
+                            ExportTaskService exportTaskService,
+                            @Value("${export.sync.streaming:false}") boolean streamingSync,
+                            @Value("${export.download.precompress-gzip:true}") boolean precompressGzip) {
         this.exportService = exportService;
         this.exportTaskService = exportTaskService;
+        this.streamingSync = streamingSync;
+        this.fileDownloader = new ExportFileDownloader(precompressGzip);
     }
 
-    /** 同步导出（阻塞，先生成临时文件，成功后再回传响应流） */
+    /**
+     * 同步导出
+     *
+     * 默认先生成临时文件，成功后再回传响应流，生成失败时可返回完整的错误响应；
+     * export.sync.streaming=true 时直接写入响应流（分块传输），不落盘，首字节更早到达，
+     * 但响应已开始输出后的失败只能中断连接。
+     */
     @PostMapping("/sync")
     public ResponseEntity<StreamingResponseBody> exportSync(@RequestBody ExportRequest request) {
         assertCanExport(currentAuthentication());
         validateSyncRequest(request);
         exportService.assertSyncExportWithinRowLimit(request);
         String currentUserId = currentUserId();
-        String filename = resolveDownloadFilename(request.getFileName());
-        Path tempFile = prepareSyncExportTempFile(request, currentUserId);
+        ExportFormat format = ExportFormat.of(request.getFormat());
+        String filename = resolveDownloadFilename(request.getFileName(), format);
+        if (streamingSync) {
+            return ResponseEntity
+                .ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, buildAttachmentHeader(filename))
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .body(out -> streamSyncExport(request, out, currentUserId, filename));
+        }
+        Path tempFile = prepareSyncExportTempFile(request, currentUserId, format);
 
         StreamingResponseBody body = out -> {
             try (InputStream inputStream = Files.newInputStream(tempFile)) {
@@ -87,8 +120,7 @@ public class ExportController {
         return ResponseEntity
             .ok()
             .header(HttpHeaders.CONTENT_DISPOSITION, buildAttachmentHeader(filename))
-            .contentType(MediaType.parseMediaType(
-                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+            .contentType(MediaType.parseMediaType(format.getContentType()))
             .body(body);
     }
 
@@ -123,9 +155,14 @@ public class ExportController {
         return ResponseEntity.ok(exportTaskService.findUserTasks(uid));
     }
 
-    /** 下载异步结果 */
+    public void downloadTaskResult(String taskId, HttpServletResponse response) throws Exception {
+        downloadTaskResult(taskId, null, response);
+    }
+
+    /** 下载异步结果（零拷贝输出，支持 Range / If-Range 断点续传与 ETag 校验） */
     @GetMapping("/task/{taskId}/download")
     public void downloadTaskResult(@PathVariable String taskId,
+                                   HttpServletRequest request,
                                    HttpServletResponse response) throws Exception {
         Optional<ExportTaskEntity> taskOpt = exportTaskService.findByTaskId(taskId);
         if (taskOpt.isEmpty()) {
@@ -153,12 +190,7 @@ public class ExportController {
             response.setStatus(HttpServletResponse.SC_NOT_FOUND);
             return;
         }
-        response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
-        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, buildAttachmentHeader(file.getFileName().toString()));
-        try (InputStream is = Files.newInputStream(file); OutputStream os = response.getOutputStream()) {
-            is.transferTo(os);
-            os.flush();
-        }
+        fileDownloader.download(task, file, request, response);
     }
 
     /** Servlet 异步写回（短任务演示） */
@@ -172,8 +204,10 @@ public class ExportController {
         async.setTimeout(60_000L);
         async.start(() -> {
             try (OutputStream os = response.getOutputStream()) {
-                response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
-                response.setHeader(HttpHeaders.CONTENT_DISPOSITION, buildAttachmentHeader("export-asyncservlet.xlsx"));
+                ExportFormat format = ExportFormat.of(request.getFormat());
+                response.setContentType(format.getContentType());
+                response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    buildAttachmentHeader("export-asyncservlet" + format.getExtension()));
                 exportService.exportSync(request, os, uid);
                 os.flush();
             } catch (Exception ex) {
@@ -197,9 +231,14 @@ public class ExportController {
         if (request == null || request.getSheets() == null || request.getSheets().isEmpty()) {
             throw BusinessException.validationError("sheets 不能为空，至少包含一个 sheet");
         }
+        try {
+            ExportFormat.of(request.getFormat());
+        } catch (IllegalArgumentException ex) {
+            throw BusinessException.validationError(ex.getMessage());
+        }
     }
 
-    private String resolveDownloadFilename(String rawFileName) {
+    private String resolveDownloadFilename(String rawFileName, ExportFormat format) {
         String normalized = rawFileName == null ? "" : rawFileName
             .replace("\r", "")
             .replace("\n", "")
@@ -210,13 +249,13 @@ public class ExportController {
         if (normalized.isEmpty()) {
             normalized = "export";
         }
-        if (!normalized.toLowerCase(Locale.ROOT).endsWith(".xlsx")) {
-            normalized = normalized + ".xlsx";
+        if (!normalized.toLowerCase(Locale.ROOT).endsWith(format.getExtension())) {
+            normalized = normalized + format.getExtension();
         }
         return normalized;
     }
 
-    private String buildAttachmentHeader(String filename) {
+    static String buildAttachmentHeader(String filename) {
         return ContentDisposition.attachment()
             .filename(filename, StandardCharsets.UTF_8)
             .build()
@@ -250,10 +289,29 @@ public class ExportController {
         return false;
     }
 
-    private Path prepareSyncExportTempFile(ExportRequest request, String currentUserId) {
+    /**
+     * 流式同步导出：写出器直接写入响应流；客户端中断时静默结束，运行时异常原样抛出交由异常处理器
+     */
+    private void streamSyncExport(ExportRequest request, OutputStream out, String currentUserId, String filename) {
+        try {
+            exportService.exportSync(request, out, currentUserId);
+            out.flush();
+        } catch (Exception ex) {
+            if (isClientAbort(ex)) {
+                log.info("sync export aborted by client userId={} fileName={}", currentUserId, filename);
+                return;
+            }
+            if (ex instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("sync export response stream failed", ex);
+        }
+    }
+
+    private Path prepareSyncExportTempFile(ExportRequest request, String currentUserId, ExportFormat format) {
         Path tempFile = null;
         try {
-            tempFile = Files.createTempFile("export-sync-", ".xlsx");
+            tempFile = Files.createTempFile("export-sync-", format.getExtension());
             try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
                 exportService.exportSync(request, outputStream, currentUserId);
                 outputStream.flush();
@@ -0,0 +1,281 @@
+package com.tiny.platform.infrastructure.export.web;
+
+import com.tiny.platform.infrastructure.export.core.ExportFormat;
+import com.tiny.platform.infrastructure.export.persistence.ExportTaskEntity;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * ExportFileDownloader —— 异步导出结果文件的下载输出
+ *
+ * 说明：
+ *  - 零拷贝：容器支持 sendfile（Tomcat NIO/NIO2）时只设置范围，由容器直接从文件写到 socket；
+ *    否则退回 FileChannel.transferTo 分段写到响应流
+ *  - 断点续传：支持单段 Range（bytes=a-b / a- / -n）与 If-Range，多段 Range 按完整文件返回
+ *  - 校验：强 ETag 由 taskId、文件大小与文件修改时间组成，If-None-Match 命中时返回 304；
+ *    文件大小与任务记录的 fileSizeBytes 不一致时记录告警
+ *  - 预压缩：可压缩格式（csv）且客户端接受 gzip 时，首次下载生成同目录的 .gz 文件，之后直接复用；
+ *    gzip 变体有独立的 ETag，Range 作用于压缩后的字节
+ */
+final class ExportFileDownloader {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportFileDownloader.class);
+
+    private static final String GZIP_SUFFIX = ".gz";
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+    private static final long[] UNSATISFIABLE = new long[0];
+
+    private final boolean precompressGzip;
+    private final ConcurrentHashMap<Path, Object> compressLocks = new ConcurrentHashMap<>();
+
+    ExportFileDownloader(boolean precompressGzip) {
+        this.precompressGzip = precompressGzip;
+    }
+
+    void download(ExportTaskEntity task, Path file, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        String fileName = file.getFileName().toString();
+        ExportFormat format = ExportFormat.fromFileName(fileName);
+        Path body = file;
+        boolean gzipVariant = false;
+        if (precompressGzip && format == ExportFormat.CSV) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (acceptsGzip(request)) {
+                Path compressed = ensureGzipVariant(file);
+                if (compressed != null) {
+                    body = compressed;
+                    gzipVariant = true;
+                }
+            }
+        }
+
+        long length = Files.size(body);
+        long lastModified = Files.getLastModifiedTime(body).toMillis();
+        if (!gzipVariant && task.getFileSizeBytes() != null && task.getFileSizeBytes() != length) {
+            log.warn("export file size differs from task record taskId={} recorded={} actual={}",
+                task.getTaskId(), task.getFileSizeBytes(), length);
+        }
+        String etag = buildEtag(task.getTaskId(), length, lastModified, gzipVariant);
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setContentType(format.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ExportController.buildAttachmentHeader(fileName));
+        if (gzipVariant) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        if (request != null && etagMatches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request == null ? null : request.getHeader(HttpHeaders.RANGE);
+        if (range != null && ifRangeSatisfied(request, etag, lastModified)) {
+            long[] parsed = parseRange(range, length);
+            if (parsed == UNSATISFIABLE) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (parsed != null) {
+                start = parsed[0];
+                end = parsed[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if (count <= 0) {
+            return;
+        }
+
+        if (request != null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, body.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(body, StandardOpenOption.READ)) {
+            OutputStream out = response.getOutputStream();
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, target);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+            out.flush();
+        }
+    }
+
+    private static String buildEtag(String taskId, long length, long lastModified, boolean gzipVariant) {
+        return "\"" + taskId + "-" + Long.toHexString(length) + "-" + Long.toHexString(lastModified)
+            + (gzipVariant ? "-gz" : "") + "\"";
+    }
+
+    private static boolean etagMatches(String header, String etag) {
+        if (header == null || header.isBlank()) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(etag) || value.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * If-Range 缺省时视为满足；为 ETag 时要求强匹配，为日期时要求文件自该时间后未修改
+     */
+    private static boolean ifRangeSatisfied(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null || ifRange.isBlank()) {
+            return true;
+        }
+        String value = ifRange.trim();
+        if (value.startsWith("\"") || value.startsWith("W/")) {
+            return value.equals(etag);
+        }
+        try {
+            long since = request.getDateHeader(HttpHeaders.IF_RANGE);
+            return since >= 0 && lastModified / 1000 <= since / 1000;
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * 解析单段字节范围；格式不识别或多段时返回 null（按完整文件返回），越界返回 {@link #UNSATISFIABLE}
+     */
+    static long[] parseRange(String header, long length) {
+        String value = header.trim();
+        if (!value.toLowerCase(Locale.ROOT).startsWith("bytes=")) {
+            return null;
+        }
+        String spec = value.substring("bytes=".length()).trim();
+        if (spec.isEmpty() || spec.indexOf(',') >= 0) {
+            return null;
+        }
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                if (last.isEmpty()) {
+                    return null;
+                }
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || length == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new long[]{Math.max(0, length - suffix), length - 1};
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            if (start < 0 || start >= length || end < start) {
+                return UNSATISFIABLE;
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        if (request == null) {
+            return false;
+        }
+        String header = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (header == null) {
+            return false;
+        }
+        for (String coding : header.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (!"gzip".equalsIgnoreCase(parts[0].trim())) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException ex) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 返回与原文件同目录的 .gz 文件，比原文件旧时重新生成；生成失败返回 null，回退为原文件
+     */
+    private Path ensureGzipVariant(Path file) {
+        Path compressed = file.resolveSibling(file.getFileName() + GZIP_SUFFIX);
+        Object lock = compressLocks.computeIfAbsent(compressed, key -> new Object());
+        try {
+            synchronized (lock) {
+                if (Files.exists(compressed)
+                    && Files.getLastModifiedTime(compressed).compareTo(Files.getLastModifiedTime(file)) >= 0) {
+                    return compressed;
+                }
+                Path tmp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".gz.tmp");
+                try {
+                    try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp), GZIP_BUFFER_SIZE)) {
+                        Files.copy(file, out);
+                    }
+                    try {
+                        Files.move(tmp, compressed, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    } catch (AtomicMoveNotSupportedException ex) {
+                        Files.move(tmp, compressed, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                } finally {
+                    Files.deleteIfExists(tmp);
+                }
+                return compressed;
+            }
+        } catch (IOException ex) {
+            log.warn("failed to precompress export file {}", file, ex);
+            return null;
+        } finally {
+            compressLocks.remove(compressed, lock);
+        }
+    }
+}
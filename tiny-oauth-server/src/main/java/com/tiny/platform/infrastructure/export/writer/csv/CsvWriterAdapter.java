@@ -0,0 +1,232 @@
+package com.tiny.platform.infrastructure.export.writer.csv;
+
+import com.tiny.platform.infrastructure.export.core.AggregateStrategy;
+import com.tiny.platform.infrastructure.export.core.ColumnVector;
+import com.tiny.platform.infrastructure.export.core.RowBatch;
+import com.tiny.platform.infrastructure.export.service.SheetWriteModel;
+import com.tiny.platform.infrastructure.export.writer.WriterAdapter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CsvWriterAdapter —— 将 SheetWriteModel 逐行写为 CSV（可选 gzip）
+ *
+ * 说明：
+ *  - 每行取出即写入缓冲区，缓冲区满后直接写到下游输出流，内存占用与导出行数无关
+ *  - 模型提供按批数据时直接按列读取 RowBatch，整数列按 long 写出，不经过行对象与字符串
+ *  - 多个 Sheet 依次写出，Sheet 之间以空行分隔；顶部信息行、多级表头（每级一行）、合计行与 xlsx 一致
+ *  - 字段按 RFC 4180 转义；以 = + - @ 开头的文本前加单引号，避免在 Excel 中被当作公式执行
+ *  - 不关闭下游输出流（gzip 模式只 finish），由调用方负责
+ */
+public class CsvWriterAdapter implements WriterAdapter {
+    private static final Logger log = LoggerFactory.getLogger(CsvWriterAdapter.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final char UTF8_BOM = '\uFEFF';
+
+    private final boolean gzip;
+
+    public CsvWriterAdapter() {
+        this(false);
+    }
+
+    public CsvWriterAdapter(boolean gzip) {
+        this.gzip = gzip;
+    }
+
+    @Override
+    public void writeMultiSheet(OutputStream out, List<SheetWriteModel> sheets) throws Exception {
+        GZIPOutputStream gzipOut = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : null;
+        Writer writer = new BufferedWriter(
+            new OutputStreamWriter(gzipOut != null ? gzipOut : out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writer.write(UTF8_BOM);
+        if (sheets != null) {
+            boolean first = true;
+            for (SheetWriteModel model : sheets) {
+                if (!first) {
+                    writer.write("\r\n");
+                }
+                first = false;
+                writeSheet(writer, model);
+            }
+        }
+        writer.flush();
+        if (gzipOut != null) {
+            gzipOut.finish();
+        }
+        out.flush();
+    }
+
+    private void writeSheet(Writer writer, SheetWriteModel model) throws IOException {
+        List<List<String>> topInfoRows = model.getTopInfoRows();
+        if (topInfoRows != null) {
+            for (List<String> topRow : topInfoRows) {
+                writeRow(writer, topRow);
+            }
+        }
+        List<List<String>> head = model.getHead();
+        if (head != null && !head.isEmpty()) {
+            int levels = head.get(0).size();
+            for (int level = 0; level < levels; level++) {
+                for (int c = 0; c < head.size(); c++) {
+                    if (c > 0) {
+                        writer.write(',');
+                    }
+                    writeValue(writer, head.get(c).get(level));
+                }
+                writer.write("\r\n");
+            }
+        }
+
+        Iterator<RowBatch> batches = model.getBatches();
+        Iterator<List<Object>> rows = batches == null ? model.getRows() : null;
+        try {
+            if (batches != null) {
+                char[] digits = new char[20];
+                while (batches.hasNext()) {
+                    writeBatch(writer, batches.next(), digits);
+                }
+            }
+            while (rows != null && rows.hasNext()) {
+                writeRow(writer, rows.next());
+            }
+        } finally {
+            closeIterator(batches != null ? batches : rows);
+        }
+
+        AggregateStrategy strategy = model.getStrategy();
+        Map<String, Object> sumMap = model.getSumMap();
+        List<String> leafFields = model.getLeafFields();
+        if (strategy != null && sumMap != null && leafFields != null) {
+            for (int c = 0; c < leafFields.size(); c++) {
+                if (c > 0) {
+                    writer.write(',');
+                }
+                String f = leafFields.get(c);
+                if (strategy.isAggregate(f)) {
+                    writeValue(writer, strategy.finalize(f, sumMap.get(f)));
+                } else if (c == 0) {
+                    writeValue(writer, "总计");
+                }
+            }
+            writer.write("\r\n");
+        }
+    }
+
+    private void writeRow(Writer writer, List<?> row) throws IOException {
+        for (int c = 0; c < row.size(); c++) {
+            if (c > 0) {
+                writer.write(',');
+            }
+            writeValue(writer, row.get(c));
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeBatch(Writer writer, RowBatch batch, char[] digits) throws IOException {
+        int columnCount = batch.columnCount();
+        for (int r = 0; r < batch.size(); r++) {
+            for (int c = 0; c < columnCount; c++) {
+                if (c > 0) {
+                    writer.write(',');
+                }
+                ColumnVector column = batch.column(c);
+                if (column.type() == ColumnVector.Type.LONG) {
+                    if (!column.isNull(r)) {
+                        writeLong(writer, column.getLong(r), digits);
+                    }
+                } else {
+                    writeValue(writer, column.get(r));
+                }
+            }
+            writer.write("\r\n");
+        }
+    }
+
+    /**
+     * 与 Long.toString 输出一致，借用调用方的字符缓冲避免逐个单元格创建字符串
+     */
+    private static void writeLong(Writer writer, long value, char[] digits) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            writer.write(Long.toString(value));
+            return;
+        }
+        boolean negative = value < 0;
+        long remaining = negative ? -value : value;
+        int pos = digits.length;
+        do {
+            digits[--pos] = (char) ('0' + (remaining % 10));
+            remaining /= 10;
+        } while (remaining != 0);
+        if (negative) {
+            digits[--pos] = '-';
+        }
+        writer.write(digits, pos, digits.length - pos);
+    }
+
+    private void writeValue(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof BigDecimal decimal) {
+            writer.write(decimal.toPlainString());
+            return;
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            writer.write(value.toString());
+            return;
+        }
+        String text = value.toString();
+        if (text.isEmpty()) {
+            return;
+        }
+        boolean formulaLike = isFormulaLike(text.charAt(0));
+        if (!formulaLike && !needsQuoting(text)) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        if (formulaLike) {
+            writer.write('\'');
+        }
+        writer.write(text.indexOf('"') >= 0 ? text.replace("\"", "\"\"") : text);
+        writer.write('"');
+    }
+
+    private static boolean isFormulaLike(char first) {
+        return first == '=' || first == '+' || first == '-' || first == '@';
+    }
+
+    private static boolean needsQuoting(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (ch == ',' || ch == '"' || ch == '\r' || ch == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void closeIterator(Iterator<?> rows) {
+        if (!(rows instanceof AutoCloseable closeable)) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (Exception ex) {
+            log.debug("failed to close row iterator", ex);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.tiny.platform.infrastructure.export.writer.fesod;
 
 import com.tiny.platform.infrastructure.export.core.AggregateStrategy;
+import com.tiny.platform.infrastructure.export.core.RowBatch;
 import com.tiny.platform.infrastructure.export.core.WriterOptions;
 import com.tiny.platform.infrastructure.export.service.SheetWriteModel;
 import com.tiny.platform.infrastructure.export.writer.WriterAdapter;
@@ -36,7 +37,7 @@ import java.util.stream.Collectors;
  * 功能支持：
  *  - 多业务 Sheet 同时导出
  *  - 顶部信息行（TopInfo）+ 多级表头自动合并
- *  - 流式写入（批量 flush，降低内存）
+ *  - 流式写入（批量 flush，降低内存）；模型提供按批数据时直接以 RowBatch 的行视图整段写入，不再逐行复制
  *  - 合计行输出（AggregateStrategy）
  *  - 可扩展 WriterAdapter 接口，与 POI 版本保持一致
  */
@@ -105,10 +106,25 @@ public class FesodWriterAdapter implements WriterAdapter {
 
         int part = 1;
         SheetPartCursor cursor = openSheet(sheetIndex++, baseSheetName, part, usedSheetNames, model, plan);
-        Iterator<List<Object>> iterator = model.getRows();
+        Iterator<RowBatch> rowBatches = model.getBatches();
+        Iterator<List<Object>> iterator = rowBatches == null ? model.getRows() : null;
         List<List<Object>> batch = new ArrayList<>(batchSize);
         boolean wroteData = false;
         try {
+            while (rowBatches != null && rowBatches.hasNext()) {
+                RowBatch rowBatch = rowBatches.next();
+                int offset = 0;
+                while (offset < rowBatch.size()) {
+                    if (cursor.dataRowsWritten >= cursor.dataCapacity) {
+                        cursor = openSheet(sheetIndex++, baseSheetName, ++part, usedSheetNames, model, plan);
+                    }
+                    int count = Math.min(rowBatch.size() - offset, cursor.dataCapacity - cursor.dataRowsWritten);
+                    writer.write(rowBatch.rows(offset, offset + count), cursor.writeSheet);
+                    cursor.dataRowsWritten += count;
+                    offset += count;
+                    wroteData = true;
+                }
+            }
             while (iterator != null && iterator.hasNext()) {
                 if (cursor.dataRowsWritten >= cursor.dataCapacity) {
                     if (!batch.isEmpty()) {
@@ -137,7 +153,7 @@ public class FesodWriterAdapter implements WriterAdapter {
             writeSummaryRow(writer, cursor.writeSheet, model);
             return sheetIndex;
         } finally {
-            closeIterator(iterator);
+            closeIterator(rowBatches != null ? rowBatches : iterator);
         }
     }
 
@@ -280,7 +296,7 @@ public class FesodWriterAdapter implements WriterAdapter {
         return trimmed.substring(0, maxLen);
     }
 
-    private void closeIterator(Iterator<List<Object>> iterator) {
+    private void closeIterator(Iterator<?> iterator) {
         if (!(iterator instanceof AutoCloseable closeable)) {
             return;
         }
@@ -1,5 +1,7 @@
 package com.tiny.platform.infrastructure.export.writer.poi;
 
+import com.tiny.platform.infrastructure.export.core.ColumnVector;
+import com.tiny.platform.infrastructure.export.core.RowBatch;
 import com.tiny.platform.infrastructure.export.service.SheetWriteModel;
 import com.tiny.platform.infrastructure.export.writer.WriterAdapter;
 import org.apache.poi.ss.usermodel.*;
@@ -17,6 +19,7 @@ import java.util.Set;
 
 /**
  * POIWriterAdapter 使用 SXSSFWorkbook 流式写入
+ * 模型提供按批数据时直接按列读取 RowBatch，数值列按原始类型写入单元格
  */
 public class POIWriterAdapter implements WriterAdapter {
     private static final Logger log = LoggerFactory.getLogger(POIWriterAdapter.class);
@@ -62,11 +65,31 @@ public class POIWriterAdapter implements WriterAdapter {
                 int part = 1;
 
                 // 数据写入
-                Iterator<List<Object>> rows = model.getRows();
+                Iterator<RowBatch> batches = model.getBatches();
+                Iterator<List<Object>> rows = batches == null ? model.getRows() : null;
                 Map<String, Object> sumMap = model.getSumMap();
                 List<String> leafFields = model.getLeafFields();
 
                 try {
+                    while (batches != null && batches.hasNext()) {
+                        RowBatch batch = batches.next();
+                        for (int r = 0; r < batch.size(); r++) {
+                            if (cursor.rowIndex >= maxRowsPerSheet) {
+                                cursor = openSheet(workbook, baseSheetName, ++part, topInfoRows, head, usedSheetNames);
+                            }
+                            Row row = cursor.sheet.createRow(cursor.rowIndex++);
+                            for (int c = 0; c < batch.columnCount(); c++) {
+                                ColumnVector column = batch.column(c);
+                                Cell cell = row.createCell(c);
+                                if (column.isNull(r)) continue;
+                                if (column.type() == ColumnVector.Type.LONG || column.type() == ColumnVector.Type.DOUBLE) {
+                                    cell.setCellValue(column.getDouble(r));
+                                } else {
+                                    setCellValue(cell, column.get(r));
+                                }
+                            }
+                        }
+                    }
                     while (rows != null && rows.hasNext()) {
                         if (cursor.rowIndex >= maxRowsPerSheet) {
                             cursor = openSheet(workbook, baseSheetName, ++part, topInfoRows, head, usedSheetNames);
@@ -77,13 +100,11 @@ public class POIWriterAdapter implements WriterAdapter {
                             Object v = rowData.get(c);
                             Cell cell = row.createCell(c);
                             if (v == null) continue;
-                            if (v instanceof Number) cell.setCellValue(((Number) v).doubleValue());
-                            else if (v instanceof Boolean) cell.setCellValue((Boolean) v);
-                            else cell.setCellValue(v.toString());
+                            setCellValue(cell, v);
                         }
                     }
                 } finally {
-                    closeIterator(rows);
+                    closeIterator(batches != null ? batches : rows);
                 }
 
                 // 写合计（若有）
@@ -113,6 +134,12 @@ public class POIWriterAdapter implements WriterAdapter {
         }
     }
 
+    private static void setCellValue(Cell cell, Object v) {
+        if (v instanceof Number) cell.setCellValue(((Number) v).doubleValue());
+        else if (v instanceof Boolean) cell.setCellValue((Boolean) v);
+        else cell.setCellValue(v.toString());
+    }
+
     private SheetCursor openSheet(SXSSFWorkbook workbook,
                                   String baseSheetName,
                                   int part,
@@ -225,7 +252,7 @@ public class POIWriterAdapter implements WriterAdapter {
         }
     }
 
-    private void closeIterator(Iterator<List<Object>> rows) {
+    private void closeIterator(Iterator<?> rows) {
         if (!(rows instanceof AutoCloseable closeable)) {
             return;
         }
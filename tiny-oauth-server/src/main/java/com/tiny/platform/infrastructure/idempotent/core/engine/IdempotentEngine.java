@@ -3,11 +3,16 @@ package com.tiny.platform.infrastructure.idempotent.core.engine;
 import com.tiny.platform.infrastructure.idempotent.core.context.IdempotentContext;
 import com.tiny.platform.infrastructure.idempotent.core.exception.IdempotentException;
 import com.tiny.platform.infrastructure.idempotent.core.key.IdempotentKey;
+import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentResponse;
 import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentState;
 import com.tiny.platform.infrastructure.idempotent.core.repository.IdempotentRepository;
 import com.tiny.platform.infrastructure.idempotent.core.strategy.IdempotentStrategy;
 import com.tiny.platform.infrastructure.idempotent.metrics.IdempotentMetricsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.Nullable;
 
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -20,6 +25,8 @@ import java.util.function.Supplier;
  */
 public class IdempotentEngine {
     
+    private static final Logger log = LoggerFactory.getLogger(IdempotentEngine.class);
+    
     private final IdempotentRepository repository;
     private final IdempotentMetricsService metricsService;
     
@@ -93,6 +100,26 @@ public class IdempotentEngine {
      * @throws Throwable 业务异常或幂等性异常
      */
     public <T> T execute(IdempotentContext context, Supplier<T> executor) throws Throwable {
+        return execute(context, executor, null, null);
+    }
+    
+    /**
+     * 执行幂等性保护的业务逻辑，并支持成功响应重放
+     * 
+     * <p>成功时由 {@code responseEncoder} 生成响应快照，与 SUCCESS 状态一起写入存储；
+     * 重复请求先读取快照，存在则交给 {@code responseReplayer} 还原为结果直接返回，一次 key 查询即可结束。
+     * 快照缺失（超出大小上限、不可序列化或存储不支持）时仍按原逻辑抛出重复请求异常。</p>
+     * 
+     * @param context 幂等性上下文
+     * @param executor 业务执行器
+     * @param responseEncoder 成功结果 → 响应快照，返回 null 表示不保存
+     * @param responseReplayer 响应快照 → 结果
+     * @return 执行结果或重放结果
+     * @throws Throwable 业务异常或幂等性异常
+     */
+    public <T> T execute(IdempotentContext context, Supplier<T> executor,
+                         @Nullable Function<? super T, IdempotentResponse> responseEncoder,
+                         @Nullable Function<IdempotentResponse, ? extends T> responseReplayer) throws Throwable {
         // 检查并设置幂等性 token
         boolean isFirstRequest;
         try {
@@ -109,12 +136,23 @@ public class IdempotentEngine {
             }
         }
         
-        // 如果是重复请求，抛出异常
+        // 如果是重复请求：已保存成功响应则直接重放，否则抛出异常
         if (!isFirstRequest) {
+            IdempotentResponse response = responseReplayer != null ? loadResponse(context) : null;
+            if (response != null) {
+                metricsService.recordDuplicate(context.getKey(), IdempotentState.SUCCESS);
+                try {
+                    context.setState(IdempotentState.SUCCESS);
+                    return responseReplayer.apply(response);
+                } catch (RuntimeException e) {
+                    log.warn("幂等响应重放失败: key={}, error={}", context.getKey().getFullKey(), e.getMessage());
+                    throw new IdempotentException("重复请求，操作已成功");
+                }
+            }
             IdempotentState existingState = repository.getState(context.getKey());
             metricsService.recordDuplicate(context.getKey(), existingState);
             if (existingState == IdempotentState.SUCCESS) {
-                // 之前已经成功，返回成功结果（可以根据需要返回缓存的结果）
+                // 之前已经成功，但没有可重放的响应
                 throw new IdempotentException("重复请求，操作已成功");
             } else {
                 // 其他状态，抛出重复请求异常
@@ -126,8 +164,13 @@ public class IdempotentEngine {
         try {
             // 执行业务逻辑
             T result = executor.get();
-            // 执行成功，更新状态
-            repository.updateState(context.getKey(), IdempotentState.SUCCESS);
+            // 执行成功，更新状态（有响应快照时一并写入）
+            IdempotentResponse response = encodeResponse(context, result, responseEncoder);
+            if (response != null) {
+                repository.updateState(context.getKey(), IdempotentState.SUCCESS, response);
+            } else {
+                repository.updateState(context.getKey(), IdempotentState.SUCCESS);
+            }
             context.setState(IdempotentState.SUCCESS);
             metricsService.recordSuccess(context.getKey());
             return result;
@@ -140,4 +183,26 @@ public class IdempotentEngine {
             throw e;
         }
     }
+    
+    private IdempotentResponse loadResponse(IdempotentContext context) {
+        try {
+            return repository.getResponse(context.getKey());
+        } catch (Exception e) {
+            log.debug("读取幂等响应快照失败: key={}, error={}", context.getKey().getFullKey(), e.getMessage());
+            return null;
+        }
+    }
+    
+    private <T> IdempotentResponse encodeResponse(IdempotentContext context, T result,
+                                                  @Nullable Function<? super T, IdempotentResponse> responseEncoder) {
+        if (responseEncoder == null) {
+            return null;
+        }
+        try {
+            return responseEncoder.apply(result);
+        } catch (RuntimeException e) {
+            log.debug("生成幂等响应快照失败: key={}, error={}", context.getKey().getFullKey(), e.getMessage());
+            return null;
+        }
+    }
 }
@@ -36,6 +36,11 @@ public class IdempotentRecord {
      * TTL（秒）
      */
     private long ttlSeconds;
+
+    /**
+     * 成功响应快照
+     */
+    private IdempotentResponse response;
     
     public IdempotentRecord() {
     }
@@ -88,6 +93,14 @@ public class IdempotentRecord {
         this.ttlSeconds = ttlSeconds;
     }
     
+    public IdempotentResponse getResponse() {
+        return response;
+    }
+    
+    public void setResponse(IdempotentResponse response) {
+        this.response = response;
+    }
+    
     /**
      * 检查是否已过期
      */
@@ -0,0 +1,94 @@
+package com.tiny.platform.infrastructure.idempotent.core.record;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 幂等请求成功后的响应快照
+ *
+ * <p>与 SUCCESS 状态一起保存，重复请求直接按快照重放：状态码、白名单内的响应头以及 JSON 序列化后的响应体。</p>
+ *
+ * @author tiny-platform
+ * @since 1.0.0
+ */
+public final class IdempotentResponse {
+
+    private static final ObjectMapper PAYLOAD_MAPPER = new ObjectMapper();
+
+    private final int status;
+    private final Map<String, String> headers;
+    private final String body;
+
+    public IdempotentResponse(int status, Map<String, String> headers, String body) {
+        this.status = status;
+        this.headers = headers == null || headers.isEmpty()
+            ? Collections.emptyMap()
+            : Collections.unmodifiableMap(new LinkedHashMap<>(headers));
+        this.body = body;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * JSON 序列化后的响应体，方法返回 null 时为 null
+     */
+    public String getBody() {
+        return body;
+    }
+
+    /**
+     * 序列化为存储载荷
+     */
+    public String toPayload() {
+        ObjectNode node = PAYLOAD_MAPPER.createObjectNode();
+        node.put("status", status);
+        ObjectNode headerNode = node.putObject("headers");
+        headers.forEach(headerNode::put);
+        if (body != null) {
+            node.put("body", body);
+        }
+        return node.toString();
+    }
+
+    /**
+     * 从存储载荷还原
+     *
+     * @throws IllegalArgumentException 载荷格式非法
+     */
+    public static IdempotentResponse fromPayload(String payload) {
+        if (payload == null || payload.isEmpty()) {
+            return null;
+        }
+        try {
+            JsonNode node = PAYLOAD_MAPPER.readTree(payload);
+            Map<String, String> headers = new LinkedHashMap<>();
+            JsonNode headerNode = node.path("headers");
+            Iterator<Map.Entry<String, JsonNode>> fields = headerNode.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                headers.put(field.getKey(), field.getValue().asText());
+            }
+            JsonNode bodyNode = node.get("body");
+            return new IdempotentResponse(
+                node.path("status").asInt(200),
+                headers,
+                bodyNode == null || bodyNode.isNull() ? null : bodyNode.asText()
+            );
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("无效的幂等响应快照", e);
+        }
+    }
+}
@@ -2,8 +2,11 @@ package com.tiny.platform.infrastructure.idempotent.core.repository;
 
 import com.tiny.platform.infrastructure.idempotent.core.key.IdempotentKey;
 import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentRecord;
+import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentResponse;
 import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentState;
 
+import java.util.Map;
+
 /**
  * 幂等性存储接口（抽象定义）
  * 
@@ -64,6 +67,43 @@ public interface IdempotentRepository {
      * @param state 新状态
      */
     void updateState(IdempotentKey key, IdempotentState state);
+
+    /**
+     * 更新状态并保存响应快照
+     *
+     * <p>默认忽略快照，仅更新状态；支持重放的存储实现应在同一次写入中保存二者。</p>
+     *
+     * @param key 幂等性 key
+     * @param state 新状态
+     * @param response 响应快照，为 null 时等同于 {@link #updateState(IdempotentKey, IdempotentState)}
+     */
+    default void updateState(IdempotentKey key, IdempotentState state, IdempotentResponse response) {
+        updateState(key, state);
+    }
+
+    /**
+     * 获取响应快照
+     *
+     * @param key 幂等性 key
+     * @return 未过期 token 上保存的响应快照，不存在或不支持时返回 null
+     */
+    default IdempotentResponse getResponse(IdempotentKey key) {
+        return null;
+    }
+
+    /**
+     * 批量更新状态
+     *
+     * <p>默认逐条调用 {@link #updateState}；存储实现可合并为更少的往返。</p>
+     *
+     * @param transitions key → 新状态
+     */
+    default void updateStates(Map<IdempotentKey, IdempotentState> transitions) {
+        if (transitions == null) {
+            return;
+        }
+        transitions.forEach(this::updateState);
+    }
     
     /**
      * 延长 TTL
@@ -2,19 +2,26 @@ package com.tiny.platform.infrastructure.idempotent.metrics;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.BadSqlGrammarException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.lang.Nullable;
 import org.springframework.util.StringUtils;
 
+import java.sql.BatchUpdateException;
+import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 /**
  * 基于数据库的幂等指标分钟聚合仓储。
+ *
+ * <p>{@link #mergeDeltas(List)} 以 {@code INSERT ... ON DUPLICATE KEY UPDATE col = col + VALUES(col)} 批量合并增量，
+ * 多实例写同一（分钟, 租户, scope）时按加法累积；数据库不支持该语法时退回逐行 UPDATE-then-INSERT。</p>
  */
 public class DatabaseIdempotentMetricsRepository {
 
@@ -29,6 +36,7 @@ public class DatabaseIdempotentMetricsRepository {
     private final JdbcTemplate jdbcTemplate;
     private final long retentionDays;
     private final Clock clock;
+    private volatile boolean batchMergeSupported = true;
 
     public DatabaseIdempotentMetricsRepository(JdbcTemplate jdbcTemplate,
                                                Duration retention,
@@ -62,6 +70,70 @@ public class DatabaseIdempotentMetricsRepository {
         record(bucketMinute, activeTenantId, null, 0, 0, 0, 0, 0, 1, 0);
     }
 
+    /**
+     * 批量合并分钟增量。
+     *
+     * @return 未能写入的增量（调用方可留待下一轮重试）
+     */
+    public List<IdempotentMetricsDelta> mergeDeltas(List<IdempotentMetricsDelta> deltas) {
+        if (deltas == null || deltas.isEmpty()) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        if (batchMergeSupported) {
+            String mergeSql = "INSERT INTO " + TABLE_NAME + " ("
+                + "bucket_minute, tenant_id, scope, pass_count, hit_count, success_count, failure_count, "
+                + "store_error_count, validation_reject_count, hot_count, created_time, updated_time"
+                + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+                + "ON DUPLICATE KEY UPDATE "
+                + "pass_count = pass_count + VALUES(pass_count), "
+                + "hit_count = hit_count + VALUES(hit_count), "
+                + "success_count = success_count + VALUES(success_count), "
+                + "failure_count = failure_count + VALUES(failure_count), "
+                + "store_error_count = store_error_count + VALUES(store_error_count), "
+                + "validation_reject_count = validation_reject_count + VALUES(validation_reject_count), "
+                + "hot_count = hot_count + VALUES(hot_count), "
+                + "updated_time = VALUES(updated_time)";
+            Timestamp nowTimestamp = Timestamp.valueOf(now);
+            try {
+                jdbcTemplate.batchUpdate(mergeSql, deltas, deltas.size(), (ps, delta) -> {
+                    ps.setTimestamp(1, Timestamp.valueOf(delta.bucketMinute().withSecond(0).withNano(0)));
+                    ps.setLong(2, normalizeActiveTenantId(delta.activeTenantId()));
+                    ps.setString(3, delta.scope());
+                    ps.setLong(4, delta.passCount());
+                    ps.setLong(5, delta.hitCount());
+                    ps.setLong(6, delta.successCount());
+                    ps.setLong(7, delta.failureCount());
+                    ps.setLong(8, delta.storeErrorCount());
+                    ps.setLong(9, delta.validationRejectCount());
+                    ps.setLong(10, delta.hotCount());
+                    ps.setTimestamp(11, nowTimestamp);
+                    ps.setTimestamp(12, nowTimestamp);
+                });
+                return List.of();
+            } catch (BadSqlGrammarException e) {
+                batchMergeSupported = false;
+                log.info("数据库不支持 ON DUPLICATE KEY UPDATE，幂等分钟指标改为逐行写入: {}", e.getMessage());
+            } catch (Exception e) {
+                List<IdempotentMetricsDelta> unapplied = unappliedDeltas(deltas, e);
+                log.warn("批量写入幂等分钟指标失败: rows={}, unapplied={}, error={}",
+                    deltas.size(), unapplied.size(), e.getMessage());
+                return unapplied;
+            }
+        }
+        List<IdempotentMetricsDelta> failed = new ArrayList<>();
+        for (IdempotentMetricsDelta delta : deltas) {
+            boolean written = upsert(delta.bucketMinute().withSecond(0).withNano(0),
+                normalizeActiveTenantId(delta.activeTenantId()), delta.scope(), delta.passCount(), delta.hitCount(),
+                delta.successCount(), delta.failureCount(), delta.storeErrorCount(), delta.validationRejectCount(),
+                delta.hotCount(), now);
+            if (!written) {
+                failed.add(delta);
+            }
+        }
+        return failed;
+    }
+
     public IdempotentMetricsAggregate aggregateWindow(@Nullable Long activeTenantId,
                                                       LocalDateTime windowStartInclusive,
                                                       LocalDateTime windowEndExclusive) {
@@ -149,17 +221,17 @@ public class DatabaseIdempotentMetricsRepository {
         }
     }
 
-    private void upsert(LocalDateTime bucketMinute,
-                        long activeTenantId,
-                        String scope,
-                        long passCount,
-                        long hitCount,
-                        long successCount,
-                        long failureCount,
-                        long storeErrorCount,
-                        long validationRejectCount,
-                        long hotCount,
-                        LocalDateTime now) {
+    private boolean upsert(LocalDateTime bucketMinute,
+                           long activeTenantId,
+                           String scope,
+                           long passCount,
+                           long hitCount,
+                           long successCount,
+                           long failureCount,
+                           long storeErrorCount,
+                           long validationRejectCount,
+                           long hotCount,
+                           LocalDateTime now) {
         String updateSql = "UPDATE " + TABLE_NAME + " SET "
             + "pass_count = pass_count + ?, "
             + "hit_count = hit_count + ?, "
@@ -186,7 +258,7 @@ public class DatabaseIdempotentMetricsRepository {
                 scope
             );
             if (updated > 0) {
-                return;
+                return true;
             }
 
             String insertSql = "INSERT INTO " + TABLE_NAME + " ("
@@ -208,6 +280,7 @@ public class DatabaseIdempotentMetricsRepository {
                 Timestamp.valueOf(now),
                 Timestamp.valueOf(now)
             );
+            return true;
         } catch (Exception insertOrUpdateError) {
             try {
                 jdbcTemplate.update(
@@ -224,11 +297,34 @@ public class DatabaseIdempotentMetricsRepository {
                     activeTenantId,
                     scope
                 );
+                return true;
             } catch (Exception retryError) {
                 log.warn("写入幂等分钟指标失败: bucketMinute={}, activeTenantId={}, scope={}, error={}",
                     bucketMinute, activeTenantId, scope, retryError.getMessage());
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 批量执行中途失败时按驱动返回的 updateCounts 找出未生效的行；拿不到计数时视为整批未执行。
+     */
+    private List<IdempotentMetricsDelta> unappliedDeltas(List<IdempotentMetricsDelta> deltas, Exception error) {
+        Throwable cause = error;
+        while (cause != null && !(cause instanceof BatchUpdateException)) {
+            cause = cause.getCause();
+        }
+        if (!(cause instanceof BatchUpdateException batchError) || batchError.getUpdateCounts() == null) {
+            return deltas;
+        }
+        int[] updateCounts = batchError.getUpdateCounts();
+        List<IdempotentMetricsDelta> unapplied = new ArrayList<>();
+        for (int i = 0; i < deltas.size(); i++) {
+            if (i >= updateCounts.length || updateCounts[i] == Statement.EXECUTE_FAILED) {
+                unapplied.add(deltas.get(i));
             }
         }
+        return unapplied;
     }
 
     public int cleanupExpiredMetrics() {
@@ -0,0 +1,27 @@
+package com.tiny.platform.infrastructure.idempotent.metrics;
+
+import org.springframework.lang.Nullable;
+
+import java.time.LocalDateTime;
+
+/**
+ * 幂等分钟聚合指标的单行增量。
+ */
+public record IdempotentMetricsDelta(
+    LocalDateTime bucketMinute,
+    @Nullable Long activeTenantId,
+    String scope,
+    long passCount,
+    long hitCount,
+    long successCount,
+    long failureCount,
+    long storeErrorCount,
+    long validationRejectCount,
+    long hotCount
+) {
+
+    public boolean hasChanges() {
+        return passCount != 0 || hitCount != 0 || successCount != 0 || failureCount != 0
+            || storeErrorCount != 0 || validationRejectCount != 0 || hotCount != 0;
+    }
+}
@@ -0,0 +1,36 @@
+package com.tiny.platform.infrastructure.idempotent.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * 幂等分钟聚合指标刷写任务。
+ *
+ * <p>定期把内存增量桶合并到分钟聚合表，应用关闭时再刷写一次，避免丢失最后一个周期的增量。
+ * 由 {@code IdempotentAutoConfiguration} 与数据库指标仓储一同注册。</p>
+ */
+public class IdempotentMetricsFlushScheduler implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotentMetricsFlushScheduler.class);
+
+    private final IdempotentMetricsService metricsService;
+
+    public IdempotentMetricsFlushScheduler(IdempotentMetricsService metricsService) {
+        this.metricsService = metricsService;
+    }
+
+    @Scheduled(fixedDelayString = "${tiny.idempotent.ops.metrics-flush-fixed-delay-ms:5000}")
+    public void flushPendingMetrics() {
+        int flushed = metricsService.flushPendingMetrics();
+        if (flushed > 0) {
+            log.debug("Flushed idempotent metric deltas rows={}", flushed);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        flushPendingMetrics();
+    }
+}
@@ -12,17 +12,22 @@ import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
 /**
  * 幂等性指标服务。
  *
  * <p>同时维护内存快照与 Micrometer counter，便于治理接口和运维监控复用。</p>
+ *
+ * <p>数据库模式下事件只累加到内存中按（分钟, 租户, scope）划分的增量桶，由 {@link #flushPendingMetrics()}
+ * 定期批量合并到分钟聚合表；合并是加法 upsert，多实例各自刷写的增量可直接相加。治理查询前会先刷写本实例的增量。</p>
  */
 public class IdempotentMetricsService {
 
@@ -35,6 +40,7 @@ public class IdempotentMetricsService {
     @Nullable
     private final DatabaseIdempotentMetricsRepository databaseRepository;
     private final ConcurrentMap<Long, MetricsBucket> buckets = new ConcurrentHashMap<>();
+    private final ConcurrentMap<DeltaKey, PendingDelta> pendingDeltas = new ConcurrentHashMap<>();
 
     private final Counter passCounter;
     private final Counter hitCounter;
@@ -96,7 +102,7 @@ public class IdempotentMetricsService {
         Long activeTenantId = resolveActiveTenantId(key);
         String normalizedScope = normalizeScope(key);
         if (databaseRepository != null) {
-            databaseRepository.recordPass(currentBucketMinute(), activeTenantId, normalizedScope);
+            bufferDelta(activeTenantId, normalizedScope, PendingDelta::recordPass);
         } else {
             MetricsBucket bucket = currentBucket();
             bucket.passCount.increment();
@@ -109,7 +115,7 @@ public class IdempotentMetricsService {
         Long activeTenantId = resolveActiveTenantId(key);
         String normalizedScope = normalizeScope(key);
         if (databaseRepository != null) {
-            databaseRepository.recordDuplicate(currentBucketMinute(), activeTenantId, normalizedScope);
+            bufferDelta(activeTenantId, normalizedScope, PendingDelta::recordDuplicate);
         } else {
             MetricsBucket bucket = currentBucket();
             bucket.hitCount.increment();
@@ -122,7 +128,7 @@ public class IdempotentMetricsService {
         Long activeTenantId = resolveActiveTenantId(key);
         String normalizedScope = normalizeScope(key);
         if (databaseRepository != null) {
-            databaseRepository.recordSuccess(currentBucketMinute(), activeTenantId, normalizedScope);
+            bufferDelta(activeTenantId, normalizedScope, PendingDelta::recordSuccess);
         } else {
             currentBucket().successCount.increment();
         }
@@ -133,7 +139,7 @@ public class IdempotentMetricsService {
         Long activeTenantId = resolveActiveTenantId(key);
         String normalizedScope = normalizeScope(key);
         if (databaseRepository != null) {
-            databaseRepository.recordFailure(currentBucketMinute(), activeTenantId, normalizedScope);
+            bufferDelta(activeTenantId, normalizedScope, PendingDelta::recordFailure);
         } else {
             currentBucket().failureCount.increment();
         }
@@ -144,7 +150,7 @@ public class IdempotentMetricsService {
         Long activeTenantId = resolveActiveTenantId(key);
         String normalizedScope = normalizeScope(key);
         if (databaseRepository != null) {
-            databaseRepository.recordStoreError(currentBucketMinute(), activeTenantId, normalizedScope);
+            bufferDelta(activeTenantId, normalizedScope, PendingDelta::recordStoreError);
         } else {
             MetricsBucket bucket = currentBucket();
             bucket.storeErrorCount.increment();
@@ -155,7 +161,7 @@ public class IdempotentMetricsService {
 
     public void recordValidationRejected(String reason) {
         if (databaseRepository != null) {
-            databaseRepository.recordValidationRejected(currentBucketMinute(), resolveCurrentActiveTenantId());
+            bufferDelta(resolveCurrentActiveTenantId(), null, PendingDelta::recordValidationRejected);
         } else {
             currentBucket().validationRejectCount.increment();
         }
@@ -167,6 +173,7 @@ public class IdempotentMetricsService {
     }
 
     public IdempotentMetricsSnapshot snapshot(@Nullable Long activeTenantId) {
+        flushPendingMetrics();
         WindowBounds bounds = currentWindowBounds();
         IdempotentMetricsAggregate aggregate = aggregateWindow(bounds, activeTenantId);
         long pass = aggregate.passCount();
@@ -202,6 +209,7 @@ public class IdempotentMetricsService {
     public List<Map<String, Object>> topScopes(int limit, @Nullable Long activeTenantId) {
         int safeLimit = Math.max(1, Math.min(limit, 100));
         if (databaseRepository != null) {
+            flushPendingMetrics();
             WindowBounds bounds = currentWindowBounds();
             return databaseRepository.topScopes(activeTenantId, bounds.windowStartInclusive(), bounds.windowEndExclusive(), safeLimit);
         }
@@ -214,6 +222,60 @@ public class IdempotentMetricsService {
             .toList();
     }
 
+    /**
+     * 将内存增量桶合并写入分钟聚合表（仅数据库模式）。
+     *
+     * <p>每个（分钟, 租户, scope）只写一行增量；写入失败的增量放回桶中等待下一轮，超出统计窗口的直接丢弃。
+     * 早于上一分钟的桶在刷写后移除，当前与上一分钟的桶保留复用。</p>
+     *
+     * @return 本轮成功合并的行数
+     */
+    public int flushPendingMetrics() {
+        if (databaseRepository == null || pendingDeltas.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime retainFrom = currentBucketMinute().minusMinutes(1);
+        List<IdempotentMetricsDelta> deltas = new ArrayList<>();
+        for (Map.Entry<DeltaKey, PendingDelta> entry : pendingDeltas.entrySet()) {
+            DeltaKey key = entry.getKey();
+            if (key.bucketMinute().isBefore(retainFrom)) {
+                pendingDeltas.remove(key, entry.getValue());
+            }
+            IdempotentMetricsDelta delta = entry.getValue().drain(key);
+            if (delta.hasChanges()) {
+                deltas.add(delta);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        List<IdempotentMetricsDelta> failed = databaseRepository.mergeDeltas(deltas);
+        if (!failed.isEmpty()) {
+            LocalDateTime windowStart = currentWindowBounds().windowStartInclusive();
+            for (IdempotentMetricsDelta delta : failed) {
+                if (!delta.bucketMinute().isBefore(windowStart)) {
+                    pendingDeltas.computeIfAbsent(
+                        new DeltaKey(delta.bucketMinute(), delta.activeTenantId(), delta.scope()),
+                        ignored -> new PendingDelta()
+                    ).add(delta);
+                }
+            }
+        }
+        return deltas.size() - failed.size();
+    }
+
+    private void bufferDelta(@Nullable Long activeTenantId, @Nullable String scope, Consumer<PendingDelta> recorder) {
+        LocalDateTime bucketMinute = currentBucketMinute();
+        recorder.accept(pendingDeltas.computeIfAbsent(
+            new DeltaKey(bucketMinute, activeTenantId, DatabaseIdempotentMetricsRepository.ALL_SCOPE),
+            ignored -> new PendingDelta()));
+        if (StringUtils.hasText(scope)) {
+            recorder.accept(pendingDeltas.computeIfAbsent(
+                new DeltaKey(bucketMinute, activeTenantId, scope),
+                ignored -> new PendingDelta()));
+        }
+    }
+
     private MetricsBucket currentBucket() {
         long currentMinute = currentEpochMinute();
         cleanupBuckets(currentMinute);
@@ -391,6 +453,77 @@ public class IdempotentMetricsService {
         private final ConcurrentMap<String, LongAdder> hotScopes = new ConcurrentHashMap<>();
     }
 
+    private record DeltaKey(LocalDateTime bucketMinute, @Nullable Long activeTenantId, String scope) {
+    }
+
+    /**
+     * 待刷写的单个（分钟, 租户, scope）增量，计数语义与 {@link DatabaseIdempotentMetricsRepository} 的各 record 方法一致。
+     */
+    private static final class PendingDelta {
+        private final LongAdder passCount = new LongAdder();
+        private final LongAdder hitCount = new LongAdder();
+        private final LongAdder successCount = new LongAdder();
+        private final LongAdder failureCount = new LongAdder();
+        private final LongAdder storeErrorCount = new LongAdder();
+        private final LongAdder validationRejectCount = new LongAdder();
+        private final LongAdder hotCount = new LongAdder();
+
+        private void recordPass() {
+            passCount.increment();
+            hotCount.increment();
+        }
+
+        private void recordDuplicate() {
+            hitCount.increment();
+            hotCount.increment();
+        }
+
+        private void recordSuccess() {
+            successCount.increment();
+        }
+
+        private void recordFailure() {
+            failureCount.increment();
+        }
+
+        private void recordStoreError() {
+            storeErrorCount.increment();
+            hotCount.increment();
+        }
+
+        private void recordValidationRejected() {
+            validationRejectCount.increment();
+        }
+
+        private void add(IdempotentMetricsDelta delta) {
+            passCount.add(delta.passCount());
+            hitCount.add(delta.hitCount());
+            successCount.add(delta.successCount());
+            failureCount.add(delta.failureCount());
+            storeErrorCount.add(delta.storeErrorCount());
+            validationRejectCount.add(delta.validationRejectCount());
+            hotCount.add(delta.hotCount());
+        }
+
+        /**
+         * sumThenReset 逐个 cell 原子清零，并发累加要么计入本轮，要么留给下一轮，不会丢失。
+         */
+        private IdempotentMetricsDelta drain(DeltaKey key) {
+            return new IdempotentMetricsDelta(
+                key.bucketMinute(),
+                key.activeTenantId(),
+                key.scope(),
+                passCount.sumThenReset(),
+                hitCount.sumThenReset(),
+                successCount.sumThenReset(),
+                failureCount.sumThenReset(),
+                storeErrorCount.sumThenReset(),
+                validationRejectCount.sumThenReset(),
+                hotCount.sumThenReset()
+            );
+        }
+    }
+
     private record WindowBounds(
         LocalDateTime windowStartInclusive,
         LocalDateTime windowEndExclusive,
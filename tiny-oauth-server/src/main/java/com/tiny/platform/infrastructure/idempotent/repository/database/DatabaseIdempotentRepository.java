@@ -2,19 +2,31 @@ package com.tiny.platform.infrastructure.idempotent.repository.database;
 
 import com.tiny.platform.infrastructure.idempotent.core.key.IdempotentKey;
 import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentRecord;
+import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentResponse;
 import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentState;
 import com.tiny.platform.infrastructure.idempotent.core.repository.IdempotentRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 基于数据库的幂等性存储实现
  * 
  * <p>使用数据库表存储幂等性 token，适合没有 Redis 的环境。</p>
+ *
+ * <p>占位（claim）不再在请求路径上做过期清理，也不靠主键冲突异常判重：先 {@code INSERT IGNORE}，
+ * 未插入时再用带 {@code expire_time < now} 条件的 UPDATE 原子接管已过期的同名 key，两条语句都按影响行数判定。
+ * 过期行由 {@link DatabaseIdempotentTokenSweeper} 在后台分批清理，查询接口按 expire_time 过滤尚未清理的过期行。</p>
+ *
+ * <p>成功响应快照存放在同一行的 response_payload 列，与 SUCCESS 状态一条 UPDATE 写入，接管过期行时一并清空。</p>
  * 
  * @author Auto Generated
  * @since 1.0.0
@@ -24,35 +36,52 @@ public class DatabaseIdempotentRepository implements IdempotentRepository {
     private static final Logger log = LoggerFactory.getLogger(DatabaseIdempotentRepository.class);
     
     private static final String TABLE_NAME = "sys_idempotent_token";
+
+    /**
+     * 批量状态迁移时单条 UPDATE 的 IN 列表上限
+     */
+    static final int STATE_UPDATE_CHUNK_SIZE = 500;
+
+    private static final String CLAIM_INSERT_SQL = String.format(
+        "INSERT IGNORE INTO %s (id, state, expire_time, created_time) VALUES (?, ?, ?, ?)", TABLE_NAME);
+    private static final String CLAIM_TAKEOVER_SQL = String.format(
+        "UPDATE %s SET state = ?, expire_time = ?, created_time = ?, response_payload = NULL WHERE id = ? AND expire_time < ?",
+        TABLE_NAME);
     
     private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
     
     public DatabaseIdempotentRepository(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, Clock.systemDefaultZone());
+    }
+
+    public DatabaseIdempotentRepository(JdbcTemplate jdbcTemplate, Clock clock) {
         this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock != null ? clock : Clock.systemDefaultZone();
     }
     
+    /**
+     * 原子占位：新 key 直接插入；同名 key 已过期时原地接管；未过期则判定为重复请求。
+     *
+     * <p>存储异常直接抛出，由引擎按 fail-open / fail-close 策略处理，不再被当作重复请求吞掉。</p>
+     */
     @Override
-    @Transactional
     public boolean checkAndSet(IdempotentKey key, long ttlSeconds) {
         String keyStr = key.getFullKey();
-        // 先清理过期数据
-        cleanupExpiredTokens();
-        
-        // 尝试插入
-        try {
-            LocalDateTime expireTime = LocalDateTime.now().plusSeconds(ttlSeconds);
-            String insertSql = String.format(
-                "INSERT INTO %s (id, state, expire_time, created_time) VALUES (?, ?, ?, ?)",
-                TABLE_NAME);
-            jdbcTemplate.update(insertSql, keyStr, IdempotentState.PENDING.name(), 
-                              expireTime, LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime expireTime = now.plusSeconds(ttlSeconds);
+        String pending = IdempotentState.PENDING.name();
+        if (jdbcTemplate.update(CLAIM_INSERT_SQL, keyStr, pending, expireTime, now) > 0) {
             log.debug("幂等性token设置成功: key={}, ttl={}秒", keyStr, ttlSeconds);
             return true;
-        } catch (Exception e) {
-            // 主键冲突，说明 token 已存在
-            log.debug("幂等性token已存在: key={}", keyStr);
-            return false;
         }
+        // 并发接管同一过期 key 时，只有先拿到行锁的一方能满足 expire_time < now
+        if (jdbcTemplate.update(CLAIM_TAKEOVER_SQL, pending, expireTime, now, keyStr, now) > 0) {
+            log.debug("幂等性token接管过期记录: key={}, ttl={}秒", keyStr, ttlSeconds);
+            return true;
+        }
+        log.debug("幂等性token已存在: key={}", keyStr);
+        return false;
     }
     
     @Override
@@ -71,8 +100,8 @@ public class DatabaseIdempotentRepository implements IdempotentRepository {
     public boolean exists(IdempotentKey key) {
         String keyStr = key.getFullKey();
         try {
-            String sql = String.format("SELECT COUNT(*) FROM %s WHERE id = ?", TABLE_NAME);
-            Integer count = jdbcTemplate.queryForObject(sql, Integer.class, keyStr);
+            String sql = String.format("SELECT COUNT(*) FROM %s WHERE id = ? AND expire_time >= ?", TABLE_NAME);
+            Integer count = jdbcTemplate.queryForObject(sql, Integer.class, keyStr, LocalDateTime.now(clock));
             return count != null && count > 0;
         } catch (Exception e) {
             log.warn("检查幂等性token是否存在失败: key={}, error={}", keyStr, e.getMessage());
@@ -104,8 +133,8 @@ public class DatabaseIdempotentRepository implements IdempotentRepository {
     public IdempotentState getState(IdempotentKey key) {
         String keyStr = key.getFullKey();
         try {
-            String sql = String.format("SELECT state FROM %s WHERE id = ?", TABLE_NAME);
-            String state = jdbcTemplate.queryForObject(sql, String.class, keyStr);
+            String sql = String.format("SELECT state FROM %s WHERE id = ? AND expire_time >= ?", TABLE_NAME);
+            String state = jdbcTemplate.queryForObject(sql, String.class, keyStr, LocalDateTime.now(clock));
             return state != null ? IdempotentState.valueOf(state) : null;
         } catch (Exception e) {
             log.debug("获取幂等性token状态失败: key={}, error={}", keyStr, e.getMessage());
@@ -125,11 +154,75 @@ public class DatabaseIdempotentRepository implements IdempotentRepository {
         }
     }
     
+    @Override
+    public void updateState(IdempotentKey key, IdempotentState state, IdempotentResponse response) {
+        if (response == null) {
+            updateState(key, state);
+            return;
+        }
+        String keyStr = key.getFullKey();
+        try {
+            String sql = String.format("UPDATE %s SET state = ?, response_payload = ? WHERE id = ?", TABLE_NAME);
+            jdbcTemplate.update(sql, state.name(), response.toPayload(), keyStr);
+            log.debug("更新幂等性token状态及响应快照成功: key={}, state={}", keyStr, state);
+        } catch (Exception e) {
+            log.warn("更新幂等性token响应快照失败，仅更新状态: key={}, error={}", keyStr, e.getMessage());
+            updateState(key, state);
+        }
+    }
+    
+    @Override
+    public IdempotentResponse getResponse(IdempotentKey key) {
+        String keyStr = key.getFullKey();
+        try {
+            String sql = String.format(
+                "SELECT response_payload FROM %s WHERE id = ? AND expire_time >= ?", TABLE_NAME);
+            List<String> payloads = jdbcTemplate.queryForList(sql, String.class, keyStr, LocalDateTime.now(clock));
+            return payloads.isEmpty() ? null : IdempotentResponse.fromPayload(payloads.get(0));
+        } catch (Exception e) {
+            log.debug("获取幂等性响应快照失败: key={}, error={}", keyStr, e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * 批量状态迁移：按目标状态分组，每组按 {@value #STATE_UPDATE_CHUNK_SIZE} 个 key 合并为一条 IN 更新。
+     */
+    @Override
+    public void updateStates(Map<IdempotentKey, IdempotentState> transitions) {
+        if (transitions == null || transitions.isEmpty()) {
+            return;
+        }
+        Map<IdempotentState, List<String>> keysByState = new EnumMap<>(IdempotentState.class);
+        transitions.forEach((key, state) -> {
+            if (key != null && state != null) {
+                keysByState.computeIfAbsent(state, ignored -> new ArrayList<>()).add(key.getFullKey());
+            }
+        });
+        keysByState.forEach((state, keys) -> {
+            for (int from = 0; from < keys.size(); from += STATE_UPDATE_CHUNK_SIZE) {
+                List<String> chunk = keys.subList(from, Math.min(keys.size(), from + STATE_UPDATE_CHUNK_SIZE));
+                String sql = String.format("UPDATE %s SET state = ? WHERE id IN (%s)",
+                    TABLE_NAME, String.join(", ", Collections.nCopies(chunk.size(), "?")));
+                Object[] args = new Object[chunk.size() + 1];
+                args[0] = state.name();
+                for (int i = 0; i < chunk.size(); i++) {
+                    args[i + 1] = chunk.get(i);
+                }
+                try {
+                    jdbcTemplate.update(sql, args);
+                } catch (Exception e) {
+                    log.warn("批量更新幂等性token状态失败: state={}, size={}, error={}", state, chunk.size(), e.getMessage());
+                }
+            }
+        });
+    }
+    
     @Override
     public void expire(IdempotentKey key, long ttlSeconds) {
         String keyStr = key.getFullKey();
         try {
-            LocalDateTime expireTime = LocalDateTime.now().plusSeconds(ttlSeconds);
+            LocalDateTime expireTime = LocalDateTime.now(clock).plusSeconds(ttlSeconds);
             String sql = String.format("UPDATE %s SET expire_time = ? WHERE id = ?", TABLE_NAME);
             jdbcTemplate.update(sql, expireTime, keyStr);
             log.debug("延长幂等性token TTL成功: key={}, ttl={}秒", keyStr, ttlSeconds);
@@ -139,17 +232,25 @@ public class DatabaseIdempotentRepository implements IdempotentRepository {
     }
     
     /**
-     * 清理过期的 token
+     * 分批删除已过期的 token，单批最多 chunkSize 行、单次最多 maxChunks 批，避免长事务与大范围锁。
+     *
+     * @return 本次删除的行数
      */
-    private void cleanupExpiredTokens() {
-        try {
-            String cleanupSql = String.format("DELETE FROM %s WHERE expire_time < ?", TABLE_NAME);
-            int deleted = jdbcTemplate.update(cleanupSql, LocalDateTime.now());
-            if (deleted > 0) {
-                log.debug("清理过期幂等性token: {} 条", deleted);
+    public int sweepExpired(int chunkSize, int maxChunks) {
+        int safeChunkSize = Math.max(1, chunkSize);
+        String sql = String.format("DELETE FROM %s WHERE expire_time < ? LIMIT %d", TABLE_NAME, safeChunkSize);
+        LocalDateTime now = LocalDateTime.now(clock);
+        int total = 0;
+        for (int chunk = 0; chunk < Math.max(1, maxChunks); chunk++) {
+            int deleted = jdbcTemplate.update(sql, now);
+            total += deleted;
+            if (deleted < safeChunkSize) {
+                break;
             }
-        } catch (Exception e) {
-            log.warn("清理过期幂等性token失败: {}", e.getMessage());
         }
+        if (total > 0) {
+            log.debug("清理过期幂等性token: {} 条", total);
+        }
+        return total;
     }
 }
@@ -0,0 +1,40 @@
+package com.tiny.platform.infrastructure.idempotent.repository.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * 幂等 token 过期清理任务。
+ *
+ * <p>取代原先每次 checkAndSet 前执行的全范围 DELETE：后台定期按批删除，单轮删除量有上限。</p>
+ */
+public class DatabaseIdempotentTokenSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseIdempotentTokenSweeper.class);
+
+    private final DatabaseIdempotentRepository repository;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+
+    public DatabaseIdempotentTokenSweeper(DatabaseIdempotentRepository repository, int chunkSize, int maxChunksPerRun) {
+        this.repository = repository;
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+    }
+
+    @Scheduled(fixedDelayString = "${tiny.idempotent.ops.token-sweep-fixed-delay-ms:60000}")
+    public void sweepExpiredTokens() {
+        if (repository == null) {
+            return;
+        }
+        try {
+            int removed = repository.sweepExpired(chunkSize, maxChunksPerRun);
+            if (removed > 0) {
+                log.info("Swept expired idempotent tokens count={}", removed);
+            }
+        } catch (Exception e) {
+            log.warn("清理过期幂等性token失败: {}", e.getMessage());
+        }
+    }
+}
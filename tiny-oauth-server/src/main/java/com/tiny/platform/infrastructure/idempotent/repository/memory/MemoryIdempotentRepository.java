@@ -2,6 +2,7 @@ package com.tiny.platform.infrastructure.idempotent.repository.memory;
 
 import com.tiny.platform.infrastructure.idempotent.core.key.IdempotentKey;
 import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentRecord;
+import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentResponse;
 import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentState;
 import com.tiny.platform.infrastructure.idempotent.core.repository.IdempotentRepository;
 import org.slf4j.Logger;
@@ -81,6 +82,26 @@ public class MemoryIdempotentRepository implements IdempotentRepository {
         }
     }
     
+    @Override
+    public void updateState(IdempotentKey key, IdempotentState state, IdempotentResponse response) {
+        String keyStr = key.getFullKey();
+        IdempotentRecord record = storage.get(keyStr);
+        if (record != null) {
+            record.setState(state);
+            record.setResponse(response);
+            log.debug("更新幂等性token状态成功: key={}, state={}, response={}", keyStr, state, response != null);
+        }
+    }
+    
+    @Override
+    public IdempotentResponse getResponse(IdempotentKey key) {
+        IdempotentRecord record = storage.get(key.getFullKey());
+        if (record == null || !record.getExpireAt().isAfter(LocalDateTime.now())) {
+            return null;
+        }
+        return record.getResponse();
+    }
+    
     @Override
     public void expire(IdempotentKey key, long ttlSeconds) {
         String keyStr = key.getFullKey();
@@ -0,0 +1,259 @@
+package com.tiny.platform.infrastructure.idempotent.repository.nearcache;
+
+import com.tiny.platform.infrastructure.idempotent.core.key.IdempotentKey;
+import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentRecord;
+import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentResponse;
+import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentState;
+import com.tiny.platform.infrastructure.idempotent.core.repository.IdempotentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.Nullable;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 两级幂等存储：本地近端缓存 + 远端存储（Redis / 数据库）。
+ *
+ * <p>本地只缓存“已知处理中或已完成”的 key：命中即在本地拒绝重复请求并直接给出状态，
+ * 重放风暴不再打到远端；首次占位始终以远端 {@code checkAndSet} 为准。</p>
+ *
+ * <p>本地条目的有效期取 token 剩余 TTL 与 {@code localTtlCapSeconds} 的较小值：其他节点删除 key
+ * （业务失败允许重试、治理台手动删除）时，本节点最多在该上限内继续拒绝。本节点自身的失败/删除立即失效本地条目。
+ * 条目数超过上限时先清理过期条目，仍超限则整体清空。</p>
+ *
+ * <p>SUCCESS 条目同时缓存不超过 {@value #LOCAL_RESPONSE_MAX_CHARS} 字符的响应快照，重复请求的重放在本地完成；
+ * 更大的快照（以及从远端状态得知、未见过快照的 SUCCESS）标记为远端持有，只有这类条目回源读取，
+ * 避免本地缓存随条目数放大占用堆内存。PENDING 条目没有快照，命中时直接在本地返回 {@code null}。</p>
+ */
+public class NearCacheIdempotentRepository implements IdempotentRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(NearCacheIdempotentRepository.class);
+
+    static final int LOCAL_RESPONSE_MAX_CHARS = 4_096;
+
+    private final IdempotentRepository delegate;
+    private final int maxEntries;
+    private final long localTtlCapMillis;
+    private final Clock clock;
+    private final Map<String, LocalEntry> entries = new ConcurrentHashMap<>();
+    private final Counter localRejectCounter;
+    private final Counter remoteClaimCounter;
+    private final Counter stateHitCounter;
+
+    public NearCacheIdempotentRepository(IdempotentRepository delegate,
+                                         int maxEntries,
+                                         long localTtlCapSeconds,
+                                         @Nullable MeterRegistry meterRegistry) {
+        this(delegate, maxEntries, localTtlCapSeconds, meterRegistry, Clock.systemUTC());
+    }
+
+    NearCacheIdempotentRepository(IdempotentRepository delegate,
+                                  int maxEntries,
+                                  long localTtlCapSeconds,
+                                  @Nullable MeterRegistry meterRegistry,
+                                  Clock clock) {
+        this.delegate = delegate;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.localTtlCapMillis = Math.max(1L, localTtlCapSeconds) * 1000L;
+        this.clock = clock;
+        this.localRejectCounter = meterRegistry != null
+            ? Counter.builder("tiny.idempotent.near-cache.local-reject.total")
+                .description("Duplicate idempotent requests rejected by the local near-cache")
+                .register(meterRegistry)
+            : null;
+        this.remoteClaimCounter = meterRegistry != null
+            ? Counter.builder("tiny.idempotent.near-cache.remote-claim.total")
+                .description("Idempotent claims forwarded to the remote store")
+                .register(meterRegistry)
+            : null;
+        this.stateHitCounter = meterRegistry != null
+            ? Counter.builder("tiny.idempotent.near-cache.state-hit.total")
+                .description("Idempotent state lookups served by the local near-cache")
+                .register(meterRegistry)
+            : null;
+        if (meterRegistry != null) {
+            Gauge.builder("tiny.idempotent.near-cache.size", entries, Map::size)
+                .description("Idempotent near-cache entry count")
+                .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public boolean checkAndSet(IdempotentKey key, long ttlSeconds) {
+        String keyStr = key.getFullKey();
+        long now = clock.millis();
+        if (liveEntry(keyStr, now) != null) {
+            increment(localRejectCounter);
+            log.debug("幂等性token本地命中，拒绝重复请求: key={}", keyStr);
+            return false;
+        }
+        increment(remoteClaimCounter);
+        boolean claimed = delegate.checkAndSet(key, ttlSeconds);
+        if (claimed) {
+            put(keyStr, IdempotentState.PENDING, null, false, now + ttlSeconds * 1000L, now);
+        }
+        // 重复时远端状态由随后的 getState 回填，避免在此处多一次往返
+        return claimed;
+    }
+
+    @Override
+    public IdempotentState getState(IdempotentKey key) {
+        String keyStr = key.getFullKey();
+        long now = clock.millis();
+        LocalEntry entry = liveEntry(keyStr, now);
+        if (entry != null) {
+            increment(stateHitCounter);
+            return entry.state();
+        }
+        IdempotentState state = delegate.getState(key);
+        if (state == IdempotentState.PENDING || state == IdempotentState.SUCCESS) {
+            // 远端 SUCCESS 是否带快照未知，按远端持有处理
+            put(keyStr, state, null, state == IdempotentState.SUCCESS, Long.MAX_VALUE, now);
+        }
+        return state;
+    }
+
+    @Override
+    public void updateState(IdempotentKey key, IdempotentState state) {
+        delegate.updateState(key, state);
+        applyLocalState(key.getFullKey(), state);
+    }
+
+    @Override
+    public void updateState(IdempotentKey key, IdempotentState state, IdempotentResponse response) {
+        delegate.updateState(key, state, response);
+        String keyStr = key.getFullKey();
+        applyLocalState(keyStr, state);
+        if (state == IdempotentState.SUCCESS && response != null) {
+            boolean cacheable = isLocallyCacheable(response);
+            entries.computeIfPresent(keyStr, (ignored, entry) ->
+                new LocalEntry(state, cacheable ? response : null, !cacheable, entry.expiresAtMillis()));
+        }
+    }
+
+    @Override
+    public IdempotentResponse getResponse(IdempotentKey key) {
+        String keyStr = key.getFullKey();
+        long now = clock.millis();
+        LocalEntry entry = liveEntry(keyStr, now);
+        if (entry != null && !entry.responseRemote()) {
+            // 处理中或已知无快照：本地即可确定，不回源
+            increment(stateHitCounter);
+            return entry.response();
+        }
+        IdempotentResponse response = delegate.getResponse(key);
+        if (response != null) {
+            boolean cacheable = isLocallyCacheable(response);
+            put(keyStr, IdempotentState.SUCCESS, cacheable ? response : null, !cacheable, Long.MAX_VALUE, now);
+        }
+        return response;
+    }
+
+    @Override
+    public void updateStates(Map<IdempotentKey, IdempotentState> transitions) {
+        if (transitions == null || transitions.isEmpty()) {
+            return;
+        }
+        delegate.updateStates(transitions);
+        transitions.forEach((key, state) -> {
+            if (key != null) {
+                applyLocalState(key.getFullKey(), state);
+            }
+        });
+    }
+
+    @Override
+    public void delete(IdempotentKey key) {
+        entries.remove(key.getFullKey());
+        delegate.delete(key);
+    }
+
+    @Override
+    public boolean exists(IdempotentKey key) {
+        if (liveEntry(key.getFullKey(), clock.millis()) != null) {
+            return true;
+        }
+        return delegate.exists(key);
+    }
+
+    @Override
+    public IdempotentRecord getRecord(IdempotentKey key) {
+        return delegate.getRecord(key);
+    }
+
+    @Override
+    public void expire(IdempotentKey key, long ttlSeconds) {
+        delegate.expire(key, ttlSeconds);
+        String keyStr = key.getFullKey();
+        long now = clock.millis();
+        LocalEntry entry = liveEntry(keyStr, now);
+        if (entry != null) {
+            put(keyStr, entry.state(), entry.response(), entry.responseRemote(), now + ttlSeconds * 1000L, now);
+        }
+    }
+
+    public IdempotentRepository getDelegate() {
+        return delegate;
+    }
+
+    int localSize() {
+        return entries.size();
+    }
+
+    private void applyLocalState(String keyStr, IdempotentState state) {
+        if (state == IdempotentState.SUCCESS || state == IdempotentState.PENDING) {
+            entries.computeIfPresent(keyStr, (ignored, entry) ->
+                new LocalEntry(state, entry.response(), entry.responseRemote(), entry.expiresAtMillis()));
+        } else {
+            // FAILED 后引擎会删除 token 允许重试；EXPIRED 同样不再拦截
+            entries.remove(keyStr);
+        }
+    }
+
+    private static boolean isLocallyCacheable(IdempotentResponse response) {
+        return response != null && (response.getBody() == null || response.getBody().length() <= LOCAL_RESPONSE_MAX_CHARS);
+    }
+
+    private LocalEntry liveEntry(String keyStr, long now) {
+        LocalEntry entry = entries.get(keyStr);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis() <= now) {
+            entries.remove(keyStr, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    private void put(String keyStr, IdempotentState state, IdempotentResponse response, boolean responseRemote,
+                     long remoteExpiresAtMillis, long now) {
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+            if (entries.size() >= maxEntries) {
+                log.info("Idempotent near-cache reached maxEntries={}, clearing", maxEntries);
+                entries.clear();
+            }
+        }
+        long expiresAt = Math.min(remoteExpiresAtMillis, now + localTtlCapMillis);
+        entries.put(keyStr, new LocalEntry(state, response, responseRemote, expiresAt));
+    }
+
+    private static void increment(@Nullable Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    /**
+     * @param responseRemote 快照只在远端（超过本地上限或未见过），读取时需回源
+     */
+    private record LocalEntry(IdempotentState state, IdempotentResponse response, boolean responseRemote,
+                              long expiresAtMillis) {
+    }
+}
@@ -2,18 +2,26 @@ package com.tiny.platform.infrastructure.idempotent.repository.redis;
 
 import com.tiny.platform.infrastructure.idempotent.core.key.IdempotentKey;
 import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentRecord;
+import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentResponse;
 import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentState;
 import com.tiny.platform.infrastructure.idempotent.core.repository.IdempotentRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 
 import java.time.Duration;
+import java.util.List;
 
 /**
  * 基于 Redis 的幂等性存储实现
  * 
  * <p>使用 Redis 存储幂等性 token，性能更好，适合高并发场景。</p>
+ * <p>占位（SET NX）与状态 key 写入由同一段 Lua 脚本完成，一次往返且不会出现只有 token 没有状态的中间态。
+ * 脚本同时操作 token 与状态两个 key，key 以 {@code idempotent:{<幂等键>}} 为前缀，
+ * 哈希标签保证二者在 Redis Cluster 下同槽。</p>
+ * <p>成功响应快照存放在 {@code :response} key（与 token 同一哈希标签），与 SUCCESS 状态由同一段脚本按 token 剩余 TTL 写入。</p>
  * 
  * @author Auto Generated
  * @since 1.0.0
@@ -24,6 +32,32 @@ public class RedisIdempotentRepository implements IdempotentRepository {
     
     private static final String KEY_PREFIX = "idempotent:";
     private static final String STATE_SUFFIX = ":state";
+    private static final String RESPONSE_SUFFIX = ":response";
+    private static final long DEFAULT_STATE_TTL_MILLIS = 60_000L;
+
+    /**
+     * KEYS[1]=token key, KEYS[2]=状态 key, ARGV[1]=初始状态, ARGV[2]=TTL 秒；占位成功返回 1，已存在返回 0
+     */
+    private static final RedisScript<Long> CLAIM_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('SET', KEYS[1], ARGV[1], 'NX', 'EX', ARGV[2]) then "
+            + "redis.call('SET', KEYS[2], ARGV[1], 'EX', ARGV[2]) "
+            + "return 1 "
+            + "end "
+            + "return 0",
+        Long.class
+    );
+    
+    /**
+     * KEYS[1]=token key, KEYS[2]=状态 key, KEYS[3]=响应 key, ARGV[1]=状态, ARGV[2]=响应快照, ARGV[3]=无 TTL 时的默认毫秒数
+     */
+    private static final RedisScript<Long> UPDATE_WITH_RESPONSE_SCRIPT = new DefaultRedisScript<>(
+        "local ttl = redis.call('PTTL', KEYS[1]) "
+            + "if ttl <= 0 then ttl = tonumber(ARGV[3]) end "
+            + "redis.call('SET', KEYS[2], ARGV[1], 'PX', ttl) "
+            + "redis.call('SET', KEYS[3], ARGV[2], 'PX', ttl) "
+            + "return ttl",
+        Long.class
+    );
     
     private final StringRedisTemplate redisTemplate;
     
@@ -33,41 +67,36 @@ public class RedisIdempotentRepository implements IdempotentRepository {
     
     @Override
     public boolean checkAndSet(IdempotentKey key, long ttlSeconds) {
-        String redisKey = KEY_PREFIX + key.getFullKey();
-        Boolean success = redisTemplate.opsForValue()
-                .setIfAbsent(redisKey, IdempotentState.PENDING.name(), 
-                           Duration.ofSeconds(ttlSeconds));
-        if (Boolean.TRUE.equals(success)) {
-            // 设置状态
-            String stateKey = redisKey + STATE_SUFFIX;
-            redisTemplate.opsForValue().set(stateKey, IdempotentState.PENDING.name(), 
-                                          Duration.ofSeconds(ttlSeconds));
+        Long claimed = redisTemplate.execute(
+                CLAIM_SCRIPT,
+                List.of(tokenKey(key), stateKey(key)),
+                IdempotentState.PENDING.name(),
+                String.valueOf(Math.max(1L, ttlSeconds)));
+        boolean success = claimed != null && claimed == 1L;
+        if (success) {
             log.debug("幂等性token设置成功: key={}, ttl={}秒", key.getFullKey(), ttlSeconds);
         } else {
             log.debug("幂等性token已存在: key={}", key.getFullKey());
         }
-        return Boolean.TRUE.equals(success);
+        return success;
     }
     
     @Override
     public void delete(IdempotentKey key) {
-        String redisKey = KEY_PREFIX + key.getFullKey();
-        redisTemplate.delete(redisKey);
-        redisTemplate.delete(redisKey + STATE_SUFFIX);
+        redisTemplate.delete(tokenKey(key));
+        redisTemplate.delete(stateKey(key));
+        redisTemplate.delete(responseKey(key));
         log.debug("幂等性token删除成功: key={}", key.getFullKey());
     }
     
     @Override
     public boolean exists(IdempotentKey key) {
-        String redisKey = KEY_PREFIX + key.getFullKey();
-        return Boolean.TRUE.equals(redisTemplate.hasKey(redisKey));
+        return Boolean.TRUE.equals(redisTemplate.hasKey(tokenKey(key)));
     }
     
     @Override
     public IdempotentRecord getRecord(IdempotentKey key) {
-        String redisKey = KEY_PREFIX + key.getFullKey();
-        String stateKey = redisKey + STATE_SUFFIX;
-        String state = redisTemplate.opsForValue().get(stateKey);
+        String state = redisTemplate.opsForValue().get(stateKey(key));
         if (state != null) {
             try {
                 IdempotentRecord record = new IdempotentRecord(key.getFullKey(), 0);
@@ -83,8 +112,7 @@ public class RedisIdempotentRepository implements IdempotentRepository {
     
     @Override
     public IdempotentState getState(IdempotentKey key) {
-        String redisKey = KEY_PREFIX + key.getFullKey() + STATE_SUFFIX;
-        String state = redisTemplate.opsForValue().get(redisKey);
+        String state = redisTemplate.opsForValue().get(stateKey(key));
         if (state != null) {
             try {
                 return IdempotentState.valueOf(state);
@@ -98,7 +126,7 @@ public class RedisIdempotentRepository implements IdempotentRepository {
     
     @Override
     public void updateState(IdempotentKey key, IdempotentState state) {
-        String redisKey = KEY_PREFIX + key.getFullKey() + STATE_SUFFIX;
+        String redisKey = stateKey(key);
         // 获取原有 TTL
         Long ttl = redisTemplate.getExpire(redisKey);
         if (ttl != null && ttl > 0) {
@@ -110,11 +138,52 @@ public class RedisIdempotentRepository implements IdempotentRepository {
         log.debug("更新幂等性token状态成功: key={}, state={}", key.getFullKey(), state);
     }
     
+    @Override
+    public void updateState(IdempotentKey key, IdempotentState state, IdempotentResponse response) {
+        if (response == null) {
+            updateState(key, state);
+            return;
+        }
+        redisTemplate.execute(
+                UPDATE_WITH_RESPONSE_SCRIPT,
+                List.of(tokenKey(key), stateKey(key), responseKey(key)),
+                state.name(),
+                response.toPayload(),
+                String.valueOf(DEFAULT_STATE_TTL_MILLIS));
+        log.debug("更新幂等性token状态及响应快照成功: key={}, state={}", key.getFullKey(), state);
+    }
+    
+    @Override
+    public IdempotentResponse getResponse(IdempotentKey key) {
+        String payload = redisTemplate.opsForValue().get(responseKey(key));
+        try {
+            return IdempotentResponse.fromPayload(payload);
+        } catch (IllegalArgumentException e) {
+            log.warn("无效的幂等响应快照: key={}", key.getFullKey());
+            return null;
+        }
+    }
+    
     @Override
     public void expire(IdempotentKey key, long ttlSeconds) {
-        String redisKey = KEY_PREFIX + key.getFullKey();
-        redisTemplate.expire(redisKey, Duration.ofSeconds(ttlSeconds));
-        redisTemplate.expire(redisKey + STATE_SUFFIX, Duration.ofSeconds(ttlSeconds));
+        redisTemplate.expire(tokenKey(key), Duration.ofSeconds(ttlSeconds));
+        redisTemplate.expire(stateKey(key), Duration.ofSeconds(ttlSeconds));
+        redisTemplate.expire(responseKey(key), Duration.ofSeconds(ttlSeconds));
         log.debug("延长幂等性token TTL成功: key={}, ttl={}秒", key.getFullKey(), ttlSeconds);
     }
+
+    /**
+     * token key：幂等键置于哈希标签内，同一幂等键的各个 key 落在同一槽
+     */
+    static String tokenKey(IdempotentKey key) {
+        return KEY_PREFIX + "{" + key.getFullKey() + "}";
+    }
+
+    static String stateKey(IdempotentKey key) {
+        return tokenKey(key) + STATE_SUFFIX;
+    }
+
+    static String responseKey(IdempotentKey key) {
+        return tokenKey(key) + RESPONSE_SUFFIX;
+    }
 }
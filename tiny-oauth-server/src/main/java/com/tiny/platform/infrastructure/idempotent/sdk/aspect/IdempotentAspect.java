@@ -8,11 +8,13 @@ import com.tiny.platform.infrastructure.idempotent.console.IdempotentBlacklistCh
 import com.tiny.platform.infrastructure.idempotent.core.context.IdempotentContext;
 import com.tiny.platform.infrastructure.idempotent.core.engine.IdempotentEngine;
 import com.tiny.platform.infrastructure.idempotent.core.key.IdempotentKey;
+import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentResponse;
 import com.tiny.platform.infrastructure.idempotent.core.strategy.IdempotentStrategy;
 import com.tiny.platform.infrastructure.idempotent.metrics.IdempotentMetricsService;
 import com.tiny.platform.infrastructure.idempotent.sdk.annotation.Idempotent;
 import com.tiny.platform.infrastructure.idempotent.sdk.resolver.IdempotentKeyResolver;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
@@ -24,6 +26,10 @@ import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.SpelMessage;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.security.core.Authentication;
@@ -38,10 +44,11 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 /**
  * 幂等性切面
@@ -57,6 +64,7 @@ public class IdempotentAspect {
     private static final Logger log = LoggerFactory.getLogger(IdempotentAspect.class);
     
     private static final String IDEMPOTENCY_KEY_HEADER = "X-Idempotency-Key";
+    private static final String REPLAYED_HEADER = "X-Idempotency-Replayed";
     private static final int MIN_KEY_LENGTH = 8;
     private static final int MAX_KEY_LENGTH = 128;
     private static final Pattern IDEMPOTENCY_KEY_PATTERN = Pattern.compile("^[A-Za-z0-9._:-]+$");
@@ -65,8 +73,10 @@ public class IdempotentAspect {
     private final List<IdempotentKeyResolver> keyResolvers;
     private final IdempotentMetricsService metricsService;
     private final IdempotentBlacklistChecker blacklistChecker;
+    private final IdempotentResponseCodec responseCodec;
     private final ExpressionParser parser = new SpelExpressionParser();
     private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+    private final Map<Method, KeyMetadata> metadataCache = new ConcurrentHashMap<>();
     
     public IdempotentAspect(IdempotentEngine engine, List<IdempotentKeyResolver> keyResolvers) {
         this(engine, keyResolvers, new IdempotentMetricsService(null), null);
@@ -80,10 +90,18 @@ public class IdempotentAspect {
     public IdempotentAspect(IdempotentEngine engine, List<IdempotentKeyResolver> keyResolvers,
                             IdempotentMetricsService metricsService,
                             IdempotentBlacklistChecker blacklistChecker) {
+        this(engine, keyResolvers, metricsService, blacklistChecker, null);
+    }
+
+    public IdempotentAspect(IdempotentEngine engine, List<IdempotentKeyResolver> keyResolvers,
+                            IdempotentMetricsService metricsService,
+                            IdempotentBlacklistChecker blacklistChecker,
+                            IdempotentResponseCodec responseCodec) {
         this.engine = engine;
         this.keyResolvers = keyResolvers != null ? keyResolvers : List.of();
         this.metricsService = metricsService != null ? metricsService : new IdempotentMetricsService(null);
         this.blacklistChecker = blacklistChecker;
+        this.responseCodec = responseCodec;
     }
     
     @Around("@annotation(idempotent)")
@@ -110,14 +128,18 @@ public class IdempotentAspect {
         IdempotentContext context = new IdempotentContext(key, strategy);
         
         try {
-            // 使用 Engine 执行
-            return engine.execute(context, () -> {
+            Supplier<Object> executor = () -> {
                 try {
                     return joinPoint.proceed();
                 } catch (Throwable e) {
                     throw new RuntimeException(e);
                 }
-            });
+            };
+            // 使用 Engine 执行；配置了响应编解码时，成功后的重复请求直接重放首个响应
+            if (responseCodec == null) {
+                return engine.execute(context, executor);
+            }
+            return engine.execute(context, executor, responseCodec::encode, response -> replay(response, method));
         } catch (com.tiny.platform.infrastructure.idempotent.core.exception.IdempotentException e) {
             // 转换为 SDK 异常
             throw new com.tiny.platform.infrastructure.idempotent.sdk.exception.IdempotentException(idempotent.message());
@@ -130,20 +152,35 @@ public class IdempotentAspect {
         }
     }
     
+    /**
+     * 重放已保存的成功响应，并通过响应头告知调用方
+     */
+    private Object replay(IdempotentResponse response, Method method) {
+        Object result = responseCodec.decode(response, method);
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletResponse servletResponse = attributes.getResponse();
+            if (servletResponse != null) {
+                servletResponse.setHeader(REPLAYED_HEADER, "true");
+            }
+        }
+        return result;
+    }
+    
     /**
      * 生成幂等性 key
      */
     private IdempotentKey generateKey(ProceedingJoinPoint joinPoint, Method method, Idempotent idempotent) {
-        String keyExpression = idempotent.key();
+        KeyMetadata metadata = metadataFor(method, idempotent);
+        HttpServletRequest request = getRequest();
         
         // 如果指定了 key 表达式，使用 SpEL 解析
-        if (!keyExpression.isEmpty()) {
-            String uniqueKey = parseKeyExpression(joinPoint, method, keyExpression);
+        if (metadata.hasKeyExpression()) {
+            String uniqueKey = evaluateKeyExpression(joinPoint, metadata, request);
             if (StringUtils.hasText(uniqueKey)) {
-                return buildHttpKey(method, uniqueKey);
+                return buildHttpKey(metadata, uniqueKey, request);
             }
             log.debug("幂等性key表达式结果为空，回退默认策略: method={}, expression={}",
-                method.toGenericString(), keyExpression);
+                method.toGenericString(), metadata.expressionString);
         }
         
         // 尝试使用 KeyResolver
@@ -159,23 +196,33 @@ public class IdempotentAspect {
         }
         
         // 使用默认策略
-        return generateDefaultKey(joinPoint, method);
+        return generateDefaultKey(joinPoint, metadata, request);
     }
 
-    private IdempotentKey buildHttpKey(Method method, String uniqueKey) {
+    /**
+     * 按方法缓存 key 元数据：预编译的 SpEL 表达式、参数名、兜底作用域与默认 key 前缀只在首次拦截时计算。
+     */
+    private KeyMetadata metadataFor(Method method, Idempotent idempotent) {
+        KeyMetadata metadata = metadataCache.get(method);
+        if (metadata != null) {
+            return metadata;
+        }
+        return metadataCache.computeIfAbsent(method, ignored -> new KeyMetadata(method, idempotent.key(), parameterNameDiscoverer));
+    }
+
+    private IdempotentKey buildHttpKey(KeyMetadata metadata, String uniqueKey, HttpServletRequest request) {
         String validatedKey = validateUniqueKey(uniqueKey);
-        return IdempotentKey.of("http", getScope(method), validatedKey);
+        return IdempotentKey.of("http", getScope(metadata, request), validatedKey);
     }
     
     /**
      * 获取作用域（方法路径）
      */
-    private String getScope(Method method) {
-        HttpServletRequest request = getRequest();
+    private String getScope(KeyMetadata metadata, HttpServletRequest request) {
         if (request != null && StringUtils.hasText(request.getMethod()) && StringUtils.hasText(request.getRequestURI())) {
             return withTenantScope(request.getMethod() + " " + request.getRequestURI(), request);
         }
-        return withTenantScope(method.getDeclaringClass().getSimpleName() + "." + method.getName(), request);
+        return withTenantScope(metadata.fallbackScope, request);
     }
 
     private String withTenantScope(String baseScope, HttpServletRequest request) {
@@ -204,16 +251,27 @@ public class IdempotentAspect {
     }
     
     /**
-     * 解析 SpEL 表达式生成 key
+     * 使用预编译的 SpEL 表达式生成 key
      */
-    private String parseKeyExpression(ProceedingJoinPoint joinPoint, Method method, String expression) {
+    private String evaluateKeyExpression(ProceedingJoinPoint joinPoint, KeyMetadata metadata, HttpServletRequest request) {
+        if (metadata.expression == null) {
+            return "";
+        }
+        EvaluationContext context = createEvaluationContext(joinPoint, metadata, request);
         try {
-            EvaluationContext context = createEvaluationContext(joinPoint, method);
-            Expression expr = parser.parseExpression(expression);
-            Object value = expr.getValue(context);
+            Object value = metadata.expression.getValue(context);
             return value != null ? value.toString() : "";
+        } catch (SpelEvaluationException e) {
+            if (e.getMessageCode() != SpelMessage.EXCEPTION_RUNNING_COMPILED_EXPRESSION) {
+                log.warn("解析幂等性key表达式失败: expression={}, error={}", metadata.expressionString, e.getMessage());
+                return "";
+            }
+            // 编译产物与本次参数类型不符（如请求实现类变化），该方法退回解释执行
+            log.debug("幂等性key表达式编译执行失败，改为解释执行: expression={}", metadata.expressionString);
+            metadata.expression = parser.parseExpression(metadata.expressionString);
+            return evaluateKeyExpression(joinPoint, metadata, request);
         } catch (Exception e) {
-            log.warn("解析幂等性key表达式失败: expression={}, error={}", expression, e.getMessage());
+            log.warn("解析幂等性key表达式失败: expression={}, error={}", metadata.expressionString, e.getMessage());
             return "";
         }
     }
@@ -221,14 +279,13 @@ public class IdempotentAspect {
     /**
      * 创建 SpEL 表达式上下文
      */
-    private EvaluationContext createEvaluationContext(ProceedingJoinPoint joinPoint, Method method) {
+    private EvaluationContext createEvaluationContext(ProceedingJoinPoint joinPoint, KeyMetadata metadata,
+                                                      HttpServletRequest request) {
         StandardEvaluationContext context = new StandardEvaluationContext();
         
-        // 获取方法参数名
-        String[] parameterNames = parameterNameDiscoverer.getParameterNames(method);
-        Object[] args = joinPoint.getArgs();
-        
         // 将参数添加到上下文
+        String[] parameterNames = metadata.parameterNames;
+        Object[] args = joinPoint.getArgs();
         if (parameterNames != null && args != null) {
             for (int i = 0; i < parameterNames.length && i < args.length; i++) {
                 context.setVariable(parameterNames[i], args[i]);
@@ -236,7 +293,6 @@ public class IdempotentAspect {
         }
         
         // 添加 HttpServletRequest 到上下文
-        HttpServletRequest request = getRequest();
         if (request != null) {
             context.setVariable("request", request);
         }
@@ -246,36 +302,29 @@ public class IdempotentAspect {
     
     /**
      * 生成默认的幂等性 key
+     *
+     * <p>优先使用请求头中的 X-Idempotency-Key，否则使用 方法全名 + 参数值 的 MD5。</p>
      */
-    private IdempotentKey generateDefaultKey(ProceedingJoinPoint joinPoint, Method method) {
-        HttpServletRequest request = getRequest();
+    private IdempotentKey generateDefaultKey(ProceedingJoinPoint joinPoint, KeyMetadata metadata, HttpServletRequest request) {
+        String idempotencyKey = request != null ? request.getHeader(IDEMPOTENCY_KEY_HEADER) : null;
         String uniqueKey;
-        
-        // 优先使用请求头中的 X-Idempotency-Key
-        if (request != null) {
-            String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
-            if (idempotencyKey != null && !idempotencyKey.isEmpty()) {
-                uniqueKey = idempotencyKey;
-            } else {
-                // 否则使用方法名 + 参数值的 MD5
-                String methodName = method.getDeclaringClass().getName() + "." + method.getName();
-                String argsString = Arrays.stream(joinPoint.getArgs())
-                        .map(arg -> arg != null ? arg.toString() : "null")
-                        .collect(Collectors.joining(","));
-                String key = methodName + ":" + argsString;
-                uniqueKey = DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8));
-            }
+        if (idempotencyKey != null && !idempotencyKey.isEmpty()) {
+            uniqueKey = idempotencyKey;
         } else {
-            // 非 Web 环境
-            String methodName = method.getDeclaringClass().getName() + "." + method.getName();
-            String argsString = Arrays.stream(joinPoint.getArgs())
-                    .map(arg -> arg != null ? arg.toString() : "null")
-                    .collect(Collectors.joining(","));
-            String key = methodName + ":" + argsString;
-            uniqueKey = DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder key = new StringBuilder(metadata.defaultKeyPrefix);
+            Object[] args = joinPoint.getArgs();
+            if (args != null) {
+                for (int i = 0; i < args.length; i++) {
+                    if (i > 0) {
+                        key.append(',');
+                    }
+                    key.append(args[i] != null ? args[i].toString() : "null");
+                }
+            }
+            uniqueKey = DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8));
         }
         
-        return buildHttpKey(method, uniqueKey);
+        return buildHttpKey(metadata, uniqueKey, request);
     }
     
     /**
@@ -359,4 +408,42 @@ public class IdempotentAspect {
         }
         return uniqueKey;
     }
+
+    /**
+     * 单个被拦截方法的 key 元数据
+     */
+    private static final class KeyMetadata {
+
+        private final String expressionString;
+        private final String[] parameterNames;
+        private final String fallbackScope;
+        private final String defaultKeyPrefix;
+        private volatile Expression expression;
+
+        private KeyMetadata(Method method, String expressionString, ParameterNameDiscoverer parameterNameDiscoverer) {
+            this.expressionString = expressionString;
+            this.parameterNames = parameterNameDiscoverer.getParameterNames(method);
+            this.fallbackScope = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+            this.defaultKeyPrefix = method.getDeclaringClass().getName() + "." + method.getName() + ":";
+            this.expression = compile(method, expressionString);
+        }
+
+        private boolean hasKeyExpression() {
+            return !expressionString.isEmpty();
+        }
+
+        private static Expression compile(Method method, String expressionString) {
+            if (expressionString.isEmpty()) {
+                return null;
+            }
+            SpelExpressionParser compilingParser = new SpelExpressionParser(
+                new SpelParserConfiguration(SpelCompilerMode.IMMEDIATE, method.getDeclaringClass().getClassLoader()));
+            try {
+                return compilingParser.parseExpression(expressionString);
+            } catch (Exception e) {
+                log.warn("解析幂等性key表达式失败: expression={}, error={}", expressionString, e.getMessage());
+                return null;
+            }
+        }
+    }
 }
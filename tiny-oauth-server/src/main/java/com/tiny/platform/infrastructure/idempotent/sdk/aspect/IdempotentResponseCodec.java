@@ -0,0 +1,117 @@
+package com.tiny.platform.infrastructure.idempotent.sdk.aspect;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 幂等成功响应的快照编解码
+ *
+ * <p>编码：{@link ResponseEntity} 取状态码、白名单响应头与响应体，其他返回值按 200 处理；响应体以 JSON 保存，
+ * 超过 {@code maxBodyBytes} 或为流式类型（{@link Resource}、{@link InputStream}）时不生成快照。</p>
+ *
+ * <p>解码：按被拦截方法的泛型返回类型反序列化，{@code ResponseEntity<T>} 还原为同状态码、同响应头的实体。</p>
+ *
+ * @author tiny-platform
+ * @since 1.0.0
+ */
+public class IdempotentResponseCodec {
+
+    private final ObjectMapper objectMapper;
+    private final int maxBodyBytes;
+    private final List<String> headerNames;
+
+    public IdempotentResponseCodec(ObjectMapper objectMapper, int maxBodyBytes, Collection<String> headerNames) {
+        this.objectMapper = objectMapper;
+        this.maxBodyBytes = Math.max(0, maxBodyBytes);
+        this.headerNames = headerNames != null ? List.copyOf(headerNames) : List.of();
+    }
+
+    /**
+     * 生成响应快照
+     *
+     * @return 快照；无法或不应重放时返回 null
+     */
+    public IdempotentResponse encode(Object result) {
+        int status = 200;
+        Map<String, String> headers = Map.of();
+        Object body = result;
+        if (result instanceof ResponseEntity<?> entity) {
+            status = entity.getStatusCode().value();
+            headers = selectHeaders(entity.getHeaders());
+            body = entity.getBody();
+        }
+        if (body instanceof Resource || body instanceof InputStream) {
+            return null;
+        }
+        String bodyJson = null;
+        if (body != null) {
+            try {
+                bodyJson = objectMapper.writeValueAsString(body);
+            } catch (JsonProcessingException e) {
+                return null;
+            }
+            if (bodyJson.getBytes(StandardCharsets.UTF_8).length > maxBodyBytes) {
+                return null;
+            }
+        }
+        return new IdempotentResponse(status, headers, bodyJson);
+    }
+
+    /**
+     * 将快照还原为 {@code method} 的返回值
+     *
+     * @throws IllegalStateException 快照与返回类型不兼容
+     */
+    public Object decode(IdempotentResponse response, Method method) {
+        JavaType returnType = objectMapper.constructType(method.getGenericReturnType());
+        Class<?> rawType = returnType.getRawClass();
+        if (rawType == void.class || rawType == Void.class) {
+            return null;
+        }
+        if (ResponseEntity.class.isAssignableFrom(rawType)) {
+            HttpHeaders headers = new HttpHeaders();
+            response.getHeaders().forEach(headers::set);
+            Object body = readBody(response.getBody(), returnType.containedTypeOrUnknown(0));
+            return ResponseEntity.status(response.getStatus()).headers(headers).body(body);
+        }
+        return readBody(response.getBody(), returnType);
+    }
+
+    private Object readBody(String bodyJson, JavaType type) {
+        if (bodyJson == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(bodyJson, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("幂等响应快照无法还原为 " + type, e);
+        }
+    }
+
+    private Map<String, String> selectHeaders(HttpHeaders source) {
+        if (headerNames.isEmpty() || source.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, String> selected = new LinkedHashMap<>();
+        for (String name : headerNames) {
+            String value = source.getFirst(name);
+            if (value != null) {
+                selected.put(name, value);
+            }
+        }
+        return selected;
+    }
+}
@@ -4,13 +4,18 @@ import com.tiny.platform.infrastructure.idempotent.console.IdempotentBlacklistCh
 import com.tiny.platform.infrastructure.idempotent.core.engine.IdempotentEngine;
 import com.tiny.platform.infrastructure.idempotent.core.repository.IdempotentRepository;
 import com.tiny.platform.infrastructure.idempotent.metrics.DatabaseIdempotentMetricsRepository;
+import com.tiny.platform.infrastructure.idempotent.metrics.IdempotentMetricsFlushScheduler;
 import com.tiny.platform.infrastructure.idempotent.metrics.IdempotentMetricsService;
 import com.tiny.platform.infrastructure.idempotent.repository.database.DatabaseIdempotentRepository;
+import com.tiny.platform.infrastructure.idempotent.repository.database.DatabaseIdempotentTokenSweeper;
 import com.tiny.platform.infrastructure.idempotent.repository.memory.MemoryIdempotentRepository;
+import com.tiny.platform.infrastructure.idempotent.repository.nearcache.NearCacheIdempotentRepository;
 import com.tiny.platform.infrastructure.idempotent.sdk.aspect.IdempotentAspect;
+import com.tiny.platform.infrastructure.idempotent.sdk.aspect.IdempotentResponseCodec;
 import com.tiny.platform.infrastructure.idempotent.sdk.facade.IdempotentFacade;
 import com.tiny.platform.infrastructure.idempotent.sdk.resolver.IdempotentKeyResolver;
 import com.tiny.platform.infrastructure.idempotent.starter.properties.IdempotentProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
@@ -37,11 +42,23 @@ public class IdempotentAutoConfiguration {
     
     /**
      * 幂等性引擎
+     *
+     * <p>启用近端缓存时，引擎经由本地缓存访问远端存储，重复请求在本地即被拒绝。</p>
      */
     @Bean
     @ConditionalOnMissingBean
-    public IdempotentEngine idempotentEngine(IdempotentRepository repository, IdempotentMetricsService metricsService) {
-        return new IdempotentEngine(repository, metricsService);
+    public IdempotentEngine idempotentEngine(IdempotentRepository repository, IdempotentMetricsService metricsService,
+                                             IdempotentProperties properties,
+                                             ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        IdempotentProperties.NearCache nearCache = properties.getNearCache();
+        IdempotentRepository engineRepository = nearCache.isEnabled() && !(repository instanceof MemoryIdempotentRepository)
+            ? new NearCacheIdempotentRepository(
+                repository,
+                nearCache.getMaxEntries(),
+                nearCache.getLocalTtlCapSeconds(),
+                meterRegistryProvider.getIfAvailable())
+            : repository;
+        return new IdempotentEngine(engineRepository, metricsService);
     }
 
     /**
@@ -72,6 +89,17 @@ public class IdempotentAutoConfiguration {
             java.time.Clock.systemDefaultZone()
         );
     }
+
+    /**
+     * 指标增量刷写任务（仅数据库指标存储）
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnClass(JdbcTemplate.class)
+    @ConditionalOnProperty(prefix = "tiny.idempotent.ops", name = "metrics-store", havingValue = "database", matchIfMissing = true)
+    public IdempotentMetricsFlushScheduler idempotentMetricsFlushScheduler(IdempotentMetricsService metricsService) {
+        return new IdempotentMetricsFlushScheduler(metricsService);
+    }
     
     /**
      * 数据库实现的幂等性存储（默认）
@@ -83,6 +111,22 @@ public class IdempotentAutoConfiguration {
     public IdempotentRepository databaseIdempotentRepository(JdbcTemplate jdbcTemplate) {
         return new DatabaseIdempotentRepository(jdbcTemplate);
     }
+
+    /**
+     * 数据库幂等存储的过期 token 后台清理（非数据库实现时为空操作）
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "tiny.idempotent", name = "store", havingValue = "database", matchIfMissing = true)
+    public DatabaseIdempotentTokenSweeper databaseIdempotentTokenSweeper(ObjectProvider<IdempotentRepository> repositoryProvider,
+                                                                         IdempotentProperties properties) {
+        IdempotentRepository repository = repositoryProvider.getIfAvailable();
+        return new DatabaseIdempotentTokenSweeper(
+            repository instanceof DatabaseIdempotentRepository databaseRepository ? databaseRepository : null,
+            properties.getOps().getTokenSweepChunkSize(),
+            properties.getOps().getTokenSweepMaxChunks()
+        );
+    }
     
     /**
      * 内存实现的幂等性存储（轻量模式）
@@ -101,9 +145,18 @@ public class IdempotentAutoConfiguration {
     @ConditionalOnMissingBean
     public IdempotentAspect idempotentAspect(IdempotentEngine engine, List<IdempotentKeyResolver> keyResolvers,
                                              IdempotentMetricsService metricsService,
-                                             ObjectProvider<IdempotentBlacklistChecker> blacklistCheckerProvider) {
+                                             ObjectProvider<IdempotentBlacklistChecker> blacklistCheckerProvider,
+                                             IdempotentProperties properties,
+                                             ObjectProvider<ObjectMapper> objectMapperProvider) {
         IdempotentBlacklistChecker blacklistChecker = blacklistCheckerProvider.getIfAvailable();
-        return new IdempotentAspect(engine, keyResolvers, metricsService, blacklistChecker);
+        IdempotentProperties.Replay replay = properties.getReplay();
+        IdempotentResponseCodec responseCodec = replay.isEnabled()
+            ? new IdempotentResponseCodec(
+                objectMapperProvider.getIfAvailable(() -> new ObjectMapper().findAndRegisterModules()),
+                replay.getMaxBodyBytes(),
+                replay.getHeaders())
+            : null;
+        return new IdempotentAspect(engine, keyResolvers, metricsService, blacklistChecker, responseCodec);
     }
     
     /**
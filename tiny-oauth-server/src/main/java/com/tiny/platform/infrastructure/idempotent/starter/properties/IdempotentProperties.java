@@ -2,6 +2,9 @@ package com.tiny.platform.infrastructure.idempotent.starter.properties;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * 幂等性配置属性
  * 
@@ -41,6 +44,16 @@ public class IdempotentProperties {
      * 治理与运维配置
      */
     private Ops ops = new Ops();
+
+    /**
+     * 本地近端缓存配置
+     */
+    private NearCache nearCache = new NearCache();
+
+    /**
+     * 成功响应重放配置
+     */
+    private Replay replay = new Replay();
     
     public static class HttpApi {
         /**
@@ -89,6 +102,28 @@ public class IdempotentProperties {
          */
         private long metricsCleanupFixedDelayMs = 600_000;
 
+        /**
+         * 治理指标增量刷写固定间隔（毫秒）。
+         *
+         * <p>数据库模式下事件先累加在内存增量桶，按该间隔批量合并到分钟聚合表。</p>
+         */
+        private long metricsFlushFixedDelayMs = 5_000;
+
+        /**
+         * 过期幂等 token 清理固定间隔（毫秒）。
+         */
+        private long tokenSweepFixedDelayMs = 60_000;
+
+        /**
+         * 过期幂等 token 单批删除行数。
+         */
+        private int tokenSweepChunkSize = 1_000;
+
+        /**
+         * 过期幂等 token 单轮最多删除批数。
+         */
+        private int tokenSweepMaxChunks = 50;
+
         public String getPlatformTenantCode() {
             return platformTenantCode;
         }
@@ -128,6 +163,120 @@ public class IdempotentProperties {
         public void setMetricsCleanupFixedDelayMs(long metricsCleanupFixedDelayMs) {
             this.metricsCleanupFixedDelayMs = metricsCleanupFixedDelayMs;
         }
+
+        public long getMetricsFlushFixedDelayMs() {
+            return metricsFlushFixedDelayMs;
+        }
+
+        public void setMetricsFlushFixedDelayMs(long metricsFlushFixedDelayMs) {
+            this.metricsFlushFixedDelayMs = metricsFlushFixedDelayMs;
+        }
+
+        public long getTokenSweepFixedDelayMs() {
+            return tokenSweepFixedDelayMs;
+        }
+
+        public void setTokenSweepFixedDelayMs(long tokenSweepFixedDelayMs) {
+            this.tokenSweepFixedDelayMs = tokenSweepFixedDelayMs;
+        }
+
+        public int getTokenSweepChunkSize() {
+            return tokenSweepChunkSize;
+        }
+
+        public void setTokenSweepChunkSize(int tokenSweepChunkSize) {
+            this.tokenSweepChunkSize = tokenSweepChunkSize;
+        }
+
+        public int getTokenSweepMaxChunks() {
+            return tokenSweepMaxChunks;
+        }
+
+        public void setTokenSweepMaxChunks(int tokenSweepMaxChunks) {
+            this.tokenSweepMaxChunks = tokenSweepMaxChunks;
+        }
+    }
+    
+    public static class NearCache {
+        /**
+         * 是否在远端存储前启用本地近端缓存，默认为 true
+         */
+        private boolean enabled = true;
+
+        /**
+         * 本地缓存最大条目数，超过后整体清空
+         */
+        private int maxEntries = 10_000;
+
+        /**
+         * 本地条目最长有效期（秒），限定其他节点删除 key 后本节点继续拒绝的最长时间
+         */
+        private long localTtlCapSeconds = 5;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public long getLocalTtlCapSeconds() {
+            return localTtlCapSeconds;
+        }
+
+        public void setLocalTtlCapSeconds(long localTtlCapSeconds) {
+            this.localTtlCapSeconds = localTtlCapSeconds;
+        }
+    }
+    
+    public static class Replay {
+        /**
+         * 是否保存成功响应并对重复请求直接重放，默认为 true
+         */
+        private boolean enabled = true;
+
+        /**
+         * 可保存的响应体上限（字节，JSON 序列化后），超出时重复请求仍返回“重复请求”提示
+         */
+        private int maxBodyBytes = 65_536;
+
+        /**
+         * 随响应一起保存并重放的响应头
+         */
+        private List<String> headers = new ArrayList<>(List.of("Content-Type", "Location", "ETag"));
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxBodyBytes() {
+            return maxBodyBytes;
+        }
+
+        public void setMaxBodyBytes(int maxBodyBytes) {
+            this.maxBodyBytes = maxBodyBytes;
+        }
+
+        public List<String> getHeaders() {
+            return headers;
+        }
+
+        public void setHeaders(List<String> headers) {
+            this.headers = headers;
+        }
     }
     
     public HttpApi getHttpApi() {
@@ -145,6 +294,22 @@ public class IdempotentProperties {
     public void setOps(Ops ops) {
         this.ops = ops;
     }
+
+    public NearCache getNearCache() {
+        return nearCache;
+    }
+
+    public void setNearCache(NearCache nearCache) {
+        this.nearCache = nearCache;
+    }
+
+    public Replay getReplay() {
+        return replay;
+    }
+
+    public void setReplay(Replay replay) {
+        this.replay = replay;
+    }
     
     public boolean isEnabled() {
         return enabled;
@@ -18,6 +18,7 @@ import com.tiny.platform.infrastructure.auth.resource.repository.UiActionEntryRe
 import com.tiny.platform.infrastructure.auth.audit.domain.AuthorizationAuditEventType;
 import com.tiny.platform.infrastructure.auth.audit.domain.RequirementAwareAuditDetail;
 import com.tiny.platform.infrastructure.auth.audit.service.AuthorizationAuditService;
+import com.tiny.platform.infrastructure.auth.resource.service.ApiEndpointRouteRegistry;
 import com.tiny.platform.infrastructure.auth.resource.service.CarrierPermissionReferenceSafetyService;
 import com.tiny.platform.infrastructure.auth.resource.service.CarrierPermissionRequirementEvaluator;
 import com.tiny.platform.infrastructure.auth.resource.service.ResourcePermissionBindingService;
@@ -76,8 +77,8 @@ public class MenuServiceImpl implements MenuService {
     private final CarrierPermissionRequirementEvaluator carrierPermissionRequirementEvaluator;
     private final AuthorizationAuditService authorizationAuditService;
     private final RoleRepository roleRepository;
+    private final ApiEndpointRouteRegistry apiEndpointRouteRegistry;
 
-    @Autowired
     public MenuServiceImpl(MenuEntryRepository menuEntryRepository,
                            UiActionEntryRepository uiActionEntryRepository,
                            ApiEndpointEntryRepository apiEndpointEntryRepository,
@@ -88,6 +89,26 @@ public class MenuServiceImpl implements MenuService {
                            CarrierPermissionRequirementEvaluator carrierPermissionRequirementEvaluator,
                            AuthorizationAuditService authorizationAuditService,
                            RoleRepository roleRepository) {
+        this(menuEntryRepository, uiActionEntryRepository, apiEndpointEntryRepository, tenantUserRepository,
+            userUnitRepository, resourcePermissionBindingService, carrierPermissionReferenceSafetyService,
+            carrierPermissionRequirementEvaluator, authorizationAuditService, roleRepository, null);
+    }
+
+    /**
+     * @param apiEndpointRouteRegistry 删除载体时同步删除同 id 的 api_endpoint 行，需推进路由表代数；为 {@code null} 时不通知
+     */
+    @Autowired
+    public MenuServiceImpl(MenuEntryRepository menuEntryRepository,
+                           UiActionEntryRepository uiActionEntryRepository,
+                           ApiEndpointEntryRepository apiEndpointEntryRepository,
+                           TenantUserRepository tenantUserRepository,
+                           UserUnitRepository userUnitRepository,
+                           ResourcePermissionBindingService resourcePermissionBindingService,
+                           CarrierPermissionReferenceSafetyService carrierPermissionReferenceSafetyService,
+                           CarrierPermissionRequirementEvaluator carrierPermissionRequirementEvaluator,
+                           AuthorizationAuditService authorizationAuditService,
+                           RoleRepository roleRepository,
+                           ApiEndpointRouteRegistry apiEndpointRouteRegistry) {
         this.menuEntryRepository = menuEntryRepository;
         this.uiActionEntryRepository = uiActionEntryRepository;
         this.apiEndpointEntryRepository = apiEndpointEntryRepository;
@@ -98,6 +119,7 @@ public class MenuServiceImpl implements MenuService {
         this.carrierPermissionRequirementEvaluator = carrierPermissionRequirementEvaluator;
         this.authorizationAuditService = authorizationAuditService;
         this.roleRepository = roleRepository;
+        this.apiEndpointRouteRegistry = apiEndpointRouteRegistry;
     }
 
     private Long normalizeParentId(Long parentId) {
@@ -515,7 +537,7 @@ public class MenuServiceImpl implements MenuService {
         Long tenantId = requireTenantId();
         // Resource compatibility rows are no longer maintained in runtime.
         // Deletion only targets carrier tables; legacy resource cleanup (if needed) is handled out-of-band.
-        deleteCarrierEntriesById(resourceId);
+        deleteCarrierEntriesById(resourceId, tenantId);
         if (requiredPermissionId == null) {
             return;
         }
@@ -783,7 +805,7 @@ public class MenuServiceImpl implements MenuService {
         return menu;
     }
 
-    private void deleteCarrierEntriesById(Long resourceId) {
+    private void deleteCarrierEntriesById(Long resourceId, Long tenantId) {
         if (resourceId == null) {
             return;
         }
@@ -791,6 +813,9 @@ public class MenuServiceImpl implements MenuService {
         menuEntryRepository.deleteAllByIdInBatch(ids);
         uiActionEntryRepository.deleteAllByIdInBatch(ids);
         apiEndpointEntryRepository.deleteAllByIdInBatch(ids);
+        if (apiEndpointRouteRegistry != null) {
+            apiEndpointRouteRegistry.markChanged(tenantId, "api_endpoint");
+        }
     }
 
     private String getCarrierKind(ResourceType resourceType) {
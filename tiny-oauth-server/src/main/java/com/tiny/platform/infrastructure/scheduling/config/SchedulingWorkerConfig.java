@@ -5,6 +5,7 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.core.task.TaskDecorator;
 
 import java.util.concurrent.ExecutorService;
@@ -15,6 +16,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 调度 Worker 线程池配置：替代无界 newCachedThreadPool，使用可配置 core/max/queue。
+ * 启用虚拟线程执行模式时，任务执行与结果等待改用 {@code schedulingVirtualTaskExecutor}，并发由许可数限制。
  */
 @Configuration
 public class SchedulingWorkerConfig {
@@ -51,13 +53,49 @@ public class SchedulingWorkerConfig {
                 mdcTaskDecorator);
     }
 
+    /**
+     * 每个任务一个虚拟线程，不设池大小与队列；并发上限由 {@code TaskExecutionSupervisor} 的许可控制。
+     */
+    @Bean(name = "schedulingVirtualTaskExecutor")
+    public SimpleAsyncTaskExecutor schedulingVirtualTaskExecutor(@Qualifier("mdcTaskDecorator") TaskDecorator mdcTaskDecorator) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("scheduling-vt-");
+        executor.setVirtualThreads(true);
+        executor.setTaskDecorator(tenantAwareTaskDecorator(mdcTaskDecorator));
+        return executor;
+    }
+
     private ExecutorService createTenantAwareExecutor(
             String threadNamePrefix,
             int corePoolSize,
             int maximumPoolSize,
             int taskQueueCapacity,
             TaskDecorator mdcTaskDecorator) {
-        TaskDecorator tenantAwareTaskDecorator = command -> {
+        TaskDecorator tenantAwareTaskDecorator = tenantAwareTaskDecorator(mdcTaskDecorator);
+        AtomicInteger counter = new AtomicInteger(0);
+        return new ThreadPoolExecutor(
+                corePoolSize,
+                maximumPoolSize,
+                60L,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(taskQueueCapacity),
+                r -> {
+                    Thread t = new Thread(r, threadNamePrefix + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy()) {
+            @Override
+            public void execute(Runnable command) {
+                super.execute(tenantAwareTaskDecorator.decorate(command));
+            }
+        };
+    }
+
+    /**
+     * 提交时捕获租户上下文与 MDC，执行线程上恢复，结束后还原执行线程原有上下文。
+     */
+    private static TaskDecorator tenantAwareTaskDecorator(TaskDecorator mdcTaskDecorator) {
+        return command -> {
             Long capturedTenantId = TenantContext.getActiveTenantId();
             String capturedTenantSource = TenantContext.getTenantSource();
             Runnable mdcDecorated = mdcTaskDecorator.decorate(command);
@@ -84,23 +122,5 @@ public class SchedulingWorkerConfig {
                 }
             };
         };
-        AtomicInteger counter = new AtomicInteger(0);
-        return new ThreadPoolExecutor(
-                corePoolSize,
-                maximumPoolSize,
-                60L,
-                TimeUnit.SECONDS,
-                new LinkedBlockingQueue<>(taskQueueCapacity),
-                r -> {
-                    Thread t = new Thread(r, threadNamePrefix + counter.incrementAndGet());
-                    t.setDaemon(true);
-                    return t;
-                },
-                new ThreadPoolExecutor.CallerRunsPolicy()) {
-            @Override
-            public void execute(Runnable command) {
-                super.execute(tenantAwareTaskDecorator.decorate(command));
-            }
-        };
     }
 }
@@ -6,6 +6,7 @@ import com.tiny.platform.infrastructure.scheduling.dto.*;
 import com.tiny.platform.infrastructure.scheduling.model.*;
 import com.tiny.platform.infrastructure.scheduling.service.QuartzSchedulerService;
 import com.tiny.platform.infrastructure.scheduling.service.SchedulingService;
+import com.tiny.platform.infrastructure.scheduling.service.SchedulingTaskLogService;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
@@ -689,6 +690,21 @@ public class SchedulingController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * 按偏移增量拉取任务实例的执行日志；offset 为负数时从末尾回看，historyId 为空时取最近一次执行
+     */
+    @GetMapping("/task-instance/{instanceId}/log/range")
+    @PreAuthorize("@schedulingAccessGuard.canRead(authentication)")
+    public ResponseEntity<SchedulingTaskLogService.TaskLogSlice> getTaskInstanceLogRange(
+            @PathVariable Long instanceId,
+            @RequestParam(required = false) Long historyId,
+            @RequestParam(defaultValue = "0") long offset,
+            @RequestParam(defaultValue = "65536") int limit) {
+        return schedulingService.getTaskInstanceLogRange(instanceId, historyId, offset, limit)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     /**
      * 查看任务执行历史
      */
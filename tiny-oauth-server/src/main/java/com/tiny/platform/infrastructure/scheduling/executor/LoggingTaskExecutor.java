@@ -23,6 +23,9 @@ public class LoggingTaskExecutor implements TaskExecutorService.TaskExecutor {
                 executionContext != null ? executionContext.getExecutionTenantId() : null,
                 executionContext != null ? executionContext.getDagRunId() : null,
                 SchedulingLogSanitizer.maskParamsForLog(params));
+        if (executionContext != null) {
+            executionContext.getLogWriter().println("[LoggingTaskExecutor] params=" + SchedulingLogSanitizer.maskParamsForLog(params));
+        }
         return Map.of(
                 "status", "OK",
                 "echo", params
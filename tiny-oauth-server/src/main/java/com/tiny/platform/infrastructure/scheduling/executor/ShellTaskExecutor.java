@@ -25,6 +25,9 @@ public class ShellTaskExecutor implements TaskExecutorService.TaskExecutor {
                 executionContext != null ? executionContext.getExecutionTenantId() : null,
                 executionContext != null ? executionContext.getDagRunId() : null,
                 SchedulingLogSanitizer.maskParamsForLog(params));
+        if (executionContext != null) {
+            executionContext.getLogWriter().println("[ShellTaskExecutor] params=" + SchedulingLogSanitizer.maskParamsForLog(params));
+        }
         return Map.of(
                 "status", "OK",
                 "executor", "shellExecutor",
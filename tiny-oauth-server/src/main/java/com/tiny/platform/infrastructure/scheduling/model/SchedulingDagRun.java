@@ -46,6 +46,24 @@ public class SchedulingDagRun implements Serializable {
     @Column(columnDefinition = "JSON")
     private String metrics;
 
+    /**
+     * 按状态分桶的实例计数，由 DagRunStateMachine 以增量 SQL 维护；实体只读，避免 JPA 刷新覆盖并发增量。
+     */
+    @Column(name = "active_count", insertable = false, updatable = false)
+    private Integer activeCount;
+
+    @Column(name = "success_count", insertable = false, updatable = false)
+    private Integer successCount;
+
+    @Column(name = "failed_count", insertable = false, updatable = false)
+    private Integer failedCount;
+
+    @Column(name = "skipped_count", insertable = false, updatable = false)
+    private Integer skippedCount;
+
+    @Column(name = "cancelled_count", insertable = false, updatable = false)
+    private Integer cancelledCount;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -144,6 +162,26 @@ public class SchedulingDagRun implements Serializable {
         this.metrics = metrics;
     }
 
+    public Integer getActiveCount() {
+        return activeCount;
+    }
+
+    public Integer getSuccessCount() {
+        return successCount;
+    }
+
+    public Integer getFailedCount() {
+        return failedCount;
+    }
+
+    public Integer getSkippedCount() {
+        return skippedCount;
+    }
+
+    public Integer getCancelledCount() {
+        return cancelledCount;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,113 @@
+package com.tiny.platform.infrastructure.scheduling.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 任务执行日志分块（scheduling_task_log_chunk）
+ *
+ * <p>每次执行（对应一条 scheduling_task_history）的日志按追加顺序切成若干块，
+ * {@code [startOffset, endOffset)} 为本块在该次执行日志中的字符区间，按偏移即可增量读取。</p>
+ */
+@Entity
+@Table(name = "scheduling_task_log_chunk", indexes = {
+    @Index(name = "idx_task_log_chunk_history_offset", columnList = "history_id, start_offset"),
+    @Index(name = "idx_task_log_chunk_instance", columnList = "task_instance_id")
+})
+public class SchedulingTaskLogChunk implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private Long tenantId;
+
+    @Column(name = "task_instance_id", nullable = false)
+    private Long taskInstanceId;
+
+    @Column(name = "history_id", nullable = false)
+    private Long historyId;
+
+    @Column(name = "start_offset", nullable = false)
+    private Long startOffset;
+
+    @Column(name = "end_offset", nullable = false)
+    private Long endOffset;
+
+    @Column(name = "content", nullable = false, columnDefinition = "MEDIUMTEXT")
+    private String content;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(Long tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public Long getTaskInstanceId() {
+        return taskInstanceId;
+    }
+
+    public void setTaskInstanceId(Long taskInstanceId) {
+        this.taskInstanceId = taskInstanceId;
+    }
+
+    public Long getHistoryId() {
+        return historyId;
+    }
+
+    public void setHistoryId(Long historyId) {
+        this.historyId = historyId;
+    }
+
+    public Long getStartOffset() {
+        return startOffset;
+    }
+
+    public void setStartOffset(Long startOffset) {
+        this.startOffset = startOffset;
+    }
+
+    public Long getEndOffset() {
+        return endOffset;
+    }
+
+    public void setEndOffset(Long endOffset) {
+        this.endOffset = endOffset;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,240 @@
+package com.tiny.platform.infrastructure.scheduling.repository;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 轻量 Cron 触发引擎的持久化：scheduling_cron_trigger 保存每个 DAG 的 Cron 定义与最近触发水位，
+ * scheduling_cron_partition 每个分区一行租约，scheduling_cron_node 每个在线节点一行心跳。
+ *
+ * <p>触发时只对本 DAG 的水位行做一次条件 UPDATE（{@link #advanceWatermark}），
+ * 节点间不再争抢全局锁；租约只在续期周期读写，与触发频率无关。时间均以毫秒时间戳保存。</p>
+ */
+@Repository
+public class SchedulingCronTriggerRepository {
+
+    private static final RowMapper<CronTriggerRow> TRIGGER_ROW_MAPPER = (rs, rowNum) -> new CronTriggerRow(
+            rs.getLong("dag_id"),
+            rs.getObject("tenant_id", Long.class),
+            rs.getString("cron_expression"),
+            rs.getString("cron_timezone"),
+            rs.getBoolean("paused"),
+            rs.getLong("last_fire_at"));
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public SchedulingCronTriggerRepository(NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    public List<CronTriggerRow> findAll() {
+        return namedParameterJdbcTemplate.query("""
+                SELECT dag_id, tenant_id, cron_expression, cron_timezone, paused, last_fire_at
+                  FROM scheduling_cron_trigger
+                """, new MapSqlParameterSource(), TRIGGER_ROW_MAPPER);
+    }
+
+    public Optional<CronTriggerRow> findByDagId(Long dagId) {
+        return namedParameterJdbcTemplate.query("""
+                SELECT dag_id, tenant_id, cron_expression, cron_timezone, paused, last_fire_at
+                  FROM scheduling_cron_trigger WHERE dag_id = :dagId
+                """, new MapSqlParameterSource("dagId", dagId), TRIGGER_ROW_MAPPER).stream().findFirst();
+    }
+
+    /**
+     * 写入或覆盖 Cron 定义：水位重置为 {@code watermark}（此前的触发点不再补触发），并取消暂停
+     */
+    public void saveDefinition(Long dagId, Long tenantId, String cronExpression, String cronTimezone, long watermark) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("dagId", dagId)
+                .addValue("tenantId", tenantId)
+                .addValue("cronExpression", cronExpression)
+                .addValue("cronTimezone", cronTimezone)
+                .addValue("watermark", watermark);
+        String update = """
+                UPDATE scheduling_cron_trigger
+                   SET tenant_id = :tenantId, cron_expression = :cronExpression, cron_timezone = :cronTimezone,
+                       paused = FALSE, last_fire_at = :watermark
+                 WHERE dag_id = :dagId
+                """;
+        if (namedParameterJdbcTemplate.update(update, params) > 0) {
+            return;
+        }
+        try {
+            namedParameterJdbcTemplate.update("""
+                    INSERT INTO scheduling_cron_trigger
+                        (dag_id, tenant_id, cron_expression, cron_timezone, paused, last_fire_at)
+                    VALUES (:dagId, :tenantId, :cronExpression, :cronTimezone, FALSE, :watermark)
+                    """, params);
+        } catch (DuplicateKeyException e) {
+            namedParameterJdbcTemplate.update(update, params);
+        }
+    }
+
+    public int updatePaused(Long dagId, boolean paused) {
+        return namedParameterJdbcTemplate.update(
+                "UPDATE scheduling_cron_trigger SET paused = :paused WHERE dag_id = :dagId",
+                new MapSqlParameterSource().addValue("dagId", dagId).addValue("paused", paused));
+    }
+
+    public int delete(Long dagId) {
+        return namedParameterJdbcTemplate.update(
+                "DELETE FROM scheduling_cron_trigger WHERE dag_id = :dagId",
+                new MapSqlParameterSource("dagId", dagId));
+    }
+
+    /**
+     * 条件推进水位：仅当水位早于 {@code fireAt} 且未暂停时更新为 {@code watermark}，返回 1 表示本节点取得这次触发。
+     * 租约交接的短暂重叠期内两个节点同时到期，也只有一个能推进成功。
+     */
+    public int advanceWatermark(Long dagId, long fireAt, long watermark) {
+        return namedParameterJdbcTemplate.update("""
+                UPDATE scheduling_cron_trigger SET last_fire_at = :watermark
+                 WHERE dag_id = :dagId AND last_fire_at < :fireAt AND paused = FALSE
+                """, new MapSqlParameterSource()
+                .addValue("dagId", dagId)
+                .addValue("fireAt", fireAt)
+                .addValue("watermark", watermark));
+    }
+
+    /**
+     * 补齐 0..count-1 的分区行，已存在的跳过
+     */
+    public void ensurePartitions(int count) {
+        Set<Integer> existing = new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "SELECT partition_no FROM scheduling_cron_partition", new MapSqlParameterSource(), Integer.class));
+        for (int partition = 0; partition < count; partition++) {
+            if (existing.contains(partition)) {
+                continue;
+            }
+            try {
+                namedParameterJdbcTemplate.update("""
+                        INSERT INTO scheduling_cron_partition (partition_no, owner_id, lease_until)
+                        VALUES (:partition, NULL, 0)
+                        """, new MapSqlParameterSource("partition", partition));
+            } catch (DuplicateKeyException ignored) {
+                // 其他节点已补齐
+            }
+        }
+    }
+
+    public List<PartitionLease> findLeases(int count) {
+        return namedParameterJdbcTemplate.query("""
+                SELECT partition_no, owner_id, lease_until FROM scheduling_cron_partition
+                 WHERE partition_no < :count ORDER BY partition_no
+                """, new MapSqlParameterSource("count", count), (rs, rowNum) -> new PartitionLease(
+                rs.getInt("partition_no"),
+                rs.getString("owner_id"),
+                rs.getLong("lease_until")));
+    }
+
+    /**
+     * 单条 UPDATE 续期本节点持有的分区，返回实际续期的行数
+     */
+    public int renewLeases(String ownerId, Collection<Integer> partitions, long leaseUntil) {
+        if (partitions == null || partitions.isEmpty()) {
+            return 0;
+        }
+        return namedParameterJdbcTemplate.update("""
+                UPDATE scheduling_cron_partition SET lease_until = :leaseUntil
+                 WHERE partition_no IN (:partitions) AND owner_id = :ownerId
+                """, new MapSqlParameterSource()
+                .addValue("ownerId", ownerId)
+                .addValue("partitions", partitions)
+                .addValue("leaseUntil", leaseUntil));
+    }
+
+    /**
+     * 租约已过期（或从未被持有）时抢占分区，返回 1 表示抢占成功
+     */
+    public int acquireLease(int partition, String ownerId, long now, long leaseUntil) {
+        return namedParameterJdbcTemplate.update("""
+                UPDATE scheduling_cron_partition SET owner_id = :ownerId, lease_until = :leaseUntil
+                 WHERE partition_no = :partition AND lease_until <= :now
+                """, new MapSqlParameterSource()
+                .addValue("partition", partition)
+                .addValue("ownerId", ownerId)
+                .addValue("now", now)
+                .addValue("leaseUntil", leaseUntil));
+    }
+
+    /**
+     * 主动释放分区，其他节点下个续期周期即可接管
+     */
+    public int releaseLease(int partition, String ownerId) {
+        return namedParameterJdbcTemplate.update("""
+                UPDATE scheduling_cron_partition SET lease_until = 0
+                 WHERE partition_no = :partition AND owner_id = :ownerId
+                """, new MapSqlParameterSource()
+                .addValue("partition", partition)
+                .addValue("ownerId", ownerId));
+    }
+
+    /**
+     * 写入或续期节点心跳；节点成员与分区归属无关，未持有任何分区的节点也能被其他节点看到
+     */
+    public void heartbeat(String nodeId, long aliveUntil) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("nodeId", nodeId)
+                .addValue("aliveUntil", aliveUntil);
+        String update = "UPDATE scheduling_cron_node SET alive_until = :aliveUntil WHERE node_id = :nodeId";
+        if (namedParameterJdbcTemplate.update(update, params) > 0) {
+            return;
+        }
+        try {
+            namedParameterJdbcTemplate.update(
+                    "INSERT INTO scheduling_cron_node (node_id, alive_until) VALUES (:nodeId, :aliveUntil)", params);
+        } catch (DuplicateKeyException e) {
+            namedParameterJdbcTemplate.update(update, params);
+        }
+    }
+
+    /**
+     * 心跳未过期的节点，按 node_id 排序
+     */
+    public List<String> findLiveNodes(long now) {
+        return namedParameterJdbcTemplate.queryForList(
+                "SELECT node_id FROM scheduling_cron_node WHERE alive_until > :now ORDER BY node_id",
+                new MapSqlParameterSource("now", now), String.class);
+    }
+
+    /**
+     * 清理心跳早于 {@code before} 的节点行
+     */
+    public int deleteNodesExpiredBefore(long before) {
+        return namedParameterJdbcTemplate.update(
+                "DELETE FROM scheduling_cron_node WHERE alive_until < :before",
+                new MapSqlParameterSource("before", before));
+    }
+
+    /**
+     * 节点停止时注销，其他节点下个续期周期即按新的节点数重新均分
+     */
+    public int deleteNode(String nodeId) {
+        return namedParameterJdbcTemplate.update(
+                "DELETE FROM scheduling_cron_node WHERE node_id = :nodeId",
+                new MapSqlParameterSource("nodeId", nodeId));
+    }
+
+    /**
+     * DAG 的 Cron 定义与水位；{@code lastFireAt} 之前（含）的触发点视为已处理
+     */
+    public record CronTriggerRow(Long dagId, Long tenantId, String cronExpression, String cronTimezone,
+                                 boolean paused, long lastFireAt) {
+    }
+
+    /**
+     * 分区租约，{@code leaseUntil} 为毫秒时间戳
+     */
+    public record PartitionLease(int partition, String ownerId, long leaseUntil) {
+    }
+}
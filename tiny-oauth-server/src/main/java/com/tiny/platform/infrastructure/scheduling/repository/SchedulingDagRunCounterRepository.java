@@ -0,0 +1,176 @@
+package com.tiny.platform.infrastructure.scheduling.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * scheduling_dag_run 状态计数。
+ *
+ * <p>计数按桶维护：active（PENDING/RESERVED/RUNNING/PAUSED）与 SUCCESS / FAILED / SKIPPED / CANCELLED。
+ * 增量 UPDATE 与实例状态变更处于同一事务，同一 Run 的并发迁移被 Run 行锁串行化，
+ * 因此事务内读回的计数即为迁移后的精确值。计数为 NULL 的历史 Run 不做增量，由一致性检查按实例表初始化。</p>
+ */
+@Repository
+public class SchedulingDagRunCounterRepository {
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public SchedulingDagRunCounterRepository(NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    /**
+     * Run 物化实例后初始化计数（未初始化的列按 0 计）。
+     */
+    public int initialize(Long dagRunId, int activeCount) {
+        return namedParameterJdbcTemplate.update("""
+                UPDATE scheduling_dag_run
+                   SET active_count = COALESCE(active_count, 0) + :active,
+                       success_count = COALESCE(success_count, 0),
+                       failed_count = COALESCE(failed_count, 0),
+                       skipped_count = COALESCE(skipped_count, 0),
+                       cancelled_count = COALESCE(cancelled_count, 0)
+                 WHERE id = :id
+                """, new MapSqlParameterSource("id", dagRunId).addValue("active", activeCount));
+    }
+
+    /**
+     * 叠加增量；计数未初始化时返回 0。
+     */
+    public int applyDelta(Long dagRunId, Counters delta) {
+        MapSqlParameterSource params = new MapSqlParameterSource("id", dagRunId)
+                .addValue("active", delta.active())
+                .addValue("success", delta.success())
+                .addValue("failed", delta.failed())
+                .addValue("skipped", delta.skipped())
+                .addValue("cancelled", delta.cancelled());
+        return namedParameterJdbcTemplate.update("""
+                UPDATE scheduling_dag_run
+                   SET active_count = active_count + :active,
+                       success_count = success_count + :success,
+                       failed_count = failed_count + :failed,
+                       skipped_count = skipped_count + :skipped,
+                       cancelled_count = cancelled_count + :cancelled
+                 WHERE id = :id AND active_count IS NOT NULL
+                """, params);
+    }
+
+    /**
+     * 以实例表统计结果覆盖计数（一致性检查修正漂移或初始化历史 Run）。
+     */
+    public int overwrite(Long dagRunId, Counters counters) {
+        MapSqlParameterSource params = new MapSqlParameterSource("id", dagRunId)
+                .addValue("active", counters.active())
+                .addValue("success", counters.success())
+                .addValue("failed", counters.failed())
+                .addValue("skipped", counters.skipped())
+                .addValue("cancelled", counters.cancelled());
+        return namedParameterJdbcTemplate.update("""
+                UPDATE scheduling_dag_run
+                   SET active_count = :active, success_count = :success, failed_count = :failed,
+                       skipped_count = :skipped, cancelled_count = :cancelled
+                 WHERE id = :id
+                """, params);
+    }
+
+    public Optional<RunState> findState(Long dagRunId) {
+        List<RunState> states = namedParameterJdbcTemplate.query("""
+                SELECT status, active_count, success_count, failed_count, skipped_count, cancelled_count
+                  FROM scheduling_dag_run WHERE id = :id
+                """, new MapSqlParameterSource("id", dagRunId), (rs, rowNum) -> {
+            Integer active = rs.getObject("active_count", Integer.class);
+            Counters counters = active == null ? null : new Counters(
+                    active,
+                    rs.getInt("success_count"),
+                    rs.getInt("failed_count"),
+                    rs.getInt("skipped_count"),
+                    rs.getInt("cancelled_count"));
+            return new RunState(rs.getString("status"), counters);
+        });
+        return states.stream().findFirst();
+    }
+
+    /**
+     * 仅当 Run 仍为 RUNNING 时写入终态，避免覆盖 CANCELLED 等并发写入的终态。
+     */
+    public int finish(Long dagRunId, String status, LocalDateTime endTime) {
+        return namedParameterJdbcTemplate.update("""
+                UPDATE scheduling_dag_run SET status = :status, end_time = :endTime
+                 WHERE id = :id AND status = 'RUNNING'
+                """, new MapSqlParameterSource("id", dagRunId)
+                .addValue("status", status)
+                .addValue("endTime", Timestamp.valueOf(endTime)));
+    }
+
+    /**
+     * 一次 GROUP BY 统计一批 Run 的实例状态分布，供一致性检查对账。
+     */
+    public Map<Long, InstanceCounts> countInstancesByRun(Collection<Long> dagRunIds) {
+        Map<Long, int[]> buckets = new HashMap<>();
+        if (dagRunIds == null || dagRunIds.isEmpty()) {
+            return Map.of();
+        }
+        namedParameterJdbcTemplate.query("""
+                SELECT dag_run_id, status, COUNT(*) AS cnt
+                  FROM scheduling_task_instance
+                 WHERE dag_run_id IN (:ids)
+                 GROUP BY dag_run_id, status
+                """, new MapSqlParameterSource("ids", dagRunIds), rs -> {
+            int[] bucket = buckets.computeIfAbsent(rs.getLong("dag_run_id"), id -> new int[6]);
+            int count = rs.getInt("cnt");
+            String status = rs.getString("status");
+            switch (status == null ? "" : status) {
+                case "SUCCESS" -> bucket[1] += count;
+                case "FAILED" -> bucket[2] += count;
+                case "SKIPPED" -> bucket[3] += count;
+                case "CANCELLED" -> bucket[4] += count;
+                case "RESERVED", "RUNNING" -> {
+                    bucket[0] += count;
+                    bucket[5] += count;
+                }
+                default -> bucket[0] += count;
+            }
+        });
+        Map<Long, InstanceCounts> result = new HashMap<>(buckets.size() * 2);
+        buckets.forEach((runId, bucket) -> result.put(runId, new InstanceCounts(
+                new Counters(bucket[0], bucket[1], bucket[2], bucket[3], bucket[4]), bucket[5])));
+        return result;
+    }
+
+    /**
+     * 各状态桶的实例数（也用作增量）
+     */
+    public record Counters(int active, int success, int failed, int skipped, int cancelled) {
+
+        public static final Counters ZERO = new Counters(0, 0, 0, 0, 0);
+
+        public int total() {
+            return active + success + failed + skipped + cancelled;
+        }
+
+        public boolean isZero() {
+            return equals(ZERO);
+        }
+    }
+
+    /**
+     * Run 状态与计数；counters 为 null 表示尚未初始化
+     */
+    public record RunState(String status, Counters counters) {
+    }
+
+    /**
+     * 实例表实际统计：分桶计数与执行中（RESERVED/RUNNING）实例数
+     */
+    public record InstanceCounts(Counters counters, int executing) {
+    }
+}
@@ -0,0 +1,203 @@
+package com.tiny.platform.infrastructure.scheduling.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.DatabaseMetaData;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * scheduling_task_instance 批量抢占与批量心跳。
+ *
+ * <p>{@link #lockReadyIds} 以 {@code SELECT ... FOR UPDATE SKIP LOCKED} 锁定一批到期 PENDING 行，
+ * 多个 Worker 节点并发扫描时各自拿到互不重叠的行，不再争抢同一页；调用方需处于事务中，
+ * 锁定行在事务提交前对其他 Worker 不可见；就绪队列派发由 {@link #lockReadyIdsIn} 按 id 锁定。仅 MySQL 8+ / MariaDB 10.6+ / PostgreSQL 9.5+ 启用，
+ * 其他数据库（测试用 H2）由 {@link #supportsSkipLocked()} 返回 false，调用方退回逐条抢占。</p>
+ */
+@Repository
+public class SchedulingTaskClaimRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchedulingTaskClaimRepository.class);
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private volatile Boolean skipLockedSupported;
+
+    public SchedulingTaskClaimRepository(NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    /**
+     * 数据库是否支持 {@code FOR UPDATE SKIP LOCKED}，首次调用时读取连接元数据并缓存。
+     */
+    public boolean supportsSkipLocked() {
+        Boolean supported = skipLockedSupported;
+        if (supported == null) {
+            try {
+                supported = namedParameterJdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<Boolean>) connection -> {
+                    DatabaseMetaData metaData = connection.getMetaData();
+                    return supportsSkipLocked(
+                            metaData.getDatabaseProductName(),
+                            metaData.getDatabaseMajorVersion(),
+                            metaData.getDatabaseMinorVersion());
+                });
+            } catch (Exception e) {
+                logger.warn("读取数据库元数据失败，批量抢占退回逐条模式: {}", e.getMessage());
+                supported = Boolean.FALSE;
+            }
+            skipLockedSupported = supported;
+            logger.info("调度批量抢占 SKIP LOCKED 支持: {}", supported);
+        }
+        return Boolean.TRUE.equals(supported);
+    }
+
+    static boolean supportsSkipLocked(String productName, int majorVersion, int minorVersion) {
+        if (productName == null) {
+            return false;
+        }
+        String name = productName.toLowerCase(Locale.ROOT);
+        if (name.contains("mariadb")) {
+            return majorVersion > 10 || (majorVersion == 10 && minorVersion >= 6);
+        }
+        if (name.contains("mysql")) {
+            return majorVersion >= 8;
+        }
+        if (name.contains("postgresql")) {
+            return majorVersion > 9 || (majorVersion == 9 && minorVersion >= 5);
+        }
+        return false;
+    }
+
+    /**
+     * 锁定至多 {@code limit} 个已到期的 PENDING 实例，按 scheduled_at 排序；已被其他事务锁定的行直接跳过。
+     *
+     * @param excludedIds 本轮已判定不可抢占的实例，避免同一轮反复锁定
+     */
+    public List<Long> lockReadyIds(LocalDateTime now, int limit, Collection<Long> excludedIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("now", Timestamp.valueOf(now))
+                .addValue("limit", Math.max(1, limit));
+        StringBuilder sql = new StringBuilder("""
+                SELECT id FROM scheduling_task_instance
+                 WHERE status = 'PENDING'
+                   AND scheduled_at <= :now
+                   AND (next_retry_at IS NULL OR next_retry_at <= :now)
+                """);
+        if (excludedIds != null && !excludedIds.isEmpty()) {
+            sql.append("   AND id NOT IN (:excludedIds)\n");
+            params.addValue("excludedIds", excludedIds);
+        }
+        sql.append(" ORDER BY scheduled_at ASC, id ASC LIMIT :limit FOR UPDATE SKIP LOCKED");
+        return namedParameterJdbcTemplate.queryForList(sql.toString(), params, Long.class);
+    }
+
+    /**
+     * 就绪队列路径：在给定实例中锁定仍为 PENDING 且已到期的行，已被其他事务锁定的行直接跳过。
+     */
+    public List<Long> lockReadyIdsIn(Collection<Long> ids, LocalDateTime now) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("now", Timestamp.valueOf(now));
+        return namedParameterJdbcTemplate.queryForList("""
+                SELECT id FROM scheduling_task_instance
+                 WHERE id IN (:ids)
+                   AND status = 'PENDING'
+                   AND scheduled_at <= :now
+                   AND (next_retry_at IS NULL OR next_retry_at <= :now)
+                 ORDER BY id ASC FOR UPDATE SKIP LOCKED
+                """, params, Long.class);
+    }
+
+    /**
+     * 一次查询当前持锁（RESERVED / RUNNING）实例，作为本批并发策略判定的快照。
+     */
+    public List<ActiveLock> findActiveLocks(Collection<Long> taskIds, Collection<Long> dagRunIds) {
+        boolean hasTasks = taskIds != null && !taskIds.isEmpty();
+        boolean hasRuns = dagRunIds != null && !dagRunIds.isEmpty();
+        if (!hasTasks && !hasRuns) {
+            return List.of();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder filter = new StringBuilder();
+        if (hasTasks) {
+            filter.append("task_id IN (:taskIds)");
+            params.addValue("taskIds", taskIds);
+        }
+        if (hasRuns) {
+            if (hasTasks) {
+                filter.append(" OR ");
+            }
+            filter.append("dag_run_id IN (:dagRunIds)");
+            params.addValue("dagRunIds", dagRunIds);
+        }
+        String sql = "SELECT task_id, dag_run_id, node_code, concurrency_key FROM scheduling_task_instance "
+                + "WHERE status IN ('RESERVED', 'RUNNING') AND (" + filter + ")";
+        return namedParameterJdbcTemplate.query(sql, params, (rs, rowNum) -> new ActiveLock(
+                rs.getObject("task_id", Long.class),
+                rs.getObject("dag_run_id", Long.class),
+                rs.getString("node_code"),
+                rs.getString("concurrency_key")));
+    }
+
+    /**
+     * 单条 UPDATE 抢占本批已锁定的实例。
+     */
+    public int reserveAll(Collection<Long> ids, String lockedBy, LocalDateTime lockTime) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("lockedBy", lockedBy)
+                .addValue("lockTime", Timestamp.valueOf(lockTime));
+        return namedParameterJdbcTemplate.update("""
+                UPDATE scheduling_task_instance
+                   SET status = 'RESERVED', locked_by = :lockedBy, lock_time = :lockTime
+                 WHERE id IN (:ids) AND status = 'PENDING'
+                """, params);
+    }
+
+    /**
+     * 单条 UPDATE 为一批执行中实例续期 lock_time（心跳），已离开 RESERVED / RUNNING 的实例不受影响。
+     */
+    public int touchHeartbeats(Collection<Long> ids, LocalDateTime lockTime) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("lockTime", Timestamp.valueOf(lockTime));
+        return namedParameterJdbcTemplate.update("""
+                UPDATE scheduling_task_instance SET lock_time = :lockTime
+                 WHERE id IN (:ids) AND status IN ('RESERVED', 'RUNNING')
+                """, params);
+    }
+
+    /**
+     * 一次查询一批实例中已被请求取消（CANCELLED）的 id。
+     */
+    public List<Long> findCancelledIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return namedParameterJdbcTemplate.queryForList(
+                "SELECT id FROM scheduling_task_instance WHERE id IN (:ids) AND status = 'CANCELLED'",
+                new MapSqlParameterSource("ids", ids), Long.class);
+    }
+
+    /**
+     * 持锁实例的并发维度
+     */
+    public record ActiveLock(Long taskId, Long dagRunId, String nodeCode, String concurrencyKey) {
+    }
+}
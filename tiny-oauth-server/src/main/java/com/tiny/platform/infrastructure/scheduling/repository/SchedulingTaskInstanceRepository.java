@@ -59,6 +59,9 @@ public interface SchedulingTaskInstanceRepository extends JpaRepository<Scheduli
 
     boolean existsByDagRunIdAndNodeCodeAndStatusIn(Long dagRunId, String nodeCode, Iterable<String> statuses);
 
+    /** Run 状态机：同一 DAG Run 下是否仍有执行中（RESERVED/RUNNING）的实例 */
+    boolean existsByDagRunIdAndStatusIn(Long dagRunId, Collection<String> statuses);
+
     boolean existsByTaskIdAndStatusIn(Long taskId, Iterable<String> statuses);
 
     boolean existsByTaskIdAndNodeCodeAndStatusIn(Long taskId, String nodeCode, Iterable<String> statuses);
@@ -71,6 +74,11 @@ public interface SchedulingTaskInstanceRepository extends JpaRepository<Scheduli
     long countDistinctNodeCodesByDagRunIdAndNodeCodeInAndStatus(
             @Param("dagRunId") Long dagRunId, @Param("nodeCodes") Collection<String> nodeCodes, @Param("status") String status);
 
+    /** 依赖检查：同一 DAG Run 下指定节点中至少有一个 SUCCESS 实例的节点编码，用于补齐内存成功位图 */
+    @Query("SELECT DISTINCT ti.nodeCode FROM SchedulingTaskInstance ti WHERE ti.dagRunId = :dagRunId AND ti.nodeCode IN :nodeCodes AND ti.status = :status")
+    List<String> findDistinctNodeCodesByDagRunIdAndNodeCodeInAndStatus(
+            @Param("dagRunId") Long dagRunId, @Param("nodeCodes") Collection<String> nodeCodes, @Param("status") String status);
+
     /** 下游调度：按 DAG Run + 节点编码列表查询 PENDING 且 scheduledAt 为空的实例 */
     List<SchedulingTaskInstance> findByDagRunIdAndNodeCodeInAndStatusAndScheduledAtIsNull(
             Long dagRunId, Collection<String> nodeCodes, String status);
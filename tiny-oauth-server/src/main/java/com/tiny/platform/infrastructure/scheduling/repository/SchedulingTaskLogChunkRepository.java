@@ -0,0 +1,26 @@
+package com.tiny.platform.infrastructure.scheduling.repository;
+
+import com.tiny.platform.infrastructure.scheduling.model.SchedulingTaskLogChunk;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SchedulingTaskLogChunkRepository extends JpaRepository<SchedulingTaskLogChunk, Long> {
+
+    /**
+     * 覆盖 {@code fromOffset} 及之后的分块，按偏移升序
+     */
+    List<SchedulingTaskLogChunk> findByHistoryIdAndTenantIdAndEndOffsetGreaterThanOrderByStartOffsetAsc(
+            Long historyId, Long tenantId, Long fromOffset, Pageable pageable);
+
+    /**
+     * 该次执行日志的总长度；尚无日志时返回 null
+     */
+    @Query("SELECT MAX(c.endOffset) FROM SchedulingTaskLogChunk c WHERE c.historyId = :historyId AND c.tenantId = :tenantId")
+    Long findEndOffset(@Param("historyId") Long historyId, @Param("tenantId") Long tenantId);
+}
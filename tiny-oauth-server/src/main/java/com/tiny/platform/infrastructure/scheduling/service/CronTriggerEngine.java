@@ -0,0 +1,452 @@
+package com.tiny.platform.infrastructure.scheduling.service;
+
+import com.tiny.platform.infrastructure.scheduling.model.SchedulingDag;
+import com.tiny.platform.infrastructure.scheduling.repository.SchedulingCronTriggerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 不经 Quartz JobStore 的轻量 DAG Cron 触发引擎（{@code scheduling.trigger.engine=wheel} 时启用）。
+ *
+ * <ul>
+ *   <li>每个节点在内存 {@link CronTriggerWheel} 中按下次触发时间排列全部 DAG，单线程按 tick 取出到期触发点；</li>
+ *   <li>DAG 按 {@code dagId % partitions} 分区，节点以租约持有分区（每分区一行），只触发自己持有分区内的 DAG；
+ *       节点随续约写入心跳行，在线节点数以心跳为准（与是否持有分区无关），节点加入时原持有者释放超出份额的分区，
+ *       宕机节点的分区在租约过期后被接管；</li>
+ *   <li>触发前条件推进该 DAG 的水位行，推进成功才调用 {@link SchedulingService#executeDag}，
+ *       租约交接重叠期也不会重复触发；接管分区时从水位重新计算下次触发时间，错过的触发点合并为立即触发一次，
+ *       与 Quartz CronTrigger 默认的 smart policy（FIRE_ONCE_NOW）一致。</li>
+ * </ul>
+ *
+ * <p>Cron 定义以 scheduling_cron_trigger 为准，各节点按 {@code refresh-ms} 周期同步其他节点的变更。
+ * 手动触发（triggerDagNow）仍走 Quartz。</p>
+ */
+@Component
+public class CronTriggerEngine implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(CronTriggerEngine.class);
+
+    static final String ENGINE_WHEEL = "wheel";
+    private static final String TRIGGERED_BY = "Cron Scheduler";
+
+    private final SchedulingCronTriggerRepository triggerRepository;
+    private final ObjectProvider<SchedulingService> schedulingServiceProvider;
+    private final boolean enabled;
+    private final int partitions;
+    private final long leaseMillis;
+    private final long tickMillis;
+    private final long refreshMillis;
+    private final int fireThreads;
+    private final String nodeId;
+    private final CronTriggerWheel wheel = new CronTriggerWheel();
+    private final Map<Long, CronTriggerWheel.Definition> definitions = new ConcurrentHashMap<>();
+    @Nullable
+    private final Counter firedCounter;
+    @Nullable
+    private final Counter misfireCounter;
+
+    private volatile Set<Integer> ownedPartitions = Set.of();
+    private volatile long ownedUntil;
+    private long nextLeaseAt;
+    private long nextRefreshAt;
+    private volatile boolean running;
+    private ScheduledExecutorService ticker;
+    private Executor fireExecutor;
+
+    @Autowired
+    public CronTriggerEngine(
+            SchedulingCronTriggerRepository triggerRepository,
+            ObjectProvider<SchedulingService> schedulingServiceProvider,
+            @Value("${scheduling.trigger.engine:quartz}") String engine,
+            @Value("${scheduling.trigger.partitions:64}") int partitions,
+            @Value("${scheduling.trigger.lease-ms:30000}") long leaseMillis,
+            @Value("${scheduling.trigger.tick-ms:200}") long tickMillis,
+            @Value("${scheduling.trigger.refresh-ms:15000}") long refreshMillis,
+            @Value("${scheduling.trigger.fire-threads:4}") int fireThreads,
+            @Nullable MeterRegistry meterRegistry) {
+        this.triggerRepository = triggerRepository;
+        this.schedulingServiceProvider = schedulingServiceProvider;
+        this.enabled = ENGINE_WHEEL.equalsIgnoreCase(engine != null ? engine.trim() : null);
+        this.partitions = Math.max(1, partitions);
+        this.leaseMillis = Math.max(3000L, leaseMillis);
+        this.tickMillis = Math.max(10L, tickMillis);
+        this.refreshMillis = Math.max(this.tickMillis, refreshMillis);
+        this.fireThreads = Math.max(1, fireThreads);
+        this.nodeId = "cron-" + UUID.randomUUID().toString().substring(0, 8);
+        if (meterRegistry != null) {
+            this.firedCounter = Counter.builder("tiny.scheduling.cron.fired.total")
+                    .description("DAG cron fires dispatched by the lightweight trigger engine")
+                    .register(meterRegistry);
+            this.misfireCounter = Counter.builder("tiny.scheduling.cron.misfire.total")
+                    .description("Cron fires that were late by more than one tick and coalesced into a single fire")
+                    .register(meterRegistry);
+            Gauge.builder("tiny.scheduling.cron.wheel.size", wheel, CronTriggerWheel::size)
+                    .description("DAG cron triggers held in the in-memory wheel")
+                    .register(meterRegistry);
+            Gauge.builder("tiny.scheduling.cron.partitions.owned", this, e -> e.ownedPartitions.size())
+                    .description("Cron partitions leased by this node")
+                    .register(meterRegistry);
+        } else {
+            this.firedCounter = null;
+            this.misfireCounter = null;
+        }
+    }
+
+    /**
+     * 测试用：指定触发执行器，不启动 tick 线程
+     */
+    CronTriggerEngine(SchedulingCronTriggerRepository triggerRepository,
+                      ObjectProvider<SchedulingService> schedulingServiceProvider,
+                      int partitions,
+                      long leaseMillis,
+                      Executor fireExecutor) {
+        this(triggerRepository, schedulingServiceProvider, ENGINE_WHEEL, partitions, leaseMillis, 200, 15000, 1, null);
+        this.fireExecutor = fireExecutor;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 登记或更新 DAG 的 Cron；定义未变化时保留水位与暂停状态，变化时从当前时间重新开始（不补触发）
+     */
+    public void register(SchedulingDag dag, String cronExpression, String cronTimezone) throws ParseException {
+        CronTriggerWheel.Definition definition =
+                CronTriggerWheel.compile(dag.getId(), dag.getTenantId(), cronExpression, cronTimezone);
+        long now = System.currentTimeMillis();
+        SchedulingCronTriggerRepository.CronTriggerRow row = triggerRepository.findByDagId(dag.getId()).orElse(null);
+        if (row != null && definition.sameSchedule(row.cronExpression(), row.cronTimezone(), row.tenantId())) {
+            logger.debug("DAG Cron 配置已同步，跳过重复更新, dagId: {}", dag.getId());
+            apply(definition, row.paused(), row.lastFireAt());
+            return;
+        }
+        triggerRepository.saveDefinition(dag.getId(), dag.getTenantId(), definition.cronExpression(),
+                definition.timezoneId(), now);
+        apply(definition, false, now);
+        logger.info("登记 DAG Cron 触发, dagId: {}, cron: {}, timezone: {}, nextFireAt: {}",
+                dag.getId(), definition.cronExpression(), definition.timezoneId(),
+                new Date(wheel.nextFireTime(dag.getId())));
+    }
+
+    /**
+     * 修改 Cron 表达式，保留原时区；未登记的 DAG 忽略
+     */
+    public void updateCron(Long dagId, String cronExpression) throws ParseException {
+        SchedulingCronTriggerRepository.CronTriggerRow row = triggerRepository.findByDagId(dagId).orElse(null);
+        if (row == null) {
+            return;
+        }
+        SchedulingDag dag = new SchedulingDag();
+        dag.setId(dagId);
+        dag.setTenantId(row.tenantId());
+        register(dag, cronExpression, row.cronTimezone());
+    }
+
+    public void unregister(Long dagId) {
+        triggerRepository.delete(dagId);
+        definitions.remove(dagId);
+        wheel.remove(dagId);
+    }
+
+    public void pause(Long dagId) {
+        if (triggerRepository.updatePaused(dagId, true) > 0) {
+            wheel.remove(dagId);
+        }
+    }
+
+    /**
+     * 恢复后从水位重新计算下次触发，暂停期间错过的触发点合并为立即触发一次（与 Quartz 恢复暂停的 CronTrigger 一致）
+     */
+    public void resume(Long dagId) {
+        if (triggerRepository.updatePaused(dagId, false) == 0) {
+            return;
+        }
+        CronTriggerWheel.Definition definition = definitions.get(dagId);
+        if (definition != null) {
+            triggerRepository.findByDagId(dagId).ifPresent(row -> wheel.schedule(definition, row.lastFireAt()));
+        }
+    }
+
+    private void apply(CronTriggerWheel.Definition definition, boolean paused, long watermark) {
+        definitions.put(definition.dagId(), definition);
+        if (paused) {
+            wheel.remove(definition.dagId());
+        } else {
+            wheel.schedule(definition, watermark);
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        triggerRepository.ensurePartitions(partitions);
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(fireThreads, runnable -> {
+            Thread thread = new Thread(runnable, "scheduling-cron-fire-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        fireExecutor = pool;
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "scheduling-cron-" + nodeId);
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        ticker.scheduleWithFixedDelay(this::safeTick, 0, tickMillis, TimeUnit.MILLISECONDS);
+        logger.info("轻量 Cron 触发引擎启动, nodeId: {}, partitions: {}, leaseMs: {}, tickMs: {}",
+                nodeId, partitions, leaseMillis, tickMillis);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        ticker.shutdownNow();
+        for (Integer partition : ownedPartitions) {
+            try {
+                triggerRepository.releaseLease(partition, nodeId);
+            } catch (Exception e) {
+                logger.debug("释放 Cron 分区租约失败, partition: {}: {}", partition, e.getMessage());
+            }
+        }
+        ownedPartitions = Set.of();
+        try {
+            triggerRepository.deleteNode(nodeId);
+        } catch (Exception e) {
+            logger.debug("注销 Cron 节点心跳失败, nodeId: {}: {}", nodeId, e.getMessage());
+        }
+        if (fireExecutor instanceof ExecutorService pool) {
+            pool.shutdown();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void safeTick() {
+        try {
+            tick(System.currentTimeMillis());
+        } catch (Exception e) {
+            logger.error("Cron 触发周期失败, nodeId: {}", nodeId, e);
+        }
+    }
+
+    /**
+     * 一个 tick：按需续约、同步定义，然后触发到期且本节点持有分区的 DAG
+     */
+    void tick(long now) {
+        if (now >= nextLeaseAt) {
+            nextLeaseAt = now + leaseMillis / 3;
+            renewLeases(now);
+        }
+        if (now >= nextRefreshAt) {
+            nextRefreshAt = now + refreshMillis;
+            refresh(Set.of());
+        }
+        fireDue(now);
+    }
+
+    /**
+     * 写入心跳并续期已持有分区，按在线节点计算份额：多出的释放，不足的从过期分区中抢占；新抢到的分区从水位重算触发时间
+     */
+    void renewLeases(long now) {
+        long leaseUntil = now + leaseMillis;
+        List<SchedulingCronTriggerRepository.PartitionLease> leases;
+        TreeSet<String> liveNodes = new TreeSet<>();
+        try {
+            triggerRepository.heartbeat(nodeId, leaseUntil);
+            triggerRepository.deleteNodesExpiredBefore(now - leaseMillis);
+            liveNodes.addAll(triggerRepository.findLiveNodes(now));
+            leases = triggerRepository.findLeases(partitions);
+        } catch (Exception e) {
+            logger.warn("读取 Cron 分区租约失败，租约到期前沿用当前分区: {}", e.getMessage());
+            return;
+        }
+        liveNodes.add(nodeId);
+        TreeSet<Integer> mine = new TreeSet<>();
+        List<Integer> expired = new ArrayList<>();
+        for (SchedulingCronTriggerRepository.PartitionLease lease : leases) {
+            if (lease.leaseUntil() > now) {
+                // 持有未过期租约的节点必然在线，即使其心跳行尚未写入
+                liveNodes.add(lease.ownerId());
+                if (nodeId.equals(lease.ownerId())) {
+                    mine.add(lease.partition());
+                }
+            } else {
+                expired.add(lease.partition());
+            }
+        }
+        int target = shareOf(liveNodes);
+        if (!mine.isEmpty() && triggerRepository.renewLeases(nodeId, mine, leaseUntil) < mine.size()) {
+            // 读取与续期之间租约被接管，以库中归属为准
+            Set<Integer> confirmed = new HashSet<>();
+            for (SchedulingCronTriggerRepository.PartitionLease lease : triggerRepository.findLeases(partitions)) {
+                if (nodeId.equals(lease.ownerId()) && lease.leaseUntil() == leaseUntil) {
+                    confirmed.add(lease.partition());
+                }
+            }
+            logger.warn("部分 Cron 分区续约失败, nodeId: {}, 保留: {}", nodeId, confirmed);
+            mine.retainAll(confirmed);
+        }
+        while (mine.size() > target) {
+            Integer partition = mine.pollLast();
+            triggerRepository.releaseLease(partition, nodeId);
+        }
+        Set<Integer> acquired = new HashSet<>();
+        for (Integer partition : expired) {
+            if (mine.size() >= target) {
+                break;
+            }
+            if (triggerRepository.acquireLease(partition, nodeId, now, leaseUntil) == 1) {
+                mine.add(partition);
+                acquired.add(partition);
+            }
+        }
+        ownedPartitions = Set.copyOf(mine);
+        ownedUntil = leaseUntil;
+        if (!acquired.isEmpty()) {
+            logger.info("接管 Cron 分区, nodeId: {}, partitions: {}", nodeId, acquired);
+            refresh(acquired);
+        }
+    }
+
+    /**
+     * 以 scheduling_cron_trigger 为准同步定义；定义有变化或分区在 {@code reseedPartitions} 内的 DAG 从水位重算下次触发
+     */
+    void refresh(Set<Integer> reseedPartitions) {
+        List<SchedulingCronTriggerRepository.CronTriggerRow> rows;
+        try {
+            rows = triggerRepository.findAll();
+        } catch (Exception e) {
+            logger.warn("同步 Cron 定义失败: {}", e.getMessage());
+            return;
+        }
+        Map<Long, SchedulingCronTriggerRepository.CronTriggerRow> latest = new HashMap<>();
+        for (SchedulingCronTriggerRepository.CronTriggerRow row : rows) {
+            latest.put(row.dagId(), row);
+            CronTriggerWheel.Definition current = definitions.get(row.dagId());
+            boolean changed = current == null
+                    || !current.sameSchedule(row.cronExpression(), row.cronTimezone(), row.tenantId());
+            boolean pausedChanged = row.paused() != (current != null && wheel.nextFireTime(row.dagId()) < 0);
+            if (!changed && !pausedChanged && !reseedPartitions.contains(partitionOf(row.dagId()))) {
+                continue;
+            }
+            try {
+                CronTriggerWheel.Definition definition = changed
+                        ? CronTriggerWheel.compile(row.dagId(), row.tenantId(), row.cronExpression(), row.cronTimezone())
+                        : current;
+                apply(definition, row.paused(), row.lastFireAt());
+            } catch (ParseException e) {
+                logger.warn("Cron 表达式无效，跳过, dagId: {}, cron: {}", row.dagId(), row.cronExpression());
+            }
+        }
+        for (Long dagId : Set.copyOf(definitions.keySet())) {
+            if (!latest.containsKey(dagId)) {
+                definitions.remove(dagId);
+                wheel.remove(dagId);
+            }
+        }
+    }
+
+    private void fireDue(long now) {
+        for (CronTriggerWheel.Slot slot : wheel.pollDue(now)) {
+            CronTriggerWheel.Definition definition = slot.definition();
+            long watermark = Math.max(slot.fireAt(), now);
+            if (owns(definition.dagId(), now)) {
+                try {
+                    if (triggerRepository.advanceWatermark(definition.dagId(), slot.fireAt(), watermark) == 1) {
+                        if (misfireCounter != null && now - slot.fireAt() > tickMillis) {
+                            misfireCounter.increment();
+                        }
+                        dispatch(definition, slot.fireAt());
+                    }
+                } catch (Exception e) {
+                    // 水位未推进，下个 tick 重试同一触发点
+                    logger.warn("推进 Cron 水位失败, dagId: {}: {}", definition.dagId(), e.getMessage());
+                    wheel.schedule(definition, slot.fireAt() - 1);
+                    continue;
+                }
+            }
+            wheel.schedule(definition, watermark);
+        }
+    }
+
+    private void dispatch(CronTriggerWheel.Definition definition, long fireAt) {
+        SchedulingExecutionContext executionContext = SchedulingExecutionContext.builder()
+                .dagId(definition.dagId())
+                .executionTenantId(definition.tenantId())
+                .username(TRIGGERED_BY)
+                .triggerType("SCHEDULE")
+                .build();
+        fireExecutor.execute(() -> {
+            try {
+                schedulingServiceProvider.getObject().executeDag(executionContext);
+                if (firedCounter != null) {
+                    firedCounter.increment();
+                }
+            } catch (Exception e) {
+                logger.error("Cron 触发 DAG 执行失败, dagId: {}, fireAt: {}", definition.dagId(), fireAt, e);
+            }
+        });
+    }
+
+    /**
+     * 本节点的分区份额：按 node_id 排序后前 {@code partitions % n} 个节点多分一个，各节点份额之和恰为分区数
+     */
+    private int shareOf(TreeSet<String> liveNodes) {
+        int size = liveNodes.size();
+        int index = liveNodes.headSet(nodeId).size();
+        return partitions / size + (index < partitions % size ? 1 : 0);
+    }
+
+    private boolean owns(Long dagId, long now) {
+        return now < ownedUntil && ownedPartitions.contains(partitionOf(dagId));
+    }
+
+    int partitionOf(Long dagId) {
+        return (int) Math.floorMod(dagId, (long) partitions);
+    }
+
+    Set<Integer> ownedPartitions() {
+        return ownedPartitions;
+    }
+
+    long nextFireTime(Long dagId) {
+        return wheel.nextFireTime(dagId);
+    }
+}
@@ -0,0 +1,117 @@
+package com.tiny.platform.infrastructure.scheduling.service;
+
+import org.quartz.CronExpression;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TimeZone;
+import java.util.TreeSet;
+
+/**
+ * 按下次触发时间排序的内存时间轮。
+ *
+ * <p>每个 DAG 只保留一个待触发点，按 {@code (fireAt, dagId)} 排序；到期扫描只看头部，
+ * 插入与移除 O(log n)。Cron 下次触发时间由 {@link CronExpression} 计算，
+ * 表达式语法与时区解析和 {@link QuartzSchedulerService#createOrUpdateDagJob} 创建的 CronTrigger 一致。</p>
+ */
+final class CronTriggerWheel {
+
+    private static final Comparator<Slot> ORDER = Comparator
+            .comparingLong(Slot::fireAt)
+            .thenComparingLong(slot -> slot.definition().dagId());
+
+    private final TreeSet<Slot> slots = new TreeSet<>(ORDER);
+    private final Map<Long, Slot> byDag = new HashMap<>();
+
+    /**
+     * 编译 Cron 定义；时区为空时使用系统默认时区，与 Quartz CronTrigger 的行为一致
+     */
+    static Definition compile(Long dagId, Long tenantId, String cronExpression, String cronTimezone)
+            throws ParseException {
+        String expression = cronExpression.trim();
+        TimeZone timeZone = normalizeTimeZone(cronTimezone);
+        CronExpression cron = new CronExpression(expression);
+        cron.setTimeZone(timeZone);
+        return new Definition(dagId, tenantId, expression, timeZone.getID(), cron);
+    }
+
+    static TimeZone normalizeTimeZone(String cronTimezone) {
+        if (cronTimezone == null || cronTimezone.trim().isEmpty()) {
+            return TimeZone.getDefault();
+        }
+        return TimeZone.getTimeZone(cronTimezone.trim());
+    }
+
+    /**
+     * 按 {@code afterMillis} 之后的第一个触发点放入时间轮，替换该 DAG 已有的触发点；
+     * 表达式已无后续触发时间时移除
+     */
+    synchronized void schedule(Definition definition, long afterMillis) {
+        remove(definition.dagId());
+        long fireAt = definition.nextFireAfter(afterMillis);
+        if (fireAt < 0) {
+            return;
+        }
+        Slot slot = new Slot(fireAt, definition);
+        slots.add(slot);
+        byDag.put(definition.dagId(), slot);
+    }
+
+    synchronized void remove(Long dagId) {
+        Slot slot = byDag.remove(dagId);
+        if (slot != null) {
+            slots.remove(slot);
+        }
+    }
+
+    /**
+     * 取出所有 {@code fireAt <= nowMillis} 的触发点，按触发时间升序
+     */
+    synchronized List<Slot> pollDue(long nowMillis) {
+        List<Slot> due = new ArrayList<>();
+        while (!slots.isEmpty() && slots.first().fireAt() <= nowMillis) {
+            Slot slot = slots.pollFirst();
+            byDag.remove(slot.definition().dagId());
+            due.add(slot);
+        }
+        return due;
+    }
+
+    /**
+     * 该 DAG 在时间轮中的下次触发时间，不存在时返回 -1
+     */
+    synchronized long nextFireTime(Long dagId) {
+        Slot slot = byDag.get(dagId);
+        return slot != null ? slot.fireAt() : -1L;
+    }
+
+    synchronized int size() {
+        return byDag.size();
+    }
+
+    /**
+     * 已编译的 DAG Cron 定义
+     */
+    record Definition(Long dagId, Long tenantId, String cronExpression, String timezoneId, CronExpression cron) {
+
+        long nextFireAfter(long afterMillis) {
+            Date next = cron.getNextValidTimeAfter(new Date(afterMillis));
+            return next != null ? next.getTime() : -1L;
+        }
+
+        boolean sameSchedule(String otherCronExpression, String otherTimezoneId, Long otherTenantId) {
+            return cronExpression.equals(otherCronExpression)
+                    && timezoneId.equals(otherTimezoneId)
+                    && Objects.equals(tenantId, otherTenantId);
+        }
+    }
+
+    record Slot(long fireAt, Definition definition) {
+    }
+}
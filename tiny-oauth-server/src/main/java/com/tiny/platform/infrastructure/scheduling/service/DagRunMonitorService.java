@@ -2,6 +2,7 @@ package com.tiny.platform.infrastructure.scheduling.service;
 
 import com.tiny.platform.infrastructure.scheduling.model.SchedulingDagRun;
 import com.tiny.platform.infrastructure.scheduling.model.SchedulingTaskInstance;
+import com.tiny.platform.infrastructure.scheduling.repository.SchedulingDagRunCounterRepository;
 import com.tiny.platform.infrastructure.scheduling.repository.SchedulingDagRunRepository;
 import com.tiny.platform.infrastructure.scheduling.repository.SchedulingTaskInstanceRepository;
 import org.slf4j.Logger;
@@ -9,17 +10,24 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.Nullable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * DAG 运行监控服务
  * 负责监控 DAG 运行状态并更新最终状态，包括：不可达 PENDING→SKIPPED 收敛、Run 终态判定。
+ *
+ * <p>配置了 {@link DagRunStateMachine} 时，Run 在实例状态迁移时即时收敛，本服务退化为一致性检查：
+ * 每页 RUNNING Run 只做一次 GROUP BY 统计，与 Run 上的状态计数对账，修正漂移并补做遗漏的收敛。
+ * 未配置时沿用逐 Run 全量加载实例的 {@link #updateDagRunStatus(SchedulingDagRun)}。</p>
  */
 @Service
 public class DagRunMonitorService {
@@ -35,23 +43,42 @@ public class DagRunMonitorService {
     private final SchedulingDagRunRepository dagRunRepository;
     private final SchedulingTaskInstanceRepository taskInstanceRepository;
     private final DependencyCheckerService dependencyChecker;
+    @Nullable
+    private final DagRunStateMachine runStateMachine;
+    @Nullable
+    private final SchedulingDagRunCounterRepository counterRepository;
 
-    @Autowired
     public DagRunMonitorService(
             SchedulingDagRunRepository dagRunRepository,
             SchedulingTaskInstanceRepository taskInstanceRepository,
             DependencyCheckerService dependencyChecker) {
+        this(dagRunRepository, taskInstanceRepository, dependencyChecker, null, null);
+    }
+
+    @Autowired
+    public DagRunMonitorService(
+            SchedulingDagRunRepository dagRunRepository,
+            SchedulingTaskInstanceRepository taskInstanceRepository,
+            DependencyCheckerService dependencyChecker,
+            @Nullable DagRunStateMachine runStateMachine,
+            @Nullable SchedulingDagRunCounterRepository counterRepository) {
         this.dagRunRepository = dagRunRepository;
         this.taskInstanceRepository = taskInstanceRepository;
         this.dependencyChecker = dependencyChecker;
+        this.runStateMachine = runStateMachine;
+        this.counterRepository = counterRepository;
     }
 
     /**
      * 定时检查并更新 DAG 运行状态
-     * 每 10 秒执行一次
+     * 默认每 60 秒执行一次；Run 终态已由状态机在实例迁移时写入，这里只兜底
      */
-    @Scheduled(fixedDelay = 10000)
+    @Scheduled(fixedDelayString = "${scheduling.dag.monitor.fixed-delay-ms:60000}")
     public void monitorDagRuns() {
+        if (runStateMachine != null && counterRepository != null) {
+            reconcileDagRuns();
+            return;
+        }
         int processed = 0;
         try {
             while (processed < MAX_DAG_RUNS_PER_CYCLE) {
@@ -75,6 +102,45 @@ public class DagRunMonitorService {
         }
     }
 
+    /**
+     * 一致性检查：按页读取 RUNNING Run，一次 GROUP BY 得到整页的实例状态分布后逐个对账。
+     * 按 id 顺序翻页：对账中转为终态的 Run 会让后续页前移，少量漏检留给下一轮。
+     */
+    private void reconcileDagRuns() {
+        int processed = 0;
+        int corrected = 0;
+        int pageIndex = 0;
+        try {
+            while (processed < MAX_DAG_RUNS_PER_CYCLE) {
+                Page<SchedulingDagRun> page = dagRunRepository.findByStatus("RUNNING",
+                        PageRequest.of(pageIndex++, DAG_RUN_PAGE_SIZE, Sort.by("id")));
+                if (!page.hasContent()) {
+                    break;
+                }
+                Map<Long, SchedulingDagRunCounterRepository.InstanceCounts> countsByRun = counterRepository
+                        .countInstancesByRun(page.getContent().stream().map(SchedulingDagRun::getId).toList());
+                for (SchedulingDagRun run : page.getContent()) {
+                    if (processed >= MAX_DAG_RUNS_PER_CYCLE) {
+                        break;
+                    }
+                    SchedulingDagRunCounterRepository.InstanceCounts counts = countsByRun.get(run.getId());
+                    if (counts != null && runStateMachine.reconcile(run.getId(), run.getDagVersionId(), run.getTenantId(), counts)) {
+                        corrected++;
+                    }
+                    processed++;
+                }
+                if (page.getNumberOfElements() < DAG_RUN_PAGE_SIZE) {
+                    break;
+                }
+            }
+            if (corrected > 0) {
+                logger.info("DAG Run 一致性检查：检查 {} 个，修正计数 {} 个", processed, corrected);
+            }
+        } catch (Exception e) {
+            logger.error("DAG Run 一致性检查失败", e);
+        }
+    }
+
     /**
      * 更新 DAG 运行状态
      * 包含：不可达 PENDING→SKIPPED 收敛、按实例状态统计、Run 终态判定（不覆盖 CANCELLED）。
@@ -0,0 +1,295 @@
+package com.tiny.platform.infrastructure.scheduling.service;
+
+import com.tiny.platform.infrastructure.scheduling.model.SchedulingTaskInstance;
+import com.tiny.platform.infrastructure.scheduling.repository.SchedulingDagRunCounterRepository;
+import com.tiny.platform.infrastructure.scheduling.repository.SchedulingDagRunCounterRepository.Counters;
+import com.tiny.platform.infrastructure.scheduling.repository.SchedulingDagRunCounterRepository.InstanceCounts;
+import com.tiny.platform.infrastructure.scheduling.repository.SchedulingDagRunCounterRepository.RunState;
+import com.tiny.platform.infrastructure.scheduling.repository.SchedulingTaskInstanceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * DAG Run 增量状态机。
+ *
+ * <p>实例每次状态迁移（成功、最终失败、取消、跳过、重试恢复）都在同一事务内更新 Run 的分桶计数；
+ * 迁移到终态桶时读回计数：若 Run 存在失败且已无执行中实例，按缓存拓扑一次拓扑序遍历把不可达的 PENDING
+ * 置为 SKIPPED；active 归零即在这次迁移中写入 Run 终态。周期性的 {@link DagRunMonitorService} 只做计数对账兜底。</p>
+ */
+@Service
+public class DagRunStateMachine {
+
+    private static final Logger logger = LoggerFactory.getLogger(DagRunStateMachine.class);
+
+    private static final Set<String> ACTIVE_STATUSES = Set.of("PENDING", "RESERVED", "RUNNING", "PAUSED");
+    private static final Set<String> EXECUTING_STATUSES = Set.of("RESERVED", "RUNNING");
+    /** 上游处于这些状态时，下游 PENDING 视为不可达 */
+    private static final Set<String> UNREACHABLE_UPSTREAM_STATUSES = Set.of("FAILED", "CANCELLED", "SKIPPED");
+
+    private final SchedulingDagRunCounterRepository counterRepository;
+    private final SchedulingTaskInstanceRepository taskInstanceRepository;
+    private final DependencyCheckerService dependencyChecker;
+    @Nullable
+    private final SchedulingDagTopologyCache topologyCache;
+
+    @Autowired
+    public DagRunStateMachine(
+            SchedulingDagRunCounterRepository counterRepository,
+            SchedulingTaskInstanceRepository taskInstanceRepository,
+            DependencyCheckerService dependencyChecker,
+            @Nullable SchedulingDagTopologyCache topologyCache) {
+        this.counterRepository = counterRepository;
+        this.taskInstanceRepository = taskInstanceRepository;
+        this.dependencyChecker = dependencyChecker;
+        this.topologyCache = topologyCache;
+    }
+
+    /**
+     * Run 物化出一批实例后初始化计数。
+     */
+    @Transactional
+    public void onInstancesCreated(Long dagRunId, int count) {
+        if (dagRunId != null && count > 0) {
+            counterRepository.initialize(dagRunId, count);
+        }
+    }
+
+    /**
+     * 已有 Run 追加实例（节点触发、节点重试）。
+     */
+    @Transactional
+    public void onInstanceAdded(SchedulingTaskInstance instance) {
+        if (instance != null && instance.getDagRunId() != null) {
+            counterRepository.applyDelta(instance.getDagRunId(), new Counters(1, 0, 0, 0, 0));
+        }
+    }
+
+    /**
+     * 实例状态迁移：更新计数，迁移到终态桶时推进 Run（不可达传播与终态判定）。
+     */
+    @Transactional
+    public void onTransition(SchedulingTaskInstance instance, String fromStatus, String toStatus) {
+        if (!recordTransition(instance, fromStatus, toStatus)) {
+            return;
+        }
+        if (!ACTIVE_STATUSES.contains(toStatus)) {
+            advance(instance.getDagRunId(), instance.getDagVersionId(), instance.getTenantId());
+        }
+    }
+
+    /**
+     * 只更新计数、不推进 Run；用于调用方自行维护 Run 状态的场景（如取消整个 Run）。
+     *
+     * @return 计数是否发生变化
+     */
+    @Transactional
+    public boolean recordTransition(SchedulingTaskInstance instance, String fromStatus, String toStatus) {
+        if (instance == null || instance.getDagRunId() == null) {
+            return false;
+        }
+        Counters delta = delta(fromStatus, toStatus);
+        if (delta.isZero()) {
+            return false;
+        }
+        return counterRepository.applyDelta(instance.getDagRunId(), delta) > 0;
+    }
+
+    /**
+     * 整个 Run 被取消时同步计数（active 实例转为 CANCELLED），Run 终态由调用方写入。
+     */
+    @Transactional
+    public void recordCancelled(Long dagRunId, int count) {
+        if (dagRunId != null && count > 0) {
+            counterRepository.applyDelta(dagRunId, new Counters(-count, 0, 0, 0, count));
+        }
+    }
+
+    /**
+     * 一致性检查：以实例表统计覆盖漂移的计数，并补做不可达传播与终态判定。
+     *
+     * @return 计数是否被修正
+     */
+    @Transactional
+    public boolean reconcile(Long dagRunId, Long dagVersionId, Long tenantId, InstanceCounts actual) {
+        RunState state = counterRepository.findState(dagRunId).orElse(null);
+        if (state == null || !"RUNNING".equals(state.status())) {
+            return false;
+        }
+        boolean corrected = !actual.counters().equals(state.counters());
+        if (corrected) {
+            if (state.counters() != null) {
+                logger.warn("DAG Run {} 状态计数漂移，按实例表修正: {} -> {}", dagRunId, state.counters(), actual.counters());
+            }
+            counterRepository.overwrite(dagRunId, actual.counters());
+        }
+        if (actual.counters().total() > 0) {
+            advance(dagRunId, dagVersionId, tenantId);
+        }
+        return corrected;
+    }
+
+    private void advance(Long dagRunId, Long dagVersionId, Long tenantId) {
+        RunState state = counterRepository.findState(dagRunId).orElse(null);
+        if (state == null || state.counters() == null || !"RUNNING".equals(state.status())) {
+            return;
+        }
+        Counters counters = state.counters();
+        boolean hasUnreachableSource = counters.failed() + counters.cancelled() + counters.skipped() > 0;
+        // 与旧监控一致：仅当 Run 已无执行中实例时才传播 SKIPPED，避免用户重试上游前下游被过早跳过
+        if (hasUnreachableSource && counters.active() > 0
+                && !taskInstanceRepository.existsByDagRunIdAndStatusIn(dagRunId, EXECUTING_STATUSES)) {
+            int skipped = propagateUnreachable(dagRunId, dagVersionId, tenantId);
+            if (skipped > 0) {
+                counterRepository.applyDelta(dagRunId, new Counters(-skipped, 0, 0, skipped, 0));
+                counters = new Counters(counters.active() - skipped, counters.success(), counters.failed(),
+                        counters.skipped() + skipped, counters.cancelled());
+            }
+        }
+        if (counters.active() > 0) {
+            return;
+        }
+        String terminalStatus = resolveTerminalStatus(counters);
+        if (counterRepository.finish(dagRunId, terminalStatus, LocalDateTime.now()) > 0) {
+            if (topologyCache != null) {
+                topologyCache.evictRun(dagRunId);
+            }
+            logger.info("DAG Run {} 状态更新: RUNNING -> {}, 成功: {}, 失败: {}, 跳过: {}, 取消: {}",
+                    dagRunId, terminalStatus, counters.success(), counters.failed(), counters.skipped(), counters.cancelled());
+        }
+    }
+
+    /**
+     * 一次加载 Run 实例，按拓扑序把上游不可达的 PENDING 置为 SKIPPED（传递性地一次完成）。
+     */
+    private int propagateUnreachable(Long dagRunId, Long dagVersionId, Long tenantId) {
+        List<SchedulingTaskInstance> instances = taskInstanceRepository.findByDagRunId(dagRunId);
+        List<SchedulingTaskInstance> skipped = topologyCache != null && dagVersionId != null
+                ? propagateByTopology(instances, topologyCache.get(dagVersionId, tenantId))
+                : propagateByFixedPoint(instances);
+        if (!skipped.isEmpty()) {
+            taskInstanceRepository.saveAll(skipped);
+            logger.info("DAG Run {} 上游失败，{} 个不可达实例置为 SKIPPED", dagRunId, skipped.size());
+        }
+        return skipped.size();
+    }
+
+    private List<SchedulingTaskInstance> propagateByTopology(List<SchedulingTaskInstance> instances,
+                                                             SchedulingDagTopology topology) {
+        // 同一节点可能有多条实例（重试新建），只认 id 最大的那条
+        Map<String, SchedulingTaskInstance> latestByNode = new HashMap<>();
+        for (SchedulingTaskInstance instance : instances) {
+            if (instance.getNodeCode() == null) {
+                continue;
+            }
+            latestByNode.merge(instance.getNodeCode(), instance, (a, b) -> {
+                if (a.getId() == null) return b;
+                if (b.getId() == null) return a;
+                return a.getId() < b.getId() ? b : a;
+            });
+        }
+        boolean[] unreachable = new boolean[topology.nodeCount()];
+        List<SchedulingTaskInstance> skipped = new ArrayList<>();
+        for (int node : topology.topologicalOrder()) {
+            SchedulingTaskInstance latest = latestByNode.get(topology.nodeCode(node));
+            if (latest == null) {
+                continue;
+            }
+            if (UNREACHABLE_UPSTREAM_STATUSES.contains(latest.getStatus())) {
+                unreachable[node] = true;
+                continue;
+            }
+            if (!"PENDING".equals(latest.getStatus())) {
+                continue;
+            }
+            for (int upstream : topology.upstreamIndexes(node)) {
+                if (unreachable[upstream]) {
+                    latest.setStatus("SKIPPED");
+                    skipped.add(latest);
+                    unreachable[node] = true;
+                    break;
+                }
+            }
+        }
+        return skipped;
+    }
+
+    /**
+     * 无拓扑缓存时的退化路径：在已加载的实例列表上做不动点迭代，不再每轮回查数据库。
+     */
+    private List<SchedulingTaskInstance> propagateByFixedPoint(List<SchedulingTaskInstance> instances) {
+        List<SchedulingTaskInstance> skipped = new ArrayList<>();
+        boolean changed;
+        do {
+            changed = false;
+            for (SchedulingTaskInstance instance : instances) {
+                if ("PENDING".equals(instance.getStatus())
+                        && dependencyChecker.hasAnyUpstreamInTerminalFailOrSkipped(instance, instances)) {
+                    instance.setStatus("SKIPPED");
+                    skipped.add(instance);
+                    changed = true;
+                }
+            }
+        } while (changed);
+        return skipped;
+    }
+
+    /**
+     * 终态判定，与原全量扫描规则一致：全部成功为 SUCCESS；有失败时按是否有成功区分 PARTIAL_FAILED / FAILED；
+     * 全部取消为 CANCELLED；其余（成功、跳过混合）为 SUCCESS。
+     */
+    static String resolveTerminalStatus(Counters counters) {
+        if (counters.success() == counters.total()) {
+            return "SUCCESS";
+        }
+        if (counters.failed() > 0) {
+            return counters.success() > 0 ? "PARTIAL_FAILED" : "FAILED";
+        }
+        if (counters.cancelled() == counters.total()) {
+            return "CANCELLED";
+        }
+        return "SUCCESS";
+    }
+
+    static Counters delta(String fromStatus, String toStatus) {
+        int[] delta = new int[5];
+        int from = bucket(fromStatus);
+        int to = bucket(toStatus);
+        if (from == to) {
+            return Counters.ZERO;
+        }
+        if (from >= 0) {
+            delta[from]--;
+        }
+        if (to >= 0) {
+            delta[to]++;
+        }
+        return new Counters(delta[0], delta[1], delta[2], delta[3], delta[4]);
+    }
+
+    private static int bucket(String status) {
+        if (status == null) {
+            return -1;
+        }
+        if (ACTIVE_STATUSES.contains(status)) {
+            return 0;
+        }
+        return switch (status) {
+            case "SUCCESS" -> 1;
+            case "FAILED" -> 2;
+            case "SKIPPED" -> 3;
+            case "CANCELLED" -> 4;
+            default -> -1;
+        };
+    }
+}
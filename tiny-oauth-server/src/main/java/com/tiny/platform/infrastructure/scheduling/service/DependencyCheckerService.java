@@ -6,6 +6,7 @@ import com.tiny.platform.infrastructure.scheduling.repository.SchedulingDagEdgeR
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -16,6 +17,8 @@ import java.util.stream.Collectors;
 /**
  * 依赖检查服务
  * 负责检查任务实例的依赖关系是否满足，以及是否因上游失败/取消而不可达（用于 DAG 运行状态收敛）。
+ * 配置了 {@link SchedulingDagTopologyCache} 时上游节点取自内存拓扑，已成功的上游由 Run 成功位图判定，
+ * 只对位图中尚未确认的上游回查数据库。
  */
 @Service
 public class DependencyCheckerService {
@@ -27,13 +30,23 @@ public class DependencyCheckerService {
 
     private final SchedulingTaskInstanceRepository taskInstanceRepository;
     private final SchedulingDagEdgeRepository dagEdgeRepository;
+    @Nullable
+    private final SchedulingDagTopologyCache topologyCache;
 
-    @Autowired
     public DependencyCheckerService(
             SchedulingTaskInstanceRepository taskInstanceRepository,
             SchedulingDagEdgeRepository dagEdgeRepository) {
+        this(taskInstanceRepository, dagEdgeRepository, null);
+    }
+
+    @Autowired
+    public DependencyCheckerService(
+            SchedulingTaskInstanceRepository taskInstanceRepository,
+            SchedulingDagEdgeRepository dagEdgeRepository,
+            @Nullable SchedulingDagTopologyCache topologyCache) {
         this.taskInstanceRepository = taskInstanceRepository;
         this.dagEdgeRepository = dagEdgeRepository;
+        this.topologyCache = topologyCache;
     }
 
     /**
@@ -44,15 +57,12 @@ public class DependencyCheckerService {
             logger.warn("任务实例缺少必要信息，无法检查依赖, instanceId: {}", instance.getId());
             return false;
         }
+        if (topologyCache != null && instance.getDagRunId() != null) {
+            return checkDependenciesWithTopology(instance);
+        }
 
         // 1. 查找所有上游节点（依赖的节点）；无请求上下文时按租户过滤
-        List<String> upstreamNodeCodes = (instance.getTenantId() != null
-                ? dagEdgeRepository.findByDagVersionIdAndToNodeCodeAndTenantId(
-                        instance.getDagVersionId(), instance.getNodeCode(), instance.getTenantId())
-                : dagEdgeRepository.findByDagVersionIdAndToNodeCode(instance.getDagVersionId(), instance.getNodeCode()))
-                .stream()
-                .map(edge -> edge.getFromNodeCode())
-                .collect(Collectors.toList());
+        List<String> upstreamNodeCodes = findUpstreamNodeCodes(instance);
 
         if (upstreamNodeCodes.isEmpty()) {
             return true;
@@ -69,10 +79,64 @@ public class DependencyCheckerService {
         return allCompleted;
     }
 
+    private boolean checkDependenciesWithTopology(SchedulingTaskInstance instance) {
+        SchedulingDagTopology topology = topologyCache.get(instance.getDagVersionId(), instance.getTenantId());
+        int[] upstreams = topology.upstreamIndexes(topology.indexOf(instance.getNodeCode()));
+        if (upstreams.length == 0) {
+            return true;
+        }
+        SchedulingDagTopologyCache.RunCompletion completion = topologyCache.runCompletion(instance.getDagRunId(), topology);
+        int[] unconfirmed = completion.unconfirmed(upstreams);
+        if (unconfirmed.length == 0) {
+            return true;
+        }
+        // 位图未覆盖的上游（其他 Worker 完成或本节点重启前完成）回查一次，查到的成功节点补入位图
+        List<String> unconfirmedCodes = new java.util.ArrayList<>(unconfirmed.length);
+        for (int index : unconfirmed) {
+            unconfirmedCodes.add(topology.nodeCode(index));
+        }
+        List<String> succeededCodes = taskInstanceRepository.findDistinctNodeCodesByDagRunIdAndNodeCodeInAndStatus(
+                instance.getDagRunId(), unconfirmedCodes, "SUCCESS");
+        succeededCodes.forEach(code -> completion.markSucceeded(topology.indexOf(code)));
+        boolean allCompleted = succeededCodes.size() == unconfirmedCodes.size();
+        if (!allCompleted) {
+            logger.debug("任务实例 {} 的上游任务未全部完成, 需要: {}, 已成功: {}",
+                    instance.getId(), upstreams.length, upstreams.length - unconfirmedCodes.size() + succeededCodes.size());
+        }
+        return allCompleted;
+    }
+
+    /**
+     * 记录节点成功，供同一 Run 后续的依赖检查直接命中位图。
+     */
+    public void recordSuccess(SchedulingTaskInstance instance) {
+        if (topologyCache != null && instance != null) {
+            topologyCache.markSucceeded(
+                    instance.getDagRunId(), instance.getDagVersionId(), instance.getTenantId(), instance.getNodeCode());
+        }
+    }
+
+    private List<String> findUpstreamNodeCodes(SchedulingTaskInstance instance) {
+        if (topologyCache != null) {
+            return topologyCache.get(instance.getDagVersionId(), instance.getTenantId())
+                    .upstreamNodeCodes(instance.getNodeCode());
+        }
+        return (instance.getTenantId() != null
+                ? dagEdgeRepository.findByDagVersionIdAndToNodeCodeAndTenantId(
+                        instance.getDagVersionId(), instance.getNodeCode(), instance.getTenantId())
+                : dagEdgeRepository.findByDagVersionIdAndToNodeCode(instance.getDagVersionId(), instance.getNodeCode()))
+                .stream()
+                .map(edge -> edge.getFromNodeCode())
+                .collect(Collectors.toList());
+    }
+
     /**
      * 检查是否是下游任务
      */
     public boolean isDownstreamTask(String fromNodeCode, String toNodeCode, Long dagVersionId) {
+        if (topologyCache != null) {
+            return topologyCache.get(dagVersionId, null).downstreamNodeCodes(fromNodeCode).contains(toNodeCode);
+        }
         return dagEdgeRepository
                 .findByDagVersionIdAndFromNodeCode(dagVersionId, fromNodeCode)
                 .stream()
@@ -95,13 +159,7 @@ public class DependencyCheckerService {
         if (instance.getDagVersionId() == null || instance.getNodeCode() == null) {
             return false;
         }
-        List<String> upstreamNodeCodes = (instance.getTenantId() != null
-                ? dagEdgeRepository.findByDagVersionIdAndToNodeCodeAndTenantId(
-                        instance.getDagVersionId(), instance.getNodeCode(), instance.getTenantId())
-                : dagEdgeRepository.findByDagVersionIdAndToNodeCode(instance.getDagVersionId(), instance.getNodeCode()))
-                .stream()
-                .map(edge -> edge.getFromNodeCode())
-                .collect(Collectors.toList());
+        List<String> upstreamNodeCodes = findUpstreamNodeCodes(instance);
         if (upstreamNodeCodes.isEmpty()) {
             return false;
         }
@@ -11,10 +11,14 @@ import java.math.BigDecimal;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 /**
  * 轻量级 JSON Schema 校验服务。
  * 仅支持 required/ type / enum / minimum / maximum / minLength / maxLength / pattern / properties。
+ *
+ * <p>Schema 首次使用时编译为不可变的校验节点树（正则预编译、边界值预解析、enum 预转换），
+ * 按 Schema 文本缓存；每次执行只按节点树遍历参数，路径字符串仅在出错时拼接。</p>
  */
 @Service
 public class JsonSchemaValidationService {
@@ -22,7 +26,7 @@ public class JsonSchemaValidationService {
     private static final Logger logger = LoggerFactory.getLogger(JsonSchemaValidationService.class);
 
     private final ObjectMapper objectMapper;
-    private final Map<String, JsonNode> schemaCache = new ConcurrentHashMap<>();
+    private final Map<String, ObjectValidator> schemaCache = new ConcurrentHashMap<>();
 
     public JsonSchemaValidationService(ObjectMapper objectMapper) {
         this.objectMapper = objectMapper;
@@ -32,19 +36,7 @@ public class JsonSchemaValidationService {
         if (schemaJson == null || schemaJson.trim().isEmpty()) {
             return;
         }
-        try {
-            schemaCache.computeIfAbsent(schemaJson, key -> {
-                try {
-                    return objectMapper.readTree(key);
-                } catch (Exception e) {
-                    throw SchedulingExceptions.validation("解析 JSON Schema 失败，请检查 Schema 格式");
-                }
-            });
-        } catch (RuntimeException e) {
-            throw e;
-        } catch (Exception e) {
-            throw SchedulingExceptions.validation("解析 JSON Schema 失败，请检查 Schema 格式");
-        }
+        compiled(schemaJson);
     }
 
     public void validate(String schemaJson, Map<String, Object> params) {
@@ -52,14 +44,14 @@ public class JsonSchemaValidationService {
             return;
         }
         try {
-            JsonNode schemaNode = schemaCache.computeIfAbsent(schemaJson, key -> {
-                try {
-                    return objectMapper.readTree(key);
-                } catch (Exception e) {
-                    throw SchedulingExceptions.validation("解析 JSON Schema 失败，请检查 Schema 格式");
-                }
-            });
-            doValidate(schemaNode, params, "$");
+            ObjectValidator root = compiled(schemaJson);
+            List<String> errors = new ArrayList<>();
+            root.validateMembers(params, null, errors);
+            if (!errors.isEmpty()) {
+                String message = String.join("; ", errors);
+                logger.warn("参数校验失败: {}", message);
+                throw new IllegalArgumentException("参数校验失败: " + message);
+            }
         } catch (RuntimeException e) {
             throw e;
         } catch (Exception e) {
@@ -67,123 +59,73 @@ public class JsonSchemaValidationService {
         }
     }
 
-    private void doValidate(JsonNode schemaNode, Map<String, Object> params, String path) {
-        List<String> errors = new ArrayList<>();
+    private ObjectValidator compiled(String schemaJson) {
+        return schemaCache.computeIfAbsent(schemaJson, key -> {
+            JsonNode schemaNode;
+            try {
+                schemaNode = objectMapper.readTree(key);
+            } catch (Exception e) {
+                throw SchedulingExceptions.validation("解析 JSON Schema 失败，请检查 Schema 格式");
+            }
+            try {
+                return compileObject(schemaNode, null);
+            } catch (PatternSyntaxException e) {
+                throw SchedulingExceptions.validation("JSON Schema 中的正则表达式无效: %s", e.getPattern());
+            }
+        });
+    }
+
+    // ==================== 编译 ====================
 
-        // required
-        JsonNode requiredNode = schemaNode.get("required");
+    private ObjectValidator compileObject(JsonNode schema, List<Object> enumValues) {
+        List<String> required = new ArrayList<>();
+        JsonNode requiredNode = schema.get("required");
         if (requiredNode != null && requiredNode.isArray()) {
             for (JsonNode field : requiredNode) {
-                String name = field.asText();
-                if (!params.containsKey(name) || params.get(name) == null) {
-                    errors.add(path + "." + name + " 为必填字段");
-                }
+                required.add(field.asText());
             }
         }
-
-        JsonNode propertiesNode = schemaNode.get("properties");
+        List<PropertyValidator> properties = new ArrayList<>();
+        JsonNode propertiesNode = schema.get("properties");
         if (propertiesNode != null && propertiesNode.isObject()) {
-            Iterator<String> fieldNames = propertiesNode.fieldNames();
-            while (fieldNames.hasNext()) {
-                String key = fieldNames.next();
-                JsonNode propSchema = propertiesNode.get(key);
-                Object value = params.get(key);
-                if (value == null) {
-                    continue;
-                }
-                validateProperty(path + "." + key, propSchema, value, errors);
+            Iterator<Map.Entry<String, JsonNode>> fields = propertiesNode.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                properties.add(new PropertyValidator(field.getKey(), compile(field.getValue())));
             }
         }
-
-        if (!errors.isEmpty()) {
-            String message = String.join("; ", errors);
-            logger.warn("参数校验失败: {}", message);
-            throw new IllegalArgumentException("参数校验失败: " + message);
-        }
+        return new ObjectValidator(required.toArray(String[]::new), properties.toArray(PropertyValidator[]::new),
+                enumValues);
     }
 
-    @SuppressWarnings("unchecked")
-    private void validateProperty(String path, JsonNode schema, Object value, List<String> errors) {
-        String type = schema.has("type") ? schema.get("type").asText() : null;
-
-        if (type != null) {
-            switch (type) {
-                case "string":
-                    if (!(value instanceof String)) {
-                        errors.add(path + " 应为字符串");
-                        return;
-                    }
-                    String str = (String) value;
-                    if (schema.has("minLength") && str.length() < schema.get("minLength").asInt()) {
-                        errors.add(path + " 长度不能小于 " + schema.get("minLength").asInt());
-                    }
-                    if (schema.has("maxLength") && str.length() > schema.get("maxLength").asInt()) {
-                        errors.add(path + " 长度不能大于 " + schema.get("maxLength").asInt());
-                    }
-                    if (schema.has("pattern")) {
-                        Pattern pattern = Pattern.compile(schema.get("pattern").asText());
-                        if (!pattern.matcher(str).matches()) {
-                            errors.add(path + " 不匹配正则表达式 " + schema.get("pattern").asText());
-                        }
-                    }
-                    break;
-                case "number":
-                case "integer":
-                    if (!(value instanceof Number)) {
-                        errors.add(path + " 应为数字");
-                        return;
-                    }
-                    BigDecimal number = new BigDecimal(value.toString());
-                    if (schema.has("minimum") && number.compareTo(schema.get("minimum").decimalValue()) < 0) {
-                        errors.add(path + " 不能小于 " + schema.get("minimum").asText());
-                    }
-                    if (schema.has("maximum") && number.compareTo(schema.get("maximum").decimalValue()) > 0) {
-                        errors.add(path + " 不能大于 " + schema.get("maximum").asText());
-                    }
-                    break;
-                case "boolean":
-                    if (!(value instanceof Boolean)) {
-                        errors.add(path + " 应为布尔值");
-                    }
-                    break;
-                case "object":
-                    if (!(value instanceof Map)) {
-                        errors.add(path + " 应为对象");
-                        return;
-                    }
-                    doValidate(schema, (Map<String, Object>) value, path);
-                    break;
-                case "array":
-                    if (!(value instanceof List<?> listValue)) {
-                        errors.add(path + " 应为数组");
-                        return;
-                    }
-                    JsonNode items = schema.get("items");
-                    if (items != null && items.isObject()) {
-                        for (int i = 0; i < listValue.size(); i++) {
-                            Object element = listValue.get(i);
-                            validateProperty(path + "[" + i + "]", items, element, errors);
-                        }
-                    }
-                    break;
-                default:
-                    break;
-            }
-        }
-
-        // enum
+    private Validator compile(JsonNode schema) {
+        List<Object> enumValues = null;
         if (schema.has("enum") && schema.get("enum").isArray()) {
-            boolean match = false;
+            enumValues = new ArrayList<>();
             for (JsonNode enumNode : schema.get("enum")) {
-                if (Objects.equals(convertJsonNode(enumNode), value)) {
-                    match = true;
-                    break;
-                }
-            }
-            if (!match) {
-                errors.add(path + " 值不在允许范围内");
+                enumValues.add(convertJsonNode(enumNode));
             }
+            enumValues = Collections.unmodifiableList(enumValues);
         }
+        String type = schema.has("type") ? schema.get("type").asText() : "";
+        return switch (type) {
+            case "string" -> new StringValidator(
+                    schema.has("minLength") ? schema.get("minLength").asInt() : null,
+                    schema.has("maxLength") ? schema.get("maxLength").asInt() : null,
+                    schema.has("pattern") ? schema.get("pattern").asText() : null,
+                    enumValues);
+            case "number", "integer" -> new NumberValidator(
+                    schema.has("minimum") ? schema.get("minimum") : null,
+                    schema.has("maximum") ? schema.get("maximum") : null,
+                    enumValues);
+            case "boolean" -> new BooleanValidator(enumValues);
+            case "object" -> compileObject(schema, enumValues);
+            case "array" -> {
+                JsonNode items = schema.get("items");
+                yield new ArrayValidator(items != null && items.isObject() ? compile(items) : null, enumValues);
+            }
+            default -> new Validator(enumValues);
+        };
     }
 
     private Object convertJsonNode(JsonNode node) {
@@ -201,4 +143,224 @@ public class JsonSchemaValidationService {
         }
         return node.toString();
     }
+
+    // ==================== 校验节点 ====================
+
+    /**
+     * 校验路径，仅在出错时拼接为 {@code $.a.b[0]}
+     */
+    private record Path(Path parent, String name, int index) {
+
+        static Path child(Path parent, String name) {
+            return new Path(parent, name, -1);
+        }
+
+        static Path element(Path parent, int index) {
+            return new Path(parent, null, index);
+        }
+
+        static String render(Path path) {
+            if (path == null) {
+                return "$";
+            }
+            StringBuilder builder = new StringBuilder();
+            path.appendTo(builder);
+            return builder.toString();
+        }
+
+        static String render(Path parent, String name) {
+            return render(parent) + "." + name;
+        }
+
+        private void appendTo(StringBuilder builder) {
+            if (parent != null) {
+                parent.appendTo(builder);
+            } else {
+                builder.append('$');
+            }
+            if (name != null) {
+                builder.append('.').append(name);
+            } else {
+                builder.append('[').append(index).append(']');
+            }
+        }
+    }
+
+    /**
+     * 无类型约束的节点，只校验 enum
+     */
+    private static class Validator {
+
+        private final List<Object> enumValues;
+
+        Validator(List<Object> enumValues) {
+            this.enumValues = enumValues;
+        }
+
+        /**
+         * 类型不匹配时返回 false，跳过 enum 校验
+         */
+        boolean validateType(Object value, Path path, List<String> errors) {
+            return true;
+        }
+
+        final void validate(Object value, Path path, List<String> errors) {
+            if (!validateType(value, path, errors)) {
+                return;
+            }
+            if (enumValues != null && !enumValues.contains(value)) {
+                errors.add(Path.render(path) + " 值不在允许范围内");
+            }
+        }
+    }
+
+    private record PropertyValidator(String name, Validator validator) {
+    }
+
+    private static final class ObjectValidator extends Validator {
+
+        private final String[] required;
+        private final PropertyValidator[] properties;
+
+        ObjectValidator(String[] required, PropertyValidator[] properties, List<Object> enumValues) {
+            super(enumValues);
+            this.required = required;
+            this.properties = properties;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        boolean validateType(Object value, Path path, List<String> errors) {
+            if (!(value instanceof Map)) {
+                errors.add(Path.render(path) + " 应为对象");
+                return false;
+            }
+            validateMembers((Map<String, Object>) value, path, errors);
+            return true;
+        }
+
+        void validateMembers(Map<String, Object> params, Path path, List<String> errors) {
+            for (String name : required) {
+                if (params.get(name) == null) {
+                    errors.add(Path.render(path, name) + " 为必填字段");
+                }
+            }
+            for (PropertyValidator property : properties) {
+                Object value = params.get(property.name());
+                if (value != null) {
+                    property.validator().validate(value, Path.child(path, property.name()), errors);
+                }
+            }
+        }
+    }
+
+    private static final class StringValidator extends Validator {
+
+        private final Integer minLength;
+        private final Integer maxLength;
+        private final Pattern pattern;
+        private final String patternText;
+
+        StringValidator(Integer minLength, Integer maxLength, String patternText, List<Object> enumValues) {
+            super(enumValues);
+            this.minLength = minLength;
+            this.maxLength = maxLength;
+            this.patternText = patternText;
+            this.pattern = patternText != null ? Pattern.compile(patternText) : null;
+        }
+
+        @Override
+        boolean validateType(Object value, Path path, List<String> errors) {
+            if (!(value instanceof String str)) {
+                errors.add(Path.render(path) + " 应为字符串");
+                return false;
+            }
+            if (minLength != null && str.length() < minLength) {
+                errors.add(Path.render(path) + " 长度不能小于 " + minLength);
+            }
+            if (maxLength != null && str.length() > maxLength) {
+                errors.add(Path.render(path) + " 长度不能大于 " + maxLength);
+            }
+            if (pattern != null && !pattern.matcher(str).matches()) {
+                errors.add(Path.render(path) + " 不匹配正则表达式 " + patternText);
+            }
+            return true;
+        }
+    }
+
+    private static final class NumberValidator extends Validator {
+
+        private final BigDecimal minimum;
+        private final BigDecimal maximum;
+        private final String minimumText;
+        private final String maximumText;
+
+        NumberValidator(JsonNode minimum, JsonNode maximum, List<Object> enumValues) {
+            super(enumValues);
+            this.minimum = minimum != null ? minimum.decimalValue() : null;
+            this.maximum = maximum != null ? maximum.decimalValue() : null;
+            this.minimumText = minimum != null ? minimum.asText() : null;
+            this.maximumText = maximum != null ? maximum.asText() : null;
+        }
+
+        @Override
+        boolean validateType(Object value, Path path, List<String> errors) {
+            if (!(value instanceof Number)) {
+                errors.add(Path.render(path) + " 应为数字");
+                return false;
+            }
+            if (minimum == null && maximum == null) {
+                return true;
+            }
+            BigDecimal number = value instanceof Integer || value instanceof Long
+                    ? BigDecimal.valueOf(((Number) value).longValue())
+                    : new BigDecimal(value.toString());
+            if (minimum != null && number.compareTo(minimum) < 0) {
+                errors.add(Path.render(path) + " 不能小于 " + minimumText);
+            }
+            if (maximum != null && number.compareTo(maximum) > 0) {
+                errors.add(Path.render(path) + " 不能大于 " + maximumText);
+            }
+            return true;
+        }
+    }
+
+    private static final class BooleanValidator extends Validator {
+
+        BooleanValidator(List<Object> enumValues) {
+            super(enumValues);
+        }
+
+        @Override
+        boolean validateType(Object value, Path path, List<String> errors) {
+            if (!(value instanceof Boolean)) {
+                errors.add(Path.render(path) + " 应为布尔值");
+            }
+            return true;
+        }
+    }
+
+    private static final class ArrayValidator extends Validator {
+
+        private final Validator items;
+
+        ArrayValidator(Validator items, List<Object> enumValues) {
+            super(enumValues);
+            this.items = items;
+        }
+
+        @Override
+        boolean validateType(Object value, Path path, List<String> errors) {
+            if (!(value instanceof List<?> listValue)) {
+                errors.add(Path.render(path) + " 应为数组");
+                return false;
+            }
+            if (items != null) {
+                for (int i = 0; i < listValue.size(); i++) {
+                    items.validate(listValue.get(i), Path.element(path, i), errors);
+                }
+            }
+            return true;
+        }
+    }
 }
@@ -5,10 +5,13 @@ import com.tiny.platform.infrastructure.scheduling.job.DagExecutionJob;
 import org.quartz.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.env.Environment;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.text.ParseException;
 import java.util.Objects;
 import java.util.TimeZone;
 import java.util.UUID;
@@ -16,6 +19,9 @@ import java.util.UUID;
 /**
  * Quartz 调度器服务
  * 负责管理 Quartz Job 和 Trigger
+ *
+ * <p>{@code scheduling.trigger.engine=wheel} 时 DAG 的 Cron 登记、暂停、恢复与删除改由 {@link CronTriggerEngine} 处理，
+ * 不再写入 Quartz JobStore；手动触发与集群状态仍走 Quartz。</p>
  */
 @Service
 public class QuartzSchedulerService {
@@ -24,10 +30,24 @@ public class QuartzSchedulerService {
 
     private final Scheduler scheduler;
     private final Environment environment;
+    @Nullable
+    private final CronTriggerEngine cronTriggerEngine;
 
     public QuartzSchedulerService(Scheduler scheduler, Environment environment) {
+        this(scheduler, environment, null);
+    }
+
+    @Autowired
+    public QuartzSchedulerService(Scheduler scheduler,
+                                  Environment environment,
+                                  @Nullable CronTriggerEngine cronTriggerEngine) {
         this.scheduler = scheduler;
         this.environment = environment;
+        this.cronTriggerEngine = cronTriggerEngine;
+    }
+
+    private boolean useCronTriggerEngine() {
+        return cronTriggerEngine != null && cronTriggerEngine.isEnabled();
     }
 
     /**
@@ -43,6 +63,17 @@ public class QuartzSchedulerService {
             return;
         }
 
+        if (useCronTriggerEngine()) {
+            // 切换引擎后清理 JobStore 中遗留的 Cron Job，避免两套引擎重复触发
+            deleteQuartzDagJob(dag.getId());
+            try {
+                cronTriggerEngine.register(dag, cronExpression, cronTimezone);
+            } catch (ParseException e) {
+                throw new SchedulerException("Cron 表达式无效: " + cronExpression, e);
+            }
+            return;
+        }
+
         String jobKey = "dag-" + dag.getId();
         String triggerKey = "dag-trigger-" + dag.getId();
         JobKey jobKeyObj = JobKey.jobKey(jobKey, "dag-group");
@@ -211,6 +242,13 @@ public class QuartzSchedulerService {
      */
     @Transactional
     public void deleteDagJob(Long dagId) throws SchedulerException {
+        if (useCronTriggerEngine()) {
+            cronTriggerEngine.unregister(dagId);
+        }
+        deleteQuartzDagJob(dagId);
+    }
+
+    private void deleteQuartzDagJob(Long dagId) throws SchedulerException {
         String jobKey = "dag-" + dagId;
         JobKey jobKeyObj = JobKey.jobKey(jobKey, "dag-group");
         
@@ -225,6 +263,10 @@ public class QuartzSchedulerService {
      */
     @Transactional
     public void pauseDagJob(Long dagId) throws SchedulerException {
+        if (useCronTriggerEngine()) {
+            cronTriggerEngine.pause(dagId);
+            return;
+        }
         String jobKey = "dag-" + dagId;
         JobKey jobKeyObj = JobKey.jobKey(jobKey, "dag-group");
         
@@ -239,6 +281,10 @@ public class QuartzSchedulerService {
      */
     @Transactional
     public void resumeDagJob(Long dagId) throws SchedulerException {
+        if (useCronTriggerEngine()) {
+            cronTriggerEngine.resume(dagId);
+            return;
+        }
         String jobKey = "dag-" + dagId;
         JobKey jobKeyObj = JobKey.jobKey(jobKey, "dag-group");
         
@@ -253,6 +299,14 @@ public class QuartzSchedulerService {
      */
     @Transactional
     public void updateDagCron(Long dagId, String cronExpression) throws SchedulerException {
+        if (useCronTriggerEngine()) {
+            try {
+                cronTriggerEngine.updateCron(dagId, cronExpression);
+            } catch (ParseException e) {
+                throw new SchedulerException("Cron 表达式无效: " + cronExpression, e);
+            }
+            return;
+        }
         String triggerKey = "dag-trigger-" + dagId;
         TriggerKey triggerKeyObj = TriggerKey.triggerKey(triggerKey, "dag-trigger-group");
         
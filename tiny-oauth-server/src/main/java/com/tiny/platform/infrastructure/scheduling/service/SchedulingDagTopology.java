@@ -0,0 +1,180 @@
+package com.tiny.platform.infrastructure.scheduling.service;
+
+import com.tiny.platform.infrastructure.scheduling.model.SchedulingDagEdge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * 单个 DAG 版本编译后的拓扑：节点按编码排序后编号，上下游邻接、入度与拓扑序均为 int 数组。
+ *
+ * <p>实例不可变，可在多线程间共享；节点编号只在同一个拓扑实例内有意义。</p>
+ */
+public final class SchedulingDagTopology {
+
+    private static final int[] NO_NODES = new int[0];
+
+    private final Long dagVersionId;
+    private final String[] nodeCodes;
+    private final Map<String, Integer> indexByCode;
+    private final int[][] upstreams;
+    private final int[][] downstreams;
+    private final int[] topologicalOrder;
+
+    private SchedulingDagTopology(Long dagVersionId, String[] nodeCodes, Map<String, Integer> indexByCode,
+                                  int[][] upstreams, int[][] downstreams, int[] topologicalOrder) {
+        this.dagVersionId = dagVersionId;
+        this.nodeCodes = nodeCodes;
+        this.indexByCode = indexByCode;
+        this.upstreams = upstreams;
+        this.downstreams = downstreams;
+        this.topologicalOrder = topologicalOrder;
+    }
+
+    /**
+     * 由节点编码与边编译拓扑；边上出现但不在节点列表中的编码同样编号，重复边只保留一条。
+     */
+    public static SchedulingDagTopology compile(Long dagVersionId, Collection<String> nodeCodes,
+                                                Collection<SchedulingDagEdge> edges) {
+        TreeSet<String> sortedCodes = new TreeSet<>();
+        nodeCodes.stream().filter(code -> code != null).forEach(sortedCodes::add);
+        for (SchedulingDagEdge edge : edges) {
+            if (edge.getFromNodeCode() != null && edge.getToNodeCode() != null) {
+                sortedCodes.add(edge.getFromNodeCode());
+                sortedCodes.add(edge.getToNodeCode());
+            }
+        }
+        String[] codes = sortedCodes.toArray(String[]::new);
+        Map<String, Integer> indexByCode = new HashMap<>(codes.length * 2);
+        for (int i = 0; i < codes.length; i++) {
+            indexByCode.put(codes[i], i);
+        }
+
+        List<TreeSet<Integer>> upstreamSets = new ArrayList<>(codes.length);
+        List<TreeSet<Integer>> downstreamSets = new ArrayList<>(codes.length);
+        for (int i = 0; i < codes.length; i++) {
+            upstreamSets.add(new TreeSet<>());
+            downstreamSets.add(new TreeSet<>());
+        }
+        for (SchedulingDagEdge edge : edges) {
+            if (edge.getFromNodeCode() == null || edge.getToNodeCode() == null) {
+                continue;
+            }
+            int from = indexByCode.get(edge.getFromNodeCode());
+            int to = indexByCode.get(edge.getToNodeCode());
+            upstreamSets.get(to).add(from);
+            downstreamSets.get(from).add(to);
+        }
+        int[][] upstreams = new int[codes.length][];
+        int[][] downstreams = new int[codes.length][];
+        for (int i = 0; i < codes.length; i++) {
+            upstreams[i] = toArray(upstreamSets.get(i));
+            downstreams[i] = toArray(downstreamSets.get(i));
+        }
+        return new SchedulingDagTopology(dagVersionId, codes, indexByCode, upstreams, downstreams,
+                topologicalOrder(upstreams, downstreams));
+    }
+
+    /**
+     * Kahn 算法求拓扑序；存在环时环上节点不会出现在结果中。
+     */
+    private static int[] topologicalOrder(int[][] upstreams, int[][] downstreams) {
+        int n = upstreams.length;
+        int[] remaining = new int[n];
+        int[] order = new int[n];
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < n; i++) {
+            remaining[i] = upstreams[i].length;
+            if (remaining[i] == 0) {
+                order[tail++] = i;
+            }
+        }
+        while (head < tail) {
+            int node = order[head++];
+            for (int downstream : downstreams[node]) {
+                if (--remaining[downstream] == 0) {
+                    order[tail++] = downstream;
+                }
+            }
+        }
+        return tail == n ? order : Arrays.copyOf(order, tail);
+    }
+
+    private static int[] toArray(Collection<Integer> values) {
+        if (values.isEmpty()) {
+            return NO_NODES;
+        }
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public Long getDagVersionId() {
+        return dagVersionId;
+    }
+
+    public int nodeCount() {
+        return nodeCodes.length;
+    }
+
+    /**
+     * 节点编号，不存在时返回 -1
+     */
+    public int indexOf(String nodeCode) {
+        Integer index = nodeCode != null ? indexByCode.get(nodeCode) : null;
+        return index != null ? index : -1;
+    }
+
+    public String nodeCode(int index) {
+        return nodeCodes[index];
+    }
+
+    /**
+     * 上游节点编号，调用方不得修改返回的数组
+     */
+    public int[] upstreamIndexes(int index) {
+        return index >= 0 ? upstreams[index] : NO_NODES;
+    }
+
+    /**
+     * 下游节点编号，调用方不得修改返回的数组
+     */
+    public int[] downstreamIndexes(int index) {
+        return index >= 0 ? downstreams[index] : NO_NODES;
+    }
+
+    public int inDegree(int index) {
+        return upstreams[index].length;
+    }
+
+    public List<String> upstreamNodeCodes(String nodeCode) {
+        return toCodes(upstreamIndexes(indexOf(nodeCode)));
+    }
+
+    public List<String> downstreamNodeCodes(String nodeCode) {
+        return toCodes(downstreamIndexes(indexOf(nodeCode)));
+    }
+
+    public int[] topologicalOrder() {
+        return topologicalOrder.clone();
+    }
+
+    public boolean hasCycle() {
+        return topologicalOrder.length < nodeCodes.length;
+    }
+
+    private List<String> toCodes(int[] indexes) {
+        if (indexes.length == 0) {
+            return List.of();
+        }
+        List<String> codes = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            codes.add(nodeCodes[index]);
+        }
+        return codes;
+    }
+}
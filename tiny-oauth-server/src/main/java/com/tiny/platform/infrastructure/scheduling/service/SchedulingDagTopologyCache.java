@@ -0,0 +1,208 @@
+package com.tiny.platform.infrastructure.scheduling.service;
+
+import com.tiny.platform.infrastructure.scheduling.model.SchedulingDagEdge;
+import com.tiny.platform.infrastructure.scheduling.model.SchedulingDagTask;
+import com.tiny.platform.infrastructure.scheduling.repository.SchedulingDagEdgeRepository;
+import com.tiny.platform.infrastructure.scheduling.repository.SchedulingDagTaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DAG 拓扑缓存：按 dagVersionId 缓存编译后的 {@link SchedulingDagTopology}，并按 dagRunId 维护节点成功位图。
+ *
+ * <p>ACTIVE 版本不可修改（见 {@code SchedulingService#ensureDagVersionMutable}），拓扑加载一次即可复用；
+ * 本节点上对版本节点/边的修改与版本状态切换会在事务提交后调用 {@link #evict(Long)}。其他节点修改 DRAFT /
+ * ARCHIVED 版本时无法通知到本节点，因此条目另设存活时间兜底。</p>
+ *
+ * <p>成功位图只记录「已确认 SUCCESS」的节点：同一 Run 中节点一旦出现 SUCCESS 实例就不会再撤销，
+ * 位图置位后依赖检查不必再查库；未置位不代表未成功（可能由其他 Worker 完成），由调用方回查数据库后补位。</p>
+ */
+@Component
+public class SchedulingDagTopologyCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchedulingDagTopologyCache.class);
+
+    private final SchedulingDagEdgeRepository dagEdgeRepository;
+    private final SchedulingDagTaskRepository dagTaskRepository;
+    private final long ttlNanos;
+    private final Map<Long, CachedTopology> topologies = new ConcurrentHashMap<>();
+    private final Map<Long, RunCompletion> runCompletions;
+
+    public SchedulingDagTopologyCache(SchedulingDagEdgeRepository dagEdgeRepository,
+                                      SchedulingDagTaskRepository dagTaskRepository) {
+        this(dagEdgeRepository, dagTaskRepository, 600, 2048);
+    }
+
+    @Autowired
+    public SchedulingDagTopologyCache(SchedulingDagEdgeRepository dagEdgeRepository,
+                                      SchedulingDagTaskRepository dagTaskRepository,
+                                      @Value("${scheduling.dag.topology-cache.ttl-seconds:600}") long ttlSeconds,
+                                      @Value("${scheduling.dag.topology-cache.max-tracked-runs:2048}") int maxTrackedRuns) {
+        this.dagEdgeRepository = dagEdgeRepository;
+        this.dagTaskRepository = dagTaskRepository;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(1, ttlSeconds));
+        int runLimit = Math.max(1, maxTrackedRuns);
+        this.runCompletions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, RunCompletion> eldest) {
+                return size() > runLimit;
+            }
+        };
+    }
+
+    /**
+     * 获取版本拓扑，未命中或已过期时加载；tenantId 非空时按租户过滤节点与边。
+     */
+    public SchedulingDagTopology get(Long dagVersionId, @Nullable Long tenantId) {
+        long now = System.nanoTime();
+        CachedTopology cached = topologies.get(dagVersionId);
+        if (cached != null && now - cached.loadedAtNanos() < ttlNanos) {
+            return cached.topology();
+        }
+        SchedulingDagTopology topology = load(dagVersionId, tenantId);
+        topologies.put(dagVersionId, new CachedTopology(topology, now));
+        return topology;
+    }
+
+    private SchedulingDagTopology load(Long dagVersionId, @Nullable Long tenantId) {
+        List<SchedulingDagEdge> edges = tenantId != null
+                ? dagEdgeRepository.findByDagVersionIdAndTenantId(dagVersionId, tenantId)
+                : dagEdgeRepository.findByDagVersionId(dagVersionId);
+        List<SchedulingDagTask> nodes = tenantId != null
+                ? dagTaskRepository.findByDagVersionIdAndTenantId(dagVersionId, tenantId)
+                : dagTaskRepository.findByDagVersionId(dagVersionId);
+        List<String> nodeCodes = new ArrayList<>(nodes.size());
+        nodes.forEach(node -> nodeCodes.add(node.getNodeCode()));
+        SchedulingDagTopology topology = SchedulingDagTopology.compile(dagVersionId, nodeCodes, edges);
+        if (topology.hasCycle()) {
+            logger.warn("DAG 版本 {} 存在环，拓扑序仅包含 {}/{} 个节点",
+                    dagVersionId, topology.topologicalOrder().length, topology.nodeCount());
+        }
+        logger.debug("加载 DAG 版本 {} 拓扑: {} 个节点, {} 条边", dagVersionId, topology.nodeCount(), edges.size());
+        return topology;
+    }
+
+    /**
+     * 失效指定版本的拓扑及其关联的 Run 位图。
+     */
+    public void evict(Long dagVersionId) {
+        if (dagVersionId == null) {
+            return;
+        }
+        CachedTopology removed = topologies.remove(dagVersionId);
+        if (removed != null) {
+            synchronized (runCompletions) {
+                runCompletions.values().removeIf(run -> run.topology() == removed.topology());
+            }
+        }
+    }
+
+    /**
+     * 当前事务提交后再失效，避免提交前其他线程把旧拓扑重新加载回缓存；无事务时立即失效。
+     */
+    public void evictAfterCommit(Long dagVersionId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(dagVersionId);
+                }
+            });
+            return;
+        }
+        evict(dagVersionId);
+    }
+
+    /**
+     * 获取 Run 的成功位图；拓扑已重新加载时丢弃旧位图。
+     */
+    public RunCompletion runCompletion(Long dagRunId, SchedulingDagTopology topology) {
+        synchronized (runCompletions) {
+            RunCompletion completion = runCompletions.get(dagRunId);
+            if (completion == null || completion.topology() != topology) {
+                completion = new RunCompletion(topology);
+                runCompletions.put(dagRunId, completion);
+            }
+            return completion;
+        }
+    }
+
+    /**
+     * 记录节点成功（本节点 Worker 完成任务后调用）。
+     */
+    public void markSucceeded(Long dagRunId, Long dagVersionId, @Nullable Long tenantId, String nodeCode) {
+        if (dagRunId == null || dagVersionId == null || nodeCode == null) {
+            return;
+        }
+        SchedulingDagTopology topology = get(dagVersionId, tenantId);
+        runCompletion(dagRunId, topology).markSucceeded(topology.indexOf(nodeCode));
+    }
+
+    /**
+     * Run 结束后释放位图
+     */
+    public void evictRun(Long dagRunId) {
+        synchronized (runCompletions) {
+            runCompletions.remove(dagRunId);
+        }
+    }
+
+    private record CachedTopology(SchedulingDagTopology topology, long loadedAtNanos) {
+    }
+
+    /**
+     * 单个 Run 的节点成功位图
+     */
+    public static final class RunCompletion {
+
+        private final SchedulingDagTopology topology;
+        private final BitSet succeeded;
+
+        RunCompletion(SchedulingDagTopology topology) {
+            this.topology = topology;
+            this.succeeded = new BitSet(topology.nodeCount());
+        }
+
+        SchedulingDagTopology topology() {
+            return topology;
+        }
+
+        public synchronized void markSucceeded(int index) {
+            if (index >= 0) {
+                succeeded.set(index);
+            }
+        }
+
+        public synchronized boolean isSucceeded(int index) {
+            return index >= 0 && succeeded.get(index);
+        }
+
+        /**
+         * 返回尚未确认成功的节点编号
+         */
+        public synchronized int[] unconfirmed(int[] indexes) {
+            int count = 0;
+            int[] result = new int[indexes.length];
+            for (int index : indexes) {
+                if (!succeeded.get(index)) {
+                    result[count++] = index;
+                }
+            }
+            return count == indexes.length ? result : java.util.Arrays.copyOf(result, count);
+        }
+    }
+}
@@ -21,6 +21,8 @@ public final class SchedulingExecutionContext implements Serializable {
     private final Long dagRunId;
     private final Long dagVersionId;
     private final String triggerType;
+    /** 仅在执行进程内有效，不随 JobDataMap 传递 */
+    private final transient TaskLogWriter logWriter;
 
     private SchedulingExecutionContext(Builder builder) {
         this.executionTenantId = builder.executionTenantId;
@@ -30,6 +32,7 @@ public final class SchedulingExecutionContext implements Serializable {
         this.dagRunId = builder.dagRunId;
         this.dagVersionId = builder.dagVersionId;
         this.triggerType = builder.triggerType;
+        this.logWriter = builder.logWriter;
     }
 
     public static Builder builder() {
@@ -88,6 +91,13 @@ public final class SchedulingExecutionContext implements Serializable {
         return triggerType;
     }
 
+    /**
+     * 本次执行的流式日志；未接入日志存储时返回丢弃输出的空实现，执行器可直接写入
+     */
+    public TaskLogWriter getLogWriter() {
+        return logWriter != null ? logWriter : TaskLogWriter.NOOP;
+    }
+
     private static void put(JobDataMap jobDataMap, String key, Object value) {
         if (value != null) {
             jobDataMap.put(key, value);
@@ -124,6 +134,7 @@ public final class SchedulingExecutionContext implements Serializable {
         private Long dagRunId;
         private Long dagVersionId;
         private String triggerType;
+        private TaskLogWriter logWriter;
 
         private Builder() {}
 
@@ -162,6 +173,11 @@ public final class SchedulingExecutionContext implements Serializable {
             return this;
         }
 
+        public Builder logWriter(TaskLogWriter logWriter) {
+            this.logWriter = logWriter;
+            return this;
+        }
+
         public SchedulingExecutionContext build() {
             return new SchedulingExecutionContext(this);
         }
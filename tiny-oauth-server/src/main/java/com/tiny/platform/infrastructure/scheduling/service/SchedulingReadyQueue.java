@@ -0,0 +1,171 @@
+package com.tiny.platform.infrastructure.scheduling.service;
+
+import com.tiny.platform.infrastructure.scheduling.model.SchedulingTaskInstance;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 进程内就绪任务队列。
+ *
+ * <p>DAG 起始节点创建、上游节点完成、手动触发/重试等写路径把已就绪（或将在 scheduledAt 就绪）的实例 id
+ * 推入队列，Worker 的派发线程阻塞在 {@link #poll(long, TimeUnit)} 上被立即唤醒，不必等下一轮数据库扫描。
+ * 队列只是加速通道：实例状态仍以数据库为准，抢占仍走原子 UPDATE；队列满、进程重启或跨节点推送丢失时，
+ * 由低频的 {@code processPendingTasks} 扫描兜底。</p>
+ *
+ * <p>同一实例 id 在队列中只保留一份；带 scheduledAt 的实例按时间延迟出队（重试退避同样走队列）。</p>
+ */
+@Component
+public class SchedulingReadyQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchedulingReadyQueue.class);
+
+    private final int capacity;
+    private final DelayQueue<ReadyTask> queue = new DelayQueue<>();
+    private final Set<Long> queuedIds = ConcurrentHashMap.newKeySet();
+    private final Counter offeredCounter;
+    private final Counter droppedCounter;
+
+    public SchedulingReadyQueue(int capacity) {
+        this(capacity, null);
+    }
+
+    @Autowired
+    public SchedulingReadyQueue(@Value("${scheduling.worker.ready-queue.capacity:10000}") int capacity,
+                                @Nullable MeterRegistry meterRegistry) {
+        this.capacity = Math.max(1, capacity);
+        if (meterRegistry != null) {
+            this.offeredCounter = Counter.builder("tiny.scheduling.ready-queue.offered.total")
+                    .description("Task instances pushed into the in-process ready queue")
+                    .register(meterRegistry);
+            this.droppedCounter = Counter.builder("tiny.scheduling.ready-queue.dropped.total")
+                    .description("Task instances not queued because the ready queue was full; left to the database sweep")
+                    .register(meterRegistry);
+            Gauge.builder("tiny.scheduling.ready-queue.size", queuedIds, Set::size)
+                    .description("Task instances waiting in the in-process ready queue")
+                    .register(meterRegistry);
+        } else {
+            this.offeredCounter = null;
+            this.droppedCounter = null;
+        }
+    }
+
+    /**
+     * 推入单个实例；实例 id 为空、已在队列中或队列已满时返回 false。
+     */
+    public boolean offer(SchedulingTaskInstance instance) {
+        if (instance == null || instance.getId() == null) {
+            return false;
+        }
+        if (!queuedIds.add(instance.getId())) {
+            return false;
+        }
+        if (queuedIds.size() > capacity) {
+            queuedIds.remove(instance.getId());
+            increment(droppedCounter);
+            logger.debug("就绪队列已满（容量 {}），实例 {} 留给数据库扫描兜底", capacity, instance.getId());
+            return false;
+        }
+        queue.offer(new ReadyTask(instance.getId(), instance.getTenantId(), resolveReadyAtNanos(instance.getScheduledAt())));
+        increment(offeredCounter);
+        return true;
+    }
+
+    /**
+     * 当前事务提交后再推入，避免 Worker 读到尚未提交的状态；无事务时立即推入。
+     */
+    public void offerAfterCommit(Collection<SchedulingTaskInstance> instances) {
+        if (instances == null || instances.isEmpty()) {
+            return;
+        }
+        List<SchedulingTaskInstance> snapshot = List.copyOf(instances);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    snapshot.forEach(SchedulingReadyQueue.this::offer);
+                }
+            });
+            return;
+        }
+        snapshot.forEach(this::offer);
+    }
+
+    /**
+     * 等待并取出一个已到期的就绪任务，超时返回 null。
+     */
+    public ReadyTask poll(long timeout, TimeUnit unit) throws InterruptedException {
+        ReadyTask task = queue.poll(timeout, unit);
+        if (task != null) {
+            queuedIds.remove(task.instanceId());
+        }
+        return task;
+    }
+
+    /**
+     * 非阻塞地取出至多 {@code maxTasks} 个已到期任务。
+     */
+    public List<ReadyTask> drainReady(int maxTasks) {
+        List<ReadyTask> drained = new ArrayList<>();
+        queue.drainTo(drained, Math.max(0, maxTasks));
+        drained.forEach(task -> queuedIds.remove(task.instanceId()));
+        return drained;
+    }
+
+    public int size() {
+        return queuedIds.size();
+    }
+
+    private long resolveReadyAtNanos(LocalDateTime scheduledAt) {
+        long nowNanos = System.nanoTime();
+        if (scheduledAt == null) {
+            return nowNanos;
+        }
+        long delayNanos = Duration.between(LocalDateTime.now(), scheduledAt).toNanos();
+        return delayNanos > 0 ? nowNanos + delayNanos : nowNanos;
+    }
+
+    private void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    /**
+     * 队列元素：实例 id、租户与到期时刻（{@link System#nanoTime()} 基准）。
+     */
+    public record ReadyTask(Long instanceId, Long tenantId, long readyAtNanos) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(readyAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other instanceof ReadyTask task) {
+                return Long.compare(readyAtNanos, task.readyAtNanos);
+            }
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
@@ -18,10 +18,12 @@ import com.tiny.platform.infrastructure.scheduling.repository.*;
 import com.tiny.platform.infrastructure.tenant.guard.TenantLifecycleGuard;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.quartz.CronExpression;
+import org.springframework.lang.Nullable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -45,6 +47,8 @@ import java.util.stream.Collectors;
 public class SchedulingService {
 
     private static final Logger logger = LoggerFactory.getLogger(SchedulingService.class);
+    /** 摘要接口返回分块日志时回看的末尾字符数 */
+    private static final int TASK_LOG_TAIL_CHARS = 8192;
 
     private final SchedulingTaskTypeRepository taskTypeRepository;
     private final SchedulingTaskRepository taskRepository;
@@ -64,6 +68,16 @@ public class SchedulingService {
     private final JsonSchemaValidationService jsonSchemaValidationService;
     private final ObjectMapper objectMapper;
     private final TenantLifecycleGuard tenantLifecycleGuard;
+    @Nullable
+    private final SchedulingReadyQueue readyQueue;
+    @Nullable
+    private final SchedulingDagTopologyCache topologyCache;
+    @Nullable
+    private final DagRunStateMachine runStateMachine;
+    @Nullable
+    private final SchedulingTaskInstanceBulkRepository taskInstanceBulkRepository;
+    @Nullable
+    private final SchedulingTaskLogService taskLogService;
 
     public SchedulingService(
             SchedulingTaskTypeRepository taskTypeRepository,
@@ -84,6 +98,37 @@ public class SchedulingService {
             JsonSchemaValidationService jsonSchemaValidationService,
             ObjectMapper objectMapper,
             TenantLifecycleGuard tenantLifecycleGuard) {
+        this(taskTypeRepository, taskRepository, dagRepository, dagVersionRepository, dagTaskRepository,
+                dagEdgeRepository, dagRunRepository, taskInstanceRepository, taskHistoryRepository, auditRepository,
+                tenantUserRepository, userUnitRepository, userRepository, quartzSchedulerService,
+                taskExecutorRegistry, jsonSchemaValidationService, objectMapper, tenantLifecycleGuard, null, null, null, null, null);
+    }
+
+    @Autowired
+    public SchedulingService(
+            SchedulingTaskTypeRepository taskTypeRepository,
+            SchedulingTaskRepository taskRepository,
+            SchedulingDagRepository dagRepository,
+            SchedulingDagVersionRepository dagVersionRepository,
+            SchedulingDagTaskRepository dagTaskRepository,
+            SchedulingDagEdgeRepository dagEdgeRepository,
+            SchedulingDagRunRepository dagRunRepository,
+            SchedulingTaskInstanceRepository taskInstanceRepository,
+            SchedulingTaskHistoryRepository taskHistoryRepository,
+            SchedulingAuditRepository auditRepository,
+            TenantUserRepository tenantUserRepository,
+            UserUnitRepository userUnitRepository,
+            UserRepository userRepository,
+            QuartzSchedulerService quartzSchedulerService,
+            TaskExecutorRegistry taskExecutorRegistry,
+            JsonSchemaValidationService jsonSchemaValidationService,
+            ObjectMapper objectMapper,
+            TenantLifecycleGuard tenantLifecycleGuard,
+            @Nullable SchedulingReadyQueue readyQueue,
+            @Nullable SchedulingDagTopologyCache topologyCache,
+            @Nullable DagRunStateMachine runStateMachine,
+            @Nullable SchedulingTaskInstanceBulkRepository taskInstanceBulkRepository,
+            @Nullable SchedulingTaskLogService taskLogService) {
         this.taskTypeRepository = taskTypeRepository;
         this.taskRepository = taskRepository;
         this.dagRepository = dagRepository;
@@ -102,6 +147,11 @@ public class SchedulingService {
         this.jsonSchemaValidationService = jsonSchemaValidationService;
         this.objectMapper = objectMapper;
         this.tenantLifecycleGuard = tenantLifecycleGuard;
+        this.readyQueue = readyQueue;
+        this.topologyCache = topologyCache;
+        this.runStateMachine = runStateMachine;
+        this.taskInstanceBulkRepository = taskInstanceBulkRepository;
+        this.taskLogService = taskLogService;
     }
 
     /**
@@ -280,6 +330,7 @@ public class SchedulingService {
         for (SchedulingDagVersion activeVersion : activeVersions) {
             activeVersion.setStatus("ARCHIVED");
             dagVersionRepository.save(activeVersion);
+            evictTopology(activeVersion.getId());
         }
         version.setStatus("ACTIVE");
         version.setActivatedAt(LocalDateTime.now());
@@ -818,6 +869,7 @@ public class SchedulingService {
         for (SchedulingDagVersion version : versions) {
             dagTaskRepository.deleteByDagVersionId(version.getId());
             dagEdgeRepository.deleteByDagVersionId(version.getId());
+            evictTopology(version.getId());
         }
         dagVersionRepository.deleteAll(versions);
         dagRepository.delete(dag);
@@ -960,6 +1012,9 @@ public class SchedulingService {
             }
         }
         SchedulingDagVersion saved = dagVersionRepository.save(version);
+        if (!Objects.equals(originalStatus, saved.getStatus())) {
+            evictTopology(saved.getId());
+        }
         if (dto.getStatus() != null && (Objects.equals(originalStatus, "ACTIVE") || Objects.equals(saved.getStatus(), "ACTIVE"))) {
             syncDagCronToQuartz(dag);
         }
@@ -1004,6 +1059,7 @@ public class SchedulingService {
         node.setParallelGroup(dto.getParallelGroup());
         node.setMeta(normalizeJsonColumn(dto.getMeta()));
         SchedulingDagTask saved = dagTaskRepository.save(node);
+        evictTopology(versionId);
         recordAudit("dag_node", saved.getId(), "CREATE", saved, tenantId);
         return saved;
     }
@@ -1034,6 +1090,7 @@ public class SchedulingService {
         if (!Objects.equals(originalNodeCode, saved.getNodeCode())) {
             dagEdgeRepository.updateFromNodeCode(versionId, originalNodeCode, saved.getNodeCode());
             dagEdgeRepository.updateToNodeCode(versionId, originalNodeCode, saved.getNodeCode());
+            evictTopology(versionId);
         }
         recordAudit("dag_node", saved.getId(), "UPDATE", saved, tenantId);
         return saved;
@@ -1049,6 +1106,7 @@ public class SchedulingService {
                 .filter(e -> e.getFromNodeCode().equals(node.getNodeCode()) || e.getToNodeCode().equals(node.getNodeCode()))
                 .forEach(dagEdgeRepository::delete);
         dagTaskRepository.delete(node);
+        evictTopology(versionId);
         recordAudit("dag_node", nodeId, "DELETE",
                 Map.of("dagId", dagId, "nodeCode", node.getNodeCode()), tenantId);
     }
@@ -1079,10 +1137,12 @@ public class SchedulingService {
         Long tenantId = requireCurrentTenantId();
         SchedulingDagTask node = getDagNode(dagId, versionId, nodeId)
                 .orElseThrow(() -> SchedulingExceptions.notFound("节点不存在: %s", nodeId));
-        List<String> upstreamCodes = dagEdgeRepository
-                .findByDagVersionIdAndToNodeCodeAndTenantId(versionId, node.getNodeCode(), tenantId).stream()
-                .map(SchedulingDagEdge::getFromNodeCode)
-                .collect(Collectors.toList());
+        List<String> upstreamCodes = topologyCache != null
+                ? topologyCache.get(versionId, tenantId).upstreamNodeCodes(node.getNodeCode())
+                : dagEdgeRepository
+                        .findByDagVersionIdAndToNodeCodeAndTenantId(versionId, node.getNodeCode(), tenantId).stream()
+                        .map(SchedulingDagEdge::getFromNodeCode)
+                        .collect(Collectors.toList());
         return dagTaskRepository.findByDagVersionIdAndTenantId(versionId, tenantId).stream()
                 .filter(n -> upstreamCodes.contains(n.getNodeCode()))
                 .collect(Collectors.toList());
@@ -1092,10 +1152,12 @@ public class SchedulingService {
         Long tenantId = requireCurrentTenantId();
         SchedulingDagTask node = getDagNode(dagId, versionId, nodeId)
                 .orElseThrow(() -> SchedulingExceptions.notFound("节点不存在: %s", nodeId));
-        List<String> downstreamCodes = dagEdgeRepository
-                .findByDagVersionIdAndFromNodeCodeAndTenantId(versionId, node.getNodeCode(), tenantId).stream()
-                .map(SchedulingDagEdge::getToNodeCode)
-                .collect(Collectors.toList());
+        List<String> downstreamCodes = topologyCache != null
+                ? topologyCache.get(versionId, tenantId).downstreamNodeCodes(node.getNodeCode())
+                : dagEdgeRepository
+                        .findByDagVersionIdAndFromNodeCodeAndTenantId(versionId, node.getNodeCode(), tenantId).stream()
+                        .map(SchedulingDagEdge::getToNodeCode)
+                        .collect(Collectors.toList());
         return dagTaskRepository.findByDagVersionIdAndTenantId(versionId, tenantId).stream()
                 .filter(n -> downstreamCodes.contains(n.getNodeCode()))
                 .collect(Collectors.toList());
@@ -1134,6 +1196,7 @@ public class SchedulingService {
         edge.setToNodeCode(dto.getToNodeCode());
         edge.setCondition(normalizeJsonColumn(dto.getCondition()));
         SchedulingDagEdge saved = dagEdgeRepository.save(edge);
+        evictTopology(versionId);
         recordAudit("dag_edge", saved.getId(), "CREATE", saved, tenantId);
         return saved;
     }
@@ -1148,6 +1211,7 @@ public class SchedulingService {
             throw SchedulingExceptions.validation("依赖关系不属于该版本");
         }
         dagEdgeRepository.delete(edge);
+        evictTopology(versionId);
         recordAudit("dag_edge", edgeId, "DELETE",
                 Map.of("dagId", dagId, "from", edge.getFromNodeCode(), "to", edge.getToNodeCode()),
                 tenantId);
@@ -1437,11 +1501,51 @@ public class SchedulingService {
 
         // 创建任务实例（根据 DAG 节点和依赖关系创建）
         List<SchedulingTaskInstance> instances = createDagTaskInstances(run, version);
-        taskInstanceRepository.saveAll(instances);
+        if (taskInstanceBulkRepository != null) {
+            // IDENTITY 主键下 saveAll 逐行插入，大 DAG 改为多行 INSERT，与 Run 同一事务
+            taskInstanceBulkRepository.insertAll(instances);
+        } else {
+            taskInstanceRepository.saveAll(instances);
+        }
+        if (runStateMachine != null) {
+            runStateMachine.onInstancesCreated(run.getId(), instances.size());
+        }
+        enqueueReadyInstances(instances);
 
         logger.info("DAG执行完成, dagId: {}, runId: {}", dagId, run.getId());
     }
 
+    /**
+     * 同一事务内同步所属 DAG Run 的状态计数。
+     */
+    private void onRunTransition(SchedulingTaskInstance instance, String fromStatus, String toStatus) {
+        if (runStateMachine != null) {
+            runStateMachine.onTransition(instance, fromStatus, toStatus);
+        }
+    }
+
+    /**
+     * 版本节点、边或状态变更后，事务提交时失效该版本的拓扑缓存。
+     */
+    private void evictTopology(Long versionId) {
+        if (topologyCache != null) {
+            topologyCache.evictAfterCommit(versionId);
+        }
+    }
+
+    /**
+     * 已置 scheduledAt 的实例在事务提交后推入 Worker 就绪队列；未推入的由 Worker 扫描兜底。
+     */
+    private void enqueueReadyInstances(Collection<SchedulingTaskInstance> instances) {
+        if (readyQueue == null || instances == null || instances.isEmpty()) {
+            return;
+        }
+        List<SchedulingTaskInstance> ready = instances.stream()
+                .filter(instance -> instance != null && instance.getScheduledAt() != null)
+                .toList();
+        readyQueue.offerAfterCommit(ready);
+    }
+
     /**
      * 创建 DAG 任务实例
      * 根据 DAG 版本中的节点和依赖关系创建任务实例
@@ -1494,6 +1598,9 @@ public class SchedulingService {
                 .distinct()
                 .collect(Collectors.toMap(typeId -> typeId, typeId -> requireTaskTypeInTenant(typeId, run.getTenantId())));
 
+        // 同一任务被多个节点引用时快照相同，只序列化一次
+        Map<Long, String> snapshotsByTaskId = new HashMap<>();
+
         for (SchedulingDagTask node : nodes) {
             SchedulingTask task = tasksById.get(node.getTaskId());
             SchedulingTaskType taskType = taskTypesById.get(task.getTypeId());
@@ -1506,7 +1613,8 @@ public class SchedulingService {
             instance.setTaskId(node.getTaskId());
             instance.setTenantId(run.getTenantId());
             instance.setAttemptNo(1);
-            instance.setExecutionSnapshot(serializeExecutionSnapshot(task, taskType));
+            instance.setExecutionSnapshot(snapshotsByTaskId.computeIfAbsent(
+                    node.getTaskId(), taskId -> serializeExecutionSnapshot(task, taskType)));
 
             // 如果是起始节点，立即调度；否则等待依赖完成
             if (startNodes.contains(node.getNodeCode())) {
@@ -1683,11 +1791,15 @@ public class SchedulingService {
             instance.setParams(node.getOverrideParams());
             instance.setExecutionSnapshot(serializeExecutionSnapshot(task, taskType));
             instance = taskInstanceRepository.save(instance);
+            if (runStateMachine != null) {
+                runStateMachine.onInstanceAdded(instance);
+            }
         } else {
             instance = latestInstance.get();
             if (!"PENDING".equals(instance.getStatus()) && !"FAILED".equals(instance.getStatus())) {
                 throw SchedulingExceptions.operationNotAllowed("节点任务实例状态不允许触发: %s", instance.getStatus());
             }
+            onRunTransition(instance, instance.getStatus(), "PENDING");
             instance.setStatus("PENDING");
             instance.setScheduledAt(LocalDateTime.now());
             instance.setAttemptNo(1);
@@ -1696,6 +1808,7 @@ public class SchedulingService {
             instance.setNextRetryAt(null);
             instance = taskInstanceRepository.save(instance);
         }
+        enqueueReadyInstances(Collections.singletonList(instance));
 
         logger.info("节点触发成功, dagId: {}, dagRunId: {}, nodeId: {}, instanceId: {}",
                 dag.getId(), run.getId(), node.getId(), instance.getId());
@@ -1729,6 +1842,10 @@ public class SchedulingService {
         retryInstance.setParams(node.getOverrideParams());
         retryInstance.setExecutionSnapshot(failedInstance.getExecutionSnapshot());
         retryInstance = taskInstanceRepository.save(retryInstance);
+        if (runStateMachine != null) {
+            runStateMachine.onInstanceAdded(retryInstance);
+        }
+        enqueueReadyInstances(Collections.singletonList(retryInstance));
 
         if (!"RUNNING".equals(run.getStatus())) {
             run.setStatus("RUNNING");
@@ -1736,16 +1853,19 @@ public class SchedulingService {
             dagRunRepository.save(run);
         }
 
-        List<String> downstreamNodeCodes = dagEdgeRepository
-                .findByDagVersionIdAndFromNodeCode(version.getId(), node.getNodeCode())
-                .stream()
-                .map(SchedulingDagEdge::getToNodeCode)
-                .collect(Collectors.toList());
+        List<String> downstreamNodeCodes = topologyCache != null
+                ? topologyCache.get(version.getId(), run.getTenantId()).downstreamNodeCodes(node.getNodeCode())
+                : dagEdgeRepository
+                        .findByDagVersionIdAndFromNodeCode(version.getId(), node.getNodeCode())
+                        .stream()
+                        .map(SchedulingDagEdge::getToNodeCode)
+                        .collect(Collectors.toList());
         if (!downstreamNodeCodes.isEmpty()) {
             List<SchedulingTaskInstance> runInstances = taskInstanceRepository.findByDagRunId(run.getId());
             Set<String> downstreamSet = new HashSet<>(downstreamNodeCodes);
             for (SchedulingTaskInstance inst : runInstances) {
                 if ("SKIPPED".equals(inst.getStatus()) && inst.getNodeCode() != null && downstreamSet.contains(inst.getNodeCode())) {
+                    onRunTransition(inst, "SKIPPED", "PENDING");
                     inst.setStatus("PENDING");
                     inst.setScheduledAt(null);
                     inst.setNextRetryAt(null);
@@ -1799,6 +1919,7 @@ public class SchedulingService {
         instance.setLockedBy(null);
         instance.setLockTime(null);
         taskInstanceRepository.save(instance);
+        enqueueReadyInstances(List.of(instance));
         int resumedCount = 1;
 
         logger.info("节点恢复成功, dagId: {}, dagRunId: {}, nodeId: {}, 恢复实例数: {}",
@@ -1884,6 +2005,10 @@ public class SchedulingService {
                         return "暂无日志";
                     }
                     SchedulingTaskHistory latest = latestHistory.get();
+                    if (taskLogService != null && taskLogService.hasLog(tenantId, latest.getId())) {
+                        return taskLogService.read(tenantId, latest.getId(), -TASK_LOG_TAIL_CHARS,
+                                TASK_LOG_TAIL_CHARS, true).content();
+                    }
                     if (latest.getLogPath() != null) {
                         return "执行日志已落盘，详情请通过运维侧查看";
                     }
@@ -1896,6 +2021,31 @@ public class SchedulingService {
                 });
     }
 
+    /**
+     * 按偏移读取任务实例某次执行的分块日志，执行中也可增量拉取。
+     *
+     * @param historyId 为空时取最近一次执行
+     * @param offset    起始字符偏移；负数表示从末尾回看
+     */
+    public Optional<SchedulingTaskLogService.TaskLogSlice> getTaskInstanceLogRange(Long instanceId,
+                                                                                 Long historyId,
+                                                                                 long offset,
+                                                                                 int limit) {
+        if (taskLogService == null) {
+            return Optional.empty();
+        }
+        Long tenantId = requireCurrentTenantId();
+        if (taskInstanceRepository.findByIdAndTenantId(instanceId, tenantId).isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<SchedulingTaskHistory> history = historyId != null
+                ? taskHistoryRepository.findByIdAndTenantId(historyId, tenantId)
+                        .filter(h -> Objects.equals(h.getTaskInstanceId(), instanceId))
+                : taskHistoryRepository.findTopByTaskInstanceIdAndTenantIdOrderByIdDesc(instanceId, tenantId);
+        return history.map(h -> taskLogService.read(tenantId, h.getId(), offset, limit,
+                !"RUNNING".equals(h.getStatus())));
+    }
+
     public Optional<SchedulingTaskHistory> getTaskHistory(Long historyId) {
         return findTaskHistoryInTenant(historyId, requireCurrentTenantId());
     }
@@ -2069,6 +2219,10 @@ public class SchedulingService {
         if (!instances.isEmpty()) {
             taskInstanceRepository.saveAll(instances);
         }
+        if (runStateMachine != null && cancelledInstances > 0) {
+            // Run 已直接置为 CANCELLED，只同步计数
+            runStateMachine.recordCancelled(run.getId(), cancelledInstances);
+        }
         return cancelledInstances;
     }
 
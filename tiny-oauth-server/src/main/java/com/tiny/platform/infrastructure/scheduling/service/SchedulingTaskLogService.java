@@ -0,0 +1,284 @@
+package com.tiny.platform.infrastructure.scheduling.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tiny.platform.infrastructure.scheduling.model.SchedulingTaskInstance;
+import com.tiny.platform.infrastructure.scheduling.model.SchedulingTaskLogChunk;
+import com.tiny.platform.infrastructure.scheduling.repository.SchedulingTaskLogChunkRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 任务执行日志的分块追加存储。
+ *
+ * <p>每次执行（一条 scheduling_task_history）打开一个 {@link ChunkedTaskLogWriter}：执行器输出先进入内存缓冲，
+ * 满 {@code chunk-chars} 或超过 {@code flush-interval-ms} 未落库时写入一块 scheduling_task_log_chunk，
+ * 偏移按字符连续递增。读取按偏移区间拼接分块，支持从任意偏移增量拉取与按尾部回看，
+ * 执行中的任务也能跟随输出，结果与日志不再整块存放在实例/历史的热行里。</p>
+ *
+ * <p>超过 {@code inline-result-max-chars} 的成功结果写入日志，实例与历史的 result 只保留带偏移的摘要。</p>
+ */
+@Service
+public class SchedulingTaskLogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchedulingTaskLogService.class);
+
+    /** 结果摘要保留的前缀长度 */
+    private static final int RESULT_PREVIEW_CHARS = 512;
+    /** 单次读取时每页拉取的分块数 */
+    private static final int READ_PAGE_CHUNKS = 64;
+
+    private final SchedulingTaskLogChunkRepository chunkRepository;
+    private final ObjectMapper objectMapper;
+    private final int chunkChars;
+    private final long flushIntervalNanos;
+    private final long maxCharsPerExecution;
+    private final int inlineResultMaxChars;
+    private final int maxReadChars;
+    private final Set<ChunkedTaskLogWriter> openWriters = ConcurrentHashMap.newKeySet();
+
+    public SchedulingTaskLogService(SchedulingTaskLogChunkRepository chunkRepository, ObjectMapper objectMapper) {
+        this(chunkRepository, objectMapper, 16384, 1000, 16L * 1024 * 1024, 4096, 65536);
+    }
+
+    @Autowired
+    public SchedulingTaskLogService(
+            SchedulingTaskLogChunkRepository chunkRepository,
+            ObjectMapper objectMapper,
+            @Value("${scheduling.worker.task-log.chunk-chars:16384}") int chunkChars,
+            @Value("${scheduling.worker.task-log.flush-interval-ms:1000}") long flushIntervalMillis,
+            @Value("${scheduling.worker.task-log.max-chars-per-execution:16777216}") long maxCharsPerExecution,
+            @Value("${scheduling.worker.task-log.inline-result-max-chars:4096}") int inlineResultMaxChars,
+            @Value("${scheduling.worker.task-log.max-read-chars:65536}") int maxReadChars) {
+        this.chunkRepository = chunkRepository;
+        this.objectMapper = objectMapper;
+        this.chunkChars = Math.max(256, chunkChars);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushIntervalMillis));
+        this.maxCharsPerExecution = Math.max(this.chunkChars, maxCharsPerExecution);
+        this.inlineResultMaxChars = Math.max(RESULT_PREVIEW_CHARS, inlineResultMaxChars);
+        this.maxReadChars = Math.max(1, maxReadChars);
+    }
+
+    /**
+     * 为一次执行打开日志写入器；执行结束后需 {@link ChunkedTaskLogWriter#close()}。
+     */
+    public ChunkedTaskLogWriter open(SchedulingTaskInstance instance, Long historyId) {
+        ChunkedTaskLogWriter writer = new ChunkedTaskLogWriter(instance.getTenantId(), instance.getId(), historyId);
+        openWriters.add(writer);
+        return writer;
+    }
+
+    /**
+     * 把超长的成功结果写入日志，返回以摘要替换结果的执行结果；未超长或失败结果原样返回。
+     */
+    public TaskExecutorService.TaskExecutionResult spillOversizedResult(
+            TaskExecutorService.TaskExecutionResult result, ChunkedTaskLogWriter writer) {
+        if (result == null || !result.isSuccess() || result.getResult() == null) {
+            return result;
+        }
+        String serialized;
+        try {
+            serialized = objectMapper.writeValueAsString(result.getResult());
+        } catch (Exception e) {
+            return result;
+        }
+        if (serialized.length() <= inlineResultMaxChars) {
+            return result;
+        }
+        writer.println("[result]");
+        long offset = writer.offset();
+        writer.println(serialized);
+        writer.flush();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("truncated", true);
+        summary.put("length", serialized.length());
+        summary.put("logOffset", offset);
+        summary.put("preview", serialized.substring(0, RESULT_PREVIEW_CHARS));
+        return TaskExecutorService.TaskExecutionResult.success(summary);
+    }
+
+    /**
+     * 读取一次执行日志的区间。
+     *
+     * @param offset 起始字符偏移；负数表示从末尾回看 {@code -offset} 个字符
+     * @param limit  最多返回的字符数，超过 {@code max-read-chars} 时按上限截断
+     * @param finished 该次执行是否已结束，原样回传给调用方判断是否继续跟随
+     */
+    public TaskLogSlice read(Long tenantId, Long historyId, long offset, int limit, boolean finished) {
+        Long storedEnd = chunkRepository.findEndOffset(historyId, tenantId);
+        long endOffset = storedEnd != null ? storedEnd : 0L;
+        long from = offset < 0 ? Math.max(0L, endOffset + offset) : Math.min(offset, endOffset);
+        int maxChars = Math.min(Math.max(1, limit), maxReadChars);
+        StringBuilder content = new StringBuilder();
+        long cursor = from;
+        while (cursor < endOffset && content.length() < maxChars) {
+            List<SchedulingTaskLogChunk> chunks = chunkRepository
+                    .findByHistoryIdAndTenantIdAndEndOffsetGreaterThanOrderByStartOffsetAsc(
+                            historyId, tenantId, cursor, PageRequest.of(0, READ_PAGE_CHUNKS));
+            if (chunks.isEmpty()) {
+                break;
+            }
+            long pageStart = cursor;
+            for (SchedulingTaskLogChunk chunk : chunks) {
+                if (chunk.getStartOffset() > cursor || content.length() >= maxChars) {
+                    break;
+                }
+                String text = chunk.getContent();
+                int begin = (int) (cursor - chunk.getStartOffset());
+                int end = Math.min(text.length(), begin + (maxChars - content.length()));
+                content.append(text, begin, end);
+                cursor = chunk.getStartOffset() + end;
+            }
+            if (chunks.size() < READ_PAGE_CHUNKS || cursor == pageStart) {
+                break;
+            }
+        }
+        return new TaskLogSlice(historyId, from, cursor, endOffset, content.toString(), finished && cursor >= endOffset);
+    }
+
+    /**
+     * 是否已有分块日志
+     */
+    public boolean hasLog(Long tenantId, Long historyId) {
+        return historyId != null && chunkRepository.findEndOffset(historyId, tenantId) != null;
+    }
+
+    /**
+     * 输出稀疏的执行器不会触发按量落库，这里按间隔补刷，保证跟随时的延迟不超过一个间隔
+     */
+    @Scheduled(fixedDelayString = "${scheduling.worker.task-log.flush-interval-ms:1000}")
+    public void flushIdleWriters() {
+        long now = System.nanoTime();
+        for (ChunkedTaskLogWriter writer : openWriters) {
+            writer.flushIfIdle(now);
+        }
+    }
+
+    int openWriterCount() {
+        return openWriters.size();
+    }
+
+    /**
+     * 日志区间：{@code [offset, nextOffset)} 的内容，{@code endOffset} 为当前已落库长度；
+     * {@code complete} 为 true 表示执行已结束且已读到末尾，无需继续跟随
+     */
+    public record TaskLogSlice(Long historyId, long offset, long nextOffset, long endOffset, String content,
+                               boolean complete) {
+    }
+
+    /**
+     * 单次执行的日志写入器，所有方法线程安全；关闭后的追加被忽略（超时后执行器线程可能仍在输出）
+     */
+    public final class ChunkedTaskLogWriter implements TaskLogWriter, AutoCloseable {
+
+        private final Long tenantId;
+        private final Long instanceId;
+        private final Long historyId;
+        private final StringBuilder buffer = new StringBuilder();
+        private long flushedOffset;
+        private long lastFlushNanos = System.nanoTime();
+        private boolean truncated;
+        private boolean failed;
+        private boolean closed;
+
+        private ChunkedTaskLogWriter(Long tenantId, Long instanceId, Long historyId) {
+            this.tenantId = tenantId;
+            this.instanceId = instanceId;
+            this.historyId = historyId;
+        }
+
+        @Override
+        public synchronized void append(CharSequence text) {
+            if (text == null || text.isEmpty() || closed || truncated || failed) {
+                return;
+            }
+            long remaining = maxCharsPerExecution - offset();
+            if (text.length() > remaining) {
+                buffer.append(text, 0, (int) Math.max(0L, remaining));
+                buffer.append("\n...(日志超过上限，后续输出已丢弃)\n");
+                truncated = true;
+                writeFullChunks();
+                flush();
+                return;
+            }
+            buffer.append(text);
+            writeFullChunks();
+        }
+
+        @Override
+        public synchronized void flush() {
+            if (buffer.isEmpty() || failed) {
+                return;
+            }
+            String content = buffer.toString();
+            buffer.setLength(0);
+            writeChunk(content);
+        }
+
+        /**
+         * 当前日志长度（含未落库的缓冲）
+         */
+        public synchronized long offset() {
+            return flushedOffset + buffer.length();
+        }
+
+        @Override
+        public synchronized void close() {
+            if (closed) {
+                return;
+            }
+            flush();
+            closed = true;
+            openWriters.remove(this);
+        }
+
+        synchronized void flushIfIdle(long nowNanos) {
+            if (!closed && !buffer.isEmpty() && nowNanos - lastFlushNanos >= flushIntervalNanos) {
+                flush();
+            }
+        }
+
+        private void writeFullChunks() {
+            while (buffer.length() >= chunkChars && !failed) {
+                int cut = chunkChars;
+                if (Character.isHighSurrogate(buffer.charAt(cut - 1))) {
+                    cut--;
+                }
+                String content = buffer.substring(0, cut);
+                buffer.delete(0, cut);
+                writeChunk(content);
+            }
+        }
+
+        private void writeChunk(String content) {
+            SchedulingTaskLogChunk chunk = new SchedulingTaskLogChunk();
+            chunk.setTenantId(tenantId);
+            chunk.setTaskInstanceId(instanceId);
+            chunk.setHistoryId(historyId);
+            chunk.setStartOffset(flushedOffset);
+            chunk.setEndOffset(flushedOffset + content.length());
+            chunk.setContent(content);
+            try {
+                chunkRepository.save(chunk);
+                flushedOffset += content.length();
+                lastFlushNanos = System.nanoTime();
+            } catch (Exception e) {
+                failed = true;
+                buffer.setLength(0);
+                logger.warn("写入任务执行日志失败，本次执行后续日志丢弃, instanceId: {}, historyId: {}: {}",
+                        instanceId, historyId, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.tiny.platform.infrastructure.scheduling.service;
+
+import com.tiny.platform.infrastructure.scheduling.model.SchedulingTaskInstance;
+import com.tiny.platform.infrastructure.scheduling.repository.SchedulingTaskClaimRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 虚拟线程执行模式下的任务监督。
+ *
+ * <p>每个任务实例只占用虚拟线程：一个负责 executeTask 全流程与等待结果，一个运行 {@link TaskExecutorService.TaskExecutor}，
+ * 不再占用派发线程池，并发只受单租户与全局许可数限制。受监督实例的心跳与取消检测由
+ * {@link #heartbeat()} 统一完成：每个周期一条 UPDATE 续期全部实例的 lock_time、一次查询读出全部取消标记，
+ * 取代逐任务的 {@code touchTaskHeartbeat} / {@code isCancellationRequested}。</p>
+ */
+@Component
+public class TaskExecutionSupervisor {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskExecutionSupervisor.class);
+
+    /** 单条 IN 列表的最大 id 数 */
+    private static final int HEARTBEAT_CHUNK_SIZE = 500;
+
+    private final AsyncTaskExecutor virtualTaskExecutor;
+    private final SchedulingTaskClaimRepository claimRepository;
+    private final boolean enabled;
+    private final int maxConcurrentPerTenant;
+    private final Semaphore globalPermits;
+    private final Map<Long, Semaphore> tenantPermits = new ConcurrentHashMap<>();
+    private final Map<Long, Supervised> supervised = new ConcurrentHashMap<>();
+
+    public TaskExecutionSupervisor(
+            @Qualifier("schedulingVirtualTaskExecutor") AsyncTaskExecutor virtualTaskExecutor,
+            SchedulingTaskClaimRepository claimRepository,
+            @Value("${scheduling.worker.virtual-threads.enabled:false}") boolean enabled,
+            @Value("${scheduling.worker.virtual-threads.max-concurrent:256}") int maxConcurrent,
+            @Value("${scheduling.worker.virtual-threads.max-concurrent-per-tenant:64}") int maxConcurrentPerTenant) {
+        this.virtualTaskExecutor = virtualTaskExecutor;
+        this.claimRepository = claimRepository;
+        this.enabled = enabled;
+        this.maxConcurrentPerTenant = Math.max(1, maxConcurrentPerTenant);
+        this.globalPermits = new Semaphore(Math.max(1, maxConcurrent), true);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 登记实例后在虚拟线程上执行 {@code body}：先取租户许可再取全局许可，租户排队时不占全局名额。
+     * 登记即开始心跳，等待许可期间 RESERVED 实例不会被僵尸回收。
+     */
+    public void dispatch(SchedulingTaskInstance instance, Runnable body) {
+        Long instanceId = instance.getId();
+        Long tenantKey = instance.getTenantId() != null ? instance.getTenantId() : 0L;
+        Supervised entry = new Supervised();
+        supervised.put(instanceId, entry);
+        try {
+            virtualTaskExecutor.execute(() -> runWithPermits(instanceId, tenantKey, entry, body));
+        } catch (RuntimeException e) {
+            supervised.remove(instanceId, entry);
+            throw e;
+        }
+    }
+
+    private void runWithPermits(Long instanceId, Long tenantKey, Supervised entry, Runnable body) {
+        Semaphore tenant = tenantPermits.computeIfAbsent(tenantKey, key -> new Semaphore(maxConcurrentPerTenant, true));
+        boolean tenantAcquired = false;
+        boolean globalAcquired = false;
+        try {
+            tenant.acquire();
+            tenantAcquired = true;
+            globalPermits.acquire();
+            globalAcquired = true;
+            body.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("等待执行许可时被中断，实例留给僵尸回收重排, instanceId: {}", instanceId);
+        } finally {
+            if (globalAcquired) {
+                globalPermits.release();
+            }
+            if (tenantAcquired) {
+                tenant.release();
+            }
+            supervised.remove(instanceId, entry);
+        }
+    }
+
+    /**
+     * 在虚拟线程上运行执行器，并把 Future 挂到实例的监督记录上，取消时由心跳周期中断。
+     */
+    public <T> Future<T> submit(Long instanceId, Callable<T> callable) {
+        Future<T> future = virtualTaskExecutor.submit(callable);
+        Supervised entry = supervised.get(instanceId);
+        if (entry != null) {
+            entry.attach(future);
+        }
+        return future;
+    }
+
+    public boolean isSupervised(Long instanceId) {
+        return instanceId != null && supervised.containsKey(instanceId);
+    }
+
+    /**
+     * 心跳周期是否已发现该实例被取消
+     */
+    public boolean isCancelled(Long instanceId) {
+        Supervised entry = instanceId != null ? supervised.get(instanceId) : null;
+        return entry != null && entry.cancelled;
+    }
+
+    /**
+     * 批量心跳：先读取取消标记并中断对应执行，再一次性续期其余实例的 lock_time。
+     * 间隔需小于 {@code scheduling.worker.lock-timeout-sec}，否则执行中的实例会被僵尸回收。
+     */
+    @Scheduled(fixedDelayString = "${scheduling.worker.virtual-threads.heartbeat-interval-ms:10000}")
+    public void heartbeat() {
+        if (supervised.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(supervised.keySet());
+        try {
+            int cancelled = 0;
+            for (int from = 0; from < ids.size(); from += HEARTBEAT_CHUNK_SIZE) {
+                List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + HEARTBEAT_CHUNK_SIZE));
+                for (Long cancelledId : claimRepository.findCancelledIds(chunk)) {
+                    Supervised entry = supervised.get(cancelledId);
+                    if (entry != null && entry.cancel()) {
+                        cancelled++;
+                    }
+                }
+                claimRepository.touchHeartbeats(chunk, LocalDateTime.now());
+            }
+            if (cancelled > 0) {
+                logger.info("批量心跳：{} 个受监督实例中 {} 个已取消并中断执行", ids.size(), cancelled);
+            }
+        } catch (Exception e) {
+            logger.warn("批量心跳失败，{} 个受监督实例等待下一周期: {}", ids.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 单个受监督实例：执行 Future 可能晚于取消到达，attach 时补做中断
+     */
+    private static final class Supervised {
+
+        private volatile Future<?> future;
+        private volatile boolean cancelled;
+
+        void attach(Future<?> future) {
+            this.future = future;
+            if (cancelled) {
+                future.cancel(true);
+            }
+        }
+
+        boolean cancel() {
+            if (cancelled) {
+                return false;
+            }
+            cancelled = true;
+            Future<?> current = future;
+            if (current != null) {
+                current.cancel(true);
+            }
+            return true;
+        }
+    }
+}
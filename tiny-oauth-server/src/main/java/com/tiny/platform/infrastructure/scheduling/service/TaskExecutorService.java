@@ -21,10 +21,15 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 任务执行器服务
@@ -35,6 +40,9 @@ public class TaskExecutorService {
 
     private static final Logger logger = LoggerFactory.getLogger(TaskExecutorService.class);
 
+    /** 默认参数缓存条目上限，超出后整体清空重建（条目随 DAG 版本累积） */
+    private static final int MAX_CACHED_DEFAULT_PARAMS = 4096;
+
     private final SchedulingTaskRepository taskRepository;
     private final SchedulingTaskTypeRepository taskTypeRepository;
     private final SchedulingDagTaskRepository dagTaskRepository;
@@ -42,6 +50,7 @@ public class TaskExecutorService {
     private final ObjectMapper objectMapper;
     private final JsonSchemaValidationService jsonSchemaValidationService;
     private final TaskExecutorRegistry taskExecutorRegistry;
+    private final Map<String, CachedDefaultParams> defaultParamsCache = new ConcurrentHashMap<>();
 
     @Autowired
     public TaskExecutorService(
@@ -253,33 +262,75 @@ public class TaskExecutorService {
 
     /**
      * 解析并合并参数
-     * 优先级：节点覆盖参数 > 任务默认参数
+     * 优先级：运行时实例参数 > 节点覆盖参数 > 任务默认参数
+     *
+     * <p>任务默认参数与节点覆盖参数合并后按「任务 + 版本 + 节点」缓存，两段 JSON 文本未变化时直接复用，
+     * 每次执行只解析实例参数。返回给执行器的是副本，执行器修改参数不会影响缓存。</p>
      */
     private Map<String, Object> parseAndMergeParams(
             SchedulingTaskInstance instance,
             ExecutionTaskConfig taskConfig) {
 
-        Map<String, Object> mergedParams = new HashMap<>();
-
-        // 1. 任务默认参数
-        mergedParams.putAll(parseJsonToMap(taskConfig.params()));
-
-        // 2. 节点定义覆盖参数（最高优先级）；无请求上下文时按租户过滤
+        // 节点定义覆盖参数；无请求上下文时按租户过滤
+        String overrideParams = null;
         if (instance.getDagVersionId() != null && instance.getNodeCode() != null) {
-            (instance.getTenantId() != null
+            overrideParams = (instance.getTenantId() != null
                     ? dagTaskRepository.findByDagVersionIdAndNodeCodeAndTenantId(
                             instance.getDagVersionId(), instance.getNodeCode(), instance.getTenantId())
                     : dagTaskRepository.findByDagVersionIdAndNodeCode(instance.getDagVersionId(), instance.getNodeCode()))
                     .map(SchedulingDagTask::getOverrideParams)
-                    .ifPresent(json -> mergedParams.putAll(parseJsonToMap(json)));
+                    .orElse(null);
+        }
+
+        String cacheKey = taskConfig.taskId() + ":" + instance.getDagVersionId() + ":" + instance.getNodeCode();
+        CachedDefaultParams defaults = defaultParamsCache.get(cacheKey);
+        if (defaults == null || !defaults.matches(taskConfig.params(), overrideParams)) {
+            Map<String, Object> merged = new HashMap<>(parseJsonToMap(taskConfig.params()));
+            merged.putAll(parseJsonToMap(overrideParams));
+            defaults = new CachedDefaultParams(taskConfig.params(), overrideParams, Collections.unmodifiableMap(merged));
+            if (defaultParamsCache.size() >= MAX_CACHED_DEFAULT_PARAMS) {
+                defaultParamsCache.clear();
+            }
+            defaultParamsCache.put(cacheKey, defaults);
         }
 
-        // 3. 运行时实例覆盖参数
+        Map<String, Object> mergedParams = copyParams(defaults.params());
+        // 运行时实例覆盖参数（最高优先级）
         mergedParams.putAll(parseJsonToMap(instance.getParams()));
 
         return mergedParams;
     }
 
+    /**
+     * 复制参数，嵌套的对象与数组一并复制
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> copyParams(Map<String, Object> params) {
+        Map<String, Object> copy = new HashMap<>(params);
+        for (Map.Entry<String, Object> entry : copy.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof Map<?, ?> || value instanceof List<?>) {
+                entry.setValue(copyValue(value));
+            }
+        }
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object copyValue(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            return copyParams((Map<String, Object>) map);
+        }
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            for (Object element : list) {
+                copy.add(copyValue(element));
+            }
+            return copy;
+        }
+        return value;
+    }
+
     private Map<String, Object> parseJsonToMap(String json) {
         if (json == null || json.trim().isEmpty()) {
             return Map.of();
@@ -351,6 +402,13 @@ public class TaskExecutorService {
         }
     }
 
+    private record CachedDefaultParams(String taskParams, String overrideParams, Map<String, Object> params) {
+
+        boolean matches(String otherTaskParams, String otherOverrideParams) {
+            return Objects.equals(taskParams, otherTaskParams) && Objects.equals(overrideParams, otherOverrideParams);
+        }
+    }
+
     private record ExecutionTaskConfig(
             Long taskId,
             Long taskTypeId,
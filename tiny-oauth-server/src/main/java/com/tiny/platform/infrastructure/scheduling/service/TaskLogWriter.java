@@ -0,0 +1,40 @@
+package com.tiny.platform.infrastructure.scheduling.service;
+
+/**
+ * 面向执行器的流式日志写入。
+ *
+ * <p>执行器通过 {@link SchedulingExecutionContext#getLogWriter()} 获取，执行过程中随时追加输出；
+ * 内容按块落库，前端可按偏移增量拉取，无需等待执行结束。写入失败不会影响任务执行结果。
+ * 日志会原样展示给有读取权限的用户，参数等敏感信息需先经 {@code SchedulingLogSanitizer} 脱敏。</p>
+ */
+public interface TaskLogWriter {
+
+    /** 未接入日志存储时使用，丢弃全部输出 */
+    TaskLogWriter NOOP = new TaskLogWriter() {
+        @Override
+        public void append(CharSequence text) {
+        }
+
+        @Override
+        public void flush() {
+        }
+    };
+
+    /**
+     * 追加一段文本
+     */
+    void append(CharSequence text);
+
+    /**
+     * 追加一行文本
+     */
+    default void println(CharSequence line) {
+        append(line);
+        append("\n");
+    }
+
+    /**
+     * 立即落库已缓冲的内容
+     */
+    void flush();
+}
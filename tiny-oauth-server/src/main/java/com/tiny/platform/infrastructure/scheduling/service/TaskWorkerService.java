@@ -18,12 +18,18 @@ import com.tiny.platform.infrastructure.scheduling.repository.SchedulingTaskType
 import com.tiny.platform.infrastructure.scheduling.repository.SchedulingDagRunRepository;
 import com.tiny.platform.infrastructure.scheduling.repository.SchedulingDagEdgeRepository;
 import com.tiny.platform.infrastructure.scheduling.repository.SchedulingDagTaskRepository;
+import com.tiny.platform.infrastructure.scheduling.repository.SchedulingTaskClaimRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.lang.Nullable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
@@ -46,9 +52,15 @@ import org.springframework.util.StringUtils;
 /**
  * 任务 Worker 服务
  * 负责从队列中抢占任务并执行
+ *
+ * <p>主路径为事件驱动：写路径把就绪实例推入 {@link SchedulingReadyQueue}，派发线程被立即唤醒后按 id 抢占执行；
+ * {@link #processPendingTasks()} 降为低频数据库扫描，兜底队列未覆盖的实例（队列满、重启、其他节点写入、僵尸回收）。</p>
+ *
+ * <p>启用虚拟线程执行模式（{@code scheduling.worker.virtual-threads.enabled}）时，派发与执行都交给
+ * {@link TaskExecutionSupervisor}：任务不再占用派发线程池逐个轮询心跳与取消，由监督者按周期批量处理。</p>
  */
 @Service
-public class TaskWorkerService {
+public class TaskWorkerService implements SmartLifecycle {
 
     private static final Logger logger = LoggerFactory.getLogger(TaskWorkerService.class);
 
@@ -66,10 +78,15 @@ public class TaskWorkerService {
     private static final int TASK_PAGE_SIZE = 100;
     private static final int MAX_TASKS_PER_CYCLE = 500;
     private static final int DEFAULT_RETRY_DELAY_SEC = 60;
+    private static final int MAX_READY_TASKS_PER_WAKEUP = 100;
+    private static final long READY_QUEUE_POLL_MILLIS = 1000;
+    /** 公平派发有积压但无可用名额时，单次等待名额归还的上限，期间新到的就绪任务延后至多这么久入队 */
+    private static final long FAIR_SHARE_RELEASE_WAIT_MILLIS = 50;
 
     /**
      * 单次扫描周期内，每个租户最多可被拾取的任务数。
      * 用于防止高负载租户在高并发场景下长时间吃满 Worker 容量，饿死其它租户。
+     * 仅作用于数据库兜底扫描；就绪队列路径由 {@link TenantFairShareDispatcher} 按租户权重轮转。
      */
     @Value("${scheduling.worker.max-tasks-per-tenant-per-cycle:100}")
     private int maxTasksPerTenantPerCycle;
@@ -77,15 +94,82 @@ public class TaskWorkerService {
     @Value("${scheduling.worker.lock-timeout-sec:300}")
     private int lockTimeoutSec;
 
+    /**
+     * 批量抢占：数据库支持 SKIP LOCKED 时，扫描一次锁定并抢占一批实例；否则退回逐条抢占。
+     */
+    @Value("${scheduling.worker.batch-claim.enabled:true}")
+    private boolean batchClaimEnabled;
+
+    @Value("${scheduling.worker.batch-claim.size:50}")
+    private int batchClaimSize;
+
     private final String workerId;
     private final ExecutorService taskExecutionExecutor;
     private final ExecutorService dispatchExecutor;
+    @Nullable
+    private final SchedulingReadyQueue readyQueue;
+    @Nullable
+    private final SchedulingTaskClaimRepository claimRepository;
+    @Nullable
+    private final SchedulingDagTopologyCache topologyCache;
+    @Nullable
+    private final DagRunStateMachine runStateMachine;
+    @Nullable
+    private final TaskExecutionSupervisor executionSupervisor;
+    @Nullable
+    private final TenantFairShareDispatcher fairShareDispatcher;
+    @Nullable
+    private final SchedulingTaskLogService taskLogService;
+    private final Timer edgeLatencyTimer;
+    private final Counter queueDispatchCounter;
+    private final Counter sweepDispatchCounter;
+
+    private volatile boolean running;
+    private volatile Thread readyDispatcherThread;
 
     /** 自注入，用于通过代理调用 @Transactional 方法，避免同类内部调用导致事务不生效 */
     @Autowired
     @Lazy
     private TaskWorkerService self;
 
+    public TaskWorkerService(
+            SchedulingTaskInstanceRepository taskInstanceRepository,
+            SchedulingTaskHistoryRepository taskHistoryRepository,
+            SchedulingTaskRepository taskRepository,
+            SchedulingTaskTypeRepository taskTypeRepository,
+            SchedulingDagRunRepository dagRunRepository,
+            SchedulingDagTaskRepository dagTaskRepository,
+            SchedulingDagEdgeRepository dagEdgeRepository,
+            TaskExecutorService taskExecutorService,
+            DependencyCheckerService dependencyCheckerService,
+            ObjectMapper objectMapper,
+            ExecutorService taskExecutionExecutor,
+            ExecutorService dispatchExecutor) {
+        this(taskInstanceRepository, taskHistoryRepository, taskRepository, taskTypeRepository, dagRunRepository,
+                dagTaskRepository, dagEdgeRepository, taskExecutorService, dependencyCheckerService, objectMapper,
+                taskExecutionExecutor, dispatchExecutor, null, null);
+    }
+
+    public TaskWorkerService(
+            SchedulingTaskInstanceRepository taskInstanceRepository,
+            SchedulingTaskHistoryRepository taskHistoryRepository,
+            SchedulingTaskRepository taskRepository,
+            SchedulingTaskTypeRepository taskTypeRepository,
+            SchedulingDagRunRepository dagRunRepository,
+            SchedulingDagTaskRepository dagTaskRepository,
+            SchedulingDagEdgeRepository dagEdgeRepository,
+            TaskExecutorService taskExecutorService,
+            DependencyCheckerService dependencyCheckerService,
+            ObjectMapper objectMapper,
+            ExecutorService taskExecutionExecutor,
+            ExecutorService dispatchExecutor,
+            @Nullable SchedulingReadyQueue readyQueue,
+            @Nullable MeterRegistry meterRegistry) {
+        this(taskInstanceRepository, taskHistoryRepository, taskRepository, taskTypeRepository, dagRunRepository,
+                dagTaskRepository, dagEdgeRepository, taskExecutorService, dependencyCheckerService, objectMapper,
+                taskExecutionExecutor, dispatchExecutor, readyQueue, null, null, null, null, null, null, meterRegistry);
+    }
+
     @Autowired
     public TaskWorkerService(
             SchedulingTaskInstanceRepository taskInstanceRepository,
@@ -99,7 +183,15 @@ public class TaskWorkerService {
             DependencyCheckerService dependencyCheckerService,
             ObjectMapper objectMapper,
             @Qualifier("schedulingTaskExecutor") ExecutorService taskExecutionExecutor,
-            @Qualifier("schedulingDispatchExecutor") ExecutorService dispatchExecutor) {
+            @Qualifier("schedulingDispatchExecutor") ExecutorService dispatchExecutor,
+            @Nullable SchedulingReadyQueue readyQueue,
+            @Nullable SchedulingTaskClaimRepository claimRepository,
+            @Nullable SchedulingDagTopologyCache topologyCache,
+            @Nullable DagRunStateMachine runStateMachine,
+            @Nullable TaskExecutionSupervisor executionSupervisor,
+            @Nullable TenantFairShareDispatcher fairShareDispatcher,
+            @Nullable SchedulingTaskLogService taskLogService,
+            @Nullable MeterRegistry meterRegistry) {
         this.taskInstanceRepository = taskInstanceRepository;
         this.taskHistoryRepository = taskHistoryRepository;
         this.taskRepository = taskRepository;
@@ -112,16 +204,245 @@ public class TaskWorkerService {
         this.objectMapper = objectMapper;
         this.taskExecutionExecutor = taskExecutionExecutor;
         this.dispatchExecutor = dispatchExecutor;
+        this.readyQueue = readyQueue;
+        this.claimRepository = claimRepository;
+        this.topologyCache = topologyCache;
+        this.runStateMachine = runStateMachine;
+        this.executionSupervisor = executionSupervisor;
+        this.fairShareDispatcher = fairShareDispatcher;
+        this.taskLogService = taskLogService;
+        if (meterRegistry != null) {
+            this.edgeLatencyTimer = Timer.builder("tiny.scheduling.dag.edge.latency")
+                    .description("Time from a DAG task instance becoming ready (upstream finished or run created) to RUNNING")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            this.queueDispatchCounter = Counter.builder("tiny.scheduling.worker.dispatched.total")
+                    .tag("path", "queue")
+                    .description("Task instances reserved and dispatched by the worker")
+                    .register(meterRegistry);
+            this.sweepDispatchCounter = Counter.builder("tiny.scheduling.worker.dispatched.total")
+                    .tag("path", "sweep")
+                    .description("Task instances reserved and dispatched by the worker")
+                    .register(meterRegistry);
+        } else {
+            this.edgeLatencyTimer = null;
+            this.queueDispatchCounter = null;
+            this.sweepDispatchCounter = null;
+        }
         this.workerId = "worker-" + UUID.randomUUID().toString().substring(0, 8);
         logger.info("Worker 启动, workerId: {}", workerId);
     }
 
+    @Override
+    public void start() {
+        if (running || readyQueue == null) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::runReadyDispatchLoop, "scheduling-ready-" + workerId);
+        thread.setDaemon(true);
+        readyDispatcherThread = thread;
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = readyDispatcherThread;
+        readyDispatcherThread = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void runReadyDispatchLoop() {
+        while (running) {
+            try {
+                dispatchReadyTasks(READY_QUEUE_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Worker {} 派发就绪队列任务失败", workerId, e);
+            }
+        }
+    }
+
     /**
-     * 定时扫描并执行待处理的任务
-     * 每 5 秒执行一次
+     * 等待至多 {@code waitMillis} 取出就绪任务并派发，单次唤醒最多处理 {@value #MAX_READY_TASKS_PER_WAKEUP} 个。
+     * 入队前已完成依赖判定，这里只按 id 复查状态与时间后抢占，不再重复依赖查询。
+     *
+     * @return 本次成功抢占并派发的任务数
      */
-    @Scheduled(fixedDelay = 5000)
+    int dispatchReadyTasks(long waitMillis) throws InterruptedException {
+        if (readyQueue == null) {
+            return 0;
+        }
+        if (fairShareDispatcher != null && fairShareDispatcher.isEnabled()) {
+            return dispatchFairShare(waitMillis);
+        }
+        SchedulingReadyQueue.ReadyTask first = readyQueue.poll(waitMillis, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return 0;
+        }
+        List<SchedulingReadyQueue.ReadyTask> tasks = new java.util.ArrayList<>();
+        tasks.add(first);
+        tasks.addAll(readyQueue.drainReady(MAX_READY_TASKS_PER_WAKEUP - 1));
+        if (isBatchClaimAvailable()) {
+            return dispatchReadyBatch(tasks, null);
+        }
+        int dispatched = 0;
+        for (SchedulingReadyQueue.ReadyTask task : tasks) {
+            try {
+                if (dispatchReadyTask(task)) {
+                    dispatched++;
+                }
+            } catch (Exception e) {
+                logger.warn("Worker {} 处理就绪任务失败，留给扫描兜底, instanceId: {}", workerId, task.instanceId(), e);
+            }
+        }
+        return dispatched;
+    }
+
+    /**
+     * 公平派发：就绪队列中的到期任务先按租户入队，再由 {@link TenantFairShareDispatcher} 按权重轮转选出，
+     * 每个任务占用一个在途名额直到执行结束。名额用尽时等待归还，不再把整批任务推给派发线程池排队。
+     */
+    private int dispatchFairShare(long waitMillis) throws InterruptedException {
+        if (fairShareDispatcher.backlog() == 0) {
+            SchedulingReadyQueue.ReadyTask first = readyQueue.poll(waitMillis, TimeUnit.MILLISECONDS);
+            if (first == null) {
+                return 0;
+            }
+            fairShareDispatcher.enqueue(first);
+        }
+        while (fairShareDispatcher.hasBacklogCapacity()) {
+            List<SchedulingReadyQueue.ReadyTask> drained = readyQueue.drainReady(MAX_READY_TASKS_PER_WAKEUP);
+            if (drained.isEmpty()) {
+                break;
+            }
+            drained.forEach(fairShareDispatcher::enqueue);
+        }
+        if (isBatchClaimAvailable()) {
+            List<SchedulingReadyQueue.ReadyTask> selected = new java.util.ArrayList<>();
+            SchedulingReadyQueue.ReadyTask task = null;
+            while (selected.size() < MAX_READY_TASKS_PER_WAKEUP && (task = fairShareDispatcher.next()) != null) {
+                selected.add(task);
+            }
+            int dispatched = selected.isEmpty() ? 0 : dispatchReadyBatch(selected, fairShareDispatcher::release);
+            if (task == null) {
+                fairShareDispatcher.awaitRelease(Math.min(waitMillis, FAIR_SHARE_RELEASE_WAIT_MILLIS), TimeUnit.MILLISECONDS);
+            }
+            return dispatched;
+        }
+        int dispatched = 0;
+        for (int attempts = 0; attempts < MAX_READY_TASKS_PER_WAKEUP; attempts++) {
+            SchedulingReadyQueue.ReadyTask task = fairShareDispatcher.next();
+            if (task == null) {
+                fairShareDispatcher.awaitRelease(Math.min(waitMillis, FAIR_SHARE_RELEASE_WAIT_MILLIS), TimeUnit.MILLISECONDS);
+                break;
+            }
+            boolean handedOff = false;
+            try {
+                if (dispatchReadyTask(task, () -> fairShareDispatcher.release(task))) {
+                    handedOff = true;
+                    dispatched++;
+                }
+            } catch (Exception e) {
+                logger.warn("Worker {} 处理就绪任务失败，留给扫描兜底, instanceId: {}", workerId, task.instanceId(), e);
+            } finally {
+                if (!handedOff) {
+                    fairShareDispatcher.release(task);
+                }
+            }
+        }
+        return dispatched;
+    }
+
+    /**
+     * 批量抢占模式下派发一批就绪任务：一个事务内按 id 以 SKIP LOCKED 锁定仍到期的 PENDING 行并整批抢占，
+     * 取代逐条 {@link #reserveTask} 的一任务一事务。
+     *
+     * @param release 公平派发的名额归还回调：抢占到的任务在执行结束后归还，未抢到的立即归还；为 null 表示无名额
+     * @return 本次成功抢占并派发的任务数
+     */
+    private int dispatchReadyBatch(List<SchedulingReadyQueue.ReadyTask> tasks,
+                                   @Nullable java.util.function.Consumer<SchedulingReadyQueue.ReadyTask> release) {
+        java.util.Map<Long, SchedulingReadyQueue.ReadyTask> tasksById = new java.util.LinkedHashMap<>();
+        List<SchedulingReadyQueue.ReadyTask> unclaimed = new java.util.ArrayList<>();
+        for (SchedulingReadyQueue.ReadyTask task : tasks) {
+            if (tasksById.putIfAbsent(task.instanceId(), task) != null) {
+                unclaimed.add(task);
+            }
+        }
+        List<SchedulingTaskInstance> reserved = List.of();
+        try {
+            reserved = self.claimReadyTasks(tasksById.keySet());
+        } catch (Exception e) {
+            logger.warn("Worker {} 批量抢占就绪任务失败，留给扫描兜底, count: {}", workerId, tasksById.size(), e);
+        }
+        int dispatched = 0;
+        for (SchedulingTaskInstance instance : reserved) {
+            SchedulingReadyQueue.ReadyTask task = tasksById.remove(instance.getId());
+            Runnable onComplete = release != null && task != null ? () -> release.accept(task) : null;
+            try {
+                dispatchTask(instance, onComplete);
+                increment(queueDispatchCounter);
+                dispatched++;
+            } catch (Exception e) {
+                logger.warn("Worker {} 派发就绪任务失败，留给扫描兜底, instanceId: {}", workerId, instance.getId(), e);
+                if (task != null) {
+                    unclaimed.add(task);
+                }
+            }
+        }
+        unclaimed.addAll(tasksById.values());
+        if (release != null) {
+            unclaimed.forEach(release);
+        }
+        return dispatched;
+    }
+
+    private boolean dispatchReadyTask(SchedulingReadyQueue.ReadyTask task) {
+        return dispatchReadyTask(task, null);
+    }
+
+    /**
+     * @param onComplete 派发成功时在任务执行结束后调用；返回 false 或抛出异常时不会调用
+     */
+    private boolean dispatchReadyTask(SchedulingReadyQueue.ReadyTask task, @Nullable Runnable onComplete) {
+        SchedulingTaskInstance instance = findTaskInstance(task.instanceId(), task.tenantId()).orElse(null);
+        if (instance == null || !"PENDING".equals(instance.getStatus())) {
+            return false;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (instance.getScheduledAt() == null || instance.getScheduledAt().isAfter(now)
+                || (instance.getNextRetryAt() != null && instance.getNextRetryAt().isAfter(now))) {
+            return false;
+        }
+        if (!self.reserveTask(instance)) {
+            return false;
+        }
+        dispatchTask(instance, onComplete);
+        increment(queueDispatchCounter);
+        return true;
+    }
+
+    /**
+     * 定时扫描并执行待处理的任务（兜底）
+     * 默认每 30 秒执行一次，正常路径由就绪队列驱动
+     */
+    @Scheduled(fixedDelayString = "${scheduling.worker.sweep-interval-ms:30000}")
     public void processPendingTasks() {
+        if (isBatchClaimAvailable()) {
+            processPendingTasksInBatches();
+            return;
+        }
         int processed = 0;
         int pageIndex = 0;
         java.util.Map<Long, Integer> processedPerTenant = new java.util.HashMap<>();
@@ -155,6 +476,7 @@ public class TaskWorkerService {
 
                     if (self.reserveTask(instance)) {
                         dispatchTask(instance);
+                        increment(sweepDispatchCounter);
                         processed++;
                         processedPerTenant.put(tenantId, usedForTenant + 1);
                     }
@@ -174,14 +496,163 @@ public class TaskWorkerService {
         }
     }
 
+    private boolean isBatchClaimAvailable() {
+        return batchClaimEnabled && claimRepository != null && claimRepository.supportsSkipLocked();
+    }
+
+    /**
+     * 批量抢占模式的扫描：每批一个事务，锁定、判定、抢占后立即派发。
+     * 本轮判定不可抢占的实例记入排除集，后续批次不再锁定它们。
+     */
+    private void processPendingTasksInBatches() {
+        int processed = 0;
+        java.util.Map<Long, Integer> processedPerTenant = new java.util.HashMap<>();
+        Set<Long> excludedIds = new java.util.HashSet<>();
+        try {
+            while (processed < MAX_TASKS_PER_CYCLE && excludedIds.size() < MAX_TASKS_PER_CYCLE) {
+                int limit = Math.max(1, Math.min(batchClaimSize, MAX_TASKS_PER_CYCLE - processed));
+                BatchClaim claim = self.claimReadyBatch(limit, excludedIds, processedPerTenant);
+                for (SchedulingTaskInstance instance : claim.reserved()) {
+                    dispatchTask(instance);
+                    increment(sweepDispatchCounter);
+                }
+                processed += claim.reserved().size();
+                excludedIds.addAll(claim.skippedIds());
+                if (claim.locked() < limit) {
+                    break;
+                }
+            }
+            if (processed > 0) {
+                logger.info("本轮批量抢占执行任务 {} 个", processed);
+            }
+        } catch (Exception e) {
+            logger.error("批量抢占待处理任务失败", e);
+        }
+    }
+
+    /**
+     * 批量抢占一批实例（原子操作）。
+     *
+     * <p>SKIP LOCKED 锁定至多 {@code limit} 行后，以一次查询得到的持锁快照在内存中按 PARALLEL / SEQUENTIAL /
+     * SINGLETON / KEYED 判定，本批内先被接受的实例也计入快照。PARALLEL 实例最后用一条 UPDATE 一起抢占；
+     * 受限策略的实例快照判定通过后仍走原有的条件 UPDATE，保证跨节点并发时的互斥。
+     * 租户上限与依赖检查沿用逐条模式的规则。</p>
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public BatchClaim claimReadyBatch(int limit, Set<Long> excludedIds, java.util.Map<Long, Integer> processedPerTenant) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> lockedIds = claimRepository.lockReadyIds(now, limit, excludedIds);
+        return reserveLockedBatch(lockedIds, now, processedPerTenant, true);
+    }
+
+    /**
+     * 就绪队列路径的批量抢占（原子操作）：按 id 锁定仍到期的 PENDING 实例后，按与扫描相同的并发策略快照判定抢占。
+     * 入队前已完成依赖判定，租户配额由 {@link TenantFairShareDispatcher} 负责，这里都不再重复。
+     *
+     * @return 本批成功抢占的实例
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<SchedulingTaskInstance> claimReadyTasks(java.util.Collection<Long> instanceIds) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> lockedIds = claimRepository.lockReadyIdsIn(instanceIds, now);
+        return reserveLockedBatch(lockedIds, now, null, false).reserved();
+    }
+
+    /**
+     * @param processedPerTenant 本轮各租户已抢占数，为 null 时不做租户上限判定
+     * @param checkDependencies  是否逐个检查上游依赖
+     */
+    private BatchClaim reserveLockedBatch(List<Long> lockedIds, LocalDateTime now,
+                                          @Nullable java.util.Map<Long, Integer> processedPerTenant,
+                                          boolean checkDependencies) {
+        if (lockedIds.isEmpty()) {
+            return new BatchClaim(0, List.of(), List.of());
+        }
+        java.util.Map<Long, SchedulingTaskInstance> candidatesById = new java.util.HashMap<>();
+        for (SchedulingTaskInstance candidate : taskInstanceRepository.findAllById(lockedIds)) {
+            candidatesById.put(candidate.getId(), candidate);
+        }
+        Set<Long> taskIds = new java.util.HashSet<>();
+        Set<Long> dagRunIds = new java.util.HashSet<>();
+        candidatesById.values().forEach(candidate -> {
+            if (candidate.getTaskId() != null) {
+                taskIds.add(candidate.getTaskId());
+            }
+            if (candidate.getDagRunId() != null) {
+                dagRunIds.add(candidate.getDagRunId());
+            }
+        });
+        HeldLocks heldLocks = new HeldLocks(claimRepository.findActiveLocks(taskIds, dagRunIds));
+
+        List<SchedulingTaskInstance> accepted = new java.util.ArrayList<>();
+        List<Long> parallelIds = new java.util.ArrayList<>();
+        List<Long> skippedIds = new java.util.ArrayList<>();
+        for (Long id : lockedIds) {
+            SchedulingTaskInstance candidate = candidatesById.get(id);
+            if (candidate == null) {
+                continue;
+            }
+            Long tenantId = candidate.getTenantId() != null ? candidate.getTenantId() : 0L;
+            int usedForTenant = processedPerTenant != null ? processedPerTenant.getOrDefault(tenantId, 0) : 0;
+            if (processedPerTenant != null && usedForTenant >= maxTasksPerTenantPerCycle) {
+                skippedIds.add(id);
+                continue;
+            }
+            if (checkDependencies && !dependencyCheckerService.checkDependencies(candidate)) {
+                logger.debug("任务实例 {} 的依赖未满足，跳过", id);
+                skippedIds.add(id);
+                continue;
+            }
+            String policy = resolveConcurrencyPolicy(candidate);
+            String concurrencyKey = "KEYED".equals(policy) ? resolveConcurrencyKey(candidate) : null;
+            if (!heldLocks.admits(candidate, policy, concurrencyKey)) {
+                logger.debug("Worker {} 批量抢占跳过实例 {}（并发策略 {} 受限）", workerId, id, policy);
+                skippedIds.add(id);
+                continue;
+            }
+            if ("PARALLEL".equals(policy)) {
+                parallelIds.add(id);
+            } else if (reserveWithPolicy(candidate, policy, now) == 0) {
+                // 快照之后其他节点抢占了同维度实例，条件 UPDATE 兜底
+                skippedIds.add(id);
+                continue;
+            }
+            heldLocks.hold(candidate, concurrencyKey);
+            accepted.add(candidate);
+            if (processedPerTenant != null) {
+                processedPerTenant.put(tenantId, usedForTenant + 1);
+            }
+        }
+        if (!parallelIds.isEmpty()) {
+            claimRepository.reserveAll(parallelIds, workerId, now);
+        }
+        if (!accepted.isEmpty()) {
+            logger.info("Worker {} 批量抢占任务 {} 个（锁定 {} 行）", workerId, accepted.size(), lockedIds.size());
+        }
+        return new BatchClaim(lockedIds.size(), accepted, skippedIds);
+    }
+
     private void dispatchTask(SchedulingTaskInstance instance) {
-        dispatchExecutor.execute(() -> {
+        dispatchTask(instance, null);
+    }
+
+    private void dispatchTask(SchedulingTaskInstance instance, @Nullable Runnable onComplete) {
+        Runnable body = () -> {
             try {
                 self.executeTask(instance);
             } catch (Exception e) {
                 logger.error("Worker {} 异步派发任务失败, instanceId: {}", workerId, instance.getId(), e);
+            } finally {
+                if (onComplete != null) {
+                    onComplete.run();
+                }
             }
-        });
+        };
+        if (executionSupervisor != null && executionSupervisor.isEnabled()) {
+            executionSupervisor.dispatch(instance, body);
+            return;
+        }
+        dispatchExecutor.execute(body);
     }
 
     /** 僵尸任务回收：每 30 秒将超时未完成的 RESERVED/RUNNING 置为 PENDING、清空锁，并设 scheduledAt=now 以便立即重排 */
@@ -207,6 +678,19 @@ public class TaskWorkerService {
     public boolean reserveTask(SchedulingTaskInstance instance) {
         LocalDateTime now = LocalDateTime.now();
         String concurrencyPolicy = resolveConcurrencyPolicy(instance);
+        int updated = reserveWithPolicy(instance, concurrencyPolicy, now);
+
+        if (updated > 0) {
+            logger.info("Worker {} 抢占任务成功, instanceId: {}, policy: {}", workerId, instance.getId(), concurrencyPolicy);
+            return true;
+        } else {
+            logger.debug("Worker {} 抢占任务失败（可能并发策略限制或已被其他 Worker 抢占）, instanceId: {}, policy: {}",
+                    workerId, instance.getId(), concurrencyPolicy);
+            return false;
+        }
+    }
+
+    private int reserveWithPolicy(SchedulingTaskInstance instance, String concurrencyPolicy, LocalDateTime now) {
         int updated;
         switch (concurrencyPolicy) {
             case "SEQUENTIAL":
@@ -252,15 +736,7 @@ public class TaskWorkerService {
                         instance.getId(), "RESERVED", workerId, now);
                 break;
         }
-        
-        if (updated > 0) {
-            logger.info("Worker {} 抢占任务成功, instanceId: {}, policy: {}", workerId, instance.getId(), concurrencyPolicy);
-            return true;
-        } else {
-            logger.debug("Worker {} 抢占任务失败（可能并发策略限制或已被其他 Worker 抢占）, instanceId: {}, policy: {}",
-                    workerId, instance.getId(), concurrencyPolicy);
-            return false;
-        }
+        return updated;
     }
 
     private String resolveConcurrencyPolicy(SchedulingTaskInstance instance) {
@@ -311,14 +787,28 @@ public class TaskWorkerService {
         SchedulingTaskInstance runningInstance = runningTaskState.instance();
         SchedulingTaskHistory history = runningTaskState.history();
         LocalDateTime startTime = history.getStartTime() != null ? history.getStartTime() : LocalDateTime.now();
-        SchedulingExecutionContext executionContext = buildExecutionContext(runningInstance);
+        recordEdgeLatency(runningInstance, startTime);
+        SchedulingTaskLogService.ChunkedTaskLogWriter logWriter = taskLogService != null
+                ? taskLogService.open(runningInstance, history.getId())
+                : null;
+        SchedulingExecutionContext executionContext = buildExecutionContext(runningInstance, logWriter);
 
         try {
             int timeoutSec = getTimeoutSec(runningInstance);
+            boolean supervised = executionSupervisor != null && executionSupervisor.isSupervised(runningInstance.getId());
             Future<TaskExecutorService.TaskExecutionResult> future = submitWithExecutionContext(
                     executionContext,
+                    runningInstance.getId(),
+                    supervised,
                     () -> taskExecutorService.execute(executionContext, runningInstance));
-            TaskExecutorService.TaskExecutionResult result = awaitTaskResult(future, runningInstance, timeoutSec);
+            TaskExecutorService.TaskExecutionResult result = supervised
+                    ? awaitSupervisedResult(future, runningInstance, timeoutSec)
+                    : awaitTaskResult(future, runningInstance, timeoutSec);
+            if (logWriter != null) {
+                // 终态写入前落完日志，跟随日志的前端看到终态时不会缺最后一段
+                result = taskLogService.spillOversizedResult(result, logWriter);
+                logWriter.close();
+            }
             LocalDateTime endTime = LocalDateTime.now();
             long durationMs = java.time.Duration.between(startTime, endTime).toMillis();
 
@@ -338,6 +828,7 @@ public class TaskWorkerService {
                 logger.info("Worker {} 任务执行成功, instanceId: {}, 耗时: {}ms", 
                         workerId, runningInstance.getId(), durationMs);
                 if (completedInstance != null) {
+                    dependencyCheckerService.recordSuccess(completedInstance);
                     scheduleDownstreamTasks(completedInstance);
                 }
             } else {
@@ -345,6 +836,9 @@ public class TaskWorkerService {
             }
         } catch (Exception e) {
             logger.error("Worker {} 任务执行异常, instanceId: {}", workerId, runningInstance.getId(), e);
+            if (logWriter != null) {
+                logWriter.close();
+            }
             LocalDateTime endTime = LocalDateTime.now();
             long durationMs = java.time.Duration.between(startTime, endTime).toMillis();
             if (isCancellationRequested(runningInstance.getId(), runningInstance.getTenantId())) {
@@ -393,8 +887,10 @@ public class TaskWorkerService {
         return new RunningTaskState(latest, history);
     }
 
-    private SchedulingExecutionContext buildExecutionContext(SchedulingTaskInstance instance) {
+    private SchedulingExecutionContext buildExecutionContext(SchedulingTaskInstance instance,
+                                                             @Nullable TaskLogWriter logWriter) {
         SchedulingExecutionContext.Builder builder = SchedulingExecutionContext.builder()
+                .logWriter(logWriter)
                 .executionTenantId(instance.getTenantId())
                 .dagId(instance.getDagId())
                 .dagRunId(instance.getDagRunId())
@@ -500,12 +996,16 @@ public class TaskWorkerService {
 
     private <T> Future<T> submitWithExecutionContext(
             SchedulingExecutionContext executionContext,
+            Long instanceId,
+            boolean supervised,
             Callable<T> callable) {
         Long previousTenantId = TenantContext.getActiveTenantId();
         String previousTenantSource = TenantContext.getTenantSource();
         try {
             applyExecutionContextTenant(executionContext);
-            return taskExecutionExecutor.submit(callable);
+            return supervised
+                    ? executionSupervisor.submit(instanceId, callable)
+                    : taskExecutionExecutor.submit(callable);
         } finally {
             restoreTenantContext(previousTenantId, previousTenantSource);
         }
@@ -544,15 +1044,42 @@ public class TaskWorkerService {
                     return timeoutResult(instance.getId(), timeoutSec);
                 }
             } catch (ExecutionException e) {
-                Throwable cause = e.getCause();
-                if (cause instanceof Exception exception) {
-                    throw exception;
-                }
-                throw SchedulingExceptions.systemError("任务执行异常", cause);
+                throw unwrapExecutionException(e);
+            }
+        }
+    }
+
+    /**
+     * 虚拟线程模式：等待线程本身就是虚拟线程，直接阻塞到结果或超时；心跳与取消由 {@link TaskExecutionSupervisor} 批量处理，
+     * 发现取消时监督者中断执行，这里据此返回取消结果。
+     */
+    private TaskExecutorService.TaskExecutionResult awaitSupervisedResult(
+            Future<TaskExecutorService.TaskExecutionResult> future,
+            SchedulingTaskInstance instance,
+            int timeoutSec) throws Exception {
+        try {
+            return timeoutSec > 0 ? future.get(timeoutSec, TimeUnit.SECONDS) : future.get();
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return timeoutResult(instance.getId(), timeoutSec);
+        } catch (CancellationException e) {
+            if (executionSupervisor.isCancelled(instance.getId())) {
+                return cancelledResult();
             }
+            throw e;
+        } catch (ExecutionException e) {
+            throw unwrapExecutionException(e);
         }
     }
 
+    private static Exception unwrapExecutionException(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof Exception exception) {
+            return exception;
+        }
+        return SchedulingExceptions.systemError("任务执行异常", cause);
+    }
+
     private long resolveHeartbeatIntervalMillis() {
         int heartbeatSec = Math.max(1, Math.min(30, Math.max(1, lockTimeoutSec / 3)));
         return TimeUnit.SECONDS.toMillis(heartbeatSec);
@@ -653,16 +1180,22 @@ public class TaskWorkerService {
                 taskHistoryRepository.save(history);
             }
 
+            if (readyQueue != null) {
+                readyQueue.offerAfterCommit(List.of(latest));
+            }
+
             logger.info("Worker {} 任务执行失败，将重试, instanceId: {}, 当前尝试: {}/{}", 
                     workerId, latest.getId(), currentAttempt, maxRetry);
         } else {
             // 达到最大重试次数，标记为失败
+            String previousStatus = latest.getStatus();
             latest.setStatus("FAILED");
             latest.setResult(null);
             latest.setErrorMessage(result.getErrorMessage());
             latest.setLockedBy(null);
             latest.setLockTime(null);
             taskInstanceRepository.save(latest);
+            onRunTransition(latest, previousStatus, "FAILED");
 
             if (history != null) {
                 history.setStatus("FAILED");
@@ -697,12 +1230,14 @@ public class TaskWorkerService {
             return null;
         }
 
+        String previousStatus = latest.getStatus();
         latest.setStatus("SUCCESS");
         latest.setResult(serializeResult(result.getResult()));
         latest.setErrorMessage(null);
         latest.setLockedBy(null);
         latest.setLockTime(null);
         latest = taskInstanceRepository.save(latest);
+        onRunTransition(latest, previousStatus, "SUCCESS");
 
         if (history != null) {
             history.setStatus("SUCCESS");
@@ -731,11 +1266,13 @@ public class TaskWorkerService {
             LocalDateTime endTime,
             long durationMs) {
         if (latest != null) {
+            String previousStatus = latest.getStatus();
             latest.setStatus("CANCELLED");
             latest.setResult(null);
             latest.setLockedBy(null);
             latest.setLockTime(null);
             taskInstanceRepository.save(latest);
+            onRunTransition(latest, previousStatus, "CANCELLED");
         }
         if (history != null) {
             history.setStatus("CANCELLED");
@@ -746,15 +1283,28 @@ public class TaskWorkerService {
     }
 
     /**
-     * 调度下游任务：仅按边查出下游节点编码，再只加载这些节点的 PENDING 实例。
+     * 同一事务内更新所属 DAG Run 的状态计数；迁移到终态时 Run 可能随之收敛。
+     */
+    private void onRunTransition(SchedulingTaskInstance instance, String fromStatus, String toStatus) {
+        if (runStateMachine != null && instance != null && instance.getDagRunId() != null) {
+            runStateMachine.onTransition(instance, fromStatus, toStatus);
+        }
+    }
+
+    /**
+     * 调度下游任务：按拓扑缓存（未配置时按边表）查出下游节点编码，再只加载这些节点的 PENDING 实例。
+     * 依赖满足的实例置 scheduledAt 后推入就绪队列（事务提交后），派发线程立即拾取。
      */
     @Transactional
     public void scheduleDownstreamTasks(SchedulingTaskInstance completedInstance) {
-        List<String> downstreamNodeCodes = dagEdgeRepository
-                .findByDagVersionIdAndFromNodeCode(completedInstance.getDagVersionId(), completedInstance.getNodeCode())
-                .stream()
-                .map(edge -> edge.getToNodeCode())
-                .toList();
+        List<String> downstreamNodeCodes = topologyCache != null
+                ? topologyCache.get(completedInstance.getDagVersionId(), completedInstance.getTenantId())
+                        .downstreamNodeCodes(completedInstance.getNodeCode())
+                : dagEdgeRepository
+                        .findByDagVersionIdAndFromNodeCode(completedInstance.getDagVersionId(), completedInstance.getNodeCode())
+                        .stream()
+                        .map(edge -> edge.getToNodeCode())
+                        .toList();
         if (downstreamNodeCodes.isEmpty()) {
             return;
         }
@@ -763,14 +1313,40 @@ public class TaskWorkerService {
                         completedInstance.getDagRunId(), downstreamNodeCodes, "PENDING");
 
         LocalDateTime now = LocalDateTime.now();
+        List<SchedulingTaskInstance> readyInstances = new java.util.ArrayList<>();
         for (SchedulingTaskInstance downstream : downstreamInstances) {
             if (dependencyCheckerService.checkDependencies(downstream)) {
                 downstream.setScheduledAt(now);
                 taskInstanceRepository.save(downstream);
+                readyInstances.add(downstream);
                 logger.info("节点 {} 完成，调度下游节点 {}, taskInstanceId: {}",
                         completedInstance.getNodeCode(), downstream.getNodeCode(), downstream.getId());
             }
         }
+        if (readyQueue != null) {
+            readyQueue.offerAfterCommit(readyInstances);
+        }
+    }
+
+    /**
+     * DAG 边延迟：实例就绪（scheduledAt，即上游完成或 Run 创建的时刻）到进入 RUNNING 的耗时。
+     * 仅统计首次尝试，重试的 scheduledAt 是退避后的时间点，不代表边延迟。
+     */
+    private void recordEdgeLatency(SchedulingTaskInstance instance, LocalDateTime startTime) {
+        if (edgeLatencyTimer == null || instance.getDagRunId() == null || instance.getScheduledAt() == null
+                || instance.getAttemptNo() == null || instance.getAttemptNo() != 1) {
+            return;
+        }
+        java.time.Duration latency = java.time.Duration.between(instance.getScheduledAt(), startTime);
+        if (!latency.isNegative()) {
+            edgeLatencyTimer.record(latency);
+        }
+    }
+
+    private void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
     }
 
     /**
@@ -896,6 +1472,57 @@ public class TaskWorkerService {
 
     public record RunningTaskState(SchedulingTaskInstance instance, SchedulingTaskHistory history) {}
 
+    /**
+     * 一次批量抢占的结果：锁定行数、已抢占实例、本轮判定不可抢占的实例 id。
+     */
+    public record BatchClaim(int locked, List<SchedulingTaskInstance> reserved, List<Long> skippedIds) {}
+
+    /**
+     * 批量抢占时的持锁快照，判定规则与逐条抢占的 reserve*TaskInstance SQL 一致：
+     * SEQUENTIAL 按 (dagRunId, nodeCode)，SINGLETON 按 taskId，KEYED 按 (taskId, concurrencyKey)。
+     */
+    private static final class HeldLocks {
+        private final Set<Long> taskIds = new java.util.HashSet<>();
+        private final Set<String> nodeKeys = new java.util.HashSet<>();
+        private final Set<String> concurrencyKeys = new java.util.HashSet<>();
+
+        private HeldLocks(List<SchedulingTaskClaimRepository.ActiveLock> activeLocks) {
+            for (SchedulingTaskClaimRepository.ActiveLock lock : activeLocks) {
+                add(lock.taskId(), lock.dagRunId(), lock.nodeCode(), lock.concurrencyKey());
+            }
+        }
+
+        private boolean admits(SchedulingTaskInstance instance, String policy, String concurrencyKey) {
+            return switch (policy) {
+                case "SEQUENTIAL" -> instance.getDagRunId() == null || !StringUtils.hasText(instance.getNodeCode())
+                        || !nodeKeys.contains(instance.getDagRunId() + "|" + instance.getNodeCode());
+                case "SINGLETON" -> !taskIds.contains(instance.getTaskId());
+                case "KEYED" -> !StringUtils.hasText(concurrencyKey)
+                        || !concurrencyKeys.contains(instance.getTaskId() + "|" + concurrencyKey);
+                default -> true;
+            };
+        }
+
+        private void hold(SchedulingTaskInstance instance, String concurrencyKey) {
+            add(instance.getTaskId(), instance.getDagRunId(), instance.getNodeCode(), instance.getConcurrencyKey());
+            if (StringUtils.hasText(concurrencyKey)) {
+                concurrencyKeys.add(instance.getTaskId() + "|" + concurrencyKey);
+            }
+        }
+
+        private void add(Long taskId, Long dagRunId, String nodeCode, String concurrencyKey) {
+            if (taskId != null) {
+                taskIds.add(taskId);
+                if (StringUtils.hasText(concurrencyKey)) {
+                    concurrencyKeys.add(taskId + "|" + concurrencyKey);
+                }
+            }
+            if (dagRunId != null && StringUtils.hasText(nodeCode)) {
+                nodeKeys.add(dagRunId + "|" + nodeCode);
+            }
+        }
+    }
+
     private record ExecutionTaskConfig(
             Long taskTypeId,
             String params,
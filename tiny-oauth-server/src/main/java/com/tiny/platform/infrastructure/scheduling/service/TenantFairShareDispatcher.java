@@ -0,0 +1,363 @@
+package com.tiny.platform.infrastructure.scheduling.service;
+
+import com.tiny.platform.infrastructure.tenant.service.TenantQuotaService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * 按租户加权公平派发就绪任务（Deficit Round Robin）。
+ *
+ * <p>从 {@link SchedulingReadyQueue} 取出的已到期任务按租户放入各自的 FIFO 队列，派发时在有积压的租户间轮转：
+ * 轮到的租户获得 {@code quantum × weight} 的额度，每派发一个任务扣 1，额度用完或队列取空后让给下一个租户。
+ * 派发受全局在途上限与租户并发上限约束，达到上限的租户本轮跳过、保留额度；任务执行结束后 {@link #release}
+ * 归还名额。这样大租户的回填积压只占其权重对应的份额，小租户的就绪任务最多等待一轮轮转，而不是排在整批积压之后。</p>
+ *
+ * <p>权重与并发上限来自租户设置（{@link TenantQuotaService#resolveSchedulingShare}），未设置时使用配置默认值，
+ * 按 {@code share-refresh-seconds} 周期刷新。积压只在内存中：任务仍为 PENDING，进程重启后由数据库扫描兜底。</p>
+ */
+@Component
+public class TenantFairShareDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantFairShareDispatcher.class);
+
+    /** 无租户实例的归属键 */
+    private static final Long NO_TENANT = 0L;
+
+    private final boolean enabled;
+    private final int quantum;
+    private final int defaultWeight;
+    private final int defaultMaxConcurrency;
+    private final int maxInFlight;
+    private final int maxBacklog;
+    private final long shareRefreshNanos;
+    @Nullable
+    private final Function<Long, TenantQuotaService.SchedulingShare> shareResolver;
+    @Nullable
+    private final MeterRegistry meterRegistry;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final Map<Long, TenantLane> lanes = new HashMap<>();
+    /** 有积压的租户，队首为当前轮到的租户 */
+    private final ArrayDeque<TenantLane> activeLanes = new ArrayDeque<>();
+    private int inFlight;
+    private int backlog;
+    /** 累计归还次数；{@link #next()} 落空时记下当时的值，{@link #awaitRelease} 据此判断其后是否已有归还 */
+    private long releases;
+    private long releasesAtMiss;
+
+    public TenantFairShareDispatcher(boolean enabled,
+                                     int quantum,
+                                     int defaultWeight,
+                                     int defaultMaxConcurrency,
+                                     int maxInFlight,
+                                     int maxBacklog) {
+        this(enabled, quantum, defaultWeight, defaultMaxConcurrency, maxInFlight, maxBacklog, 60,
+                (Function<Long, TenantQuotaService.SchedulingShare>) null, null);
+    }
+
+    @Autowired
+    public TenantFairShareDispatcher(
+            @Value("${scheduling.worker.fair-share.enabled:true}") boolean enabled,
+            @Value("${scheduling.worker.fair-share.quantum:1}") int quantum,
+            @Value("${scheduling.worker.fair-share.default-weight:1}") int defaultWeight,
+            @Value("${scheduling.worker.fair-share.default-max-concurrency:0}") int defaultMaxConcurrency,
+            @Value("${scheduling.worker.fair-share.max-in-flight:${scheduling.worker.dispatch.pool-size:4}}") int maxInFlight,
+            @Value("${scheduling.worker.fair-share.max-backlog:10000}") int maxBacklog,
+            @Value("${scheduling.worker.fair-share.share-refresh-seconds:60}") long shareRefreshSeconds,
+            @Nullable TenantQuotaService tenantQuotaService,
+            @Nullable MeterRegistry meterRegistry) {
+        this(enabled, quantum, defaultWeight, defaultMaxConcurrency, maxInFlight, maxBacklog, shareRefreshSeconds,
+                tenantQuotaService != null ? shareResolver(tenantQuotaService) : null, meterRegistry);
+    }
+
+    TenantFairShareDispatcher(boolean enabled,
+                              int quantum,
+                              int defaultWeight,
+                              int defaultMaxConcurrency,
+                              int maxInFlight,
+                              int maxBacklog,
+                              long shareRefreshSeconds,
+                              @Nullable Function<Long, TenantQuotaService.SchedulingShare> shareResolver,
+                              @Nullable MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.quantum = Math.max(1, quantum);
+        this.defaultWeight = Math.max(1, defaultWeight);
+        this.defaultMaxConcurrency = Math.max(0, defaultMaxConcurrency);
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.maxBacklog = Math.max(1, maxBacklog);
+        this.shareRefreshNanos = TimeUnit.SECONDS.toNanos(Math.max(1, shareRefreshSeconds));
+        this.shareResolver = shareResolver;
+        this.meterRegistry = meterRegistry;
+    }
+
+    private static Function<Long, TenantQuotaService.SchedulingShare> shareResolver(TenantQuotaService tenantQuotaService) {
+        return tenantQuotaService::resolveSchedulingShare;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 积压是否还能容纳新任务；已满时调用方应把任务留在就绪队列中。
+     */
+    public boolean hasBacklogCapacity() {
+        lock.lock();
+        try {
+            return backlog < maxBacklog;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 放入所属租户的队列尾部。租户份额过期时先在锁外刷新，避免派发线程持锁访问数据库。
+     */
+    public void enqueue(SchedulingReadyQueue.ReadyTask task) {
+        Long tenantKey = task.tenantId() != null ? task.tenantId() : NO_TENANT;
+        TenantLane lane = laneFor(tenantKey);
+        refreshShareIfStale(lane);
+        lock.lock();
+        try {
+            lane.queue.addLast(task);
+            backlog++;
+            lane.updateDepth();
+            if (!lane.active) {
+                lane.active = true;
+                activeLanes.addLast(lane);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 按加权轮转选出下一个可派发任务并占用名额；全局名额已满或积压租户均已达并发上限时返回 null。
+     * 返回的任务无论是否派发成功，都需调用 {@link #release} 归还名额。
+     */
+    @Nullable
+    public SchedulingReadyQueue.ReadyTask next() {
+        lock.lock();
+        try {
+            releasesAtMiss = releases;
+            if (inFlight >= maxInFlight) {
+                return null;
+            }
+            for (int visits = activeLanes.size(); visits > 0; visits--) {
+                TenantLane lane = activeLanes.peekFirst();
+                if (lane.atConcurrencyLimit()) {
+                    activeLanes.addLast(activeLanes.pollFirst());
+                    continue;
+                }
+                if (lane.deficit <= 0) {
+                    lane.deficit += quantum * lane.weight;
+                }
+                SchedulingReadyQueue.ReadyTask task = lane.queue.pollFirst();
+                lane.deficit--;
+                lane.inFlight++;
+                inFlight++;
+                backlog--;
+                lane.updateDepth();
+                if (lane.queue.isEmpty()) {
+                    activeLanes.pollFirst();
+                    lane.active = false;
+                    lane.deficit = 0;
+                } else if (lane.deficit <= 0) {
+                    activeLanes.addLast(activeLanes.pollFirst());
+                }
+                lane.recordWait(task);
+                return task;
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 归还 {@link #next()} 占用的名额，并唤醒等待名额的派发线程。
+     */
+    public void release(SchedulingReadyQueue.ReadyTask task) {
+        Long tenantKey = task.tenantId() != null ? task.tenantId() : NO_TENANT;
+        lock.lock();
+        try {
+            TenantLane lane = lanes.get(tenantKey);
+            if (lane != null && lane.inFlight > 0) {
+                lane.inFlight--;
+            }
+            if (inFlight > 0) {
+                inFlight--;
+            }
+            releases++;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@link #next()} 落空后等待至多 {@code timeout}，直到有任务归还名额；落空之后已发生过归还时立即返回。
+     *
+     * @return 是否有名额归还
+     */
+    public boolean awaitRelease(long timeout, TimeUnit unit) throws InterruptedException {
+        long remainingNanos = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (releases == releasesAtMiss) {
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                remainingNanos = released.awaitNanos(remainingNanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int backlog() {
+        lock.lock();
+        try {
+            return backlog;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private TenantLane laneFor(Long tenantKey) {
+        lock.lock();
+        try {
+            return lanes.computeIfAbsent(tenantKey, this::newLane);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private TenantLane newLane(Long tenantKey) {
+        TenantLane lane = new TenantLane(defaultWeight, defaultMaxConcurrency);
+        if (meterRegistry != null) {
+            String tenantTag = String.valueOf(tenantKey);
+            Gauge.builder("tiny.scheduling.fair-share.queue.depth", lane, l -> l.depth)
+                    .tag("tenant", tenantTag)
+                    .description("Ready task instances waiting in the tenant's fair-share queue")
+                    .register(meterRegistry);
+            Gauge.builder("tiny.scheduling.fair-share.queue.head-wait", lane, TenantLane::headWaitSeconds)
+                    .tag("tenant", tenantTag)
+                    .baseUnit("seconds")
+                    .description("How long the oldest ready task of the tenant has been waiting for dispatch")
+                    .register(meterRegistry);
+            Gauge.builder("tiny.scheduling.fair-share.in-flight", lane, l -> l.inFlight)
+                    .tag("tenant", tenantTag)
+                    .description("Task instances of the tenant dispatched through the fair-share queue and still executing")
+                    .register(meterRegistry);
+            lane.waitTimer = Timer.builder("tiny.scheduling.fair-share.wait")
+                    .tag("tenant", tenantTag)
+                    .description("Time from a task instance becoming ready to being selected for dispatch")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+        lane.tenantKey = tenantKey;
+        return lane;
+    }
+
+    private void refreshShareIfStale(TenantLane lane) {
+        long now = System.nanoTime();
+        if (shareResolver == null || NO_TENANT.equals(lane.tenantKey)
+                || (lane.shareResolvedAtNanos != 0 && now - lane.shareResolvedAtNanos < shareRefreshNanos)) {
+            return;
+        }
+        int weight = defaultWeight;
+        int maxConcurrency = defaultMaxConcurrency;
+        try {
+            TenantQuotaService.SchedulingShare share = shareResolver.apply(lane.tenantKey);
+            if (share != null && share.weight() != null) {
+                weight = Math.max(1, share.weight());
+            }
+            if (share != null && share.maxConcurrency() != null) {
+                maxConcurrency = Math.max(0, share.maxConcurrency());
+            }
+        } catch (Exception e) {
+            logger.warn("读取租户 {} 调度份额失败，沿用当前设置: {}", lane.tenantKey, e.getMessage());
+            lane.shareResolvedAtNanos = now;
+            return;
+        }
+        lock.lock();
+        try {
+            lane.weight = weight;
+            lane.maxConcurrency = maxConcurrency;
+            lane.shareResolvedAtNanos = now;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 单个租户的队列、额度与在途数；除 depth / headReadyAtNanos 供指标读取外，字段均在锁内访问
+     */
+    private static final class TenantLane {
+
+        private final ArrayDeque<SchedulingReadyQueue.ReadyTask> queue = new ArrayDeque<>();
+        private Long tenantKey;
+        private int weight;
+        private int maxConcurrency;
+        private int deficit;
+        private volatile int inFlight;
+        private boolean active;
+        private volatile long shareResolvedAtNanos;
+        private volatile int depth;
+        private volatile long headReadyAtNanos;
+        private Timer waitTimer;
+
+        TenantLane(int weight, int maxConcurrency) {
+            this.weight = weight;
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        boolean atConcurrencyLimit() {
+            return maxConcurrency > 0 && inFlight >= maxConcurrency;
+        }
+
+        void updateDepth() {
+            depth = queue.size();
+            SchedulingReadyQueue.ReadyTask head = queue.peekFirst();
+            headReadyAtNanos = head != null ? head.readyAtNanos() : 0L;
+        }
+
+        double headWaitSeconds() {
+            long readyAt = headReadyAtNanos;
+            return depth == 0 || readyAt == 0L ? 0.0 : Math.max(0L, System.nanoTime() - readyAt) / 1e9;
+        }
+
+        void recordWait(SchedulingReadyQueue.ReadyTask task) {
+            if (waitTimer != null) {
+                waitTimer.record(Math.max(0L, System.nanoTime() - task.readyAtNanos()), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
@@ -48,6 +48,12 @@ public class Tenant implements Serializable {
     @Column(name = "max_storage_gb")
     private Integer maxStorageGb;
 
+    @Column(name = "scheduling_weight")
+    private Integer schedulingWeight;
+
+    @Column(name = "scheduling_max_concurrency")
+    private Integer schedulingMaxConcurrency;
+
     @Column(name = "contact_name", length = 64)
     private String contactName;
 
@@ -149,6 +155,22 @@ public class Tenant implements Serializable {
         this.maxStorageGb = maxStorageGb;
     }
 
+    public Integer getSchedulingWeight() {
+        return schedulingWeight;
+    }
+
+    public void setSchedulingWeight(Integer schedulingWeight) {
+        this.schedulingWeight = schedulingWeight;
+    }
+
+    public Integer getSchedulingMaxConcurrency() {
+        return schedulingMaxConcurrency;
+    }
+
+    public void setSchedulingMaxConcurrency(Integer schedulingMaxConcurrency) {
+        this.schedulingMaxConcurrency = schedulingMaxConcurrency;
+    }
+
     public String getContactName() {
         return contactName;
     }
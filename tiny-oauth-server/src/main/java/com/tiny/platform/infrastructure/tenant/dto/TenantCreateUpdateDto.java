@@ -14,6 +14,8 @@ public class TenantCreateUpdateDto {
     private String expiresAt;
     private Integer maxUsers;
     private Integer maxStorageGb;
+    private Integer schedulingWeight;
+    private Integer schedulingMaxConcurrency;
     private String contactName;
     private String contactEmail;
     private String contactPhone;
@@ -97,6 +99,22 @@ public class TenantCreateUpdateDto {
         this.maxStorageGb = maxStorageGb;
     }
 
+    public Integer getSchedulingWeight() {
+        return schedulingWeight;
+    }
+
+    public void setSchedulingWeight(Integer schedulingWeight) {
+        this.schedulingWeight = schedulingWeight;
+    }
+
+    public Integer getSchedulingMaxConcurrency() {
+        return schedulingMaxConcurrency;
+    }
+
+    public void setSchedulingMaxConcurrency(Integer schedulingMaxConcurrency) {
+        this.schedulingMaxConcurrency = schedulingMaxConcurrency;
+    }
+
     public String getContactName() {
         return contactName;
     }
@@ -17,6 +17,8 @@ public class TenantResponseDto {
     private String expiresAt;
     private Integer maxUsers;
     private Integer maxStorageGb;
+    private Integer schedulingWeight;
+    private Integer schedulingMaxConcurrency;
     private String contactName;
     private String contactEmail;
     private String contactPhone;
@@ -104,6 +106,22 @@ public class TenantResponseDto {
         this.maxStorageGb = maxStorageGb;
     }
 
+    public Integer getSchedulingWeight() {
+        return schedulingWeight;
+    }
+
+    public void setSchedulingWeight(Integer schedulingWeight) {
+        this.schedulingWeight = schedulingWeight;
+    }
+
+    public Integer getSchedulingMaxConcurrency() {
+        return schedulingMaxConcurrency;
+    }
+
+    public void setSchedulingMaxConcurrency(Integer schedulingMaxConcurrency) {
+        this.schedulingMaxConcurrency = schedulingMaxConcurrency;
+    }
+
     public String getContactName() {
         return contactName;
     }
@@ -9,6 +9,7 @@ import com.tiny.platform.infrastructure.auth.resource.repository.CarrierTemplate
 import com.tiny.platform.infrastructure.auth.resource.repository.RoleResourcePermissionBindingView;
 import com.tiny.platform.infrastructure.auth.resource.repository.ApiEndpointEntryRepository;
 import com.tiny.platform.infrastructure.auth.resource.repository.UiActionEntryRepository;
+import com.tiny.platform.infrastructure.auth.resource.service.ApiEndpointRouteRegistry;
 import com.tiny.platform.infrastructure.auth.resource.service.ResourcePermissionBindingService;
 import com.tiny.platform.infrastructure.auth.resource.support.PlatformControlPlaneResourcePolicy;
 import com.tiny.platform.infrastructure.auth.role.domain.Role;
@@ -31,6 +32,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -67,6 +69,7 @@ public class TenantBootstrapServiceImpl implements TenantBootstrapService {
     private final RoleRepository roleRepository;
     private final PlatformTenantProperties platformTenantProperties;
     private final ResourcePermissionBindingService resourcePermissionBindingService;
+    private final ApiEndpointRouteRegistry apiEndpointRouteRegistry;
 
     public TenantBootstrapServiceImpl(
         TenantRepository tenantRepository,
@@ -77,6 +80,25 @@ public class TenantBootstrapServiceImpl implements TenantBootstrapService {
         RoleRepository roleRepository,
         PlatformTenantProperties platformTenantProperties,
         ResourcePermissionBindingService resourcePermissionBindingService
+    ) {
+        this(tenantRepository, carrierProjectionRepository, menuEntryRepository, uiActionEntryRepository,
+            apiEndpointEntryRepository, roleRepository, platformTenantProperties, resourcePermissionBindingService, null);
+    }
+
+    /**
+     * @param apiEndpointRouteRegistry 复制 api_endpoint 模板后推进目标作用域的路由表代数；为 {@code null} 时不通知
+     */
+    @Autowired
+    public TenantBootstrapServiceImpl(
+        TenantRepository tenantRepository,
+        CarrierProjectionRepository carrierProjectionRepository,
+        MenuEntryRepository menuEntryRepository,
+        UiActionEntryRepository uiActionEntryRepository,
+        ApiEndpointEntryRepository apiEndpointEntryRepository,
+        RoleRepository roleRepository,
+        PlatformTenantProperties platformTenantProperties,
+        ResourcePermissionBindingService resourcePermissionBindingService,
+        ApiEndpointRouteRegistry apiEndpointRouteRegistry
     ) {
         this.tenantRepository = tenantRepository;
         this.carrierProjectionRepository = carrierProjectionRepository;
@@ -86,6 +108,7 @@ public class TenantBootstrapServiceImpl implements TenantBootstrapService {
         this.roleRepository = roleRepository;
         this.platformTenantProperties = platformTenantProperties;
         this.resourcePermissionBindingService = resourcePermissionBindingService;
+        this.apiEndpointRouteRegistry = apiEndpointRouteRegistry;
     }
 
     @Override
@@ -473,6 +496,9 @@ public class TenantBootstrapServiceImpl implements TenantBootstrapService {
         }
         if (!clonedApiEndpoints.isEmpty()) {
             apiEndpointEntryRepository.saveAll(clonedApiEndpoints);
+            if (apiEndpointRouteRegistry != null) {
+                apiEndpointRouteRegistry.markChanged(targetTenantId, "api_endpoint");
+            }
         }
         flushClonedResources();
 
@@ -18,6 +18,7 @@ public class TenantQuotaService {
 
     private static final String ACTIVE = "ACTIVE";
     private static final long BYTES_PER_GB = 1024L * 1024L * 1024L;
+    private static final int MAX_SCHEDULING_WEIGHT = 1000;
 
     private final TenantRepository tenantRepository;
     private final TenantUserRepository tenantUserRepository;
@@ -52,6 +53,30 @@ public class TenantQuotaService {
         }
     }
 
+    /**
+     * 调度公平份额：权重至少为 1；并发上限为 0 表示不限制。
+     */
+    public void validateSchedulingShareSettings(Integer schedulingWeight, Integer schedulingMaxConcurrency) {
+        if (schedulingWeight != null && (schedulingWeight < 1 || schedulingWeight > MAX_SCHEDULING_WEIGHT)) {
+            throw new BusinessException(ErrorCode.INVALID_PARAMETER, "调度权重需在 1 到 " + MAX_SCHEDULING_WEIGHT + " 之间");
+        }
+        if (schedulingMaxConcurrency != null && schedulingMaxConcurrency < 0) {
+            throw new BusinessException(ErrorCode.INVALID_PARAMETER, "调度并发上限不能为负数");
+        }
+    }
+
+    /**
+     * 读取租户的调度公平份额设置；租户不存在或未设置时对应字段为 null，由调用方套用默认值。
+     */
+    public SchedulingShare resolveSchedulingShare(Long tenantId) {
+        if (tenantId == null) {
+            return SchedulingShare.UNSET;
+        }
+        return tenantRepository.findById(tenantId)
+            .map(tenant -> new SchedulingShare(tenant.getSchedulingWeight(), tenant.getSchedulingMaxConcurrency()))
+            .orElse(SchedulingShare.UNSET);
+    }
+
     public void assertCanCreateUsers(Long tenantId, int increment, String operation) {
         if (increment <= 0) {
             return;
@@ -143,4 +168,12 @@ public class TenantQuotaService {
     private long nullToZero(Long value) {
         return value == null ? 0L : value;
     }
+
+    /**
+     * 租户调度公平份额：权重决定每轮可派发的任务数，并发上限限制同时执行的实例数
+     */
+    public record SchedulingShare(Integer weight, Integer maxConcurrency) {
+
+        static final SchedulingShare UNSET = new SchedulingShare(null, null);
+    }
 }
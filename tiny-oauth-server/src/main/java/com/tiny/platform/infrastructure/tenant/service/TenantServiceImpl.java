@@ -195,6 +195,7 @@ public class TenantServiceImpl implements TenantService {
             throw new BusinessException(ErrorCode.MISSING_PARAMETER, "租户名称不能为空");
         }
         tenantQuotaService.validateQuotaSettingsForCreate(dto.getMaxUsers(), dto.getMaxStorageGb());
+        tenantQuotaService.validateSchedulingShareSettings(dto.getSchedulingWeight(), dto.getSchedulingMaxConcurrency());
         if (dto.getLifecycleStatus() != null && !dto.getLifecycleStatus().isBlank()) {
             String requestedStatus = normalizeLifecycleStatus(dto.getLifecycleStatus());
             if (!ACTIVE.equals(requestedStatus)) {
@@ -217,6 +218,8 @@ public class TenantServiceImpl implements TenantService {
         tenant.setExpiresAt(parseDateTime(dto.getExpiresAt()));
         tenant.setMaxUsers(dto.getMaxUsers());
         tenant.setMaxStorageGb(dto.getMaxStorageGb());
+        tenant.setSchedulingWeight(dto.getSchedulingWeight());
+        tenant.setSchedulingMaxConcurrency(dto.getSchedulingMaxConcurrency());
         tenant.setContactName(normalizeNullable(dto.getContactName()));
         tenant.setContactEmail(normalizeNullable(dto.getContactEmail()));
         tenant.setContactPhone(normalizeNullable(dto.getContactPhone()));
@@ -243,6 +246,7 @@ public class TenantServiceImpl implements TenantService {
             throw new BusinessException(ErrorCode.RESOURCE_STATE_INVALID, "请使用冻结、解冻或下线专用接口修改租户生命周期状态");
         }
         tenantQuotaService.validateQuotaSettingsForUpdate(dto.getMaxUsers(), dto.getMaxStorageGb());
+        tenantQuotaService.validateSchedulingShareSettings(dto.getSchedulingWeight(), dto.getSchedulingMaxConcurrency());
         Map<String, Object> before = snapshotTenantState(tenant);
 
         if (dto.getCode() != null && !dto.getCode().trim().isEmpty()) {
@@ -287,6 +291,14 @@ public class TenantServiceImpl implements TenantService {
             tenant.setMaxStorageGb(dto.getMaxStorageGb());
         }
 
+        if (dto.getSchedulingWeight() != null) {
+            tenant.setSchedulingWeight(dto.getSchedulingWeight());
+        }
+
+        if (dto.getSchedulingMaxConcurrency() != null) {
+            tenant.setSchedulingMaxConcurrency(dto.getSchedulingMaxConcurrency());
+        }
+
         if (dto.getContactName() != null) {
             tenant.setContactName(normalizeNullable(dto.getContactName()));
         }
@@ -871,6 +883,8 @@ public class TenantServiceImpl implements TenantService {
         snapshot.put("expiresAt", tenant.getExpiresAt() != null ? tenant.getExpiresAt().toString() : null);
         snapshot.put("maxUsers", tenant.getMaxUsers());
         snapshot.put("maxStorageGb", tenant.getMaxStorageGb());
+        snapshot.put("schedulingWeight", tenant.getSchedulingWeight());
+        snapshot.put("schedulingMaxConcurrency", tenant.getSchedulingMaxConcurrency());
         snapshot.put("contactName", tenant.getContactName());
         snapshot.put("contactEmail", tenant.getContactEmail());
         snapshot.put("contactPhone", tenant.getContactPhone());
@@ -16,6 +16,8 @@ CREATE TABLE IF NOT EXISTS `tenant` (
     `expires_at` TIMESTAMP NULL COMMENT '到期时间',
     `max_users` INT DEFAULT NULL COMMENT '最大用户数配额',
     `max_storage_gb` INT DEFAULT NULL COMMENT '存储配额(GB)',
+    `scheduling_weight` INT DEFAULT NULL COMMENT '调度权重',
+    `scheduling_max_concurrency` INT DEFAULT NULL COMMENT '调度并发上限(0 不限制)',
     `contact_name` VARCHAR(64) DEFAULT NULL COMMENT '联系人',
     `contact_email` VARCHAR(128) DEFAULT NULL COMMENT '联系邮箱',
     `contact_phone` VARCHAR(32) DEFAULT NULL COMMENT '联系电话',
@@ -319,7 +321,8 @@ CREATE TABLE IF NOT EXISTS `user_avatar` (
     CONSTRAINT `chk_file_size` CHECK (`file_size` <= 1048576)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='用户头像表，文件大小限制：最大1MB'; 
 
--- 创建 HTTP 请求日志表
+-- 创建 HTTP 请求日志表（与 Liquibase 172 终态对齐：按 request_at 天级 RANGE 分区，主键/唯一键含分区列；
+-- 日分区由 HttpRequestLogRetentionScheduler 从 p_future 中拆出并按保留天数整分区删除）
 CREATE TABLE IF NOT EXISTS `http_request_log` (
     `id` BIGINT UNSIGNED NOT NULL AUTO_INCREMENT COMMENT '主键，自增ID',
     `trace_id` CHAR(32) NOT NULL COMMENT '全链路 trace id（十六进制）',
@@ -351,8 +354,8 @@ CREATE TABLE IF NOT EXISTS `http_request_log` (
     `response_body` MEDIUMTEXT DEFAULT NULL COMMENT '响应体（按需开启；脱敏+限长）',
     `request_at` TIMESTAMP NOT NULL COMMENT '请求发生时间',
     `created_at` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '日志写入时间',
-    PRIMARY KEY (`id`),
-    UNIQUE KEY `uk_request_id` (`request_id`),
+    PRIMARY KEY (`id`, `request_at`),
+    UNIQUE KEY `uk_request_id` (`request_id`, `request_at`),
     KEY `idx_created_at` (`created_at`),
     KEY `idx_service_env_created` (`service_name`, `env`, `created_at`),
     KEY `idx_path_template_created` (`path_template`, `created_at`),
@@ -363,7 +366,29 @@ CREATE TABLE IF NOT EXISTS `http_request_log` (
     KEY `idx_trace` (`trace_id`),
     KEY `idx_trace_source_created` (`trace_source`, `created_at`),
     KEY `idx_request_at` (`request_at`)
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='HTTP 请求/响应日志（面向数据分析，body 可选，注意脱敏与限长）';
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='HTTP 请求/响应日志（面向数据分析，body 可选，注意脱敏与限长）'
+PARTITION BY RANGE (UNIX_TIMESTAMP(`request_at`)) (
+    PARTITION p_future VALUES LESS THAN MAXVALUE
+);
+
+-- 创建 HTTP 请求日志分钟聚合表（Liquibase 172）
+CREATE TABLE IF NOT EXISTS `http_request_log_minute` (
+    `bucket_minute` DATETIME NOT NULL COMMENT '分钟桶起点',
+    `tenant_id` BIGINT NOT NULL DEFAULT 0 COMMENT '租户ID（无租户为 0）',
+    `path_template` VARCHAR(256) NOT NULL COMMENT '路径模板，如 /orders/{id}',
+    `status` SMALLINT NOT NULL DEFAULT 0 COMMENT 'HTTP 状态码',
+    `request_count` BIGINT NOT NULL DEFAULT 0 COMMENT '请求数',
+    `duration_sum_ms` BIGINT NOT NULL DEFAULT 0 COMMENT '耗时总和（毫秒）',
+    `duration_max_ms` BIGINT NOT NULL DEFAULT 0 COMMENT '最大耗时（毫秒）',
+    `p50_ms` BIGINT NOT NULL DEFAULT 0 COMMENT 'p50 耗时（毫秒，多次合并时按请求数加权近似）',
+    `p95_ms` BIGINT NOT NULL DEFAULT 0 COMMENT 'p95 耗时（毫秒）',
+    `p99_ms` BIGINT NOT NULL DEFAULT 0 COMMENT 'p99 耗时（毫秒）',
+    `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `updated_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '最近合并时间',
+    PRIMARY KEY (`bucket_minute`, `tenant_id`, `path_template`, `status`),
+    KEY `idx_tenant_bucket` (`tenant_id`, `bucket_minute`),
+    KEY `idx_path_bucket` (`path_template`, `bucket_minute`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='HTTP 请求日志分钟聚合（看板读取，不扫描原始日志）';
 
 -- 创建导出任务表
 CREATE TABLE IF NOT EXISTS `export_task` (
@@ -711,6 +736,11 @@ CREATE TABLE IF NOT EXISTS `scheduling_dag_run` (
   `start_time` DATETIME DEFAULT NULL COMMENT '实际开始时间',
   `end_time` DATETIME DEFAULT NULL COMMENT '结束时间',
   `metrics` JSON DEFAULT NULL COMMENT '聚合指标（可选）',
+  `active_count` INT DEFAULT NULL COMMENT 'PENDING/RESERVED/RUNNING/PAUSED 实例数；NULL 表示尚未初始化，由一致性检查按实例表补齐',
+  `success_count` INT DEFAULT NULL COMMENT 'SUCCESS 实例数',
+  `failed_count` INT DEFAULT NULL COMMENT 'FAILED 实例数',
+  `skipped_count` INT DEFAULT NULL COMMENT 'SKIPPED 实例数',
+  `cancelled_count` INT DEFAULT NULL COMMENT 'CANCELLED 实例数',
   `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   PRIMARY KEY (`id`),
   KEY `idx_scheduling_dag_run_dag` (`dag_id`),
@@ -789,6 +819,51 @@ CREATE TABLE IF NOT EXISTS `scheduling_task_history` (
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
   COMMENT='任务执行历史表（无外键）';
 
+-- 9.1) scheduling_task_log_chunk：任务执行日志分块
+CREATE TABLE IF NOT EXISTS `scheduling_task_log_chunk` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '自增主键',
+  `tenant_id` BIGINT NOT NULL COMMENT '租户ID',
+  `task_instance_id` BIGINT NOT NULL COMMENT '来源 scheduling_task_instance.id',
+  `history_id` BIGINT NOT NULL COMMENT '所属 scheduling_task_history.id',
+  `start_offset` BIGINT NOT NULL COMMENT '本块起始字符偏移（含）',
+  `end_offset` BIGINT NOT NULL COMMENT '本块结束字符偏移（不含）',
+  `content` MEDIUMTEXT NOT NULL COMMENT '日志内容',
+  `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '写入时间',
+  PRIMARY KEY (`id`),
+  KEY `idx_task_log_chunk_history_offset` (`history_id`, `start_offset`),
+  KEY `idx_task_log_chunk_instance` (`task_instance_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+  COMMENT='任务执行日志分块表（无外键）';
+
+-- 9.2) scheduling_cron_trigger：轻量 Cron 触发引擎的 DAG 触发定义与水位
+CREATE TABLE IF NOT EXISTS `scheduling_cron_trigger` (
+  `dag_id` BIGINT NOT NULL COMMENT 'scheduling_dag.id',
+  `tenant_id` BIGINT DEFAULT NULL COMMENT '租户ID',
+  `cron_expression` VARCHAR(128) NOT NULL COMMENT 'Cron 表达式（Quartz 语法）',
+  `cron_timezone` VARCHAR(64) NOT NULL COMMENT '归一化后的时区 ID',
+  `paused` BOOLEAN NOT NULL DEFAULT FALSE COMMENT '是否暂停',
+  `last_fire_at` BIGINT NOT NULL COMMENT '最近触发水位（毫秒时间戳）',
+  PRIMARY KEY (`dag_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+  COMMENT='轻量 Cron 触发定义与水位表（无外键）';
+
+-- 9.3) scheduling_cron_partition：轻量 Cron 触发引擎分区租约
+CREATE TABLE IF NOT EXISTS `scheduling_cron_partition` (
+  `partition_no` INT NOT NULL COMMENT '分区号，dag_id % partitions',
+  `owner_id` VARCHAR(64) DEFAULT NULL COMMENT '持有租约的节点标识',
+  `lease_until` BIGINT NOT NULL DEFAULT 0 COMMENT '租约到期时间（毫秒时间戳）',
+  PRIMARY KEY (`partition_no`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+  COMMENT='轻量 Cron 触发分区租约表';
+
+-- 9.4) scheduling_cron_node：轻量 Cron 触发引擎节点心跳
+CREATE TABLE IF NOT EXISTS `scheduling_cron_node` (
+  `node_id` VARCHAR(64) NOT NULL COMMENT '节点标识',
+  `alive_until` BIGINT NOT NULL COMMENT '心跳到期时间（毫秒时间戳）',
+  PRIMARY KEY (`node_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+  COMMENT='轻量 Cron 触发节点心跳表';
+
 -- 10) scheduling_audit：操作审计表
 CREATE TABLE IF NOT EXISTS `scheduling_audit` (
   `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '自增主键',
@@ -0,0 +1,58 @@
+package com.tiny.platform.core.oauth.repository;
+
+import com.tiny.platform.core.oauth.repository.MysqlHttpRequestLogPartitionStrategy.PartitionInfo;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MysqlHttpRequestLogPartitionStrategyTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 18);
+
+    @Test
+    void shouldPlanDailyPartitionsFromTodayWhenOnlyHistoryExists() {
+        List<PartitionInfo> partitions = List.of(
+            new PartitionInfo("p_history", "1792281600"),
+            new PartitionInfo("p_future", "MAXVALUE")
+        );
+
+        List<LocalDate> missing = MysqlHttpRequestLogPartitionStrategy.missingDays(partitions, TODAY, 2);
+
+        assertThat(missing).containsExactly(TODAY, TODAY.plusDays(1), TODAY.plusDays(2));
+        assertThat(MysqlHttpRequestLogPartitionStrategy.reorganizeSql(missing))
+            .startsWith("ALTER TABLE `http_request_log` REORGANIZE PARTITION p_future INTO (")
+            .contains("PARTITION p20261018 VALUES LESS THAN (UNIX_TIMESTAMP('2026-10-19 00:00:00'))")
+            .endsWith("PARTITION p_future VALUES LESS THAN MAXVALUE)");
+    }
+
+    @Test
+    void shouldOnlyAppendDaysAfterLastExistingPartition() {
+        List<PartitionInfo> partitions = List.of(
+            new PartitionInfo("p20261018", "1792368000"),
+            new PartitionInfo("p20261019", "1792454400"),
+            new PartitionInfo("p_future", "MAXVALUE")
+        );
+
+        assertThat(MysqlHttpRequestLogPartitionStrategy.missingDays(partitions, TODAY, 3))
+            .containsExactly(LocalDate.of(2026, 10, 20), LocalDate.of(2026, 10, 21));
+        assertThat(MysqlHttpRequestLogPartitionStrategy.missingDays(partitions, TODAY, 1)).isEmpty();
+    }
+
+    @Test
+    void shouldDropPartitionsWhoseUpperBoundIsNotAfterCutoff() {
+        List<PartitionInfo> partitions = List.of(
+            new PartitionInfo("p_history", "1000"),
+            new PartitionInfo("p20261001", "2000"),
+            new PartitionInfo("p20261002", "3000"),
+            new PartitionInfo("p_future", "MAXVALUE")
+        );
+
+        assertThat(MysqlHttpRequestLogPartitionStrategy.expiredPartitions(partitions, 2000L))
+            .containsExactly("p_history", "p20261001");
+        assertThat(MysqlHttpRequestLogPartitionStrategy.isPartitioned(partitions)).isTrue();
+        assertThat(MysqlHttpRequestLogPartitionStrategy.isPartitioned(List.of(new PartitionInfo(null, null)))).isFalse();
+    }
+}
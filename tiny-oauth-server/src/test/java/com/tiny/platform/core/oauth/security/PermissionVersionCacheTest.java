@@ -0,0 +1,147 @@
+package com.tiny.platform.core.oauth.security;
+
+import com.tiny.platform.core.oauth.config.PermissionVersionCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PermissionVersionCacheTest {
+
+    private static final Clock FIXED_CLOCK = Clock.fixed(Instant.parse("2026-03-12T00:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    void should_serve_repeated_lookups_from_cache_and_record_hits() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PermissionVersionCache cache = new PermissionVersionCache(
+            new PermissionVersionCacheProperties(), mock(AuthorizationEpochRepository.class), registry, FIXED_CLOCK);
+        AtomicInteger loads = new AtomicInteger();
+
+        String first = cache.get(7L, 9L, "TENANT", 9L, () -> "v" + loads.incrementAndGet());
+        String second = cache.get(7L, 9L, "TENANT", 9L, () -> "v" + loads.incrementAndGet());
+
+        assertThat(first).isEqualTo("v1");
+        assertThat(second).isEqualTo("v1");
+        assertThat(loads).hasValue(1);
+        assertThat(registry.counter("tiny.authz.permission-version.cache.hit.total").count()).isEqualTo(1.0d);
+        assertThat(registry.counter("tiny.authz.permission-version.cache.miss.total").count()).isEqualTo(1.0d);
+    }
+
+    @Test
+    void should_recompute_after_tenant_event_and_advance_cluster_epoch() {
+        AuthorizationEpochRepository epochRepository = mock(AuthorizationEpochRepository.class);
+        PermissionVersionCache cache = new PermissionVersionCache(
+            new PermissionVersionCacheProperties(), epochRepository, new SimpleMeterRegistry(), FIXED_CLOCK);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(7L, 9L, "TENANT", 9L, () -> "v" + loads.incrementAndGet());
+        cache.get(8L, 10L, "TENANT", 10L, () -> "other");
+
+        cache.onAuthorizationChanged(AuthorizationChangedEvent.ofUser(9L, 7L, "role_assignment"));
+
+        assertThat(cache.get(7L, 9L, "TENANT", 9L, () -> "v" + loads.incrementAndGet())).isEqualTo("v2");
+        assertThat(cache.get(8L, 10L, "TENANT", 10L, () -> "reloaded")).isEqualTo("other");
+        verify(epochRepository).increment(9L);
+    }
+
+    @Test
+    void should_discard_version_computed_concurrently_with_invalidation() {
+        PermissionVersionCache cache = new PermissionVersionCache(
+            new PermissionVersionCacheProperties(), mock(AuthorizationEpochRepository.class), null, FIXED_CLOCK);
+
+        String stale = cache.get(7L, 9L, "TENANT", 9L, () -> {
+            cache.onAuthorizationChanged(AuthorizationChangedEvent.ofTenant(9L, "role_permission"));
+            return "stale";
+        });
+
+        assertThat(stale).isEqualTo("stale");
+        assertThat(cache.get(7L, 9L, "TENANT", 9L, () -> "fresh")).isEqualTo("fresh");
+    }
+
+    @Test
+    void should_invalidate_when_cluster_epoch_advances_after_baseline() {
+        AuthorizationEpochRepository epochRepository = mock(AuthorizationEpochRepository.class);
+        when(epochRepository.findAll())
+            .thenReturn(Map.of(9L, 3L))
+            .thenReturn(Map.of(9L, 3L))
+            .thenReturn(Map.of(9L, 4L));
+        PermissionVersionCache cache = new PermissionVersionCache(
+            new PermissionVersionCacheProperties(), epochRepository, null, FIXED_CLOCK);
+
+        cache.syncClusterEpochs();
+        cache.get(7L, 9L, "TENANT", 9L, () -> "v1");
+        cache.syncClusterEpochs();
+        assertThat(cache.get(7L, 9L, "TENANT", 9L, () -> "v2")).isEqualTo("v1");
+
+        cache.syncClusterEpochs();
+        assertThat(cache.get(7L, 9L, "TENANT", 9L, () -> "v2")).isEqualTo("v2");
+    }
+
+    @Test
+    void should_expire_entries_after_ttl() {
+        MutableClock clock = new MutableClock(FIXED_CLOCK.instant());
+        PermissionVersionCacheProperties properties = new PermissionVersionCacheProperties();
+        properties.setTtlMs(1_000L);
+        PermissionVersionCache cache = new PermissionVersionCache(
+            properties, mock(AuthorizationEpochRepository.class), null, clock);
+
+        cache.get(7L, null, "PLATFORM", null, () -> "v1");
+        clock.advanceMillis(1_001L);
+
+        assertThat(cache.get(7L, null, "PLATFORM", null, () -> "v2")).isEqualTo("v2");
+    }
+
+    @Test
+    void should_bypass_cache_when_disabled_and_survive_epoch_write_failure() {
+        AuthorizationEpochRepository epochRepository = mock(AuthorizationEpochRepository.class);
+        doThrow(new IllegalStateException("db down")).when(epochRepository).increment(0L);
+        PermissionVersionCacheProperties properties = new PermissionVersionCacheProperties();
+        properties.setEnabled(false);
+        PermissionVersionCache cache = new PermissionVersionCache(properties, epochRepository, null, FIXED_CLOCK);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(7L, 9L, "TENANT", 9L, () -> "v" + loads.incrementAndGet());
+        cache.get(7L, 9L, "TENANT", 9L, () -> "v" + loads.incrementAndGet());
+        cache.onAuthorizationChanged(AuthorizationChangedEvent.ofTenant(null, "permission_enabled"));
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void advanceMillis(long millis) {
+            instant = instant.plusMillis(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.tiny.platform.core.oauth.service.impl;
+
+import com.tiny.platform.core.oauth.config.HttpRequestLoggingProperties;
+import com.tiny.platform.core.oauth.model.HttpRequestLog;
+import com.tiny.platform.core.oauth.model.HttpRequestLogMinuteRollup;
+import com.tiny.platform.core.oauth.repository.HttpRequestLogMinuteRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HttpRequestLogRollupAggregatorTest {
+
+    private static final LocalDateTime MINUTE = LocalDateTime.of(2026, 10, 18, 10, 15);
+
+    @Test
+    void shouldFlushOnlyClosedMinutesWithPercentiles() {
+        HttpRequestLogMinuteRollupRepository repository = mock(HttpRequestLogMinuteRollupRepository.class);
+        HttpRequestLogRollupAggregator aggregator = new HttpRequestLogRollupAggregator(
+            new HttpRequestLoggingProperties(), repository, clockAt(MINUTE.plusMinutes(1).plusSeconds(6)));
+        List<HttpRequestLog> logs = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            logs.add(log(MINUTE.plusSeconds(i % 60), 9L, "/api/orders/{id}", 200, i));
+        }
+        logs.add(log(MINUTE.plusSeconds(3), 9L, "/api/orders/{id}", 500, 40));
+        // 当前分钟尚未结束，不应写出
+        logs.add(log(MINUTE.plusMinutes(1).plusSeconds(1), 9L, "/api/orders/{id}", 200, 7));
+        aggregator.record(logs);
+
+        int written = aggregator.flushClosed();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<HttpRequestLogMinuteRollup>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository).upsertAll(captor.capture());
+        assertThat(written).isEqualTo(2);
+        assertThat(aggregator.openWindowCount()).isEqualTo(1);
+        HttpRequestLogMinuteRollup ok = captor.getValue().stream()
+            .filter(rollup -> rollup.status() == 200)
+            .findFirst()
+            .orElseThrow();
+        assertThat(ok.bucketMinute()).isEqualTo(MINUTE);
+        assertThat(ok.tenantId()).isEqualTo(9L);
+        assertThat(ok.requestCount()).isEqualTo(100L);
+        assertThat(ok.durationSumMs()).isEqualTo(5050L);
+        assertThat(ok.durationMaxMs()).isEqualTo(100L);
+        assertThat(ok.p50Ms()).isEqualTo(50L);
+        assertThat(ok.p95Ms()).isEqualTo(95L);
+        assertThat(ok.p99Ms()).isEqualTo(99L);
+    }
+
+    @Test
+    void shouldFlushEverythingOnFlushAllAndDefaultMissingDimensions() {
+        HttpRequestLogMinuteRollupRepository repository = mock(HttpRequestLogMinuteRollupRepository.class);
+        HttpRequestLogRollupAggregator aggregator = new HttpRequestLogRollupAggregator(
+            new HttpRequestLoggingProperties(), repository, clockAt(MINUTE));
+        aggregator.record(List.of(log(MINUTE, null, null, null, null)));
+
+        aggregator.flushAll();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<HttpRequestLogMinuteRollup>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository).upsertAll(captor.capture());
+        HttpRequestLogMinuteRollup rollup = captor.getValue().getFirst();
+        assertThat(rollup.tenantId()).isZero();
+        assertThat(rollup.pathTemplate()).isEqualTo("UNKNOWN");
+        assertThat(rollup.status()).isZero();
+        assertThat(rollup.requestCount()).isEqualTo(1L);
+        assertThat(aggregator.openWindowCount()).isZero();
+    }
+
+    @Test
+    void shouldStayDisabledWhenDatabaseHasNoRollupTable() {
+        HttpRequestLogMinuteRollupRepository repository = mock(HttpRequestLogMinuteRollupRepository.class);
+        when(repository.isSupported()).thenReturn(false);
+        HttpRequestLogRollupAggregator aggregator = new HttpRequestLogRollupAggregator(
+            new HttpRequestLoggingProperties(), repository);
+
+        aggregator.record(List.of(log(MINUTE, 9L, "/api/orders/{id}", 200, 12)));
+        aggregator.flushAll();
+
+        assertThat(aggregator.isEnabled()).isFalse();
+        assertThat(aggregator.openWindowCount()).isZero();
+        verify(repository, never()).upsertAll(anyList());
+    }
+
+    @Test
+    void shouldKeepLongDurationPercentilesWithinBucketPrecision() {
+        HttpRequestLogRollupAggregator.DurationHistogram histogram = new HttpRequestLogRollupAggregator.DurationHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.add(120);
+        }
+        histogram.add(4_000);
+
+        assertThat(histogram.quantile(0.50d)).isBetween(120L, 126L);
+        assertThat(histogram.quantile(0.99d)).isBetween(120L, 126L);
+        assertThat(histogram.quantile(1.0d)).isEqualTo(4_000L);
+    }
+
+    @Test
+    void shouldIgnoreRecordsWhenDisabled() {
+        HttpRequestLoggingProperties properties = new HttpRequestLoggingProperties();
+        properties.getRollup().setEnabled(false);
+        HttpRequestLogMinuteRollupRepository repository = mock(HttpRequestLogMinuteRollupRepository.class);
+        HttpRequestLogRollupAggregator aggregator = new HttpRequestLogRollupAggregator(properties, repository, clockAt(MINUTE));
+
+        aggregator.record(List.of(log(MINUTE, 1L, "/a", 200, 5)));
+        aggregator.flushAll();
+
+        verify(repository, never()).upsertAll(anyList());
+    }
+
+    private static Clock clockAt(LocalDateTime time) {
+        Instant instant = time.toInstant(ZoneOffset.UTC);
+        return Clock.fixed(instant, ZoneId.of("UTC"));
+    }
+
+    private static HttpRequestLog log(LocalDateTime requestAt, Long tenantId, String pathTemplate, Integer status, Integer durationMs) {
+        HttpRequestLog log = new HttpRequestLog();
+        log.setRequestAt(requestAt);
+        log.setActiveTenantId(tenantId);
+        log.setPathTemplate(pathTemplate);
+        log.setStatus(status);
+        log.setDurationMs(durationMs);
+        return log;
+    }
+}
@@ -0,0 +1,158 @@
+package com.tiny.platform.core.oauth.service.impl;
+
+import com.tiny.platform.core.oauth.config.HttpRequestLoggingProperties;
+import com.tiny.platform.core.oauth.model.HttpRequestLog;
+import com.tiny.platform.core.oauth.repository.HttpRequestLogBatchRepository;
+import com.tiny.platform.core.oauth.repository.HttpRequestLogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class HttpRequestLogWriterTest {
+
+    @Test
+    void shouldWriteQueuedLogsInBatchesAndDrainOnStop() {
+        HttpRequestLoggingProperties properties = properties(3, 20);
+        RecordingBatchRepository repository = new RecordingBatchRepository();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        HttpRequestLogWriter writer = new HttpRequestLogWriter(properties, repository, registry);
+        writer.start();
+
+        for (int i = 0; i < 7; i++) {
+            assertThat(writer.offer(log("req-" + i))).isTrue();
+        }
+        writer.stop();
+
+        assertThat(repository.rows).hasSize(7);
+        assertThat(repository.batchSizes).allSatisfy(size -> assertThat(size).isLessThanOrEqualTo(3));
+        assertThat(writer.pendingCount()).isZero();
+        assertThat(registry.counter("tiny.http.request-log.writer.queued.total").count()).isEqualTo(7.0d);
+        assertThat(registry.counter("tiny.http.request-log.writer.written.total").count()).isEqualTo(7.0d);
+        assertThat(registry.summary("tiny.http.request-log.writer.batch.size").count()).isEqualTo(repository.batchSizes.size());
+    }
+
+    @Test
+    void shouldDropWhenQueueIsFull() {
+        HttpRequestLoggingProperties properties = properties(100, 20);
+        properties.getWriter().setQueueCapacity(2);
+        RecordingBatchRepository repository = new RecordingBatchRepository();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        HttpRequestLogWriter writer = new HttpRequestLogWriter(properties, repository, registry);
+        // 刷新间隔足够长，写线程在断言前不会落库
+        properties.getWriter().setFlushIntervalMs(60_000L);
+        writer.start();
+
+        assertThat(writer.offer(log("a"))).isTrue();
+        assertThat(writer.offer(log("b"))).isTrue();
+        assertThat(writer.offer(log("c"))).isFalse();
+        assertThat(writer.pendingCount()).isEqualTo(2);
+        writer.stop();
+
+        assertThat(repository.rows).extracting(HttpRequestLog::getRequestId).containsExactlyInAnyOrder("a", "b");
+        assertThat(registry.counter("tiny.http.request-log.writer.dropped.total").count()).isEqualTo(1.0d);
+    }
+
+    @Test
+    void shouldIsolateBadRowWhenBatchInsertFails() {
+        RecordingBatchRepository repository = new RecordingBatchRepository();
+        repository.rejectRequestId = "dup";
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        HttpRequestLogWriter writer = new HttpRequestLogWriter(properties(10, 60_000L), repository, registry);
+        writer.start();
+
+        writer.offer(log("a"));
+        writer.offer(log("dup"));
+        writer.offer(log("b"));
+        writer.stop();
+
+        assertThat(repository.rows).extracting(HttpRequestLog::getRequestId).containsExactlyInAnyOrder("a", "b");
+        assertThat(registry.counter("tiny.http.request-log.writer.failed.total").count()).isEqualTo(1.0d);
+        assertThat(registry.counter("tiny.http.request-log.writer.written.total").count()).isEqualTo(2.0d);
+    }
+
+    @Test
+    void shouldQueueLogsArrivingBeforeStartForTheWriterThread() {
+        RecordingBatchRepository repository = new RecordingBatchRepository();
+        HttpRequestLogWriter writer = new HttpRequestLogWriter(properties(10, 20), repository, null);
+
+        assertThat(writer.offer(log("early"))).isTrue();
+        assertThat(repository.rows).isEmpty();
+        assertThat(writer.pendingCount()).isEqualTo(1);
+
+        writer.start();
+        writer.stop();
+
+        assertThat(repository.rows).extracting(HttpRequestLog::getRequestId).containsExactly("early");
+    }
+
+    @Test
+    void shouldWriteSynchronouslyAfterStop() {
+        RecordingBatchRepository repository = new RecordingBatchRepository();
+        HttpRequestLogWriter writer = new HttpRequestLogWriter(properties(10, 20), repository, null);
+        writer.start();
+        writer.stop();
+
+        assertThat(writer.offer(log("late"))).isTrue();
+
+        assertThat(repository.rows).extracting(HttpRequestLog::getRequestId).containsExactly("late");
+        assertThat(writer.pendingCount()).isZero();
+    }
+
+    @Test
+    void serviceShouldEnqueueInsteadOfSavingWhenWriterPresent() {
+        HttpRequestLogRepository repository = mock(HttpRequestLogRepository.class);
+        HttpRequestLogWriter writer = mock(HttpRequestLogWriter.class);
+        HttpRequestLogServiceImpl service = new HttpRequestLogServiceImpl(repository, writer);
+        HttpRequestLog requestLog = log("x");
+
+        service.save(requestLog);
+
+        verify(writer).offer(requestLog);
+        verify(repository, never()).saveAndFlush(any(HttpRequestLog.class));
+    }
+
+    private static HttpRequestLoggingProperties properties(int batchSize, long flushIntervalMs) {
+        HttpRequestLoggingProperties properties = new HttpRequestLoggingProperties();
+        properties.getWriter().setBatchSize(batchSize);
+        properties.getWriter().setFlushIntervalMs(flushIntervalMs);
+        return properties;
+    }
+
+    private static HttpRequestLog log(String requestId) {
+        HttpRequestLog log = new HttpRequestLog();
+        log.setRequestId(requestId);
+        log.setMethod("GET");
+        log.setPathTemplate("/api/x");
+        log.setStatus(200);
+        return log;
+    }
+
+    private static final class RecordingBatchRepository extends HttpRequestLogBatchRepository {
+        private final List<HttpRequestLog> rows = new ArrayList<>();
+        private final List<Integer> batchSizes = new ArrayList<>();
+        private String rejectRequestId;
+
+        private RecordingBatchRepository() {
+            super(null);
+        }
+
+        @Override
+        public synchronized int insertAll(List<HttpRequestLog> logs) {
+            if (rejectRequestId != null
+                && logs.stream().anyMatch(log -> rejectRequestId.equals(log.getRequestId()))) {
+                throw new IllegalStateException("duplicate request_id");
+            }
+            rows.addAll(logs);
+            batchSizes.add(logs.size());
+            return logs.size();
+        }
+    }
+}
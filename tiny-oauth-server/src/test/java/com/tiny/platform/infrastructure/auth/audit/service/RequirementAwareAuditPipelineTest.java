@@ -0,0 +1,240 @@
+package com.tiny.platform.infrastructure.auth.audit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tiny.platform.core.oauth.config.AuthorizationAuditPipelineProperties;
+import com.tiny.platform.infrastructure.auth.audit.domain.AuthorizationAuditEventType;
+import com.tiny.platform.infrastructure.auth.audit.domain.AuthorizationAuditLog;
+import com.tiny.platform.infrastructure.auth.audit.domain.RequirementAwareAuditDetail;
+import com.tiny.platform.infrastructure.auth.audit.repository.AuthorizationAuditLogBatchRepository;
+import com.tiny.platform.infrastructure.auth.audit.repository.AuthorizationAuditLogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RequirementAwareAuditPipelineTest {
+
+    @Test
+    void should_skip_sampled_out_allowed_but_always_keep_denied() {
+        AuthorizationAuditPipelineProperties properties = new AuthorizationAuditPipelineProperties();
+        properties.setAllowedSampleRate(0.0d);
+        RecordingBatchRepository repository = new RecordingBatchRepository();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RequirementAwareAuditPipeline pipeline = new RequirementAwareAuditPipeline(properties, repository, new ObjectMapper(), registry);
+        pipeline.start();
+
+        pipeline.submit(AuthorizationAuditEventType.REQUIREMENT_AWARE_ACCESS, 9L, "api-endpoint-unified-guard", detail("ALLOW"), 7L, "10.0.0.1");
+        pipeline.submit(AuthorizationAuditEventType.REQUIREMENT_AWARE_ACCESS, 9L, "api-endpoint-unified-guard", detail("DENY"), 7L, "10.0.0.1");
+        pipeline.stop();
+
+        assertThat(repository.rows).hasSize(1);
+        AuthorizationAuditLog row = repository.rows.getFirst();
+        assertThat(row.getResult()).isEqualTo("DENIED");
+        assertThat(row.getResultReason()).isEqualTo("REQUIREMENT_NOT_SATISFIED");
+        assertThat(row.getResourcePermission()).isEqualTo("system:user:delete");
+        assertThat(row.getActorUserId()).isEqualTo(7L);
+        assertThat(row.getIpAddress()).isEqualTo("10.0.0.1");
+        assertThat(row.getCreatedAt()).isNotNull();
+        assertThat(row.getEventDetail()).contains("\"decision\":\"DENY\"");
+        assertThat(registry.counter("tiny.authz.audit.pipeline.sampled-out.total").count()).isEqualTo(1.0d);
+        assertThat(registry.counter("tiny.authz.audit.pipeline.written.total").count()).isEqualTo(1.0d);
+    }
+
+    @Test
+    void should_batch_buffered_events_and_flush_everything_on_stop() {
+        AuthorizationAuditPipelineProperties properties = new AuthorizationAuditPipelineProperties();
+        properties.setBatchSize(3);
+        properties.setFlushIntervalMs(10L);
+        RecordingBatchRepository repository = new RecordingBatchRepository();
+        RequirementAwareAuditPipeline pipeline = new RequirementAwareAuditPipeline(properties, repository, new ObjectMapper(), null);
+        pipeline.start();
+
+        for (int i = 0; i < 7; i++) {
+            pipeline.submit(AuthorizationAuditEventType.REQUIREMENT_AWARE_ACCESS, 9L, "api-endpoint-unified-guard", detail("ALLOW"), 7L, null);
+        }
+        pipeline.stop();
+
+        assertThat(repository.rows).hasSize(7);
+        assertThat(repository.batchSizes).allSatisfy(size -> assertThat(size).isLessThanOrEqualTo(3));
+        assertThat(pipeline.pendingCount()).isZero();
+        assertThat(pipeline.isRunning()).isFalse();
+    }
+
+    @Test
+    void should_drop_allowed_and_write_denied_synchronously_when_buffer_is_full() {
+        AuthorizationAuditPipelineProperties properties = new AuthorizationAuditPipelineProperties();
+        properties.setBufferCapacity(1);
+        properties.setDeniedOfferTimeoutMs(1L);
+        properties.setFlushIntervalMs(10L);
+        RecordingBatchRepository repository = new RecordingBatchRepository();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RequirementAwareAuditPipeline pipeline = new RequirementAwareAuditPipeline(properties, repository, new ObjectMapper(), registry);
+        // 写线程卡在第一批写入上，缓冲随即被占满
+        repository.blockWrites();
+        pipeline.start();
+
+        pipeline.submit(AuthorizationAuditEventType.REQUIREMENT_AWARE_ACCESS, 9L, "m", detail("ALLOW"), 7L, null);
+        repository.awaitFirstWriteStarted();
+        pipeline.submit(AuthorizationAuditEventType.REQUIREMENT_AWARE_ACCESS, 9L, "m", detail("ALLOW"), 7L, null);
+        pipeline.submit(AuthorizationAuditEventType.REQUIREMENT_AWARE_ACCESS, 9L, "m", detail("ALLOW"), 7L, null);
+        repository.unblockWritesAfterNextSyncWrite();
+        pipeline.submit(AuthorizationAuditEventType.REQUIREMENT_AWARE_ACCESS, 9L, "m", detail("DENY"), 7L, null);
+        pipeline.stop();
+
+        assertThat(registry.counter("tiny.authz.audit.pipeline.overflow.total", "outcome", "dropped").count()).isEqualTo(1.0d);
+        assertThat(registry.counter("tiny.authz.audit.pipeline.overflow.total", "outcome", "sync_fallback").count()).isEqualTo(1.0d);
+        assertThat(repository.rows).extracting(AuthorizationAuditLog::getResult).containsExactlyInAnyOrder("SUCCESS", "SUCCESS", "DENIED");
+    }
+
+    @Test
+    void should_count_failed_batches_without_throwing() {
+        AuthorizationAuditLogBatchRepository repository = mock(AuthorizationAuditLogBatchRepository.class);
+        when(repository.insertAll(anyList())).thenThrow(new IllegalStateException("table missing"));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RequirementAwareAuditPipeline pipeline = new RequirementAwareAuditPipeline(
+            new AuthorizationAuditPipelineProperties(), repository, new ObjectMapper(), registry);
+
+        // 未启动时直接同步写入
+        pipeline.submit(AuthorizationAuditEventType.REQUIREMENT_AWARE_ACCESS, 9L, "m", detail("DENY"), null, null);
+
+        assertThat(registry.counter("tiny.authz.audit.pipeline.write-failure.total").count()).isEqualTo(1.0d);
+    }
+
+    @Test
+    void auditService_shouldRouteHotPathSubmissionsThroughPipelineWhenEnabled() {
+        AuthorizationAuditLogRepository auditLogRepository = mock(AuthorizationAuditLogRepository.class);
+        RequirementAwareAuditPipeline pipeline = mock(RequirementAwareAuditPipeline.class);
+        when(pipeline.isEnabled()).thenReturn(true);
+        AuthorizationAuditService service = new AuthorizationAuditService(auditLogRepository, new ObjectMapper(), pipeline);
+        RequirementAwareAuditDetail detail = detail("ALLOW");
+
+        service.submitRequirementAware(AuthorizationAuditEventType.REQUIREMENT_AWARE_ACCESS, 9L, "api-endpoint-unified-guard", detail);
+
+        verify(pipeline).submit(AuthorizationAuditEventType.REQUIREMENT_AWARE_ACCESS, 9L, "api-endpoint-unified-guard", detail, null, null);
+        verify(auditLogRepository, never()).save(org.mockito.ArgumentMatchers.any());
+    }
+
+    @Test
+    void auditService_shouldFallBackThroughTransactionalProxyWhenPipelineDisabled() {
+        AuthorizationAuditLogRepository auditLogRepository = mock(AuthorizationAuditLogRepository.class);
+        RequirementAwareAuditPipeline pipeline = mock(RequirementAwareAuditPipeline.class);
+        when(pipeline.isEnabled()).thenReturn(false);
+        AuthorizationAuditService service = new AuthorizationAuditService(auditLogRepository, new ObjectMapper(), pipeline);
+        AuthorizationAuditService proxy = mock(AuthorizationAuditService.class);
+        ReflectionTestUtils.setField(service, "self", proxy);
+        RequirementAwareAuditDetail detail = detail("DENY");
+
+        service.submitRequirementAware(AuthorizationAuditEventType.REQUIREMENT_AWARE_ACCESS, 9L, "api-endpoint-unified-guard", detail);
+
+        verify(proxy).logRequirementAware(AuthorizationAuditEventType.REQUIREMENT_AWARE_ACCESS, 9L, "api-endpoint-unified-guard", detail);
+        verify(auditLogRepository, never()).save(org.mockito.ArgumentMatchers.any());
+    }
+
+    @Test
+    void should_drain_events_enqueued_after_stop_on_submitting_thread() {
+        RecordingBatchRepository repository = new RecordingBatchRepository();
+        RequirementAwareAuditPipeline pipeline = new RequirementAwareAuditPipeline(
+            new AuthorizationAuditPipelineProperties(), repository, new ObjectMapper(), null);
+        // 模拟提交线程读到 running=true 后、入队完成前 stop 已排空退出的竞态
+        ReflectionTestUtils.setField(pipeline, "running", true);
+        ReflectionTestUtils.setField(pipeline, "buffer", new ArrayBlockingQueue<Object>(16) {
+            @Override
+            public boolean offer(Object pending) {
+                boolean accepted = super.offer(pending);
+                ReflectionTestUtils.setField(pipeline, "running", false);
+                return accepted;
+            }
+        });
+
+        pipeline.submit(AuthorizationAuditEventType.REQUIREMENT_AWARE_ACCESS, 9L, "api-endpoint-unified-guard", detail("DENY"), 7L, null);
+
+        assertThat(pipeline.pendingCount()).isZero();
+        assertThat(repository.rows).extracting(AuthorizationAuditLog::getResult).containsExactly("DENIED");
+    }
+
+    private static RequirementAwareAuditDetail detail(String decision) {
+        boolean allow = "ALLOW".equals(decision);
+        return new RequirementAwareAuditDetail(
+            "api_endpoint",
+            31L,
+            1,
+            allow ? List.of("system:user:delete") : List.of(),
+            allow ? List.of() : List.of("system:user:delete"),
+            List.of(),
+            decision,
+            allow ? "REQUIREMENT_GROUP_SATISFIED" : "REQUIREMENT_NOT_SATISFIED"
+        );
+    }
+
+    private static final class RecordingBatchRepository extends AuthorizationAuditLogBatchRepository {
+        private final List<AuthorizationAuditLog> rows = new ArrayList<>();
+        private final List<Integer> batchSizes = new ArrayList<>();
+        private final Object monitor = new Object();
+        private boolean blocked;
+        private boolean firstWriteStarted;
+        private boolean releaseAfterSyncWrite;
+
+        private RecordingBatchRepository() {
+            super(null);
+        }
+
+        @Override
+        public int insertAll(List<AuthorizationAuditLog> entries) {
+            synchronized (monitor) {
+                if (blocked && !firstWriteStarted) {
+                    firstWriteStarted = true;
+                    monitor.notifyAll();
+                    while (blocked) {
+                        try {
+                            monitor.wait();
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                            break;
+                        }
+                    }
+                } else if (releaseAfterSyncWrite) {
+                    blocked = false;
+                    releaseAfterSyncWrite = false;
+                    monitor.notifyAll();
+                }
+                rows.addAll(entries);
+                batchSizes.add(entries.size());
+                return entries.size();
+            }
+        }
+
+        private void blockWrites() {
+            synchronized (monitor) {
+                blocked = true;
+            }
+        }
+
+        private void awaitFirstWriteStarted() {
+            synchronized (monitor) {
+                while (!firstWriteStarted) {
+                    try {
+                        monitor.wait();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+
+        private void unblockWritesAfterNextSyncWrite() {
+            synchronized (monitor) {
+                releaseAfterSyncWrite = true;
+            }
+        }
+    }
+}
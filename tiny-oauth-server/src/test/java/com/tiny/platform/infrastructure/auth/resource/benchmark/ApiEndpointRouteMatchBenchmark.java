@@ -0,0 +1,142 @@
+package com.tiny.platform.infrastructure.auth.resource.benchmark;
+
+import com.tiny.platform.infrastructure.auth.resource.domain.ApiEndpointEntry;
+import com.tiny.platform.infrastructure.auth.resource.support.ApiEndpointRouteTable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * api_endpoint 路由匹配基准（1k / 10k 端点）：编译后的前缀树 vs 逐条模板比对。
+ *
+ * <p>逐条比对对应统一守卫改造前的内存部分（按 method 过滤后对作用域内全部端点做模板匹配）；
+ * 改造前每个请求另有一次端点查询与一次 requirement 行查询，不在本基准中计入。</p>
+ *
+ * 运行方式：
+ * 1) mvn -pl tiny-oauth-server -DskipTests test-compile dependency:build-classpath -Dmdep.outputFile=/tmp/tiny-oauth-cp.txt
+ * 2) java -cp "tiny-oauth-server/target/test-classes:tiny-oauth-server/target/classes:$(cat /tmp/tiny-oauth-cp.txt)" \
+ *      com.tiny.platform.infrastructure.auth.resource.benchmark.ApiEndpointRouteMatchBenchmark [requests]
+ */
+public final class ApiEndpointRouteMatchBenchmark {
+
+    private static final String[] METHODS = {"GET", "POST", "PUT", "DELETE"};
+    private static final int[] ENDPOINT_COUNTS = {1_000, 10_000};
+
+    private ApiEndpointRouteMatchBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        for (int endpointCount : ENDPOINT_COUNTS) {
+            List<ApiEndpointEntry> endpoints = generateEndpoints(endpointCount);
+            String[][] workload = generateWorkload(endpoints, requests);
+
+            long compileStart = System.nanoTime();
+            ApiEndpointRouteTable table = ApiEndpointRouteTable.compile(endpoints, Map.of(), 0L, System.currentTimeMillis());
+            long compileNanos = System.nanoTime() - compileStart;
+
+            // warmup
+            runTrie(table, workload);
+            runLinear(endpoints, workload, Math.min(requests, 20_000));
+
+            long trieStart = System.nanoTime();
+            long trieMatches = runTrie(table, workload);
+            long trieNanos = System.nanoTime() - trieStart;
+
+            int linearRequests = Math.min(requests, endpointCount >= 10_000 ? 20_000 : 100_000);
+            long linearStart = System.nanoTime();
+            long linearMatches = runLinear(endpoints, workload, linearRequests);
+            long linearNanos = System.nanoTime() - linearStart;
+
+            System.out.printf(Locale.ROOT,
+                "endpoints=%d compileMs=%.2f | trie: requests=%d matches=%d nsPerOp=%.1f | linear: requests=%d matches=%d nsPerOp=%.1f | speedup=%.1fx%n",
+                endpointCount,
+                compileNanos / 1_000_000.0,
+                requests, trieMatches, (double) trieNanos / requests,
+                linearRequests, linearMatches, (double) linearNanos / linearRequests,
+                ((double) linearNanos / linearRequests) / ((double) trieNanos / requests));
+        }
+    }
+
+    private static long runTrie(ApiEndpointRouteTable table, String[][] workload) {
+        long matches = 0;
+        for (String[] request : workload) {
+            matches += table.match(request[0], ApiEndpointRouteTable.normalizePath(request[1])).size();
+        }
+        return matches;
+    }
+
+    private static long runLinear(List<ApiEndpointEntry> endpoints, String[][] workload, int limit) {
+        long matches = 0;
+        for (int i = 0; i < limit; i++) {
+            String method = workload[i][0];
+            String uri = ApiEndpointRouteTable.normalizePath(workload[i][1]);
+            for (ApiEndpointEntry endpoint : endpoints) {
+                if (method.equals(endpoint.getMethod().toUpperCase(Locale.ROOT)) && templateMatches(endpoint.getUri(), uri)) {
+                    matches++;
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static boolean templateMatches(String templateUri, String requestUri) {
+        String[] templateSegments = ApiEndpointRouteTable.normalizePath(templateUri).substring(1).split("/", -1);
+        String[] requestSegments = requestUri.substring(1).split("/", -1);
+        if (templateSegments.length != requestSegments.length) {
+            return false;
+        }
+        for (int i = 0; i < templateSegments.length; i++) {
+            if (ApiEndpointRouteTable.isPlaceholderSegment(templateSegments[i])) {
+                if (requestSegments[i].isBlank()) {
+                    return false;
+                }
+                continue;
+            }
+            if (!templateSegments[i].equals(requestSegments[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 形如 /m{module}/r{resource}[/{id}[/a{action}]] 的端点，模块/资源/动作分布接近控制面实际注册形态。
+     */
+    private static List<ApiEndpointEntry> generateEndpoints(int count) {
+        List<ApiEndpointEntry> endpoints = new ArrayList<>(count);
+        long id = 1;
+        int resource = 0;
+        while (endpoints.size() < count) {
+            String base = "/m" + (resource % 40) + "/r" + resource;
+            String[] templates = {base, base + "/{id}", base + "/{id}/a1", base + "/{id}/a2", base + "/export"};
+            for (int i = 0; i < templates.length && endpoints.size() < count; i++) {
+                ApiEndpointEntry endpoint = new ApiEndpointEntry();
+                endpoint.setId(id++);
+                endpoint.setMethod(METHODS[i % METHODS.length]);
+                endpoint.setUri(templates[i]);
+                endpoints.add(endpoint);
+            }
+            resource++;
+        }
+        return endpoints;
+    }
+
+    private static String[][] generateWorkload(List<ApiEndpointEntry> endpoints, int requests) {
+        SplittableRandom random = new SplittableRandom(42L);
+        String[][] workload = new String[requests][];
+        for (int i = 0; i < requests; i++) {
+            ApiEndpointEntry endpoint = endpoints.get(random.nextInt(endpoints.size()));
+            String uri = endpoint.getUri().replace("{id}", Integer.toString(random.nextInt(1_000_000)));
+            // 约 10% 的请求未注册，覆盖 fail-closed 路径
+            if (random.nextInt(10) == 0) {
+                uri = uri + "/unregistered";
+            }
+            workload[i] = new String[] {endpoint.getMethod(), uri};
+        }
+        return workload;
+    }
+}
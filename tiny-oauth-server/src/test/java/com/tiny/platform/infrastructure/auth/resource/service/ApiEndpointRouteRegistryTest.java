@@ -0,0 +1,175 @@
+package com.tiny.platform.infrastructure.auth.resource.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.tiny.platform.core.oauth.config.PermissionVersionCacheProperties;
+import com.tiny.platform.core.oauth.security.AuthorizationChangedEvent;
+import com.tiny.platform.core.oauth.security.AuthorizationEpochRepository;
+import com.tiny.platform.core.oauth.security.PermissionVersionCache;
+import com.tiny.platform.infrastructure.auth.resource.domain.ApiEndpointEntry;
+import com.tiny.platform.infrastructure.auth.resource.repository.ApiEndpointEntryRepository;
+import com.tiny.platform.infrastructure.auth.resource.repository.ApiEndpointPermissionRequirementRepository;
+import com.tiny.platform.infrastructure.auth.resource.repository.CarrierPermissionRequirementRow;
+import com.tiny.platform.infrastructure.auth.resource.support.ApiEndpointRouteTable;
+import com.tiny.platform.infrastructure.auth.resource.support.ApiEndpointRouteTable.CompiledApiEndpoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+class ApiEndpointRouteRegistryTest {
+
+    private static final Clock FIXED_CLOCK = Clock.fixed(Instant.parse("2026-03-12T00:00:00Z"), ZoneOffset.UTC);
+
+    private ApiEndpointEntryRepository apiEndpointEntryRepository;
+    private ApiEndpointPermissionRequirementRepository requirementRepository;
+    private PermissionVersionCache permissionVersionCache;
+    private ApplicationEventPublisher eventPublisher;
+    private ApiEndpointRouteRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        apiEndpointEntryRepository = mock(ApiEndpointEntryRepository.class);
+        requirementRepository = mock(ApiEndpointPermissionRequirementRepository.class);
+        permissionVersionCache = new PermissionVersionCache(
+            new PermissionVersionCacheProperties(), mock(AuthorizationEpochRepository.class), null);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        registry = new ApiEndpointRouteRegistry(
+            apiEndpointEntryRepository, requirementRepository, permissionVersionCache, eventPublisher,
+            new SimpleMeterRegistry(), 60_000L, FIXED_CLOCK);
+        when(requirementRepository.findRowsByApiEndpointIdIn(anyCollection())).thenReturn(List.of());
+    }
+
+    @Test
+    void should_match_literal_and_placeholder_segments_strictly() {
+        when(apiEndpointEntryRepository.findEnabledByScope(9L, "TENANT")).thenReturn(List.of(
+            endpoint(1L, "GET", "/sys/users"),
+            endpoint(2L, "GET", "/sys/users/{id}"),
+            endpoint(3L, "post", "/sys/users/{id}/roles/"),
+            endpoint(4L, "GET", "/sys/users/current")
+        ));
+
+        ApiEndpointRouteTable table = registry.routeTable(9L, "TENANT");
+
+        assertThat(ids(table.match("GET", "/sys/users"))).containsExactly(1L);
+        assertThat(ids(table.match("GET", "/sys/users/42"))).containsExactly(2L);
+        assertThat(ids(table.match("POST", "/sys/users/42/roles"))).containsExactly(3L);
+        assertThat(ids(table.match("GET", "/sys/users/42/roles"))).isEmpty();
+        assertThat(ids(table.match("GET", "/sys/users/42/extra"))).isEmpty();
+        assertThat(ids(table.match("GET", "/sys"))).isEmpty();
+        // literal and template both match: the caller treats this as ambiguous (fail-closed)
+        assertThat(ids(table.match("GET", "/sys/users/current"))).containsExactlyInAnyOrder(2L, 4L);
+        // blank method disables method filtering, same as the query-based matcher
+        assertThat(ids(table.match(null, "/sys/users/42/roles"))).containsExactly(3L);
+    }
+
+    @Test
+    void should_attach_requirement_rows_and_reuse_compiled_table() {
+        when(apiEndpointEntryRepository.findEnabledByScope(null, "PLATFORM")).thenReturn(List.of(
+            endpoint(1L, "GET", "/sys/tenants"),
+            endpoint(2L, "DELETE", "/sys/tenants/{id}")
+        ));
+        when(requirementRepository.findRowsByApiEndpointIdIn(anyCollection())).thenReturn(List.of(
+            row(2L, 1, "system:tenant:delete")
+        ));
+
+        ApiEndpointRouteTable first = registry.routeTable(null, "PLATFORM");
+        ApiEndpointRouteTable second = registry.routeTable(null, "PLATFORM");
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.match("GET", "/sys/tenants").getFirst().requirementRows()).isEmpty();
+        CompiledApiEndpoint delete = first.match("DELETE", "/sys/tenants/7").getFirst();
+        assertThat(delete.requirementRows()).extracting(CarrierPermissionRequirementRow::getPermissionCode)
+            .containsExactly("system:tenant:delete");
+        verify(apiEndpointEntryRepository, times(1)).findEnabledByScope(null, "PLATFORM");
+    }
+
+    @Test
+    void should_recompile_after_tenant_generation_advances() {
+        when(apiEndpointEntryRepository.findEnabledByScope(9L, "TENANT"))
+            .thenReturn(List.of(endpoint(1L, "GET", "/sys/users")))
+            .thenReturn(List.of(endpoint(1L, "GET", "/sys/users"), endpoint(2L, "GET", "/sys/roles")));
+
+        assertThat(registry.routeTable(9L, "TENANT").match("GET", "/sys/roles")).isEmpty();
+        permissionVersionCache.onAuthorizationChanged(AuthorizationChangedEvent.ofTenant(10L, "api_endpoint"));
+        assertThat(registry.routeTable(9L, "TENANT").match("GET", "/sys/roles")).isEmpty();
+
+        permissionVersionCache.onAuthorizationChanged(AuthorizationChangedEvent.ofTenant(9L, "api_endpoint"));
+
+        assertThat(ids(registry.routeTable(9L, "TENANT").match("GET", "/sys/roles"))).containsExactly(2L);
+        verify(apiEndpointEntryRepository, times(2)).findEnabledByScope(9L, "TENANT");
+    }
+
+    @Test
+    void should_load_requirement_rows_in_chunks_and_publish_change_event() {
+        List<ApiEndpointEntry> endpoints = new ArrayList<>();
+        for (long id = 1; id <= 1_200; id++) {
+            endpoints.add(endpoint(id, "GET", "/api/r" + id));
+        }
+        when(apiEndpointEntryRepository.findEnabledByScope(9L, "TENANT")).thenReturn(endpoints);
+
+        assertThat(registry.routeTable(9L, "TENANT").endpointCount()).isEqualTo(1_200);
+        verify(requirementRepository, times(3)).findRowsByApiEndpointIdIn(anyCollection());
+
+        registry.markChanged(9L, "api_endpoint");
+        verify(eventPublisher).publishEvent(eq(AuthorizationChangedEvent.ofTenant(9L, "api_endpoint")));
+    }
+
+    private static List<Long> ids(List<CompiledApiEndpoint> matched) {
+        return matched.stream().map(CompiledApiEndpoint::id).toList();
+    }
+
+    private static ApiEndpointEntry endpoint(Long id, String method, String uri) {
+        ApiEndpointEntry endpoint = new ApiEndpointEntry();
+        endpoint.setId(id);
+        endpoint.setMethod(method);
+        endpoint.setUri(uri);
+        endpoint.setRequiredPermissionId(id + 1000);
+        return endpoint;
+    }
+
+    private static CarrierPermissionRequirementRow row(Long carrierId, Integer group, String permissionCode) {
+        return new CarrierPermissionRequirementRow() {
+            @Override
+            public Long getCarrierId() {
+                return carrierId;
+            }
+
+            @Override
+            public Integer getRequirementGroup() {
+                return group;
+            }
+
+            @Override
+            public Integer getSortOrder() {
+                return 1;
+            }
+
+            @Override
+            public String getPermissionCode() {
+                return permissionCode;
+            }
+
+            @Override
+            public Boolean getNegated() {
+                return false;
+            }
+
+            @Override
+            public Boolean getPermissionEnabled() {
+                return true;
+            }
+        };
+    }
+}
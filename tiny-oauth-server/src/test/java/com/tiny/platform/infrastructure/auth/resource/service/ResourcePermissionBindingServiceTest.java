@@ -7,7 +7,13 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import com.tiny.platform.core.oauth.config.PermissionVersionCacheProperties;
+import com.tiny.platform.core.oauth.security.AuthorizationChangedEvent;
+import com.tiny.platform.core.oauth.security.AuthorizationEpochRepository;
+import com.tiny.platform.core.oauth.security.PermissionVersionCache;
 import com.tiny.platform.infrastructure.auth.resource.domain.Resource;
+import com.tiny.platform.infrastructure.auth.resource.repository.ApiEndpointEntryRepository;
+import com.tiny.platform.infrastructure.auth.resource.repository.ApiEndpointPermissionRequirementRepository;
 import com.tiny.platform.infrastructure.core.exception.exception.BusinessException;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -133,4 +139,31 @@ class ResourcePermissionBindingServiceTest {
             .allSatisfy(sql -> assertThat(sql).contains("CONVERT(TRIM("))
             .allSatisfy(sql -> assertThat(sql).contains("COLLATE utf8mb4_0900_ai_ci"));
     }
+
+    @Test
+    void bindRequiredPermissionIdsForResources_should_advance_route_generation_only_when_api_endpoint_rows_change() {
+        NamedParameterJdbcTemplate jdbcTemplate = Mockito.mock(NamedParameterJdbcTemplate.class);
+        PermissionVersionCache permissionVersionCache = new PermissionVersionCache(
+            new PermissionVersionCacheProperties(), Mockito.mock(AuthorizationEpochRepository.class), null);
+        ApiEndpointRouteRegistry apiEndpointRouteRegistry = new ApiEndpointRouteRegistry(
+            Mockito.mock(ApiEndpointEntryRepository.class),
+            Mockito.mock(ApiEndpointPermissionRequirementRepository.class),
+            permissionVersionCache,
+            event -> permissionVersionCache.onAuthorizationChanged((AuthorizationChangedEvent) event),
+            null,
+            60_000L
+        );
+        ResourcePermissionBindingService service = new ResourcePermissionBindingService(jdbcTemplate, apiEndpointRouteRegistry);
+
+        // menu / ui_action 有更新，api_endpoint 无更新
+        when(jdbcTemplate.update(any(String.class), any(MapSqlParameterSource.class))).thenReturn(2, 1, 0);
+        service.bindRequiredPermissionIdsForResources(5L);
+        assertThat(permissionVersionCache.tenantGeneration(5L)).isZero();
+
+        when(jdbcTemplate.update(any(String.class), any(MapSqlParameterSource.class))).thenReturn(0, 0, 4);
+        int updated = service.bindRequiredPermissionIdsForResources(5L);
+
+        assertThat(updated).isEqualTo(4);
+        assertThat(permissionVersionCache.tenantGeneration(5L)).isEqualTo(1L);
+    }
 }
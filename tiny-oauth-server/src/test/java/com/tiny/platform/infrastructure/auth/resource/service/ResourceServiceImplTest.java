@@ -1016,7 +1016,7 @@ class ResourceServiceImplTest {
         assertThat(decision).isEqualTo(com.tiny.platform.infrastructure.auth.resource.service.ApiEndpointRequirementDecision.DENIED);
 
         ArgumentCaptor<RequirementAwareAuditDetail> detailCaptor = ArgumentCaptor.forClass(RequirementAwareAuditDetail.class);
-        verify(authorizationAuditService, atLeastOnce()).logRequirementAware(
+        verify(authorizationAuditService, atLeastOnce()).submitRequirementAware(
             eq(AuthorizationAuditEventType.REQUIREMENT_AWARE_ACCESS),
             eq(8L),
             eq("api-endpoint-unified-guard"),
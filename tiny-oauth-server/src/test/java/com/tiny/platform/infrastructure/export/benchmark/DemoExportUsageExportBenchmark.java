@@ -1,16 +1,23 @@
 package com.tiny.platform.infrastructure.export.benchmark;
 
 import com.tiny.platform.OauthServerApplication;
+import com.tiny.platform.infrastructure.export.core.AggregateStrategy;
 import com.tiny.platform.infrastructure.export.core.ColumnNode;
+import com.tiny.platform.infrastructure.export.core.ColumnVector;
 import com.tiny.platform.infrastructure.export.core.ExportRequest;
+import com.tiny.platform.infrastructure.export.core.RowBatch;
 import com.tiny.platform.infrastructure.export.core.SheetConfig;
+import com.tiny.platform.infrastructure.export.demo.DemoExportUsageEntity;
 import com.tiny.platform.infrastructure.export.demo.DemoExportUsageService;
 import com.tiny.platform.infrastructure.export.service.ExportService;
+import com.tiny.platform.infrastructure.export.util.HeaderBuilder;
+import com.tiny.platform.infrastructure.export.util.RowExtractor;
 import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.io.OutputStream;
+import java.math.BigDecimal;
 import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
@@ -20,10 +27,15 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -31,20 +43,34 @@ import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * DemoExportUsage 导出性能基准（100w / 1000w）。
+ * 每个场景导出结束后，另以内存中的 DemoExportUsageEntity 对比实体行映射吞吐（rows/s）：
+ * legacy 为逐行逐字段 getDeclaredField + setAccessible 的反射取值（改造前 convertItemToRow 的行为），
+ * compiled 为 {@link RowExtractor} 按类编译的字段访问器。
+ * 随后对比预取流水线的交接开销（BATCH_PIPELINE，单线程、以 Map 行模拟数据源输出，对 id 列求和）：
+ * legacy 为逐行 ArrayList + 信封对象入队、逐行装箱累加，batch 为 {@link RowBatch} 整批入队复用、按列累加，
+ * 输出每行分配字节数与耗时。加 --extract-only 时只跑这两组对比，不启动应用。
  * 运行方式：
  * 1) mvn -pl tiny-oauth-server -DskipTests test-compile dependency:build-classpath -Dmdep.outputFile=/tmp/tiny-oauth-cp.txt
  * 2) java -cp "tiny-oauth-server/target/test-classes:tiny-oauth-server/target/classes:$(cat /tmp/tiny-oauth-cp.txt)" \
- *      com.tiny.platform.infrastructure.export.benchmark.DemoExportUsageExportBenchmark
+ *      com.tiny.platform.infrastructure.export.benchmark.DemoExportUsageExportBenchmark [1M|10M|rows...] [--skip-generate] [--extract-only]
  */
 public final class DemoExportUsageExportBenchmark {
 
     private static final long TENANT_ID = 1L;
+    private static final int ENTITY_POOL_SIZE = 10_000;
 
     private DemoExportUsageExportBenchmark() {
     }
 
     public static void main(String[] args) throws Exception {
         boolean skipGenerate = hasFlag(args, "--skip-generate");
+        if (hasFlag(args, "--extract-only")) {
+            for (Integer target : parseTargets(args)) {
+                runEntityExtraction(labelOf(target), target);
+                runBatchPipeline(labelOf(target), target);
+            }
+            return;
+        }
         ConfigurableApplicationContext context = new SpringApplicationBuilder(OauthServerApplication.class)
             .properties(
                 "server.port=0",
@@ -64,8 +90,10 @@ public final class DemoExportUsageExportBenchmark {
 
             List<Integer> targets = parseTargets(args);
             for (Integer target : targets) {
-                String label = target >= 10_000_000 ? "10M" : (target >= 1_000_000 ? "1M" : target + "ROWS");
+                String label = labelOf(target);
                 runScenario(label, target, skipGenerate, demoService, exportService, jdbcTemplate);
+                runEntityExtraction(label, target);
+                runBatchPipeline(label, target);
             }
         } finally {
             context.close();
@@ -147,8 +175,9 @@ public final class DemoExportUsageExportBenchmark {
 
         long fileSizeBytes = Files.exists(outFile) ? Files.size(outFile) : 0L;
         System.out.printf(
-            "RESULT label=%s success=%s rows=%d exportMs=%d fileBytes=%d error=\"%s\"%n",
-            label, success, generatedRows, exportMs, fileSizeBytes, error == null ? "" : error
+            "RESULT label=%s success=%s rows=%d exportMs=%d rowsPerSec=%.0f fileBytes=%d error=\"%s\"%n",
+            label, success, generatedRows, exportMs, rowsPerSecond(generatedRows, exportMs), fileSizeBytes,
+            error == null ? "" : error
         );
         System.out.printf(
             "MEMORY label=%s heapUsedBeforeMB=%.2f heapUsedAfterMB=%.2f heapUsedAfterGcMB=%.2f heapCommittedAfterGcMB=%.2f peakHeapUsedMB=%.2f%n",
@@ -177,6 +206,224 @@ public final class DemoExportUsageExportBenchmark {
         System.out.println();
     }
 
+    /**
+     * 实体行映射对比：legacy 与 compiled 各映射 targetRows 行（实体池循环复用），各跑一轮预热
+     */
+    private static void runEntityExtraction(String label, int targetRows) {
+        List<String> leafFields = HeaderBuilder.build(buildRequest().getSheets().get(0).getColumns()).leafFields;
+        DemoExportUsageEntity[] pool = new DemoExportUsageEntity[Math.min(ENTITY_POOL_SIZE, Math.max(1, targetRows))];
+        for (int i = 0; i < pool.length; i++) {
+            pool[i] = entity(i);
+        }
+        int warmupRows = Math.min(targetRows, 200_000);
+        extractLegacy(pool, leafFields, warmupRows);
+        extractCompiled(pool, leafFields, warmupRows);
+
+        long start = System.nanoTime();
+        long legacyChecksum = extractLegacy(pool, leafFields, targetRows);
+        long legacyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        start = System.nanoTime();
+        long compiledChecksum = extractCompiled(pool, leafFields, targetRows);
+        long compiledMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        System.out.printf(
+            "ENTITY_EXTRACT label=%s rows=%d legacyMs=%d legacyRowsPerSec=%.0f compiledMs=%d compiledRowsPerSec=%.0f checksumMatch=%s%n",
+            label, targetRows, legacyMs, rowsPerSecond(targetRows, legacyMs), compiledMs,
+            rowsPerSecond(targetRows, compiledMs), legacyChecksum == compiledChecksum
+        );
+        System.out.println();
+    }
+
+    /**
+     * 流水线交接对比：两种方式各处理 targetRows 行（Map 行池循环复用），统计当前线程分配字节数
+     */
+    private static void runBatchPipeline(String label, int targetRows) throws InterruptedException {
+        List<String> leafFields = HeaderBuilder.build(buildRequest().getSheets().get(0).getColumns()).leafFields;
+        RowExtractor extractor = new RowExtractor(leafFields);
+        Map<String, Object>[] pool = mapPool(Math.min(ENTITY_POOL_SIZE, Math.max(1, targetRows)), leafFields, extractor);
+        int warmupRows = Math.min(targetRows, 200_000);
+        pipelineLegacy(pool, leafFields, warmupRows);
+        pipelineBatch(pool, leafFields, warmupRows);
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        long legacyChecksum = pipelineLegacy(pool, leafFields, targetRows);
+        long legacyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long legacyBytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+
+        bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        start = System.nanoTime();
+        long batchChecksum = pipelineBatch(pool, leafFields, targetRows);
+        long batchMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long batchBytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+        System.out.printf(
+            "BATCH_PIPELINE label=%s rows=%d legacyMs=%d legacyBytesPerRow=%.1f batchMs=%d batchBytesPerRow=%.1f checksumMatch=%s%n",
+            label, targetRows, legacyMs, (double) legacyBytes / targetRows, batchMs, (double) batchBytes / targetRows,
+            legacyChecksum == batchChecksum
+        );
+        System.out.println();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object>[] mapPool(int size, List<String> leafFields, RowExtractor extractor) {
+        Map<String, Object>[] pool = new Map[size];
+        for (int i = 0; i < size; i++) {
+            List<Object> values = extractor.extract(entity(i));
+            Map<String, Object> row = new HashMap<>();
+            for (int c = 0; c < leafFields.size(); c++) {
+                row.put(leafFields.get(c), values.get(c));
+            }
+            pool[i] = row;
+        }
+        return pool;
+    }
+
+    private record LegacyEnvelope(List<Object> row, boolean end) {
+    }
+
+    private static long pipelineLegacy(Map<String, Object>[] pool, List<String> leafFields, int rows)
+            throws InterruptedException {
+        RowExtractor extractor = new RowExtractor(leafFields);
+        AggregateStrategy strategy = new IdSumStrategy();
+        Map<String, Object> sumMap = Collections.synchronizedMap(new HashMap<>());
+        BlockingQueue<LegacyEnvelope> queue = new ArrayBlockingQueue<>(2000);
+        long checksum = 0;
+        for (int i = 0; i < rows; i++) {
+            List<Object> row = extractor.extract(pool[i % pool.length]);
+            synchronized (sumMap) {
+                sumMap.put("id", strategy.accumulate("id", row.get(0), sumMap.get("id")));
+            }
+            queue.put(new LegacyEnvelope(row, false));
+            checksum += checksum(queue.take().row());
+        }
+        return checksum + (Long) sumMap.get("id");
+    }
+
+    private static long pipelineBatch(Map<String, Object>[] pool, List<String> leafFields, int rows)
+            throws InterruptedException {
+        RowExtractor extractor = new RowExtractor(leafFields);
+        AggregateStrategy strategy = new IdSumStrategy();
+        Map<String, Object> sumMap = Collections.synchronizedMap(new HashMap<>());
+        BlockingQueue<RowBatch> queue = new ArrayBlockingQueue<>(8);
+        RowBatch spare = new RowBatch(leafFields.size(), 256);
+        RowBatch batch = null;
+        long checksum = 0;
+        for (int i = 0; i < rows; i++) {
+            if (batch == null) {
+                batch = spare;
+            }
+            extractor.extractInto(pool[i % pool.length], batch);
+            if (batch.isFull() || i == rows - 1) {
+                synchronized (sumMap) {
+                    sumMap.put("id", strategy.accumulateColumn("id", batch.column(0), sumMap.get("id")));
+                }
+                queue.put(batch);
+                RowBatch taken = queue.take();
+                for (int r = 0; r < taken.size(); r++) {
+                    checksum += checksum(taken.row(r));
+                }
+                taken.clear();
+                spare = taken;
+                batch = null;
+            }
+        }
+        return checksum + (Long) sumMap.get("id");
+    }
+
+    /**
+     * 对 id 列求和；LONG 列按 long[] 累加
+     */
+    private static final class IdSumStrategy implements AggregateStrategy {
+        @Override
+        public boolean isAggregate(String fieldName) {
+            return "id".equals(fieldName);
+        }
+
+        @Override
+        public Object accumulate(String fieldName, Object currentValue, Object accumulatedValue) {
+            long base = accumulatedValue == null ? 0L : (Long) accumulatedValue;
+            return currentValue == null ? base : base + ((Number) currentValue).longValue();
+        }
+
+        @Override
+        public Object accumulateColumn(String fieldName, ColumnVector column, Object accumulatedValue) {
+            if (column.type() != ColumnVector.Type.LONG) {
+                return AggregateStrategy.super.accumulateColumn(fieldName, column, accumulatedValue);
+            }
+            long sum = accumulatedValue == null ? 0L : (Long) accumulatedValue;
+            for (int i = 0; i < column.size(); i++) {
+                sum += column.getLong(i);
+            }
+            return sum;
+        }
+
+        @Override
+        public Object finalize(String fieldName, Object accumulatedValue) {
+            return accumulatedValue;
+        }
+    }
+
+    private static long extractLegacy(DemoExportUsageEntity[] pool, List<String> leafFields, int rows) {
+        long checksum = 0;
+        for (int i = 0; i < rows; i++) {
+            Object item = pool[i % pool.length];
+            List<Object> row = new ArrayList<>(leafFields.size());
+            for (String f : leafFields) {
+                try {
+                    var field = item.getClass().getDeclaredField(f);
+                    field.setAccessible(true);
+                    row.add(field.get(item));
+                } catch (Exception e) {
+                    row.add(null);
+                }
+            }
+            checksum += checksum(row);
+        }
+        return checksum;
+    }
+
+    private static long extractCompiled(DemoExportUsageEntity[] pool, List<String> leafFields, int rows) {
+        RowExtractor extractor = new RowExtractor(leafFields);
+        long checksum = 0;
+        for (int i = 0; i < rows; i++) {
+            checksum += checksum(extractor.extract(pool[i % pool.length]));
+        }
+        return checksum;
+    }
+
+    private static long checksum(List<Object> row) {
+        long hash = 0;
+        for (Object value : row) {
+            hash = hash * 31 + (value == null ? 0 : value.hashCode());
+        }
+        return hash;
+    }
+
+    private static DemoExportUsageEntity entity(int i) {
+        DemoExportUsageEntity entity = new DemoExportUsageEntity();
+        entity.setId((long) i + 1);
+        entity.setTenantId(TENANT_ID);
+        entity.setRecordTenantId(TENANT_ID);
+        entity.setUsageDate(LocalDate.of(2026, 1, 1).plusDays(i % 365));
+        entity.setProductCode("P" + (i % 100));
+        entity.setProductName("Product " + (i % 100));
+        entity.setUsageQty(BigDecimal.valueOf(i % 1000, 2));
+        entity.setAmount(BigDecimal.valueOf(i * 7L % 100_000, 2));
+        entity.setCurrency("CNY");
+        entity.setStatus(i % 10 == 0 ? "PENDING" : "BILLED");
+        entity.setCreatedAt(LocalDateTime.of(2026, 1, 1, 0, 0).plusMinutes(i));
+        return entity;
+    }
+
+    private static double rowsPerSecond(long rows, long millis) {
+        return millis <= 0 ? rows * 1000.0 : rows * 1000.0 / millis;
+    }
+
+    private static String labelOf(int target) {
+        return target >= 10_000_000 ? "10M" : (target >= 1_000_000 ? "1M" : target + "ROWS");
+    }
+
     private static ExportRequest buildRequest() {
         ExportRequest request = new ExportRequest();
         request.setFileName("demo-export-benchmark");
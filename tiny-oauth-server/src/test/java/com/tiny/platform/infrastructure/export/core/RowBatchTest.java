@@ -0,0 +1,96 @@
+package com.tiny.platform.infrastructure.export.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RowBatchTest {
+
+    @Test
+    void columnsShouldTrackPrimitiveTypesAndKeepOriginalValues() {
+        RowBatch batch = new RowBatch(3, 4);
+        BigDecimal amount = new BigDecimal("1.50");
+        append(batch, 1L, 2.5D, "a");
+        append(batch, null, null, amount);
+        append(batch, 3, 4.0D, null);
+
+        ColumnVector ids = batch.column(0);
+        assertEquals(ColumnVector.Type.LONG, ids.type());
+        assertEquals(1L, ids.getLong(0));
+        assertTrue(ids.isNull(1));
+        assertEquals(0L, ids.getLong(1));
+        assertEquals(3L, ids.getLong(2));
+        assertEquals(3, ids.get(2));
+        assertEquals(ColumnVector.Type.DOUBLE, batch.column(1).type());
+        assertEquals(4.0D, batch.column(1).getDouble(2));
+        assertEquals(ColumnVector.Type.OBJECT, batch.column(2).type());
+        assertSame(amount, batch.get(1, 2));
+        assertThrows(IllegalStateException.class, () -> batch.column(2).getLong(0));
+
+        assertEquals(Arrays.asList(null, null, amount), batch.row(1));
+        assertEquals(List.of(Arrays.asList(3, 4.0D, null)), batch.rows(2, 3));
+    }
+
+    @Test
+    void mixedColumnShouldFallBackToObjectAndClearShouldResetForReuse() {
+        RowBatch batch = new RowBatch(1, 2);
+        append(batch, 1L);
+        append(batch, "x");
+        assertEquals(ColumnVector.Type.OBJECT, batch.column(0).type());
+        assertTrue(batch.isFull());
+        assertThrows(IllegalStateException.class, batch::appendRow);
+
+        List<Object> copy = batch.copyRow(1);
+        batch.clear();
+        assertEquals(0, batch.size());
+        assertEquals(ColumnVector.Type.NULL, batch.column(0).type());
+        assertNull(batch.column(0).get(1));
+        assertEquals(List.of("x"), copy);
+
+        append(batch, 9L);
+        assertEquals(ColumnVector.Type.LONG, batch.column(0).type());
+        assertEquals(9L, batch.column(0).getLong(0));
+    }
+
+    @Test
+    void defaultAccumulateColumnShouldDelegateRowByRow() {
+        AggregateStrategy strategy = new AggregateStrategy() {
+            @Override
+            public boolean isAggregate(String fieldName) {
+                return true;
+            }
+
+            @Override
+            public Object accumulate(String fieldName, Object currentValue, Object accumulatedValue) {
+                long base = accumulatedValue == null ? 0L : (Long) accumulatedValue;
+                return currentValue == null ? base : base + ((Number) currentValue).longValue();
+            }
+
+            @Override
+            public Object finalize(String fieldName, Object accumulatedValue) {
+                return accumulatedValue;
+            }
+        };
+        RowBatch batch = new RowBatch(1, 4);
+        append(batch, 5L);
+        append(batch, (Object) null);
+        append(batch, 7);
+
+        assertEquals(22L, strategy.accumulateColumn("qty", batch.column(0), 10L));
+    }
+
+    private static void append(RowBatch batch, Object... values) {
+        int row = batch.appendRow();
+        for (int c = 0; c < values.length; c++) {
+            batch.set(row, c, values[c]);
+        }
+    }
+}
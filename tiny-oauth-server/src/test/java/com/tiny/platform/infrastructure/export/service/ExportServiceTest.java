@@ -2,10 +2,15 @@ package com.tiny.platform.infrastructure.export.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tiny.platform.infrastructure.core.exception.exception.BusinessException;
+import com.tiny.platform.infrastructure.export.core.AggregateStrategy;
 import com.tiny.platform.infrastructure.export.core.ColumnNode;
+import com.tiny.platform.infrastructure.export.core.ColumnVector;
 import com.tiny.platform.infrastructure.export.core.DataProvider;
+import com.tiny.platform.infrastructure.export.core.ExportPartition;
 import com.tiny.platform.infrastructure.export.core.ExportRequest;
 import com.tiny.platform.infrastructure.export.core.FilterAwareDataProvider;
+import com.tiny.platform.infrastructure.export.core.PartitionedDataProvider;
+import com.tiny.platform.infrastructure.export.core.RowBatch;
 import com.tiny.platform.infrastructure.export.core.SheetConfig;
 import com.tiny.platform.infrastructure.export.core.TopInfoDecorator;
 import com.tiny.platform.infrastructure.export.service.SheetWriteModel;
@@ -26,6 +31,8 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -262,6 +269,112 @@ class ExportServiceTest {
         verify(taskService).createPendingTask(anyString(), ArgumentMatchers.eq("u-1"), ArgumentMatchers.eq("u-1"), ArgumentMatchers.eq(1), any(), any());
     }
 
+    @Test
+    void exportSyncShouldFetchPartitionsInParallelAndKeepSequentialOrder() throws Exception {
+        PartitionedProvider provider = new PartitionedProvider(1, 200);
+        CapturingWriterAdapter writer = new CapturingWriterAdapter();
+
+        ExportService service = new ExportService(
+            writer,
+            Map.of("user", provider),
+            (request, exportType) -> List.of(),
+            Map.of(),
+            newExecutor(),
+            Mockito.mock(ExportTaskService.class),
+            new ObjectMapper(),
+            10,
+            3,
+            2,
+            5000,
+            100_000,
+            3,
+            new SimpleMeterRegistry()
+        );
+
+        ExportRequest request = new ExportRequest();
+        request.setPageSize(7);
+        SheetConfig sheet = new SheetConfig();
+        sheet.setSheetName("用户列表");
+        sheet.setExportType("user");
+        sheet.setFilters(new LinkedHashMap<>(Map.of("activeTenantId", 7)));
+        sheet.setColumns(List.of(new ColumnNode("ID", "id", null)));
+        request.setSheets(List.of(sheet));
+
+        service.exportSync(request, new ByteArrayOutputStream(), "u-1");
+
+        List<List<Object>> expected = new ArrayList<>();
+        for (long id = 200; id >= 1; id--) {
+            expected.add(List.of(id));
+        }
+        assertEquals(expected, writer.rows);
+        assertEquals(12, provider.maxPartitionsSeen.get());
+        assertEquals(12, provider.fetchThreads.size());
+        assertTrue(provider.concurrentPeak.get() > 1);
+        assertTrue(provider.concurrentPeak.get() <= 3);
+        assertEquals(0, provider.filtersMissing.get());
+    }
+
+    @Test
+    void exportSyncShouldHandOffColumnarBatchesAndAggregatePerBatch() throws Exception {
+        TrackingFilterAwareProvider provider = new TrackingFilterAwareProvider();
+        for (long id = 1; id <= 600; id++) {
+            provider.rows.add(Map.of("id", id, "qty", id * 2));
+        }
+        LongSumStrategy strategy = new LongSumStrategy();
+        List<List<Object>> rows = new ArrayList<>();
+        List<Integer> batchSizes = new ArrayList<>();
+        AtomicReference<Object> total = new AtomicReference<>();
+        WriterAdapter writer = (out, sheets) -> {
+            SheetWriteModel model = sheets.get(0);
+            Iterator<RowBatch> batches = model.getBatches();
+            assertNotNull(batches);
+            while (batches.hasNext()) {
+                RowBatch batch = batches.next();
+                assertEquals(ColumnVector.Type.LONG, batch.column(1).type());
+                batchSizes.add(batch.size());
+                for (int r = 0; r < batch.size(); r++) {
+                    rows.add(batch.copyRow(r));
+                }
+            }
+            total.set(model.getStrategy().finalize("qty", model.getSumMap().get("qty")));
+        };
+
+        ExportService service = new ExportService(
+            writer,
+            Map.of("user", provider),
+            (request, exportType) -> List.of(),
+            Map.of("sum", strategy),
+            newExecutor(),
+            Mockito.mock(ExportTaskService.class),
+            new ObjectMapper(),
+            10,
+            3,
+            2,
+            5000,
+            100_000,
+            new SimpleMeterRegistry()
+        );
+
+        ExportRequest request = new ExportRequest();
+        SheetConfig sheet = new SheetConfig();
+        sheet.setSheetName("用户列表");
+        sheet.setExportType("user");
+        sheet.setAggregateKey("sum");
+        sheet.setColumns(List.of(new ColumnNode("ID", "id", null), new ColumnNode("数量", "qty", null)));
+        request.setSheets(List.of(sheet));
+
+        service.exportSync(request, new ByteArrayOutputStream(), "u-1");
+
+        assertEquals(600, rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals(List.of(i + 1L, (i + 1L) * 2), rows.get(i));
+        }
+        assertEquals(List.of(256, 256, 88), batchSizes);
+        assertEquals(360_600L, total.get());
+        assertEquals(3, strategy.columnCalls.get());
+        assertEquals(0, strategy.rowCalls.get());
+    }
+
     private ThreadPoolTaskExecutor newExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(1);
@@ -300,6 +413,106 @@ class ExportServiceTest {
         }
     }
 
+    /**
+     * 对 qty 列求和；LONG 列直接累加 long[]
+     */
+    private static final class LongSumStrategy implements AggregateStrategy {
+        private final AtomicInteger columnCalls = new AtomicInteger();
+        private final AtomicInteger rowCalls = new AtomicInteger();
+
+        @Override
+        public boolean isAggregate(String fieldName) {
+            return "qty".equals(fieldName);
+        }
+
+        @Override
+        public Object accumulate(String fieldName, Object currentValue, Object accumulatedValue) {
+            rowCalls.incrementAndGet();
+            long base = accumulatedValue == null ? 0L : (Long) accumulatedValue;
+            return currentValue == null ? base : base + ((Number) currentValue).longValue();
+        }
+
+        @Override
+        public Object accumulateColumn(String fieldName, ColumnVector column, Object accumulatedValue) {
+            if (column.type() != ColumnVector.Type.LONG) {
+                return AggregateStrategy.super.accumulateColumn(fieldName, column, accumulatedValue);
+            }
+            columnCalls.incrementAndGet();
+            long sum = accumulatedValue == null ? 0L : (Long) accumulatedValue;
+            for (int i = 0; i < column.size(); i++) {
+                sum += column.getLong(i);
+            }
+            return sum;
+        }
+
+        @Override
+        public Object finalize(String fieldName, Object accumulatedValue) {
+            return accumulatedValue;
+        }
+    }
+
+    /**
+     * id 区间 [minId, maxId] 的降序数据；靠前的分区读得更慢，验证输出仍按分区顺序
+     */
+    private static final class PartitionedProvider implements FilterAwareDataProvider<Map<String, Object>>,
+            PartitionedDataProvider<Map<String, Object>> {
+        private final ThreadLocal<Map<String, Object>> filters = new ThreadLocal<>();
+        private final long minId;
+        private final long maxId;
+        private final AtomicInteger maxPartitionsSeen = new AtomicInteger();
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger concurrentPeak = new AtomicInteger();
+        private final AtomicInteger filtersMissing = new AtomicInteger();
+        private final Set<String> fetchThreads = ConcurrentHashMap.newKeySet();
+
+        private PartitionedProvider(long minId, long maxId) {
+            this.minId = minId;
+            this.maxId = maxId;
+        }
+
+        @Override
+        public List<ExportPartition> partitions(int maxPartitions) {
+            maxPartitionsSeen.set(maxPartitions);
+            return ExportPartition.splitDescending(minId, maxId, maxPartitions);
+        }
+
+        @Override
+        public Iterator<Map<String, Object>> fetchPartition(ExportPartition partition, int batchSize) {
+            if (filters.get() == null || !Integer.valueOf(7).equals(filters.get().get("activeTenantId"))) {
+                filtersMissing.incrementAndGet();
+            }
+            fetchThreads.add(Thread.currentThread().getName());
+            concurrentPeak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(Math.max(0, 40 - partition.index() * 5L));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+            List<Map<String, Object>> rows = new ArrayList<>();
+            for (long id = partition.upperBound() - 1; id >= partition.lowerBound(); id--) {
+                rows.add(Map.of("id", id));
+            }
+            return rows.iterator();
+        }
+
+        @Override
+        public Iterator<Map<String, Object>> fetchIterator(int batchSize) {
+            throw new AssertionError("分区可用时不应顺序读取");
+        }
+
+        @Override
+        public void setFilters(Map<String, Object> filters) {
+            this.filters.set(filters);
+        }
+
+        @Override
+        public void clearFilters() {
+            filters.remove();
+        }
+    }
+
     private static final class TrackingFilterAwareProvider implements FilterAwareDataProvider<Map<String, Object>> {
         private final List<Map<String, Object>> rows = new ArrayList<>();
         private final AtomicReference<Map<String, Object>> currentFilters = new AtomicReference<>();
@@ -0,0 +1,61 @@
+package com.tiny.platform.infrastructure.export.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RowExtractorTest {
+
+    @Test
+    void extractShouldReadMapsEntitiesRecordsAndInheritedFieldsInLeafOrder() {
+        RowExtractor extractor = new RowExtractor(List.of("name", "amount", "missing", "id"));
+
+        assertThat(extractor.extract(Map.of("id", 1L, "name", "map", "amount", 3)))
+            .containsExactly("map", 3, null, 1L);
+        assertThat(extractor.extract(new UsageRow(7L, "entity", new BigDecimal("1.50"), 42)))
+            .containsExactly("entity", new BigDecimal("1.50"), null, 7L);
+        assertThat(extractor.extract(new UsageRecord("record", 9)))
+            .containsExactly("record", 9, null, null);
+        assertThat(extractor.extract(new UsageRow(8L, "again", null, 1)))
+            .containsExactly("again", null, null, 8L);
+        assertThat(extractor.extract(null)).containsExactly(null, null, null, null);
+    }
+
+    @Test
+    void extractShouldBoxPrimitiveFieldsAndSkipStaticFields() {
+        RowExtractor extractor = new RowExtractor(List.of("count", "CONSTANT"));
+
+        assertThat(extractor.extract(new UsageRow(1L, "x", BigDecimal.ONE, 5)))
+            .isEqualTo(Arrays.asList(5, null));
+    }
+
+    private static class BaseRow {
+        private final Long id;
+
+        BaseRow(Long id) {
+            this.id = id;
+        }
+    }
+
+    private static final class UsageRow extends BaseRow {
+        private static final String CONSTANT = "static";
+        private final String name;
+        private final BigDecimal amount;
+        private final int count;
+
+        UsageRow(Long id, String name, BigDecimal amount, int count) {
+            super(id);
+            this.name = name;
+            this.amount = amount;
+            this.count = count;
+        }
+    }
+
+    private record UsageRecord(String name, int amount) {
+    }
+}
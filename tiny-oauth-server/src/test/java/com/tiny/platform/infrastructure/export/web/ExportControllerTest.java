@@ -9,6 +9,7 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.access.AccessDeniedException;
@@ -93,6 +94,40 @@ class ExportControllerTest {
         verify(exportService).exportSync(eq(request), org.mockito.ArgumentMatchers.any(OutputStream.class), eq("sync-user"));
     }
 
+    @Test
+    void streamingModeShouldWriteDirectlyToResponseWithFormatContentType() throws Exception {
+        ExportService exportService = Mockito.mock(ExportService.class);
+        ExportTaskService exportTaskService = Mockito.mock(ExportTaskService.class);
+        ExportController controller = new ExportController(exportService, exportTaskService, true);
+        ExportRequest request = new ExportRequest();
+        request.setFileName("demo_file");
+        request.setFormat("csv.gz");
+        request.setSheets(List.of(new com.tiny.platform.infrastructure.export.core.SheetConfig()));
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken("sync-user", "N/A", List.of(new SimpleGrantedAuthority("system:export:view")))
+        );
+        Mockito.doAnswer(invocation -> {
+                OutputStream outputStream = invocation.getArgument(1, OutputStream.class);
+                outputStream.write("csv-content".getBytes(StandardCharsets.UTF_8));
+                return null;
+            })
+            .when(exportService)
+            .exportSync(eq(request), org.mockito.ArgumentMatchers.any(OutputStream.class), eq("sync-user"));
+
+        ResponseEntity<StreamingResponseBody> response = controller.exportSync(request);
+        Mockito.verify(exportService, Mockito.never())
+            .exportSync(eq(request), org.mockito.ArgumentMatchers.any(OutputStream.class), eq("sync-user"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamingResponseBody body = response.getBody();
+        assertNotNull(body);
+        body.writeTo(out);
+
+        assertEquals("csv-content", out.toString(StandardCharsets.UTF_8));
+        assertEquals("application/gzip", String.valueOf(response.getHeaders().getContentType()));
+        assertTrue(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION).contains("demo_file.csv.gz"));
+    }
+
     @Test
     void shouldIgnoreClientAbortIOException() throws Exception {
         ExportService exportService = Mockito.mock(ExportService.class);
@@ -0,0 +1,132 @@
+package com.tiny.platform.infrastructure.export.web;
+
+import com.tiny.platform.infrastructure.export.persistence.ExportTaskEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExportFileDownloaderTest {
+
+    private static final byte[] CONTENT = "0123456789abcdefghij".getBytes(StandardCharsets.UTF_8);
+
+    private Path dir;
+    private ExportTaskEntity task;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dir = Files.createTempDirectory("export-download-");
+        task = new ExportTaskEntity();
+        task.setTaskId("task-1");
+        task.setFileSizeBytes((long) CONTENT.length);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        try (var files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    @Test
+    void shouldServePartialContentAndResumeWithMatchingIfRange() throws Exception {
+        Path file = write("result.xlsx");
+        ExportFileDownloader downloader = new ExportFileDownloader(true);
+
+        MockHttpServletResponse full = download(downloader, file, new MockHttpServletRequest());
+        assertEquals(200, full.getStatus());
+        assertEquals("bytes", full.getHeader("Accept-Ranges"));
+        assertArrayEquals(CONTENT, full.getContentAsByteArray());
+        String etag = full.getHeader("ETag");
+        assertTrue(etag.startsWith("\"task-1-"));
+
+        MockHttpServletRequest resume = new MockHttpServletRequest();
+        resume.addHeader("Range", "bytes=10-");
+        resume.addHeader("If-Range", etag);
+        MockHttpServletResponse partial = download(downloader, file, resume);
+        assertEquals(206, partial.getStatus());
+        assertEquals("bytes 10-19/20", partial.getHeader("Content-Range"));
+        assertEquals("abcdefghij", partial.getContentAsString());
+
+        MockHttpServletRequest suffix = new MockHttpServletRequest();
+        suffix.addHeader("Range", "bytes=-3");
+        assertEquals("hij", download(downloader, file, suffix).getContentAsString());
+    }
+
+    @Test
+    void shouldIgnoreRangeWhenIfRangeIsStaleAndRejectUnsatisfiableRange() throws Exception {
+        Path file = write("result.xlsx");
+        ExportFileDownloader downloader = new ExportFileDownloader(true);
+
+        MockHttpServletRequest stale = new MockHttpServletRequest();
+        stale.addHeader("Range", "bytes=0-4");
+        stale.addHeader("If-Range", "\"task-1-old\"");
+        MockHttpServletResponse restarted = download(downloader, file, stale);
+        assertEquals(200, restarted.getStatus());
+        assertArrayEquals(CONTENT, restarted.getContentAsByteArray());
+
+        MockHttpServletRequest outOfRange = new MockHttpServletRequest();
+        outOfRange.addHeader("Range", "bytes=50-");
+        MockHttpServletResponse rejected = download(downloader, file, outOfRange);
+        assertEquals(416, rejected.getStatus());
+        assertEquals("bytes */20", rejected.getHeader("Content-Range"));
+
+        MockHttpServletRequest conditional = new MockHttpServletRequest();
+        conditional.addHeader("If-None-Match", restarted.getHeader("ETag"));
+        assertEquals(304, download(downloader, file, conditional).getStatus());
+    }
+
+    @Test
+    void shouldServePrecompressedCsvToGzipClientsAndDelegateToSendfile() throws Exception {
+        Path file = write("result.csv");
+        ExportFileDownloader downloader = new ExportFileDownloader(true);
+
+        MockHttpServletRequest gzipRequest = new MockHttpServletRequest();
+        gzipRequest.addHeader("Accept-Encoding", "gzip, deflate");
+        MockHttpServletResponse compressed = download(downloader, file, gzipRequest);
+        assertEquals("gzip", compressed.getHeader("Content-Encoding"));
+        assertTrue(compressed.getHeader("ETag").endsWith("-gz\""));
+        assertTrue(Files.exists(dir.resolve("result.csv.gz")));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.getContentAsByteArray()))) {
+            assertArrayEquals(CONTENT, in.readAllBytes());
+        }
+
+        MockHttpServletRequest sendfile = new MockHttpServletRequest();
+        sendfile.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        sendfile.addHeader("Range", "bytes=5-9");
+        MockHttpServletResponse delegated = download(downloader, file, sendfile);
+        assertEquals(206, delegated.getStatus());
+        assertEquals(5, delegated.getContentLengthLong());
+        assertEquals(0, delegated.getContentAsByteArray().length);
+        assertEquals(file.toAbsolutePath().toString(), sendfile.getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertEquals(5L, sendfile.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(10L, sendfile.getAttribute("org.apache.tomcat.sendfile.end"));
+    }
+
+    private Path write(String name) throws Exception {
+        Path file = dir.resolve(name);
+        Files.write(file, CONTENT);
+        return file;
+    }
+
+    private MockHttpServletResponse download(ExportFileDownloader downloader, Path file, MockHttpServletRequest request)
+            throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        downloader.download(task, file, request, response);
+        return response;
+    }
+}
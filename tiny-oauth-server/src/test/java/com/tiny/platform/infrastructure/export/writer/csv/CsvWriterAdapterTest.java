@@ -0,0 +1,85 @@
+package com.tiny.platform.infrastructure.export.writer.csv;
+
+import com.tiny.platform.infrastructure.export.core.RowBatch;
+import com.tiny.platform.infrastructure.export.service.SheetWriteModel;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvWriterAdapterTest {
+
+    @Test
+    void shouldWriteHeaderRowsAndEscapeValues() throws Exception {
+        SheetWriteModel model = new SheetWriteModel();
+        model.setSheetName("usage");
+        model.setHead(List.of(List.of("ID"), List.of("Name"), List.of("Amount")));
+        model.setRows(List.<List<Object>>of(
+                Arrays.asList(1L, "a,b", new BigDecimal("1E+3")),
+                Arrays.asList(2L, "say \"hi\"", null),
+                Arrays.asList(3L, "=SUM(A1:A2)", true)
+        ).iterator());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new CsvWriterAdapter().writeMultiSheet(out, List.of(model));
+
+        assertEquals("\uFEFFID,Name,Amount\r\n"
+                + "1,\"a,b\",1000\r\n"
+                + "2,\"say \"\"hi\"\"\",\r\n"
+                + "3,\"'=SUM(A1:A2)\",true\r\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void gzipModeShouldProduceDecompressibleCsv() throws Exception {
+        SheetWriteModel model = new SheetWriteModel();
+        model.setHead(List.of(List.of("ID")));
+        model.setRows(List.<List<Object>>of(List.of(1), List.of(2)).iterator());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new CsvWriterAdapter(true).writeMultiSheet(out, List.of(model));
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals("\uFEFFID\r\n1\r\n2\r\n", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void batchModeShouldMatchRowMode() throws Exception {
+        List<List<Object>> rows = List.of(
+                Arrays.asList(Long.MIN_VALUE, "a,b", 1.5D),
+                Arrays.asList(-42L, null, null),
+                Arrays.asList(7, "=1+1", 2.25D)
+        );
+        RowBatch batch = new RowBatch(3, 4);
+        for (List<Object> row : rows) {
+            int r = batch.appendRow();
+            for (int c = 0; c < row.size(); c++) {
+                batch.set(r, c, row.get(c));
+            }
+        }
+        SheetWriteModel batchModel = new SheetWriteModel();
+        batchModel.setHead(List.of(List.of("ID"), List.of("Name"), List.of("Qty")));
+        batchModel.setBatches(List.of(batch).iterator());
+        SheetWriteModel rowModel = new SheetWriteModel();
+        rowModel.setHead(batchModel.getHead());
+        rowModel.setRows(rows.iterator());
+
+        ByteArrayOutputStream batchOut = new ByteArrayOutputStream();
+        new CsvWriterAdapter().writeMultiSheet(batchOut, List.of(batchModel));
+        ByteArrayOutputStream rowOut = new ByteArrayOutputStream();
+        new CsvWriterAdapter().writeMultiSheet(rowOut, List.of(rowModel));
+
+        assertEquals(rowOut.toString(StandardCharsets.UTF_8), batchOut.toString(StandardCharsets.UTF_8));
+        assertEquals("\uFEFFID,Name,Qty\r\n"
+                + "-9223372036854775808,\"a,b\",1.5\r\n"
+                + "-42,,\r\n"
+                + "7,\"'=1+1\",2.25\r\n", batchOut.toString(StandardCharsets.UTF_8));
+    }
+}
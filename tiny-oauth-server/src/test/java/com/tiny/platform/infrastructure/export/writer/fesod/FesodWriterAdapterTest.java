@@ -1,7 +1,11 @@
 package com.tiny.platform.infrastructure.export.writer.fesod;
 
 import com.tiny.platform.infrastructure.export.core.AggregateStrategy;
+import com.tiny.platform.infrastructure.export.core.RowBatch;
 import com.tiny.platform.infrastructure.export.service.SheetWriteModel;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.Test;
@@ -9,7 +13,9 @@ import org.junit.jupiter.api.Test;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -76,6 +82,59 @@ class FesodWriterAdapterTest {
         }
     }
 
+    @Test
+    void batchModeShouldMatchRowModeAcrossSheetSplitAndSummary() throws Exception {
+        // 表头 1 行 + 单 Sheet 上限 5 行 => dataCapacity 为 4；每批 3 行，第 4、8 行处的切分落在批次中间
+        List<List<Object>> rows = buildMixedRows(10);
+        SheetWriteModel batchModel = mixedModel();
+        batchModel.setBatches(recyclingBatches(rows, 4, 3));
+        SheetWriteModel rowModel = mixedModel();
+        rowModel.setRows(rows.iterator());
+
+        ByteArrayOutputStream batchOut = new ByteArrayOutputStream();
+        new FesodWriterAdapter(2, 5).writeMultiSheet(batchOut, List.of(batchModel));
+        ByteArrayOutputStream rowOut = new ByteArrayOutputStream();
+        new FesodWriterAdapter(2, 5).writeMultiSheet(rowOut, List.of(rowModel));
+
+        try (XSSFWorkbook batchWb = new XSSFWorkbook(new ByteArrayInputStream(batchOut.toByteArray()));
+             XSSFWorkbook rowWb = new XSSFWorkbook(new ByteArrayInputStream(rowOut.toByteArray()))) {
+            assertSameCells(rowWb, batchWb);
+
+            assertEquals(3, batchWb.getNumberOfSheets());
+            assertEquals("usage_2", batchWb.getSheetName(1));
+            assertEquals(5, batchWb.getSheetAt(0).getPhysicalNumberOfRows());
+            assertEquals(5, batchWb.getSheetAt(1).getPhysicalNumberOfRows());
+            assertEquals(4, batchWb.getSheetAt(2).getPhysicalNumberOfRows());
+
+            Row fourth = batchWb.getSheetAt(0).getRow(4);
+            assertEquals(CellType.NUMERIC, fourth.getCell(0).getCellType());
+            assertEquals(4D, fourth.getCell(0).getNumericCellValue());
+            assertEquals("v-4", fourth.getCell(1).getStringCellValue());
+            assertEquals(6D, fourth.getCell(2).getNumericCellValue());
+            assertEquals(true, fourth.getCell(3).getBooleanCellValue());
+            Row fifth = batchWb.getSheetAt(1).getRow(1);
+            assertEquals(5D, fifth.getCell(0).getNumericCellValue());
+            assertEquals(CellType.BOOLEAN, fifth.getCell(3).getCellType());
+
+            Row summary = batchWb.getSheetAt(2).getRow(3);
+            assertEquals("总计", summary.getCell(0).getStringCellValue());
+            assertEquals(CellType.NUMERIC, summary.getCell(2).getCellType());
+            assertEquals(55.5D, summary.getCell(2).getNumericCellValue());
+        }
+    }
+
+    private SheetWriteModel mixedModel() {
+        SheetWriteModel model = new SheetWriteModel();
+        model.setSheetName("usage");
+        model.setHead(List.of(List.of("ID"), List.of("Product"), List.of("Amount"), List.of("Active")));
+        model.setLeafFields(List.of("id", "product", "amount", "active"));
+        model.setStrategy(new SumAmountStrategy());
+        Map<String, Object> sumMap = new HashMap<>();
+        sumMap.put("amount", 55.5D);
+        model.setSumMap(sumMap);
+        return model;
+    }
+
     private void assertSheetHeader(Sheet sheet) {
         assertEquals("租户A", sheet.getRow(0).getCell(0).getStringCellValue());
         assertEquals("导出人", sheet.getRow(0).getCell(1).getStringCellValue());
@@ -99,6 +158,75 @@ class FesodWriterAdapterTest {
         return rows;
     }
 
+    private static List<List<Object>> buildMixedRows(int count) {
+        List<List<Object>> rows = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            rows.add(Arrays.asList((long) i, "v-" + i, i % 3 == 0 ? null : i * 1.5D, i % 2 == 0));
+        }
+        return rows;
+    }
+
+    /**
+     * 与导出预取流水线一致：同一个 RowBatch 在下一次 next 时被清空复用
+     */
+    private static Iterator<RowBatch> recyclingBatches(List<List<Object>> rows, int columns, int batchRows) {
+        RowBatch batch = new RowBatch(columns, batchRows);
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < rows.size();
+            }
+
+            @Override
+            public RowBatch next() {
+                batch.clear();
+                while (!batch.isFull() && next < rows.size()) {
+                    List<Object> row = rows.get(next++);
+                    int r = batch.appendRow();
+                    for (int c = 0; c < row.size(); c++) {
+                        batch.set(r, c, row.get(c));
+                    }
+                }
+                return batch;
+            }
+        };
+    }
+
+    private static void assertSameCells(XSSFWorkbook expected, XSSFWorkbook actual) {
+        assertEquals(expected.getNumberOfSheets(), actual.getNumberOfSheets());
+        for (int s = 0; s < expected.getNumberOfSheets(); s++) {
+            Sheet expectedSheet = expected.getSheetAt(s);
+            Sheet actualSheet = actual.getSheetAt(s);
+            assertEquals(expected.getSheetName(s), actual.getSheetName(s));
+            assertEquals(expectedSheet.getLastRowNum(), actualSheet.getLastRowNum());
+            for (int r = 0; r <= expectedSheet.getLastRowNum(); r++) {
+                Row expectedRow = expectedSheet.getRow(r);
+                Row actualRow = actualSheet.getRow(r);
+                int columns = Math.max(
+                        expectedRow == null ? 0 : expectedRow.getLastCellNum(),
+                        actualRow == null ? 0 : actualRow.getLastCellNum());
+                for (int c = 0; c < columns; c++) {
+                    assertEquals(describe(expectedRow == null ? null : expectedRow.getCell(c)),
+                            describe(actualRow == null ? null : actualRow.getCell(c)),
+                            "sheet=" + s + ", row=" + r + ", column=" + c);
+                }
+            }
+        }
+    }
+
+    private static String describe(Cell cell) {
+        if (cell == null || cell.getCellType() == CellType.BLANK) {
+            return "BLANK";
+        }
+        return switch (cell.getCellType()) {
+            case NUMERIC -> "NUMERIC:" + cell.getNumericCellValue();
+            case BOOLEAN -> "BOOLEAN:" + cell.getBooleanCellValue();
+            default -> cell.getCellType() + ":" + cell.getStringCellValue();
+        };
+    }
+
     private static final class SumAmountStrategy implements AggregateStrategy {
         @Override
         public boolean isAggregate(String fieldName) {
@@ -0,0 +1,210 @@
+package com.tiny.platform.infrastructure.idempotent.benchmark;
+
+import com.tiny.platform.infrastructure.idempotent.core.engine.IdempotentEngine;
+import com.tiny.platform.infrastructure.idempotent.core.key.IdempotentKey;
+import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentRecord;
+import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentState;
+import com.tiny.platform.infrastructure.idempotent.core.repository.IdempotentRepository;
+import com.tiny.platform.infrastructure.idempotent.sdk.annotation.Idempotent;
+import com.tiny.platform.infrastructure.idempotent.sdk.aspect.IdempotentAspect;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * IdempotentAspect 每次拦截的分配与耗时基准（1 / 3 / 8 个方法参数）。
+ *
+ * <p>legacy：复刻改造前的 key 表达式路径（每次 {@code parseExpression} + {@link DefaultParameterNameDiscoverer}
+ * + 新建 EvaluationContext），只含 key 解析；aspect：完整走一次 {@link IdempotentAspect#around}
+ * （按方法缓存的编译表达式、参数名与作用域，外加引擎与空存储），因此 aspect 的数值是偏保守的上界。
+ * 分配量取自 {@code com.sun.management.ThreadMXBean#getThreadAllocatedBytes}。</p>
+ *
+ * 运行方式：
+ * 1) mvn -pl tiny-oauth-server -DskipTests test-compile dependency:build-classpath -Dmdep.outputFile=/tmp/tiny-oauth-cp.txt
+ * 2) java -cp "tiny-oauth-server/target/test-classes:tiny-oauth-server/target/classes:$(cat /tmp/tiny-oauth-cp.txt)" \
+ *      com.tiny.platform.infrastructure.idempotent.benchmark.IdempotentAspectKeyBenchmark [iterations]
+ */
+public final class IdempotentAspectKeyBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 50_000;
+
+    private IdempotentAspectKeyBenchmark() {
+    }
+
+    public static void main(String[] args) throws Throwable {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/orders");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        IdempotentAspect aspect = new IdempotentAspect(new IdempotentEngine(new NoopRepository()), List.of());
+
+        List<Scenario> scenarios = List.of(
+            new Scenario("args=1", method("submit1", String.class), new Object[] {"order-000123"}),
+            new Scenario("args=3", method("submit3", String.class, Long.class, Integer.class),
+                new Object[] {"order-000123", 42L, 1999}),
+            new Scenario("args=8", method("submit8", String.class, Long.class, Integer.class, String.class,
+                String.class, Long.class, Boolean.class, String.class),
+                new Object[] {"order-000123", 42L, 1999, "CNY", "app", 7L, Boolean.TRUE, "gift"})
+        );
+        try {
+            for (Scenario scenario : scenarios) {
+                Idempotent idempotent = scenario.method().getAnnotation(Idempotent.class);
+                ProceedingJoinPoint joinPoint = joinPoint(scenario.method(), scenario.args());
+                Measurement legacy = measure(iterations, () -> legacyKey(scenario.method(), idempotent, scenario.args(), request));
+                Measurement cached = measure(iterations, () -> aspect.around(joinPoint, idempotent));
+                System.out.printf(Locale.ROOT,
+                    "%s legacy: %.0f B/op %.0f ns/op | aspect: %.0f B/op %.0f ns/op | alloc reduction=%.1f%%%n",
+                    scenario.name(), legacy.bytesPerOp(), legacy.nanosPerOp(), cached.bytesPerOp(), cached.nanosPerOp(),
+                    100.0 * (1.0 - cached.bytesPerOp() / legacy.bytesPerOp()));
+            }
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    /**
+     * 改造前 parseKeyExpression + createEvaluationContext 的等价实现。
+     */
+    private static Object legacyKey(Method method, Idempotent idempotent, Object[] args, MockHttpServletRequest request) {
+        StandardEvaluationContext context = new StandardEvaluationContext();
+        String[] parameterNames = new DefaultParameterNameDiscoverer().getParameterNames(method);
+        if (parameterNames != null) {
+            for (int i = 0; i < parameterNames.length && i < args.length; i++) {
+                context.setVariable(parameterNames[i], args[i]);
+            }
+        }
+        context.setVariable("request", request);
+        Object value = new SpelExpressionParser().parseExpression(idempotent.key()).getValue(context);
+        String scope = request.getMethod() + " " + request.getRequestURI();
+        return IdempotentKey.of("http", scope, String.valueOf(value));
+    }
+
+    private static Measurement measure(int iterations, Invocation invocation) throws Throwable {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        Object sink = null;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink = invocation.invoke();
+        }
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = invocation.invoke();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        if (sink == null) {
+            throw new IllegalStateException("benchmark produced no result");
+        }
+        return new Measurement((double) allocated / iterations, (double) elapsed / iterations);
+    }
+
+    private static ProceedingJoinPoint joinPoint(Method method, Object[] args) {
+        MethodSignature signature = (MethodSignature) Proxy.newProxyInstance(
+            IdempotentAspectKeyBenchmark.class.getClassLoader(),
+            new Class<?>[] {MethodSignature.class},
+            (proxy, invoked, invokedArgs) -> switch (invoked.getName()) {
+                case "getMethod" -> method;
+                case "getName" -> method.getName();
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == invokedArgs[0];
+                default -> null;
+            });
+        return (ProceedingJoinPoint) Proxy.newProxyInstance(
+            IdempotentAspectKeyBenchmark.class.getClassLoader(),
+            new Class<?>[] {ProceedingJoinPoint.class},
+            (proxy, invoked, invokedArgs) -> switch (invoked.getName()) {
+                case "getSignature" -> signature;
+                case "getArgs" -> args;
+                case "proceed" -> "OK";
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == invokedArgs[0];
+                default -> null;
+            });
+    }
+
+    private static Method method(String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+        return OrderEndpoints.class.getDeclaredMethod(name, parameterTypes);
+    }
+
+    @FunctionalInterface
+    private interface Invocation {
+        Object invoke() throws Throwable;
+    }
+
+    private record Scenario(String name, Method method, Object[] args) {
+    }
+
+    private record Measurement(double bytesPerOp, double nanosPerOp) {
+    }
+
+    /**
+     * 基准用的被拦截方法
+     */
+    static class OrderEndpoints {
+
+        @Idempotent(key = "#orderNo")
+        String submit1(String orderNo) {
+            return orderNo;
+        }
+
+        @Idempotent(key = "#orderNo + ':' + #userId + ':' + #amount")
+        String submit3(String orderNo, Long userId, Integer amount) {
+            return orderNo;
+        }
+
+        @Idempotent(key = "#orderNo + ':' + #userId + ':' + #shopId + ':' + #channel")
+        String submit8(String orderNo, Long userId, Integer amount, String currency,
+                       String channel, Long shopId, Boolean express, String remark) {
+            return orderNo;
+        }
+    }
+
+    /**
+     * 始终放行的空存储，只保留引擎自身的开销
+     */
+    private static final class NoopRepository implements IdempotentRepository {
+
+        @Override
+        public boolean checkAndSet(IdempotentKey key, long ttlSeconds) {
+            return true;
+        }
+
+        @Override
+        public void delete(IdempotentKey key) {
+        }
+
+        @Override
+        public boolean exists(IdempotentKey key) {
+            return false;
+        }
+
+        @Override
+        public IdempotentRecord getRecord(IdempotentKey key) {
+            return null;
+        }
+
+        @Override
+        public IdempotentState getState(IdempotentKey key) {
+            return null;
+        }
+
+        @Override
+        public void updateState(IdempotentKey key, IdempotentState state) {
+        }
+
+        @Override
+        public void expire(IdempotentKey key, long ttlSeconds) {
+        }
+    }
+}
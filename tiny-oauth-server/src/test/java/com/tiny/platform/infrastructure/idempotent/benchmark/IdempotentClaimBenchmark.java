@@ -0,0 +1,176 @@
+package com.tiny.platform.infrastructure.idempotent.benchmark;
+
+import com.tiny.platform.infrastructure.idempotent.core.key.IdempotentKey;
+import com.tiny.platform.infrastructure.idempotent.repository.database.DatabaseIdempotentRepository;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * sys_idempotent_token 占位吞吐基准（64 线程）：改造前 vs 改造后。
+ *
+ * <p>改造前：同一事务内先 {@code DELETE ... WHERE expire_time < now} 再 INSERT，主键冲突靠异常判重；
+ * 改造后：{@link DatabaseIdempotentRepository#checkAndSet}（INSERT IGNORE + 过期接管，无请求路径清理）。
+ * 每轮预置一批已过期行模拟清理滞后的大表，约 10% 的请求复用已占用的 key 以覆盖重复路径。</p>
+ *
+ * 运行方式：
+ * 1) mvn -pl tiny-oauth-server -DskipTests test-compile dependency:build-classpath -Dmdep.outputFile=/tmp/tiny-oauth-cp.txt
+ * 2) java -cp "tiny-oauth-server/target/test-classes:tiny-oauth-server/target/classes:$(cat /tmp/tiny-oauth-cp.txt)" \
+ *      com.tiny.platform.infrastructure.idempotent.benchmark.IdempotentClaimBenchmark [claimsPerThread] [jdbcUrl user password]
+ *
+ * <p>默认使用 H2（MySQL 模式）内存库；传入 MySQL 连接串可在真实 InnoDB 上对比。</p>
+ */
+public final class IdempotentClaimBenchmark {
+
+    private static final int THREADS = 64;
+    private static final int EXPIRED_ROWS = 20_000;
+
+    private IdempotentClaimBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int claimsPerThread = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(args.length > 1 ? args[1]
+            : "jdbc:h2:mem:idempotent_bench;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE");
+        if (args.length > 3) {
+            config.setUsername(args[2]);
+            config.setPassword(args[3]);
+        }
+        config.setMaximumPoolSize(THREADS);
+        try (HikariDataSource dataSource = new HikariDataSource(config)) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            createTable(jdbcTemplate);
+            TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+            DatabaseIdempotentRepository repository = new DatabaseIdempotentRepository(jdbcTemplate);
+
+            // warmup
+            run("warmup-legacy", jdbcTemplate, THREADS, 50, key -> legacyClaim(jdbcTemplate, transactionTemplate, key));
+            run("warmup-claim", jdbcTemplate, THREADS, 50, key -> repository.checkAndSet(key, 300));
+
+            Result legacy = run("legacy", jdbcTemplate, THREADS, claimsPerThread,
+                key -> legacyClaim(jdbcTemplate, transactionTemplate, key));
+            Result claim = run("claim", jdbcTemplate, THREADS, claimsPerThread,
+                key -> repository.checkAndSet(key, 300));
+
+            System.out.printf(Locale.ROOT, "%s%n%s%nspeedup=%.2fx%n", legacy, claim, claim.opsPerSecond() / legacy.opsPerSecond());
+        }
+    }
+
+    private static Result run(String name, JdbcTemplate jdbcTemplate, int threads, int claimsPerThread,
+                              ClaimFunction claimFunction) throws Exception {
+        jdbcTemplate.update("DELETE FROM sys_idempotent_token");
+        seedExpiredRows(jdbcTemplate);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicLong claimed = new AtomicLong();
+        AtomicLong duplicates = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        List<Future<?>> futures = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            int threadIndex = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < claimsPerThread; i++) {
+                    // 每 10 次复用上一次的 key，模拟重复提交
+                    int sequence = i % 10 == 9 ? i - 1 : i;
+                    IdempotentKey key = IdempotentKey.of("bench", name, threadIndex + ":" + sequence);
+                    try {
+                        if (claimFunction.claim(key)) {
+                            claimed.incrementAndGet();
+                        } else {
+                            duplicates.incrementAndGet();
+                        }
+                    } catch (RuntimeException ex) {
+                        errors.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - begin;
+        executor.shutdown();
+        long total = (long) threads * claimsPerThread;
+        return new Result(name, total, claimed.get(), duplicates.get(), errors.get(), elapsed);
+    }
+
+    /**
+     * 改造前的 checkAndSet：同一事务内清理全部过期行后插入，主键冲突即视为重复。
+     */
+    private static boolean legacyClaim(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, IdempotentKey key) {
+        Boolean result = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("DELETE FROM sys_idempotent_token WHERE expire_time < ?", LocalDateTime.now());
+            try {
+                jdbcTemplate.update(
+                    "INSERT INTO sys_idempotent_token (id, state, expire_time, created_time) VALUES (?, ?, ?, ?)",
+                    key.getFullKey(), "PENDING", LocalDateTime.now().plusSeconds(300), LocalDateTime.now());
+                return true;
+            } catch (Exception e) {
+                return false;
+            }
+        });
+        return Boolean.TRUE.equals(result);
+    }
+
+    private static void createTable(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("""
+            CREATE TABLE IF NOT EXISTS sys_idempotent_token (
+              id VARCHAR(512) NOT NULL PRIMARY KEY,
+              state VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+              expire_time DATETIME NOT NULL,
+              created_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+            )
+            """);
+        try {
+            jdbcTemplate.execute("CREATE INDEX idx_idempotent_expire_time ON sys_idempotent_token (expire_time)");
+        } catch (Exception ignored) {
+            // 已存在
+        }
+    }
+
+    private static void seedExpiredRows(JdbcTemplate jdbcTemplate) {
+        LocalDateTime expired = LocalDateTime.now().minusMinutes(10);
+        List<Object[]> rows = new ArrayList<>(EXPIRED_ROWS);
+        for (int i = 0; i < EXPIRED_ROWS; i++) {
+            rows.add(new Object[] {"expired:" + i, "SUCCESS", expired, expired.minusMinutes(5)});
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO sys_idempotent_token (id, state, expire_time, created_time) VALUES (?, ?, ?, ?)", rows);
+    }
+
+    @FunctionalInterface
+    private interface ClaimFunction {
+        boolean claim(IdempotentKey key);
+    }
+
+    private record Result(String name, long total, long claimed, long duplicates, long errors, long elapsedNanos) {
+
+        double opsPerSecond() {
+            return total / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                "%s: threads=%d claims=%d claimed=%d duplicates=%d errors=%d elapsedMs=%.1f opsPerSec=%.0f",
+                name, THREADS, total, claimed, duplicates, errors, elapsedNanos / 1_000_000.0, opsPerSecond());
+        }
+    }
+}
@@ -5,15 +5,19 @@ import com.tiny.platform.infrastructure.idempotent.core.engine.IdempotentEngine;
 import com.tiny.platform.infrastructure.idempotent.core.key.IdempotentKey;
 import com.tiny.platform.infrastructure.idempotent.core.mq.IdempotentMqHandler;
 import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentRecord;
+import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentResponse;
 import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentState;
 import com.tiny.platform.infrastructure.idempotent.core.repository.IdempotentRepository;
 import com.tiny.platform.infrastructure.idempotent.core.strategy.IdempotentStrategy;
+import com.tiny.platform.infrastructure.idempotent.repository.memory.MemoryIdempotentRepository;
 import com.tiny.platform.infrastructure.idempotent.sdk.resolver.IdempotentKeyResolver;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.Method;
 import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
@@ -268,6 +272,42 @@ class IdempotentCoreAndEngineTest {
         verify(repository).delete(key);
     }
 
+    @Test
+    void engine_execute_should_store_response_on_success_and_replay_it_for_duplicates() throws Throwable {
+        IdempotentKey key = IdempotentKey.of("http", "scope", "replay");
+        MemoryIdempotentRepository repository = new MemoryIdempotentRepository();
+        IdempotentEngine engine = new IdempotentEngine(repository);
+        AtomicInteger executions = new AtomicInteger();
+
+        String first = engine.execute(context(key, 30, false), () -> "OK-" + executions.incrementAndGet(),
+            value -> new IdempotentResponse(200, Map.of(), "\"" + value + "\""),
+            response -> response.getBody().replace("\"", ""));
+        String replayed = engine.execute(context(key, 30, false), () -> "OK-" + executions.incrementAndGet(),
+            value -> new IdempotentResponse(200, Map.of(), "\"" + value + "\""),
+            response -> response.getBody().replace("\"", ""));
+
+        assertThat(first).isEqualTo("OK-1");
+        assertThat(replayed).isEqualTo("OK-1");
+        assertThat(executions).hasValue(1);
+        assertThat(repository.getState(key)).isEqualTo(IdempotentState.SUCCESS);
+
+        // 快照还原失败时退回原有的重复请求异常
+        assertThatThrownBy(() -> engine.execute(context(key, 30, false), () -> "ignored",
+            value -> null,
+            response -> { throw new IllegalStateException("decode"); }))
+            .isInstanceOf(com.tiny.platform.infrastructure.idempotent.core.exception.IdempotentException.class)
+            .hasMessageContaining("重复请求，操作已成功");
+
+        // 不生成快照时只更新状态，重复请求仍按原逻辑拒绝
+        IdempotentKey noSnapshotKey = IdempotentKey.of("http", "scope", "no-snapshot");
+        engine.execute(context(noSnapshotKey, 30, false), () -> "OK", value -> null, response -> "never");
+        assertThat(repository.getResponse(noSnapshotKey)).isNull();
+        assertThatThrownBy(() -> engine.execute(context(noSnapshotKey, 30, false), () -> "ignored",
+            value -> null, response -> "never"))
+            .isInstanceOf(com.tiny.platform.infrastructure.idempotent.core.exception.IdempotentException.class)
+            .hasMessageContaining("重复请求，操作已成功");
+    }
+
     @Test
     void engine_exists_and_delete_should_delegate() {
         IdempotentKey key = IdempotentKey.of("http", "scope", "x");
@@ -2,8 +2,15 @@ package com.tiny.platform.infrastructure.idempotent.metrics;
 
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
 
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.Clock;
 import java.time.Duration;
@@ -17,9 +24,12 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class DatabaseIdempotentMetricsRepositoryTest {
@@ -45,6 +55,63 @@ class DatabaseIdempotentMetricsRepositoryTest {
         assertThatCode(() -> repository.recordPass(bucketMinute, 8L, "POST /sys/users")).doesNotThrowAnyException();
     }
 
+    @Test
+    void merge_deltas_should_batch_additive_upsert_and_fall_back_to_row_upsert_on_unsupported_syntax() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        DatabaseIdempotentMetricsRepository repository = new DatabaseIdempotentMetricsRepository(
+            jdbcTemplate,
+            Duration.ofDays(7),
+            Clock.fixed(Instant.parse("2026-03-08T12:00:00Z"), ZoneId.of("UTC"))
+        );
+        LocalDateTime bucketMinute = LocalDateTime.of(2026, 3, 8, 12, 0);
+        List<IdempotentMetricsDelta> deltas = List.of(
+            new IdempotentMetricsDelta(bucketMinute, 8L, DatabaseIdempotentMetricsRepository.ALL_SCOPE, 3, 1, 2, 0, 0, 0, 4),
+            new IdempotentMetricsDelta(bucketMinute, 8L, "POST /sys/users", 3, 1, 2, 0, 0, 0, 4)
+        );
+
+        when(jdbcTemplate.batchUpdate(contains("ON DUPLICATE KEY UPDATE pass_count = pass_count + VALUES(pass_count)"),
+            eq(deltas), eq(2), ArgumentMatchers.<ParameterizedPreparedStatementSetter<IdempotentMetricsDelta>>any()))
+            .thenReturn(new int[][] {{1, 2}})
+            .thenThrow(new BadSqlGrammarException("merge", "INSERT", new SQLException("syntax")));
+        assertThat(repository.mergeDeltas(deltas)).isEmpty();
+
+        when(jdbcTemplate.update(startsWith("UPDATE sys_idempotent_metric_minute SET"), any(), any(), any(), any(), any(),
+            any(), any(), any(Timestamp.class), any(Timestamp.class), any(), anyString()))
+            .thenReturn(1, 0);
+        when(jdbcTemplate.update(startsWith("INSERT INTO sys_idempotent_metric_minute"), any(), any(), any(), any(), any(),
+            any(), any(), any(), any(), any(), any(), any()))
+            .thenReturn(1);
+        assertThat(repository.mergeDeltas(deltas)).isEmpty();
+        assertThat(repository.mergeDeltas(deltas)).isEmpty();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), eq(deltas), eq(2),
+            ArgumentMatchers.<ParameterizedPreparedStatementSetter<IdempotentMetricsDelta>>any());
+    }
+
+    @Test
+    void merge_deltas_should_return_only_rows_not_applied_by_failed_batch() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        DatabaseIdempotentMetricsRepository repository = new DatabaseIdempotentMetricsRepository(
+            jdbcTemplate,
+            Duration.ofDays(7),
+            Clock.fixed(Instant.parse("2026-03-08T12:00:00Z"), ZoneId.of("UTC"))
+        );
+        LocalDateTime bucketMinute = LocalDateTime.of(2026, 3, 8, 12, 0);
+        IdempotentMetricsDelta applied =
+            new IdempotentMetricsDelta(bucketMinute, 8L, DatabaseIdempotentMetricsRepository.ALL_SCOPE, 1, 0, 0, 0, 0, 0, 1);
+        IdempotentMetricsDelta rejected =
+            new IdempotentMetricsDelta(bucketMinute, 8L, "POST /sys/users", 1, 0, 0, 0, 0, 0, 1);
+
+        when(jdbcTemplate.batchUpdate(anyString(), eq(List.of(applied, rejected)), eq(2),
+            ArgumentMatchers.<ParameterizedPreparedStatementSetter<IdempotentMetricsDelta>>any()))
+            .thenThrow(new DataIntegrityViolationException("batch",
+                new BatchUpdateException(new int[] {1, Statement.EXECUTE_FAILED})))
+            .thenThrow(new CannotGetJdbcConnectionException("down"));
+
+        assertThat(repository.mergeDeltas(List.of(applied, rejected))).containsExactly(rejected);
+        assertThat(repository.mergeDeltas(List.of(applied, rejected))).containsExactly(applied, rejected);
+    }
+
     @Test
     void cleanup_should_return_deleted_row_count() {
         JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
@@ -0,0 +1,52 @@
+package com.tiny.platform.infrastructure.idempotent.metrics;
+
+import com.tiny.platform.infrastructure.idempotent.sdk.resolver.IdempotentKeyResolver;
+import com.tiny.platform.infrastructure.idempotent.starter.autoconfigure.IdempotentAutoConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotentMetricsFlushSchedulerTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(IdempotentAutoConfiguration.class))
+        .withBean(JdbcTemplate.class, () -> mock(JdbcTemplate.class))
+        .withBean(IdempotentKeyResolver.class, () -> mock(IdempotentKeyResolver.class));
+
+    @Test
+    void flush_task_and_shutdown_should_delegate_to_metrics_service() {
+        IdempotentMetricsService metricsService = mock(IdempotentMetricsService.class);
+        when(metricsService.flushPendingMetrics()).thenReturn(4, 0);
+
+        IdempotentMetricsFlushScheduler scheduler = new IdempotentMetricsFlushScheduler(metricsService);
+        scheduler.flushPendingMetrics();
+        scheduler.destroy();
+
+        verify(metricsService, times(2)).flushPendingMetrics();
+    }
+
+    @Test
+    void auto_configuration_should_register_flush_scheduler_with_database_metrics_store() {
+        contextRunner.run(context -> {
+            assertThat(context).hasSingleBean(DatabaseIdempotentMetricsRepository.class);
+            assertThat(context).hasSingleBean(IdempotentMetricsFlushScheduler.class);
+        });
+    }
+
+    @Test
+    void auto_configuration_should_skip_flush_scheduler_with_memory_metrics_store() {
+        contextRunner
+            .withPropertyValues("tiny.idempotent.ops.metrics-store=memory")
+            .run(context -> {
+                assertThat(context).doesNotHaveBean(DatabaseIdempotentMetricsRepository.class);
+                assertThat(context).doesNotHaveBean(IdempotentMetricsFlushScheduler.class);
+            });
+    }
+}
@@ -4,6 +4,7 @@ import com.tiny.platform.infrastructure.idempotent.core.key.IdempotentKey;
 import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentState;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 import java.time.Clock;
 import java.time.Duration;
@@ -15,8 +16,11 @@ import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 class IdempotentMetricsServiceTest {
@@ -108,9 +112,11 @@ class IdempotentMetricsServiceTest {
     }
 
     @Test
-    void service_should_delegate_window_queries_and_writes_to_database_repository_when_present() {
+    @SuppressWarnings("unchecked")
+    void service_should_buffer_deltas_and_delegate_window_queries_to_database_repository_when_present() {
         MutableClock clock = new MutableClock("2026-03-08T12:34:00Z");
         DatabaseIdempotentMetricsRepository repository = mock(DatabaseIdempotentMetricsRepository.class);
+        when(repository.mergeDeltas(anyList())).thenReturn(List.of());
         IdempotentMetricsService metricsService = new IdempotentMetricsService(
             null,
             Duration.ofMinutes(30),
@@ -122,13 +128,12 @@ class IdempotentMetricsServiceTest {
         LocalDateTime windowStart = LocalDateTime.of(2026, 3, 8, 12, 5);
         LocalDateTime windowEnd = LocalDateTime.of(2026, 3, 8, 12, 35);
 
+        metricsService.recordPass(key);
         metricsService.recordPass(key);
         metricsService.recordStoreError(key);
         metricsService.recordValidationRejected("format");
 
-        verify(repository).recordPass(bucketMinute, 200L, "POST /sys/users");
-        verify(repository).recordStoreError(bucketMinute, 200L, "POST /sys/users");
-        verify(repository).recordValidationRejected(bucketMinute, null);
+        verifyNoInteractions(repository);
 
         when(repository.aggregateWindow(8L, windowStart, windowEnd))
             .thenReturn(new IdempotentMetricsAggregate(6, 2, 5, 1, 1, 1));
@@ -141,6 +146,43 @@ class IdempotentMetricsServiceTest {
         assertThat(snapshot.windowStartEpochMillis()).isEqualTo(windowStart.atZone(ZoneId.of("UTC")).toInstant().toEpochMilli());
         assertThat(snapshot.windowEndEpochMillis()).isEqualTo(windowEnd.atZone(ZoneId.of("UTC")).toInstant().toEpochMilli());
         assertThat(metricsService.topScopes(3, 8L)).containsExactly(Map.of("key", "POST /sys/users", "count", 4L));
+
+        ArgumentCaptor<List<IdempotentMetricsDelta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository).mergeDeltas(captor.capture());
+        assertThat(captor.getValue()).containsExactlyInAnyOrder(
+            new IdempotentMetricsDelta(bucketMinute, 200L, DatabaseIdempotentMetricsRepository.ALL_SCOPE, 2, 0, 0, 0, 1, 0, 3),
+            new IdempotentMetricsDelta(bucketMinute, 200L, "POST /sys/users", 2, 0, 0, 0, 1, 0, 3),
+            new IdempotentMetricsDelta(bucketMinute, null, DatabaseIdempotentMetricsRepository.ALL_SCOPE, 0, 0, 0, 0, 0, 1, 0)
+        );
+    }
+
+    @Test
+    void flush_should_requeue_failed_deltas_and_drop_buckets_outside_window() {
+        MutableClock clock = new MutableClock("2026-03-08T12:00:00Z");
+        DatabaseIdempotentMetricsRepository repository = mock(DatabaseIdempotentMetricsRepository.class);
+        IdempotentMetricsService metricsService = new IdempotentMetricsService(
+            null,
+            Duration.ofMinutes(5),
+            clock,
+            repository
+        );
+        IdempotentKey key = IdempotentKey.of("http", "200|8|POST /sys/users", "k1");
+        LocalDateTime bucketMinute = LocalDateTime.of(2026, 3, 8, 12, 0);
+        IdempotentMetricsDelta allScopeDelta =
+            new IdempotentMetricsDelta(bucketMinute, 200L, DatabaseIdempotentMetricsRepository.ALL_SCOPE, 0, 0, 1, 0, 0, 0, 0);
+        when(repository.mergeDeltas(anyList())).thenReturn(List.of(allScopeDelta), List.of());
+
+        metricsService.recordSuccess(key);
+        assertThat(metricsService.flushPendingMetrics()).isEqualTo(1);
+        assertThat(metricsService.flushPendingMetrics()).isEqualTo(1);
+        assertThat(metricsService.flushPendingMetrics()).isZero();
+
+        when(repository.mergeDeltas(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        metricsService.recordFailure(key);
+        clock.advance(Duration.ofMinutes(10));
+        assertThat(metricsService.flushPendingMetrics()).isZero();
+        assertThat(metricsService.flushPendingMetrics()).isZero();
+        verify(repository, times(3)).mergeDeltas(anyList());
     }
 
     private static final class MutableClock extends Clock {
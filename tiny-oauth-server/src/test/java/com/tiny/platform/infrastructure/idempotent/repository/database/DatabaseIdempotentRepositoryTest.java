@@ -2,8 +2,10 @@ package com.tiny.platform.infrastructure.idempotent.repository.database;
 
 import com.tiny.platform.infrastructure.idempotent.core.key.IdempotentKey;
 import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentRecord;
+import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentResponse;
 import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentState;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
@@ -11,15 +13,20 @@ import org.springframework.jdbc.core.RowMapper;
 import java.sql.ResultSet;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -35,33 +42,82 @@ class DatabaseIdempotentRepositoryTest {
     }
 
     @Test
-    void checkAndSet_should_cover_success_duplicate_and_cleanup_failure() {
+    void checkAndSet_should_insert_take_over_expired_or_report_duplicate_without_cleanup() {
         IdempotentKey key = IdempotentKey.of("http", "orders", "1");
         String keyStr = key.getFullKey();
 
-        JdbcTemplate successJdbc = mock(JdbcTemplate.class);
-        DatabaseIdempotentRepository successRepo = new DatabaseIdempotentRepository(successJdbc);
-        when(successJdbc.update(startsWith("DELETE FROM sys_idempotent_token WHERE expire_time < ?"), any(LocalDateTime.class)))
-            .thenReturn(1);
-        when(successJdbc.update(startsWith("INSERT INTO sys_idempotent_token"), eq(keyStr), eq("PENDING"),
+        JdbcTemplate insertJdbc = mock(JdbcTemplate.class);
+        DatabaseIdempotentRepository insertRepo = new DatabaseIdempotentRepository(insertJdbc);
+        when(insertJdbc.update(startsWith("INSERT IGNORE INTO sys_idempotent_token"), eq(keyStr), eq("PENDING"),
             any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(1);
-        assertThat(successRepo.checkAndSet(key, 30)).isTrue();
+        assertThat(insertRepo.checkAndSet(key, 30)).isTrue();
+        verify(insertJdbc, never()).update(startsWith("UPDATE sys_idempotent_token SET state = ?, expire_time = ?"),
+            any(Object[].class));
+        verify(insertJdbc, never()).update(startsWith("DELETE FROM sys_idempotent_token"), any(Object[].class));
+
+        JdbcTemplate takeoverJdbc = mock(JdbcTemplate.class);
+        DatabaseIdempotentRepository takeoverRepo = new DatabaseIdempotentRepository(takeoverJdbc);
+        when(takeoverJdbc.update(startsWith("INSERT IGNORE INTO sys_idempotent_token"), eq(keyStr), eq("PENDING"),
+            any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(0);
+        when(takeoverJdbc.update(startsWith("UPDATE sys_idempotent_token SET state = ?, expire_time = ?, created_time = ?, response_payload = NULL WHERE id = ? AND expire_time < ?"),
+            eq("PENDING"), any(LocalDateTime.class), any(LocalDateTime.class), eq(keyStr), any(LocalDateTime.class))).thenReturn(1);
+        assertThat(takeoverRepo.checkAndSet(key, 30)).isTrue();
 
         JdbcTemplate duplicateJdbc = mock(JdbcTemplate.class);
         DatabaseIdempotentRepository duplicateRepo = new DatabaseIdempotentRepository(duplicateJdbc);
-        when(duplicateJdbc.update(startsWith("DELETE FROM sys_idempotent_token WHERE expire_time < ?"), any(LocalDateTime.class)))
-            .thenReturn(0);
-        when(duplicateJdbc.update(startsWith("INSERT INTO sys_idempotent_token"), eq(keyStr), eq("PENDING"),
-            any(LocalDateTime.class), any(LocalDateTime.class))).thenThrow(new RuntimeException("duplicate"));
+        when(duplicateJdbc.update(startsWith("INSERT IGNORE INTO sys_idempotent_token"), eq(keyStr), eq("PENDING"),
+            any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(0);
+        when(duplicateJdbc.update(startsWith("UPDATE sys_idempotent_token SET state = ?, expire_time = ?, created_time = ?, response_payload = NULL WHERE id = ? AND expire_time < ?"),
+            eq("PENDING"), any(LocalDateTime.class), any(LocalDateTime.class), eq(keyStr), any(LocalDateTime.class))).thenReturn(0);
         assertThat(duplicateRepo.checkAndSet(key, 30)).isFalse();
 
-        JdbcTemplate cleanupFailJdbc = mock(JdbcTemplate.class);
-        DatabaseIdempotentRepository cleanupFailRepo = new DatabaseIdempotentRepository(cleanupFailJdbc);
-        when(cleanupFailJdbc.update(startsWith("DELETE FROM sys_idempotent_token WHERE expire_time < ?"), any(LocalDateTime.class)))
-            .thenThrow(new RuntimeException("cleanup-fail"));
-        when(cleanupFailJdbc.update(startsWith("INSERT INTO sys_idempotent_token"), eq(keyStr), eq("PENDING"),
-            any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(1);
-        assertThat(cleanupFailRepo.checkAndSet(key, 30)).isTrue();
+        JdbcTemplate failingJdbc = mock(JdbcTemplate.class);
+        DatabaseIdempotentRepository failingRepo = new DatabaseIdempotentRepository(failingJdbc);
+        when(failingJdbc.update(startsWith("INSERT IGNORE INTO sys_idempotent_token"), eq(keyStr), eq("PENDING"),
+            any(LocalDateTime.class), any(LocalDateTime.class))).thenThrow(new RuntimeException("db down"));
+        assertThatThrownBy(() -> failingRepo.checkAndSet(key, 30)).hasMessage("db down");
+    }
+
+    @Test
+    void updateStates_should_group_by_state_and_chunk_in_lists() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        DatabaseIdempotentRepository repository = new DatabaseIdempotentRepository(jdbcTemplate);
+        Map<IdempotentKey, IdempotentState> transitions = new LinkedHashMap<>();
+        for (int i = 0; i < DatabaseIdempotentRepository.STATE_UPDATE_CHUNK_SIZE + 1; i++) {
+            transitions.put(IdempotentKey.of("http", "orders", "s" + i), IdempotentState.SUCCESS);
+        }
+        transitions.put(IdempotentKey.of("http", "orders", "f"), IdempotentState.FAILED);
+
+        repository.updateStates(transitions);
+
+        ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> argsCaptor = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(3)).update(sqlCaptor.capture(), argsCaptor.capture());
+        assertThat(sqlCaptor.getAllValues()).allSatisfy(sql -> assertThat(sql).startsWith("UPDATE sys_idempotent_token SET state = ? WHERE id IN ("));
+        assertThat(argsCaptor.getAllValues())
+            .extracting(args -> args[0] + ":" + (args.length - 1))
+            .containsExactlyInAnyOrder(
+                "SUCCESS:" + DatabaseIdempotentRepository.STATE_UPDATE_CHUNK_SIZE,
+                "SUCCESS:1",
+                "FAILED:1");
+    }
+
+    @Test
+    void sweepExpired_should_delete_in_bounded_chunks() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        DatabaseIdempotentRepository repository = new DatabaseIdempotentRepository(jdbcTemplate);
+        when(jdbcTemplate.update(startsWith("DELETE FROM sys_idempotent_token WHERE expire_time < ? LIMIT 100"), any(LocalDateTime.class)))
+            .thenReturn(100, 100, 40);
+
+        assertThat(repository.sweepExpired(100, 10)).isEqualTo(240);
+
+        when(jdbcTemplate.update(startsWith("DELETE FROM sys_idempotent_token WHERE expire_time < ? LIMIT 100"), any(LocalDateTime.class)))
+            .thenReturn(100);
+        assertThat(repository.sweepExpired(100, 2)).isEqualTo(200);
+
+        DatabaseIdempotentTokenSweeper sweeper = new DatabaseIdempotentTokenSweeper(repository, 100, 1);
+        assertThatCode(sweeper::sweepExpiredTokens).doesNotThrowAnyException();
+        assertThatCode(new DatabaseIdempotentTokenSweeper(null, 100, 1)::sweepExpiredTokens).doesNotThrowAnyException();
     }
 
     @Test
@@ -71,19 +127,19 @@ class DatabaseIdempotentRepositoryTest {
         JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
         DatabaseIdempotentRepository repository = new DatabaseIdempotentRepository(jdbcTemplate);
 
-        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*) FROM sys_idempotent_token"), eq(Integer.class), eq(keyStr)))
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*) FROM sys_idempotent_token"), eq(Integer.class), eq(keyStr), any(LocalDateTime.class)))
             .thenReturn(1, null);
         assertThat(repository.exists(key)).isTrue();
         assertThat(repository.exists(key)).isFalse();
-        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*) FROM sys_idempotent_token"), eq(Integer.class), eq(keyStr)))
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*) FROM sys_idempotent_token"), eq(Integer.class), eq(keyStr), any(LocalDateTime.class)))
             .thenThrow(new RuntimeException("exists-fail"));
         assertThat(repository.exists(key)).isFalse();
 
-        when(jdbcTemplate.queryForObject(startsWith("SELECT state FROM sys_idempotent_token"), eq(String.class), eq(keyStr)))
+        when(jdbcTemplate.queryForObject(startsWith("SELECT state FROM sys_idempotent_token"), eq(String.class), eq(keyStr), any(LocalDateTime.class)))
             .thenReturn("SUCCESS", null);
         assertThat(repository.getState(key)).isEqualTo(IdempotentState.SUCCESS);
         assertThat(repository.getState(key)).isNull();
-        when(jdbcTemplate.queryForObject(startsWith("SELECT state FROM sys_idempotent_token"), eq(String.class), eq(keyStr)))
+        when(jdbcTemplate.queryForObject(startsWith("SELECT state FROM sys_idempotent_token"), eq(String.class), eq(keyStr), any(LocalDateTime.class)))
             .thenThrow(new RuntimeException("state-fail"));
         assertThat(repository.getState(key)).isNull();
 
@@ -144,4 +200,27 @@ class DatabaseIdempotentRepositoryTest {
         )).thenThrow(new RuntimeException("record-fail"));
         assertThat(repository.getRecord(key)).isNull();
     }
+
+    @Test
+    void response_snapshot_should_be_stored_with_success_state_and_read_back() {
+        IdempotentKey key = IdempotentKey.of("http", "orders", "4");
+        String keyStr = key.getFullKey();
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        DatabaseIdempotentRepository repository = new DatabaseIdempotentRepository(jdbcTemplate);
+        IdempotentResponse response = new IdempotentResponse(201, Map.of("Location", "/orders/4"), "{\"id\":4}");
+
+        repository.updateState(key, IdempotentState.SUCCESS, response);
+        verify(jdbcTemplate).update(startsWith("UPDATE sys_idempotent_token SET state = ?, response_payload = ? WHERE id = ?"),
+            eq("SUCCESS"), eq(response.toPayload()), eq(keyStr));
+
+        when(jdbcTemplate.queryForList(startsWith("SELECT response_payload FROM sys_idempotent_token"), eq(String.class),
+            eq(keyStr), any(LocalDateTime.class)))
+            .thenReturn(List.of(response.toPayload()), List.of());
+        IdempotentResponse loaded = repository.getResponse(key);
+        assertThat(loaded).isNotNull();
+        assertThat(loaded.getStatus()).isEqualTo(201);
+        assertThat(loaded.getHeaders()).containsEntry("Location", "/orders/4");
+        assertThat(loaded.getBody()).isEqualTo("{\"id\":4}");
+        assertThat(repository.getResponse(key)).isNull();
+    }
 }
@@ -0,0 +1,197 @@
+package com.tiny.platform.infrastructure.idempotent.repository.nearcache;
+
+import com.tiny.platform.infrastructure.idempotent.core.key.IdempotentKey;
+import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentResponse;
+import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentState;
+import com.tiny.platform.infrastructure.idempotent.core.repository.IdempotentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class NearCacheIdempotentRepositoryTest {
+
+    private final IdempotentKey key = IdempotentKey.of("http", "orders", "1");
+
+    @Test
+    void duplicate_claim_should_be_rejected_locally_without_remote_round_trip() {
+        IdempotentRepository delegate = mock(IdempotentRepository.class);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        NearCacheIdempotentRepository repository = new NearCacheIdempotentRepository(
+            delegate, 100, 5, meterRegistry, new MutableClock());
+        when(delegate.checkAndSet(key, 300)).thenReturn(true);
+
+        assertThat(repository.checkAndSet(key, 300)).isTrue();
+        assertThat(repository.checkAndSet(key, 300)).isFalse();
+        assertThat(repository.getState(key)).isEqualTo(IdempotentState.PENDING);
+
+        verify(delegate, times(1)).checkAndSet(key, 300);
+        verifyNoMoreInteractions(delegate);
+        assertThat(meterRegistry.get("tiny.idempotent.near-cache.local-reject.total").counter().count()).isEqualTo(1.0d);
+        assertThat(meterRegistry.get("tiny.idempotent.near-cache.state-hit.total").counter().count()).isEqualTo(1.0d);
+    }
+
+    @Test
+    void remote_duplicate_state_should_be_cached_and_success_transition_applied_locally() {
+        IdempotentRepository delegate = mock(IdempotentRepository.class);
+        NearCacheIdempotentRepository repository = new NearCacheIdempotentRepository(
+            delegate, 100, 5, null, new MutableClock());
+        when(delegate.checkAndSet(key, 300)).thenReturn(false);
+        when(delegate.getState(key)).thenReturn(IdempotentState.PENDING);
+
+        assertThat(repository.checkAndSet(key, 300)).isFalse();
+        assertThat(repository.getState(key)).isEqualTo(IdempotentState.PENDING);
+
+        repository.updateState(key, IdempotentState.SUCCESS);
+        assertThat(repository.getState(key)).isEqualTo(IdempotentState.SUCCESS);
+        assertThat(repository.checkAndSet(key, 300)).isFalse();
+
+        verify(delegate, times(1)).checkAndSet(key, 300);
+        verify(delegate, times(1)).getState(key);
+        verify(delegate).updateState(key, IdempotentState.SUCCESS);
+    }
+
+    @Test
+    void pending_hit_should_answer_response_lookup_locally() {
+        IdempotentRepository delegate = mock(IdempotentRepository.class);
+        NearCacheIdempotentRepository repository = new NearCacheIdempotentRepository(
+            delegate, 100, 5, null, new MutableClock());
+        when(delegate.checkAndSet(key, 300)).thenReturn(true);
+
+        assertThat(repository.checkAndSet(key, 300)).isTrue();
+        for (int i = 0; i < 3; i++) {
+            assertThat(repository.checkAndSet(key, 300)).isFalse();
+            assertThat(repository.getResponse(key)).isNull();
+        }
+
+        verify(delegate, times(1)).checkAndSet(key, 300);
+        verifyNoMoreInteractions(delegate);
+    }
+
+    @Test
+    void only_oversized_success_response_should_be_read_from_remote() {
+        IdempotentRepository delegate = mock(IdempotentRepository.class);
+        NearCacheIdempotentRepository repository = new NearCacheIdempotentRepository(
+            delegate, 100, 5, null, new MutableClock());
+        IdempotentKey large = IdempotentKey.of("http", "orders", "large");
+        IdempotentResponse small = new IdempotentResponse(200, Map.of(), "{\"id\":1}");
+        IdempotentResponse oversized = new IdempotentResponse(200, Map.of(),
+            "x".repeat(NearCacheIdempotentRepository.LOCAL_RESPONSE_MAX_CHARS + 1));
+        when(delegate.checkAndSet(key, 300)).thenReturn(true);
+        when(delegate.checkAndSet(large, 300)).thenReturn(true);
+        when(delegate.getResponse(large)).thenReturn(oversized);
+
+        repository.checkAndSet(key, 300);
+        repository.updateState(key, IdempotentState.SUCCESS, small);
+        repository.checkAndSet(large, 300);
+        repository.updateState(large, IdempotentState.SUCCESS, oversized);
+
+        assertThat(repository.getResponse(key)).isSameAs(small);
+        assertThat(repository.getResponse(large)).isSameAs(oversized);
+        assertThat(repository.getResponse(large)).isSameAs(oversized);
+
+        verify(delegate, times(0)).getResponse(key);
+        verify(delegate, times(2)).getResponse(large);
+    }
+
+    @Test
+    void failure_and_delete_should_invalidate_local_entry() {
+        IdempotentRepository delegate = mock(IdempotentRepository.class);
+        NearCacheIdempotentRepository repository = new NearCacheIdempotentRepository(
+            delegate, 100, 5, null, new MutableClock());
+        IdempotentKey other = IdempotentKey.of("http", "orders", "2");
+        when(delegate.checkAndSet(key, 300)).thenReturn(true);
+        when(delegate.checkAndSet(other, 300)).thenReturn(true);
+
+        assertThat(repository.checkAndSet(key, 300)).isTrue();
+        repository.updateState(key, IdempotentState.FAILED);
+        repository.delete(key);
+        assertThat(repository.checkAndSet(key, 300)).isTrue();
+        verify(delegate, times(2)).checkAndSet(key, 300);
+
+        assertThat(repository.checkAndSet(other, 300)).isTrue();
+        repository.updateStates(Map.of(other, IdempotentState.FAILED));
+        verify(delegate).updateStates(Map.of(other, IdempotentState.FAILED));
+        assertThat(repository.checkAndSet(other, 300)).isTrue();
+        verify(delegate, times(2)).checkAndSet(other, 300);
+    }
+
+    @Test
+    void local_entry_should_expire_after_cap_and_fall_back_to_remote() {
+        IdempotentRepository delegate = mock(IdempotentRepository.class);
+        MutableClock clock = new MutableClock();
+        NearCacheIdempotentRepository repository = new NearCacheIdempotentRepository(delegate, 100, 5, null, clock);
+        when(delegate.checkAndSet(key, 300)).thenReturn(true);
+
+        assertThat(repository.checkAndSet(key, 300)).isTrue();
+        clock.advance(Duration.ofSeconds(4));
+        assertThat(repository.checkAndSet(key, 300)).isFalse();
+        verify(delegate, times(1)).checkAndSet(key, 300);
+
+        // 其他节点已删除 key：超过本地上限后重新以远端为准
+        clock.advance(Duration.ofSeconds(2));
+        assertThat(repository.checkAndSet(key, 300)).isTrue();
+        verify(delegate, times(2)).checkAndSet(key, 300);
+    }
+
+    @Test
+    void local_entry_should_not_outlive_short_remote_ttl() {
+        IdempotentRepository delegate = mock(IdempotentRepository.class);
+        MutableClock clock = new MutableClock();
+        NearCacheIdempotentRepository repository = new NearCacheIdempotentRepository(delegate, 100, 5, null, clock);
+        when(delegate.checkAndSet(key, 2)).thenReturn(true);
+
+        assertThat(repository.checkAndSet(key, 2)).isTrue();
+        clock.advance(Duration.ofSeconds(3));
+        assertThat(repository.exists(key)).isFalse();
+        verify(delegate).exists(key);
+    }
+
+    @Test
+    void cache_should_stay_bounded_by_max_entries() {
+        IdempotentRepository delegate = mock(IdempotentRepository.class);
+        NearCacheIdempotentRepository repository = new NearCacheIdempotentRepository(
+            delegate, 3, 5, null, new MutableClock());
+        for (int i = 0; i < 10; i++) {
+            IdempotentKey next = IdempotentKey.of("http", "orders", "bulk-" + i);
+            when(delegate.checkAndSet(next, 300)).thenReturn(true);
+            repository.checkAndSet(next, 300);
+            assertThat(repository.localSize()).isLessThanOrEqualTo(3);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private final AtomicReference<Instant> currentInstant = new AtomicReference<>(Instant.parse("2026-01-01T00:00:00Z"));
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return currentInstant.get();
+        }
+
+        void advance(Duration duration) {
+            currentInstant.updateAndGet(instant -> instant.plus(duration));
+        }
+    }
+}
@@ -2,12 +2,16 @@ package com.tiny.platform.infrastructure.idempotent.repository.redis;
 
 import com.tiny.platform.infrastructure.idempotent.core.key.IdempotentKey;
 import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentRecord;
+import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentResponse;
 import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentState;
 import org.junit.jupiter.api.Test;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -20,6 +24,7 @@ import static org.mockito.Mockito.when;
 class RedisIdempotentRepositoryTest {
 
     @Test
+    @SuppressWarnings("unchecked")
     void checkAndSet_should_cover_success_and_duplicate_paths() {
         StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
         @SuppressWarnings("unchecked")
@@ -28,16 +33,53 @@ class RedisIdempotentRepositoryTest {
         RedisIdempotentRepository repository = new RedisIdempotentRepository(redisTemplate);
         IdempotentKey key = IdempotentKey.of("http", "orders", "1");
 
-        String redisKey = "idempotent:http:orders:1";
+        String redisKey = "idempotent:{http:orders:1}";
         String stateKey = redisKey + ":state";
 
-        when(valueOps.setIfAbsent(eq(redisKey), eq("PENDING"), eq(Duration.ofSeconds(30)))).thenReturn(true);
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(redisKey, stateKey)), eq("PENDING"), eq("30")))
+            .thenReturn(1L);
         assertThat(repository.checkAndSet(key, 30)).isTrue();
-        verify(valueOps).set(eq(stateKey), eq("PENDING"), eq(Duration.ofSeconds(30)));
 
-        when(valueOps.setIfAbsent(eq(redisKey), eq("PENDING"), eq(Duration.ofSeconds(10)))).thenReturn(false);
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(redisKey, stateKey)), eq("PENDING"), eq("10")))
+            .thenReturn(0L);
         assertThat(repository.checkAndSet(key, 10)).isFalse();
-        verify(valueOps, never()).set(eq(stateKey), eq("PENDING"), eq(Duration.ofSeconds(10)));
+
+        // 占位与状态写入都在脚本内完成，不再单独写 key
+        verify(valueOps, never()).setIfAbsent(any(), any(), any(Duration.class));
+        verify(valueOps, never()).set(eq(stateKey), eq("PENDING"), any(Duration.class));
+    }
+
+    @Test
+    void claim_keys_should_share_one_hash_tag() {
+        IdempotentKey key = IdempotentKey.of("http", "orders", "1");
+
+        assertThat(RedisIdempotentRepository.tokenKey(key)).isEqualTo("idempotent:{http:orders:1}");
+        assertThat(RedisIdempotentRepository.stateKey(key)).isEqualTo("idempotent:{http:orders:1}:state");
+        assertThat(hashTag(RedisIdempotentRepository.stateKey(key)))
+            .isEqualTo(hashTag(RedisIdempotentRepository.tokenKey(key)))
+            .isEqualTo("http:orders:1");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void response_script_and_read_should_use_hash_tagged_keys() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> valueOps = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        RedisIdempotentRepository repository = new RedisIdempotentRepository(redisTemplate);
+        IdempotentKey key = IdempotentKey.of("http", "orders", "5");
+        IdempotentResponse response = new IdempotentResponse(200, Map.of(), "{\"id\":5}");
+        String responseKey = "idempotent:{http:orders:5}:response";
+
+        repository.updateState(key, IdempotentState.SUCCESS, response);
+
+        verify(redisTemplate).execute(any(RedisScript.class),
+            eq(List.of("idempotent:{http:orders:5}", "idempotent:{http:orders:5}:state", responseKey)),
+            eq("SUCCESS"), eq(response.toPayload()), eq("60000"));
+        assertThat(hashTag(responseKey)).isEqualTo(hashTag(RedisIdempotentRepository.tokenKey(key)));
+
+        when(valueOps.get(responseKey)).thenReturn(response.toPayload());
+        assertThat(repository.getResponse(key).getBody()).isEqualTo("{\"id\":5}");
     }
 
     @Test
@@ -48,7 +90,7 @@ class RedisIdempotentRepositoryTest {
         when(redisTemplate.opsForValue()).thenReturn(valueOps);
         RedisIdempotentRepository repository = new RedisIdempotentRepository(redisTemplate);
         IdempotentKey key = IdempotentKey.of("http", "orders", "2");
-        String redisKey = "idempotent:http:orders:2";
+        String redisKey = "idempotent:{http:orders:2}";
         String stateKey = redisKey + ":state";
 
         when(redisTemplate.hasKey(redisKey)).thenReturn(true);
@@ -73,7 +115,7 @@ class RedisIdempotentRepositoryTest {
         when(redisTemplate.opsForValue()).thenReturn(valueOps);
         RedisIdempotentRepository repository = new RedisIdempotentRepository(redisTemplate);
         IdempotentKey key = IdempotentKey.of("http", "orders", "3");
-        String stateKey = "idempotent:http:orders:3:state";
+        String stateKey = "idempotent:{http:orders:3}:state";
 
         when(valueOps.get(stateKey)).thenReturn("SUCCESS");
         IdempotentRecord valid = repository.getRecord(key);
@@ -96,7 +138,7 @@ class RedisIdempotentRepositoryTest {
         when(redisTemplate.opsForValue()).thenReturn(valueOps);
         RedisIdempotentRepository repository = new RedisIdempotentRepository(redisTemplate);
         IdempotentKey key = IdempotentKey.of("http", "orders", "4");
-        String stateKey = "idempotent:http:orders:4:state";
+        String stateKey = "idempotent:{http:orders:4}:state";
 
         when(valueOps.get(stateKey)).thenReturn("FAILED");
         assertThat(repository.getState(key)).isEqualTo(IdempotentState.FAILED);
@@ -114,4 +156,13 @@ class RedisIdempotentRepositoryTest {
         verify(valueOps).set(stateKey, "SUCCESS", Duration.ofSeconds(120));
         verify(valueOps).set(stateKey, "FAILED", Duration.ofSeconds(60));
     }
+
+    /**
+     * Redis Cluster 计算槽位时使用的哈希标签：第一个 '{' 与其后第一个 '}' 之间的内容
+     */
+    private static String hashTag(String redisKey) {
+        int open = redisKey.indexOf('{');
+        int close = redisKey.indexOf('}', open + 1);
+        return redisKey.substring(open + 1, close);
+    }
 }
@@ -6,8 +6,12 @@ import com.tiny.platform.infrastructure.core.exception.exception.BusinessExcepti
 import com.tiny.platform.infrastructure.idempotent.core.context.IdempotentContext;
 import com.tiny.platform.infrastructure.idempotent.core.engine.IdempotentEngine;
 import com.tiny.platform.infrastructure.idempotent.core.key.IdempotentKey;
+import com.tiny.platform.infrastructure.idempotent.repository.memory.MemoryIdempotentRepository;
 import com.tiny.platform.infrastructure.idempotent.sdk.annotation.Idempotent;
 import com.tiny.platform.infrastructure.idempotent.sdk.resolver.IdempotentKeyResolver;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.junit.jupiter.api.AfterEach;
@@ -16,6 +20,7 @@ import org.mockito.ArgumentCaptor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
@@ -31,6 +36,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -241,6 +247,55 @@ class IdempotentAspectTest {
             .hasMessage("幂等键只允许字母、数字、点、短横线、下划线和冒号");
     }
 
+    @Test
+    void around_should_replay_stored_success_response_for_duplicate_requests() throws Throwable {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Idempotency-Key", "replay-key-1");
+        MockHttpServletResponse firstResponse = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, firstResponse));
+
+        IdempotentEngine engine = new IdempotentEngine(new MemoryIdempotentRepository());
+        IdempotentAspect aspect = new IdempotentAspect(engine, List.of(), null, null,
+            new IdempotentResponseCodec(new ObjectMapper(), 1024, List.of()));
+        ProceedingJoinPoint joinPoint = joinPointFor("spelMethod", new Object[]{"ignored"}, "OK");
+        Method method = SampleService.class.getDeclaredMethod("spelMethod", String.class);
+
+        assertThat(aspect.around(joinPoint, method.getAnnotation(Idempotent.class))).isEqualTo("OK");
+        assertThat(firstResponse.getHeader("X-Idempotency-Replayed")).isNull();
+
+        MockHttpServletResponse duplicateResponse = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, duplicateResponse));
+        assertThat(aspect.around(joinPoint, method.getAnnotation(Idempotent.class))).isEqualTo("OK");
+        assertThat(duplicateResponse.getHeader("X-Idempotency-Replayed")).isEqualTo("true");
+        verify(joinPoint, times(1)).proceed();
+    }
+
+    @Test
+    void around_should_reuse_compiled_key_expression_and_fall_back_when_argument_types_change() throws Throwable {
+        IdempotentEngine engine = mock(IdempotentEngine.class);
+        IdempotentAspect aspect = new IdempotentAspect(engine, List.of());
+        doAnswer(invocation -> {
+            Supplier<?> supplier = invocation.getArgument(1);
+            return supplier.get();
+        }).when(engine).execute(any(IdempotentContext.class), anySupplier());
+        Method method = SampleService.class.getDeclaredMethod("spelMethod", String.class);
+
+        // 前两次解释执行后表达式被编译，第三次换用不同的请求实现类触发编译产物失效
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.addHeader("X-Idempotency-Key", "compiled-key-" + i);
+            HttpServletRequest current = i < 2 ? request : new HttpServletRequestWrapper(request);
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(current));
+            aspect.around(joinPointFor("spelMethod", new Object[]{"ignored"}, "OK"), method.getAnnotation(Idempotent.class));
+        }
+
+        ArgumentCaptor<IdempotentContext> captor = ArgumentCaptor.forClass(IdempotentContext.class);
+        verify(engine, times(3)).execute(captor.capture(), anySupplier());
+        assertThat(captor.getAllValues())
+            .extracting(context -> context.getKey().getUniqueKey())
+            .containsExactly("compiled-key-0", "compiled-key-1", "compiled-key-2");
+    }
+
     private static ProceedingJoinPoint joinPointFor(String methodName, Object[] args, Object proceedResultOrThrowable) throws Throwable {
         ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
         MethodSignature signature = mock(MethodSignature.class);
@@ -0,0 +1,66 @@
+package com.tiny.platform.infrastructure.idempotent.sdk.aspect;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tiny.platform.infrastructure.idempotent.core.record.IdempotentResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotentResponseCodecTest {
+
+    private final IdempotentResponseCodec codec =
+        new IdempotentResponseCodec(new ObjectMapper(), 1024, List.of("Location", "ETag"));
+
+    @Test
+    void response_entity_should_round_trip_status_selected_headers_and_typed_body() throws Exception {
+        ResponseEntity<Order> original = ResponseEntity.created(URI.create("/orders/7"))
+            .header("X-Trace-Id", "abc")
+            .body(new Order(7L, "NEW"));
+
+        IdempotentResponse snapshot = IdempotentResponse.fromPayload(codec.encode(original).toPayload());
+        assertThat(snapshot.getStatus()).isEqualTo(201);
+        assertThat(snapshot.getHeaders()).containsOnlyKeys("Location");
+
+        Object replayed = codec.decode(snapshot, Endpoints.class.getMethod("create"));
+        assertThat(replayed).isInstanceOf(ResponseEntity.class);
+        ResponseEntity<?> entity = (ResponseEntity<?>) replayed;
+        assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(entity.getHeaders().getLocation()).isEqualTo(URI.create("/orders/7"));
+        assertThat(entity.getBody()).isEqualTo(new Order(7L, "NEW"));
+    }
+
+    @Test
+    void plain_return_values_should_decode_to_method_generic_return_type() throws Exception {
+        IdempotentResponse snapshot = codec.encode(Map.of("orderId", 9));
+        assertThat(snapshot.getStatus()).isEqualTo(200);
+
+        Object replayed = codec.decode(snapshot, Endpoints.class.getMethod("submit"));
+        assertThat(replayed).isEqualTo(Map.of("orderId", 9L));
+        assertThat(codec.decode(codec.encode(null), Endpoints.class.getMethod("fireAndForget"))).isNull();
+    }
+
+    @Test
+    void oversized_and_streaming_bodies_should_not_be_snapshotted() {
+        assertThat(codec.encode("x".repeat(2048))).isNull();
+        assertThat(codec.encode(new ByteArrayResource(new byte[] {1, 2, 3}))).isNull();
+        assertThat(codec.encode(ResponseEntity.ok(new ByteArrayResource(new byte[] {1})))).isNull();
+    }
+
+    record Order(Long id, String status) {
+    }
+
+    interface Endpoints {
+        ResponseEntity<Order> create();
+
+        Map<String, Long> submit();
+
+        void fireAndForget();
+    }
+}
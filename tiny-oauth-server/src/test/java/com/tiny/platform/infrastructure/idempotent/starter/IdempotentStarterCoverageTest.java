@@ -17,6 +17,7 @@ import com.tiny.platform.infrastructure.idempotent.sdk.facade.IdempotentFacade;
 import com.tiny.platform.infrastructure.idempotent.starter.autoconfigure.IdempotentAutoConfiguration;
 import com.tiny.platform.infrastructure.idempotent.starter.autoconfigure.RedisIdempotentRepositoryConfiguration;
 import com.tiny.platform.infrastructure.idempotent.starter.properties.IdempotentProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
@@ -55,6 +56,12 @@ class IdempotentStarterCoverageTest {
         assertThat(properties.getOps().getMetricsStore()).isEqualTo("database");
         assertThat(properties.getOps().getMetricsRetentionDays()).isEqualTo(7);
         assertThat(properties.getOps().getMetricsCleanupFixedDelayMs()).isEqualTo(600_000);
+        assertThat(properties.getNearCache().isEnabled()).isTrue();
+        assertThat(properties.getNearCache().getMaxEntries()).isEqualTo(10_000);
+        assertThat(properties.getNearCache().getLocalTtlCapSeconds()).isEqualTo(5);
+        assertThat(properties.getReplay().isEnabled()).isTrue();
+        assertThat(properties.getReplay().getMaxBodyBytes()).isEqualTo(65_536);
+        assertThat(properties.getReplay().getHeaders()).containsExactly("Content-Type", "Location", "ETag");
 
         IdempotentProperties.HttpApi httpApi = new IdempotentProperties.HttpApi();
         httpApi.setEnabled(true);
@@ -102,7 +109,8 @@ class IdempotentStarterCoverageTest {
         ObjectProvider<DatabaseIdempotentMetricsRepository> metricsRepositoryProvider = mock(ObjectProvider.class);
         when(metricsRepositoryProvider.getIfAvailable()).thenReturn(null);
 
-        assertThat(configuration.idempotentEngine(repository, metricsService)).isInstanceOf(IdempotentEngine.class);
+        assertThat(configuration.idempotentEngine(repository, metricsService, properties, meterRegistryProvider))
+            .isInstanceOf(IdempotentEngine.class);
         assertThat(configuration.idempotentMetricsService(meterRegistryProvider, properties, metricsRepositoryProvider))
             .isInstanceOf(IdempotentMetricsService.class);
         assertThat(configuration.databaseIdempotentMetricsRepository(jdbcTemplate, properties))
@@ -114,7 +122,11 @@ class IdempotentStarterCoverageTest {
         @SuppressWarnings("unchecked")
         ObjectProvider<IdempotentBlacklistChecker> blacklistProvider = mock(ObjectProvider.class);
         when(blacklistProvider.getIfAvailable()).thenReturn(null);
-        IdempotentAspect aspect = configuration.idempotentAspect(engine, List.of(), metricsService, blacklistProvider);
+        @SuppressWarnings("unchecked")
+        ObjectProvider<ObjectMapper> objectMapperProvider = mock(ObjectProvider.class);
+        when(objectMapperProvider.getIfAvailable(any())).thenReturn(new ObjectMapper());
+        IdempotentAspect aspect = configuration.idempotentAspect(engine, List.of(), metricsService, blacklistProvider,
+            properties, objectMapperProvider);
         assertThat(aspect).isInstanceOf(IdempotentAspect.class);
 
         IdempotentFacade facade = configuration.idempotentFacade(engine);
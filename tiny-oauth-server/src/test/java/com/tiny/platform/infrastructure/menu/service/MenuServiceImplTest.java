@@ -11,7 +11,11 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.tiny.platform.core.oauth.config.PermissionVersionCacheProperties;
 import com.tiny.platform.core.oauth.model.SecurityUser;
+import com.tiny.platform.core.oauth.security.AuthorizationChangedEvent;
+import com.tiny.platform.core.oauth.security.AuthorizationEpochRepository;
+import com.tiny.platform.core.oauth.security.PermissionVersionCache;
 import com.tiny.platform.core.oauth.tenant.TenantContext;
 import com.tiny.platform.core.oauth.tenant.TenantContextContract;
 import com.tiny.platform.infrastructure.auth.datascope.framework.DataScopeContext;
@@ -30,6 +34,7 @@ import com.tiny.platform.infrastructure.auth.resource.repository.UiActionPermiss
 import com.tiny.platform.infrastructure.auth.audit.domain.AuthorizationAuditEventType;
 import com.tiny.platform.infrastructure.auth.audit.domain.RequirementAwareAuditDetail;
 import com.tiny.platform.infrastructure.auth.audit.service.AuthorizationAuditService;
+import com.tiny.platform.infrastructure.auth.resource.service.ApiEndpointRouteRegistry;
 import com.tiny.platform.infrastructure.auth.resource.service.CarrierPermissionRequirementEvaluator;
 import com.tiny.platform.infrastructure.auth.resource.service.CarrierPermissionReferenceSafetyService;
 import com.tiny.platform.infrastructure.auth.resource.service.ResourcePermissionBindingService;
@@ -67,6 +72,7 @@ class MenuServiceImplTest {
     private ApiEndpointPermissionRequirementRepository apiEndpointPermissionRequirementRepository;
     private AuthorizationAuditService authorizationAuditService;
     private RoleRepository roleRepository;
+    private PermissionVersionCache permissionVersionCache;
     private MenuServiceImpl service;
 
     @BeforeEach
@@ -83,6 +89,16 @@ class MenuServiceImplTest {
         apiEndpointPermissionRequirementRepository = Mockito.mock(ApiEndpointPermissionRequirementRepository.class);
         authorizationAuditService = Mockito.mock(AuthorizationAuditService.class);
         roleRepository = Mockito.mock(RoleRepository.class);
+        permissionVersionCache = new PermissionVersionCache(
+            new PermissionVersionCacheProperties(), Mockito.mock(AuthorizationEpochRepository.class), null);
+        ApiEndpointRouteRegistry apiEndpointRouteRegistry = new ApiEndpointRouteRegistry(
+            apiEndpointEntryRepository,
+            apiEndpointPermissionRequirementRepository,
+            permissionVersionCache,
+            event -> permissionVersionCache.onAuthorizationChanged((AuthorizationChangedEvent) event),
+            null,
+            60_000L
+        );
 
         CarrierPermissionRequirementEvaluator evaluator = new CarrierPermissionRequirementEvaluator(
             menuPermissionRequirementRepository,
@@ -99,7 +115,8 @@ class MenuServiceImplTest {
             carrierPermissionReferenceSafetyService,
             evaluator,
             authorizationAuditService,
-            roleRepository
+            roleRepository,
+            apiEndpointRouteRegistry
         );
 
         when(menuPermissionRequirementRepository.findRowsByMenuIdIn(anyCollection())).thenReturn(List.of());
@@ -351,6 +368,22 @@ class MenuServiceImplTest {
         verify(roleRepository).deleteRolePermissionRelationsByPermissionIdAndTenantId(99L, 2L);
     }
 
+    @Test
+    void deleteMenuShouldAdvanceApiEndpointRouteGenerationOfCurrentTenant() {
+        TenantContext.setActiveTenantId(2L);
+        MenuEntry menu = menuEntry(11L, 2L, "user", null, "/system/user", "system:user:list", ResourceType.MENU.getCode());
+
+        when(menuEntryRepository.findById(11L)).thenReturn(java.util.Optional.of(menu));
+        when(menuEntryRepository.findByTenantIdAndTypeInAndParentIdOrderBySortAsc(2L, List.of(ResourceType.DIRECTORY.getCode(), ResourceType.MENU.getCode()), 11L))
+            .thenReturn(List.of());
+        long before = permissionVersionCache.tenantGeneration(2L);
+
+        service.deleteMenu(11L);
+
+        verify(apiEndpointEntryRepository).deleteAllByIdInBatch(List.of(11L));
+        assertThat(permissionVersionCache.tenantGeneration(2L)).isGreaterThan(before);
+    }
+
     @Test
     void deleteMenuShouldEnumerateChildrenFromMenuCarrierRepository() {
         TenantContext.setActiveTenantId(2L);
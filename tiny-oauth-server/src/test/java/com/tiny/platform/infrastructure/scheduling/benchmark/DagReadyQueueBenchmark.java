@@ -0,0 +1,290 @@
+package com.tiny.platform.infrastructure.scheduling.benchmark;
+
+import com.tiny.platform.infrastructure.scheduling.model.SchedulingTaskInstance;
+import com.tiny.platform.infrastructure.scheduling.service.SchedulingReadyQueue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 500 节点 DAG 一次运行的派发基准：轮询扫描（改造前）vs 就绪队列（改造后）。
+ *
+ * <p>DAG 为 {@code layers × width} 的分层图，相邻两层全连接（默认 50 × 10 = 500 节点、4900 条边）。
+ * 数据库被内存数组替代，只比较派发机制本身：</p>
+ * <ul>
+ *   <li>poll：固定间隔扫描全部 PENDING 节点，对每个候选逐一检查上游是否全部完成（对应 findPendingReadyForExecution
+ *   + checkDependencies）；生产默认间隔 5000ms，这里默认按 1/50 缩放为 100ms，边延迟与总耗时可按比例换算；</li>
+ *   <li>queue：节点完成时递减下游入度，归零即推入 {@link SchedulingReadyQueue}，派发线程被立即唤醒。</li>
+ * </ul>
+ * <p>边延迟 = 节点就绪（最后一个上游完成）到开始执行的时间。</p>
+ *
+ * 运行方式：
+ * 1) mvn -pl tiny-oauth-server -DskipTests test-compile dependency:build-classpath -Dmdep.outputFile=/tmp/tiny-oauth-cp.txt
+ * 2) java -cp "tiny-oauth-server/target/test-classes:tiny-oauth-server/target/classes:$(cat /tmp/tiny-oauth-cp.txt)" \
+ *      com.tiny.platform.infrastructure.scheduling.benchmark.DagReadyQueueBenchmark [layers] [width] [pollIntervalMs] [taskMicros]
+ */
+public final class DagReadyQueueBenchmark {
+
+    private DagReadyQueueBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int layers = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        int width = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        long pollIntervalMillis = args.length > 2 ? Long.parseLong(args[2]) : 100;
+        long taskMicros = args.length > 3 ? Long.parseLong(args[3]) : 200;
+
+        Dag dag = new Dag(layers, width);
+        System.out.printf(Locale.ROOT, "DAG nodes=%d edges=%d, poll interval=%dms, task=%dus%n",
+            dag.nodeCount(), dag.edgeCount(), pollIntervalMillis, taskMicros);
+
+        Result poll = runPolling(dag, pollIntervalMillis, taskMicros);
+        Result queue = runReadyQueue(dag, taskMicros);
+        print("poll ", poll);
+        print("queue", queue);
+        System.out.printf(Locale.ROOT, "makespan speedup=%.1fx, dependency checks %d -> %d%n",
+            (double) poll.makespanNanos() / queue.makespanNanos(), poll.dependencyChecks(), queue.dependencyChecks());
+    }
+
+    private static Result runPolling(Dag dag, long pollIntervalMillis, long taskMicros) throws Exception {
+        RunState state = new RunState(dag);
+        ExecutorService workers = Executors.newFixedThreadPool(8);
+        AtomicInteger dependencyChecks = new AtomicInteger();
+        long start = System.nanoTime();
+        try {
+            dag.roots().forEach(node -> state.markReady(node, start));
+            while (state.remaining.getCount() > 0) {
+                for (int node = 0; node < dag.nodeCount(); node++) {
+                    if (state.status.get(node) != RunState.PENDING) {
+                        continue;
+                    }
+                    dependencyChecks.incrementAndGet();
+                    if (!state.upstreamDone(node)) {
+                        continue;
+                    }
+                    if (state.status.compareAndSet(node, RunState.PENDING, RunState.RESERVED)) {
+                        int reserved = node;
+                        workers.execute(() -> state.execute(reserved, taskMicros, ignored -> {
+                        }));
+                    }
+                }
+                state.remaining.await(pollIntervalMillis, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        return state.result(System.nanoTime() - start, dependencyChecks.get());
+    }
+
+    private static Result runReadyQueue(Dag dag, long taskMicros) throws Exception {
+        RunState state = new RunState(dag);
+        SchedulingReadyQueue readyQueue = new SchedulingReadyQueue(dag.nodeCount());
+        ExecutorService workers = Executors.newFixedThreadPool(8);
+        AtomicInteger dependencyChecks = new AtomicInteger();
+        AtomicIntegerArray pendingUpstreams = new AtomicIntegerArray(dag.nodeCount());
+        for (int node = 0; node < dag.nodeCount(); node++) {
+            pendingUpstreams.set(node, dag.upstreams(node).length);
+        }
+        Thread dispatcher = new Thread(() -> {
+            try {
+                while (state.remaining.getCount() > 0) {
+                    SchedulingReadyQueue.ReadyTask task = readyQueue.poll(100, TimeUnit.MILLISECONDS);
+                    if (task == null) {
+                        continue;
+                    }
+                    int node = task.instanceId().intValue();
+                    if (state.status.compareAndSet(node, RunState.PENDING, RunState.RESERVED)) {
+                        workers.execute(() -> state.execute(node, taskMicros, completed -> {
+                            long now = System.nanoTime();
+                            for (int downstream : dag.downstreams(completed)) {
+                                dependencyChecks.incrementAndGet();
+                                if (pendingUpstreams.decrementAndGet(downstream) == 0) {
+                                    state.markReady(downstream, now);
+                                    readyQueue.offer(instance(downstream));
+                                }
+                            }
+                        }));
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "benchmark-ready-dispatcher");
+        long start = System.nanoTime();
+        try {
+            dispatcher.start();
+            dag.roots().forEach(node -> {
+                state.markReady(node, start);
+                readyQueue.offer(instance(node));
+            });
+            state.remaining.await();
+        } finally {
+            dispatcher.interrupt();
+            workers.shutdownNow();
+        }
+        return state.result(System.nanoTime() - start, dependencyChecks.get());
+    }
+
+    private static SchedulingTaskInstance instance(int node) {
+        SchedulingTaskInstance instance = new SchedulingTaskInstance();
+        instance.setId((long) node);
+        instance.setTenantId(1L);
+        instance.setStatus("PENDING");
+        instance.setScheduledAt(LocalDateTime.now());
+        return instance;
+    }
+
+    private static void print(String label, Result result) {
+        System.out.printf(Locale.ROOT, "%s makespan=%.1fms edge latency avg=%.2fms p50=%.2fms p99=%.2fms max=%.2fms%n",
+            label,
+            result.makespanNanos() / 1e6,
+            result.averageEdgeNanos() / 1e6,
+            result.percentileEdgeNanos(0.50) / 1e6,
+            result.percentileEdgeNanos(0.99) / 1e6,
+            result.percentileEdgeNanos(1.0) / 1e6);
+    }
+
+    /**
+     * 分层全连接 DAG
+     */
+    private static final class Dag {
+        private final int layers;
+        private final int width;
+
+        private Dag(int layers, int width) {
+            this.layers = layers;
+            this.width = width;
+        }
+
+        int nodeCount() {
+            return layers * width;
+        }
+
+        int edgeCount() {
+            return (layers - 1) * width * width;
+        }
+
+        List<Integer> roots() {
+            List<Integer> roots = new ArrayList<>();
+            for (int i = 0; i < width; i++) {
+                roots.add(i);
+            }
+            return roots;
+        }
+
+        int[] upstreams(int node) {
+            int layer = node / width;
+            if (layer == 0) {
+                return new int[0];
+            }
+            int[] upstreams = new int[width];
+            for (int i = 0; i < width; i++) {
+                upstreams[i] = (layer - 1) * width + i;
+            }
+            return upstreams;
+        }
+
+        int[] downstreams(int node) {
+            int layer = node / width;
+            if (layer == layers - 1) {
+                return new int[0];
+            }
+            int[] downstreams = new int[width];
+            for (int i = 0; i < width; i++) {
+                downstreams[i] = (layer + 1) * width + i;
+            }
+            return downstreams;
+        }
+    }
+
+    /**
+     * 单次运行的节点状态与时间戳
+     */
+    private static final class RunState {
+        static final int PENDING = 0;
+        static final int RESERVED = 1;
+        static final int SUCCESS = 2;
+
+        private final Dag dag;
+        private final AtomicIntegerArray status;
+        private final AtomicLongArray readyAt;
+        private final AtomicLongArray startedAt;
+        private final CountDownLatch remaining;
+
+        private RunState(Dag dag) {
+            this.dag = dag;
+            this.status = new AtomicIntegerArray(dag.nodeCount());
+            this.readyAt = new AtomicLongArray(dag.nodeCount());
+            this.startedAt = new AtomicLongArray(dag.nodeCount());
+            this.remaining = new CountDownLatch(dag.nodeCount());
+        }
+
+        void markReady(int node, long nanos) {
+            readyAt.compareAndSet(node, 0L, nanos);
+        }
+
+        boolean upstreamDone(int node) {
+            for (int upstream : dag.upstreams(node)) {
+                if (status.get(upstream) != SUCCESS) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void execute(int node, long taskMicros, java.util.function.IntConsumer onSuccess) {
+            startedAt.set(node, System.nanoTime());
+            if (taskMicros > 0) {
+                long deadline = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(taskMicros);
+                while (System.nanoTime() < deadline) {
+                    Thread.onSpinWait();
+                }
+            }
+            long finished = System.nanoTime();
+            status.set(node, SUCCESS);
+            // 轮询模式下就绪时刻 = 最后一个上游完成的时刻
+            for (int downstream : dag.downstreams(node)) {
+                if (upstreamDone(downstream)) {
+                    markReady(downstream, finished);
+                }
+            }
+            onSuccess.accept(node);
+            remaining.countDown();
+        }
+
+        Result result(long makespanNanos, int dependencyChecks) {
+            long[] latencies = new long[dag.nodeCount() - dag.roots().size()];
+            int index = 0;
+            for (int node = dag.roots().size(); node < dag.nodeCount(); node++) {
+                latencies[index++] = Math.max(0L, startedAt.get(node) - readyAt.get(node));
+            }
+            Arrays.sort(latencies);
+            return new Result(makespanNanos, latencies, dependencyChecks);
+        }
+    }
+
+    private record Result(long makespanNanos, long[] sortedEdgeNanos, int dependencyChecks) {
+
+        double averageEdgeNanos() {
+            return Arrays.stream(sortedEdgeNanos).average().orElse(0);
+        }
+
+        double percentileEdgeNanos(double percentile) {
+            if (sortedEdgeNanos.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sortedEdgeNanos.length) - 1;
+            return sortedEdgeNanos[Math.max(0, Math.min(index, sortedEdgeNanos.length - 1))];
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.tiny.platform.infrastructure.scheduling.benchmark;
+
+import com.tiny.platform.infrastructure.scheduling.model.SchedulingTaskInstance;
+import com.tiny.platform.infrastructure.scheduling.repository.SchedulingTaskInstanceBulkRepository;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * DAG Run 物化基准：{@code runs} 个 Run 并发触发（模拟整点 Quartz），每个 Run 物化 {@code nodes} 个任务实例。
+ *
+ * <ul>
+ *   <li>legacy：每个实例一条 INSERT 并取回自增主键，对应 IDENTITY 主键下 {@code saveAll} 的逐行往返；</li>
+ *   <li>bulk：{@link SchedulingTaskInstanceBulkRepository#insertAll}，每 500 行一条多行 INSERT。</li>
+ * </ul>
+ * <p>两种方式都是每个 Run 一个事务；执行快照按任务缓存后每行相同。输出总耗时、单 Run 事务耗时分位与语句数。</p>
+ *
+ * 运行方式：
+ * 1) mvn -pl tiny-oauth-server -DskipTests test-compile dependency:build-classpath -Dmdep.outputFile=/tmp/tiny-oauth-cp.txt
+ * 2) java -cp "tiny-oauth-server/target/test-classes:tiny-oauth-server/target/classes:$(cat /tmp/tiny-oauth-cp.txt)" \
+ *      com.tiny.platform.infrastructure.scheduling.benchmark.DagRunMaterializationBenchmark [runs] [nodes] [poolSize] [jdbcUrl user password]
+ *
+ * <p>默认使用 H2（MySQL 模式）内存库；传入 MySQL 连接串可在真实 InnoDB 上对比（需先建表）。</p>
+ */
+public final class DagRunMaterializationBenchmark {
+
+    private static final String SNAPSHOT = "{\"task\":{\"taskTypeId\":1,\"params\":{\"sql\":\"select 1\"},\"timeoutSec\":600,"
+            + "\"maxRetry\":3},\"taskType\":{\"executor\":\"loggingTaskExecutor\",\"defaultTimeoutSec\":600}}";
+
+    private DagRunMaterializationBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int nodes = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int poolSize = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(args.length > 3 ? args[3]
+            : "jdbc:h2:mem:dag_materialize_bench;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE");
+        if (args.length > 5) {
+            config.setUsername(args[4]);
+            config.setPassword(args[5]);
+        }
+        config.setMaximumPoolSize(poolSize);
+        config.setConnectionTimeout(300_000);
+        try (HikariDataSource dataSource = new HikariDataSource(config)) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            if (args.length <= 3) {
+                createTable(jdbcTemplate);
+            }
+            TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+            SchedulingTaskInstanceBulkRepository bulkRepository =
+                new SchedulingTaskInstanceBulkRepository(new NamedParameterJdbcTemplate(dataSource));
+            System.out.printf(Locale.ROOT, "runs=%d nodes/run=%d pool=%d%n", runs, nodes, poolSize);
+
+            // warmup
+            run("warmup", transactionTemplate, 4, Math.min(nodes, 500), 1, instances -> legacyInsert(jdbcTemplate, instances));
+            run("warmup", transactionTemplate, 4, Math.min(nodes, 500), 1, bulkRepository::insertAll);
+            jdbcTemplate.execute("TRUNCATE TABLE scheduling_task_instance");
+
+            Result legacy = run("legacy", transactionTemplate, runs, nodes, 1, instances -> legacyInsert(jdbcTemplate, instances));
+            jdbcTemplate.execute("TRUNCATE TABLE scheduling_task_instance");
+            int statementsPerRun = (nodes + 499) / 500;
+            Result bulk = run("bulk", transactionTemplate, runs, nodes, statementsPerRun, bulkRepository::insertAll);
+            print(legacy, nodes);
+            print(bulk, statementsPerRun);
+            System.out.printf(Locale.ROOT, "makespan speedup=%.1fx, p99 run latency %.1fms -> %.1fms%n",
+                (double) legacy.makespanNanos() / bulk.makespanNanos(),
+                legacy.percentileMillis(0.99), bulk.percentileMillis(0.99));
+        }
+    }
+
+    private static Result run(String label,
+                              TransactionTemplate transactionTemplate,
+                              int runs,
+                              int nodes,
+                              int statementsPerRun,
+                              Consumer<List<SchedulingTaskInstance>> writer) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(runs);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> futures = new ArrayList<>(runs);
+        for (int r = 0; r < runs; r++) {
+            long runId = r + 1L;
+            futures.add(pool.submit(() -> {
+                start.await();
+                List<SchedulingTaskInstance> instances = instances(runId, nodes);
+                long begin = System.nanoTime();
+                transactionTemplate.executeWithoutResult(status -> writer.accept(instances));
+                return System.nanoTime() - begin;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        long[] latencies = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            latencies[i] = futures.get(i).get();
+        }
+        long makespan = System.nanoTime() - begin;
+        pool.shutdown();
+        Arrays.sort(latencies);
+        return new Result(label, makespan, latencies, (long) runs * statementsPerRun);
+    }
+
+    /**
+     * 改造前：逐行 INSERT + getGeneratedKeys
+     */
+    private static void legacyInsert(JdbcTemplate jdbcTemplate, List<SchedulingTaskInstance> instances) {
+        LocalDateTime now = LocalDateTime.now();
+        for (SchedulingTaskInstance instance : instances) {
+            GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement("""
+                    INSERT INTO scheduling_task_instance
+                        (dag_run_id, dag_id, dag_version_id, node_code, concurrency_key, task_id, tenant_id, attempt_no,
+                         status, scheduled_at, params, execution_snapshot, created_at, updated_at)
+                    VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                    """, Statement.RETURN_GENERATED_KEYS);
+                ps.setLong(1, instance.getDagRunId());
+                ps.setLong(2, instance.getDagId());
+                ps.setLong(3, instance.getDagVersionId());
+                ps.setString(4, instance.getNodeCode());
+                ps.setString(5, instance.getConcurrencyKey());
+                ps.setLong(6, instance.getTaskId());
+                ps.setLong(7, instance.getTenantId());
+                ps.setInt(8, instance.getAttemptNo());
+                ps.setString(9, instance.getStatus());
+                ps.setTimestamp(10, instance.getScheduledAt() != null ? Timestamp.valueOf(instance.getScheduledAt()) : null);
+                ps.setString(11, instance.getParams());
+                ps.setString(12, instance.getExecutionSnapshot());
+                ps.setTimestamp(13, Timestamp.valueOf(now));
+                ps.setTimestamp(14, Timestamp.valueOf(now));
+                return ps;
+            }, keyHolder);
+            instance.setId(keyHolder.getKey().longValue());
+        }
+    }
+
+    private static List<SchedulingTaskInstance> instances(long runId, int nodes) {
+        LocalDateTime now = LocalDateTime.now();
+        List<SchedulingTaskInstance> instances = new ArrayList<>(nodes);
+        for (int i = 0; i < nodes; i++) {
+            SchedulingTaskInstance instance = new SchedulingTaskInstance();
+            instance.setDagRunId(runId);
+            instance.setDagId(1L);
+            instance.setDagVersionId(1L);
+            instance.setNodeCode("node-" + i);
+            instance.setConcurrencyKey("DAG-" + runId + "-node-" + i);
+            instance.setTaskId((long) (i % 20) + 1);
+            instance.setTenantId(1L);
+            instance.setAttemptNo(1);
+            instance.setStatus("PENDING");
+            instance.setScheduledAt(i < 20 ? now : null);
+            instance.setExecutionSnapshot(SNAPSHOT);
+            instances.add(instance);
+        }
+        return instances;
+    }
+
+    private static void createTable(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS scheduling_task_instance");
+        jdbcTemplate.execute("""
+            CREATE TABLE scheduling_task_instance (
+                id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                dag_run_id BIGINT, dag_id BIGINT, dag_version_id BIGINT,
+                node_code VARCHAR(128), concurrency_key VARCHAR(128),
+                task_id BIGINT NOT NULL, tenant_id BIGINT NOT NULL, attempt_no INT,
+                status VARCHAR(32), scheduled_at TIMESTAMP, locked_by VARCHAR(128), lock_time TIMESTAMP,
+                next_retry_at TIMESTAMP, params CLOB, execution_snapshot CLOB, result CLOB,
+                error_message VARCHAR(512), created_at TIMESTAMP NOT NULL, updated_at TIMESTAMP)
+            """);
+        jdbcTemplate.execute("CREATE INDEX idx_sti_run ON scheduling_task_instance (dag_run_id)");
+        jdbcTemplate.execute("CREATE INDEX idx_sti_status_sched ON scheduling_task_instance (status, scheduled_at)");
+    }
+
+    private static void print(Result result, int statementsPerRun) {
+        System.out.printf(Locale.ROOT,
+            "%-6s makespan=%.0fms run latency p50=%.1fms p99=%.1fms max=%.1fms statements=%d (%d/run)%n",
+            result.label(),
+            result.makespanNanos() / 1e6,
+            result.percentileMillis(0.50),
+            result.percentileMillis(0.99),
+            result.latencies()[result.latencies().length - 1] / 1e6,
+            result.statements(),
+            statementsPerRun);
+    }
+
+    private record Result(String label, long makespanNanos, long[] latencies, long statements) {
+
+        double percentileMillis(double percentile) {
+            int index = Math.min(latencies.length - 1, (int) Math.ceil(percentile * latencies.length) - 1);
+            return latencies[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.tiny.platform.infrastructure.scheduling.benchmark;
+
+import com.tiny.platform.infrastructure.scheduling.model.SchedulingTaskInstance;
+import com.tiny.platform.infrastructure.scheduling.service.SchedulingReadyQueue;
+import com.tiny.platform.infrastructure.scheduling.service.TenantFairShareDispatcher;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 吵闹邻居基准：一个租户一次性回填大量就绪任务，另一个小租户按固定间隔零星提交，比较小租户的等待时间。
+ *
+ * <ul>
+ *   <li>fifo：就绪队列按到期顺序整批推给派发线程池（改造前 dispatchReadyTasks 的行为），小租户排在整批积压之后；</li>
+ *   <li>fair：就绪任务经 {@link TenantFairShareDispatcher} 按租户轮转，在途数不超过线程数，执行结束归还名额。</li>
+ * </ul>
+ * <p>数据库被省略，任务执行以固定时长的休眠代替；等待时间 = 进入就绪队列到开始执行。</p>
+ *
+ * 运行方式：
+ * 1) mvn -pl tiny-oauth-server -DskipTests test-compile dependency:build-classpath -Dmdep.outputFile=/tmp/tiny-oauth-cp.txt
+ * 2) java -cp "tiny-oauth-server/target/test-classes:tiny-oauth-server/target/classes:$(cat /tmp/tiny-oauth-cp.txt)" \
+ *      com.tiny.platform.infrastructure.scheduling.benchmark.TenantFairShareBenchmark [noisyTasks] [smallTasks] [smallIntervalMs] [taskMillis] [workers]
+ */
+public final class TenantFairShareBenchmark {
+
+    private static final long NOISY_TENANT = 1L;
+    private static final long SMALL_TENANT = 2L;
+    private static final long SMALL_ID_BASE = 10_000_000L;
+
+    private TenantFairShareBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int noisyTasks = args.length > 0 ? Integer.parseInt(args[0]) : 4000;
+        int smallTasks = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        long smallIntervalMillis = args.length > 2 ? Long.parseLong(args[2]) : 20;
+        long taskMillis = args.length > 3 ? Long.parseLong(args[3]) : 2;
+        int workers = args.length > 4 ? Integer.parseInt(args[4]) : 4;
+        System.out.printf(Locale.ROOT, "noisy=%d small=%d every %dms, task=%dms, workers=%d%n",
+            noisyTasks, smallTasks, smallIntervalMillis, taskMillis, workers);
+
+        Result fifo = run(false, noisyTasks, smallTasks, smallIntervalMillis, taskMillis, workers);
+        Result fair = run(true, noisyTasks, smallTasks, smallIntervalMillis, taskMillis, workers);
+        print("fifo", fifo);
+        print("fair", fair);
+        System.out.printf(Locale.ROOT, "small tenant p99 wait %.1fms -> %.1fms%n",
+            fifo.percentileMillis(0.99), fair.percentileMillis(0.99));
+    }
+
+    private static Result run(boolean fairShare,
+                              int noisyTasks,
+                              int smallTasks,
+                              long smallIntervalMillis,
+                              long taskMillis,
+                              int workers) throws Exception {
+        SchedulingReadyQueue readyQueue = new SchedulingReadyQueue(noisyTasks + smallTasks);
+        TenantFairShareDispatcher dispatcher = new TenantFairShareDispatcher(true, 1, 1, 0, workers, noisyTasks + smallTasks);
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        CountDownLatch done = new CountDownLatch(noisyTasks + smallTasks);
+        long[] smallWaits = new long[smallTasks];
+        AtomicInteger smallSeen = new AtomicInteger();
+        long taskNanos = TimeUnit.MILLISECONDS.toNanos(taskMillis);
+
+        Thread dispatchThread = new Thread(() -> {
+            try {
+                while (done.getCount() > 0) {
+                    if (fairShare) {
+                        dispatchFair(readyQueue, dispatcher, pool, task -> execute(task, taskNanos, smallWaits, smallSeen, done));
+                    } else {
+                        dispatchFifo(readyQueue, pool, task -> execute(task, taskNanos, smallWaits, smallSeen, done));
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "bench-dispatch");
+        long begin = System.nanoTime();
+        dispatchThread.start();
+        for (int i = 0; i < noisyTasks; i++) {
+            readyQueue.offer(instance(i + 1L, NOISY_TENANT));
+        }
+        for (int i = 0; i < smallTasks; i++) {
+            readyQueue.offer(instance(SMALL_ID_BASE + i, SMALL_TENANT));
+            Thread.sleep(smallIntervalMillis);
+        }
+        done.await();
+        long makespan = System.nanoTime() - begin;
+        dispatchThread.interrupt();
+        dispatchThread.join();
+        pool.shutdown();
+        Arrays.sort(smallWaits);
+        return new Result(makespan, smallWaits);
+    }
+
+    /**
+     * 改造前：每次唤醒取出一批到期任务，按到期顺序直接提交给线程池
+     */
+    private static void dispatchFifo(SchedulingReadyQueue readyQueue,
+                                     ExecutorService pool,
+                                     TaskBody body) throws InterruptedException {
+        SchedulingReadyQueue.ReadyTask first = readyQueue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        pool.execute(() -> body.run(first));
+        List<SchedulingReadyQueue.ReadyTask> rest = readyQueue.drainReady(99);
+        rest.forEach(task -> pool.execute(() -> body.run(task)));
+    }
+
+    /**
+     * 改造后：与 TaskWorkerService.dispatchFairShare 相同的入队、轮转与名额归还
+     */
+    private static void dispatchFair(SchedulingReadyQueue readyQueue,
+                                     TenantFairShareDispatcher dispatcher,
+                                     ExecutorService pool,
+                                     TaskBody body) throws InterruptedException {
+        if (dispatcher.backlog() == 0) {
+            SchedulingReadyQueue.ReadyTask first = readyQueue.poll(100, TimeUnit.MILLISECONDS);
+            if (first == null) {
+                return;
+            }
+            dispatcher.enqueue(first);
+        }
+        while (dispatcher.hasBacklogCapacity()) {
+            List<SchedulingReadyQueue.ReadyTask> drained = readyQueue.drainReady(100);
+            if (drained.isEmpty()) {
+                break;
+            }
+            drained.forEach(dispatcher::enqueue);
+        }
+        for (int attempts = 0; attempts < 100; attempts++) {
+            SchedulingReadyQueue.ReadyTask task = dispatcher.next();
+            if (task == null) {
+                dispatcher.awaitRelease(50, TimeUnit.MILLISECONDS);
+                return;
+            }
+            pool.execute(() -> {
+                try {
+                    body.run(task);
+                } finally {
+                    dispatcher.release(task);
+                }
+            });
+        }
+    }
+
+    private static void execute(SchedulingReadyQueue.ReadyTask task,
+                                long taskNanos,
+                                long[] smallWaits,
+                                AtomicInteger smallSeen,
+                                CountDownLatch done) {
+        long wait = System.nanoTime() - task.readyAtNanos();
+        if (task.tenantId() == SMALL_TENANT) {
+            smallWaits[smallSeen.getAndIncrement()] = wait;
+        }
+        LockSupport.parkNanos(taskNanos);
+        done.countDown();
+    }
+
+    private static SchedulingTaskInstance instance(Long id, Long tenantId) {
+        SchedulingTaskInstance instance = new SchedulingTaskInstance();
+        instance.setId(id);
+        instance.setTenantId(tenantId);
+        return instance;
+    }
+
+    private static void print(String label, Result result) {
+        System.out.printf(Locale.ROOT, "%-4s makespan=%.0fms small wait p50=%.1fms p99=%.1fms max=%.1fms%n",
+            label,
+            result.makespanNanos() / 1e6,
+            result.percentileMillis(0.50),
+            result.percentileMillis(0.99),
+            result.smallWaits()[result.smallWaits().length - 1] / 1e6);
+    }
+
+    @FunctionalInterface
+    private interface TaskBody {
+        void run(SchedulingReadyQueue.ReadyTask task);
+    }
+
+    private record Result(long makespanNanos, long[] smallWaits) {
+
+        double percentileMillis(double percentile) {
+            int index = Math.min(smallWaits.length - 1, (int) Math.ceil(percentile * smallWaits.length) - 1);
+            return smallWaits[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.tiny.platform.infrastructure.scheduling.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchedulingTaskClaimRepositoryTest {
+
+    @Test
+    void skip_locked_should_only_be_enabled_on_supported_versions() {
+        assertThat(SchedulingTaskClaimRepository.supportsSkipLocked("MySQL", 8, 0)).isTrue();
+        assertThat(SchedulingTaskClaimRepository.supportsSkipLocked("MySQL", 5, 7)).isFalse();
+        assertThat(SchedulingTaskClaimRepository.supportsSkipLocked("MariaDB", 10, 6)).isTrue();
+        assertThat(SchedulingTaskClaimRepository.supportsSkipLocked("MariaDB", 10, 5)).isFalse();
+        assertThat(SchedulingTaskClaimRepository.supportsSkipLocked("PostgreSQL", 16, 2)).isTrue();
+        assertThat(SchedulingTaskClaimRepository.supportsSkipLocked("H2", 2, 3)).isFalse();
+        assertThat(SchedulingTaskClaimRepository.supportsSkipLocked(null, 0, 0)).isFalse();
+    }
+}
@@ -0,0 +1,95 @@
+package com.tiny.platform.infrastructure.scheduling.repository;
+
+import com.tiny.platform.infrastructure.scheduling.model.SchedulingTaskInstance;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 多行 INSERT 跨语句分块、主键回填与字段映射（H2 MySQL 模式）。
+ */
+class SchedulingTaskInstanceBulkRepositoryTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private SchedulingTaskInstanceBulkRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:bulk_" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("""
+                CREATE TABLE scheduling_task_instance (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    dag_run_id BIGINT, dag_id BIGINT, dag_version_id BIGINT,
+                    node_code VARCHAR(128), concurrency_key VARCHAR(128),
+                    task_id BIGINT NOT NULL, tenant_id BIGINT NOT NULL, attempt_no INT,
+                    status VARCHAR(32), scheduled_at TIMESTAMP, locked_by VARCHAR(128), lock_time TIMESTAMP,
+                    next_retry_at TIMESTAMP, params CLOB, execution_snapshot CLOB, result CLOB,
+                    error_message VARCHAR(512), created_at TIMESTAMP NOT NULL, updated_at TIMESTAMP)
+                """);
+        repository = new SchedulingTaskInstanceBulkRepository(new NamedParameterJdbcTemplate(dataSource));
+    }
+
+    @Test
+    void insert_all_should_span_statements_and_backfill_ids_in_order() {
+        int count = SchedulingTaskInstanceBulkRepository.ROWS_PER_STATEMENT * 2 + 7;
+        LocalDateTime scheduledAt = LocalDateTime.now().withNano(0);
+        List<SchedulingTaskInstance> instances = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            instances.add(instance("node-" + i, i == 0 ? scheduledAt : null));
+        }
+
+        int inserted = repository.insertAll(instances);
+
+        assertThat(inserted).isEqualTo(count);
+        assertThat(instances).allSatisfy(instance -> {
+            assertThat(instance.getId()).isNotNull();
+            assertThat(instance.getCreatedAt()).isNotNull();
+        });
+        assertThat(instances.stream().map(SchedulingTaskInstance::getId).distinct().count()).isEqualTo(count);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM scheduling_task_instance", Integer.class))
+                .isEqualTo(count);
+        SchedulingTaskInstance last = instances.get(count - 1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT node_code FROM scheduling_task_instance WHERE id = ?", String.class, last.getId()))
+                .isEqualTo(last.getNodeCode());
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT scheduled_at FROM scheduling_task_instance WHERE id = ?", LocalDateTime.class,
+                instances.get(0).getId())).isEqualTo(scheduledAt);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM scheduling_task_instance WHERE scheduled_at IS NULL", Integer.class))
+                .isEqualTo(count - 1);
+    }
+
+    @Test
+    void insert_all_should_ignore_empty_input() {
+        assertThat(repository.insertAll(List.of())).isZero();
+    }
+
+    private static SchedulingTaskInstance instance(String nodeCode, LocalDateTime scheduledAt) {
+        SchedulingTaskInstance instance = new SchedulingTaskInstance();
+        instance.setDagRunId(7L);
+        instance.setDagId(1L);
+        instance.setDagVersionId(3L);
+        instance.setNodeCode(nodeCode);
+        instance.setConcurrencyKey("DAG-7-" + nodeCode);
+        instance.setTaskId(11L);
+        instance.setTenantId(9L);
+        instance.setAttemptNo(1);
+        instance.setStatus("PENDING");
+        instance.setScheduledAt(scheduledAt);
+        instance.setParams("{\"k\":1}");
+        instance.setExecutionSnapshot("{\"task\":{}}");
+        return instance;
+    }
+}
@@ -0,0 +1,239 @@
+package com.tiny.platform.infrastructure.scheduling.service;
+
+import com.tiny.platform.infrastructure.scheduling.repository.SchedulingCronTriggerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.quartz.CronScheduleBuilder;
+import org.quartz.CronTrigger;
+import org.quartz.TriggerBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CronTriggerEngineTest {
+
+    private static final long T0 = Instant.parse("2026-03-01T10:00:00Z").toEpochMilli();
+    private static final int PARTITIONS = 4;
+
+    private SchedulingCronTriggerRepository repository;
+    private SchedulingService schedulingService;
+    private CronTriggerEngine engine;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        repository = mock(SchedulingCronTriggerRepository.class);
+        schedulingService = mock(SchedulingService.class);
+        ObjectProvider<SchedulingService> provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(schedulingService);
+        engine = new CronTriggerEngine(repository, provider, PARTITIONS, 30_000, Runnable::run);
+    }
+
+    @Test
+    void wheel_fire_times_should_match_quartz_cron_trigger_across_dst() throws Exception {
+        String cron = "0 30 1,2 * * ?";
+        String timezone = "America/New_York";
+        CronTriggerWheel.Definition definition = CronTriggerWheel.compile(1L, 1L, cron, timezone);
+        CronTrigger quartz = TriggerBuilder.newTrigger()
+                .startAt(new Date(0))
+                .withSchedule(CronScheduleBuilder.cronSchedule(cron).inTimeZone(TimeZone.getTimeZone(timezone)))
+                .build();
+
+        long after = Instant.parse("2026-03-07T00:00:00Z").toEpochMilli();
+        for (int i = 0; i < 12; i++) {
+            long expected = quartz.getFireTimeAfter(new Date(after)).getTime();
+            long actual = definition.nextFireAfter(after);
+            assertThat(actual).isEqualTo(expected);
+            after = actual;
+        }
+        assertThat(CronTriggerWheel.compile(2L, 1L, "0 0 * * * ?", " ").timezoneId())
+                .isEqualTo(TimeZone.getDefault().getID());
+    }
+
+    @Test
+    void owner_should_fire_missed_trigger_once_and_reschedule_after_now() {
+        leasesExpired();
+        when(repository.acquireLease(anyInt(), any(), anyLong(), anyLong())).thenReturn(1);
+        when(repository.findAll()).thenReturn(List.of(row(5L, T0 - 30_000)));
+        when(repository.advanceWatermark(eq(5L), anyLong(), anyLong())).thenReturn(1);
+
+        long now = T0 + 3 * 60_000 + 500;
+        engine.tick(now);
+        engine.tick(now + 100);
+
+        assertThat(engine.ownedPartitions()).hasSize(PARTITIONS);
+        ArgumentCaptor<SchedulingExecutionContext> context = ArgumentCaptor.forClass(SchedulingExecutionContext.class);
+        verify(schedulingService, times(1)).executeDag(context.capture());
+        assertThat(context.getValue().getDagId()).isEqualTo(5L);
+        assertThat(context.getValue().getExecutionTenantId()).isEqualTo(9L);
+        assertThat(context.getValue().getTriggerType()).isEqualTo("SCHEDULE");
+        verify(repository).advanceWatermark(5L, T0, now);
+        assertThat(engine.nextFireTime(5L)).isEqualTo(T0 + 4 * 60_000);
+    }
+
+    @Test
+    void lost_watermark_race_should_not_dispatch() {
+        leasesExpired();
+        when(repository.acquireLease(anyInt(), any(), anyLong(), anyLong())).thenReturn(1);
+        when(repository.findAll()).thenReturn(List.of(row(5L, T0 - 30_000)));
+        when(repository.advanceWatermark(eq(5L), anyLong(), anyLong())).thenReturn(0);
+
+        engine.tick(T0 + 500);
+
+        verify(schedulingService, never()).executeDag(any(SchedulingExecutionContext.class));
+        assertThat(engine.nextFireTime(5L)).isEqualTo(T0 + 60_000);
+    }
+
+    @Test
+    void node_should_not_fire_partitions_leased_by_other_nodes() {
+        long now = T0 + 500;
+        when(repository.findLeases(PARTITIONS)).thenReturn(IntStream.range(0, PARTITIONS)
+                .mapToObj(p -> new SchedulingCronTriggerRepository.PartitionLease(p, "other-" + (p % 2), now + 10_000))
+                .toList());
+        when(repository.findAll()).thenReturn(List.of(row(5L, T0 - 30_000)));
+
+        engine.tick(now);
+
+        assertThat(engine.ownedPartitions()).isEmpty();
+        verify(repository, never()).acquireLease(anyInt(), any(), anyLong(), anyLong());
+        verify(repository, never()).advanceWatermark(any(), anyLong(), anyLong());
+        verify(schedulingService, never()).executeDag(any(SchedulingExecutionContext.class));
+        assertThat(engine.nextFireTime(5L)).isEqualTo(T0 + 60_000);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void joining_node_should_take_over_its_share_from_incumbent_owning_everything() {
+        InMemoryCronRepository shared = new InMemoryCronRepository(PARTITIONS);
+        ObjectProvider<SchedulingService> provider = mock(ObjectProvider.class);
+        CronTriggerEngine first = new CronTriggerEngine(shared, provider, PARTITIONS, 30_000, Runnable::run);
+        CronTriggerEngine second = new CronTriggerEngine(shared, provider, PARTITIONS, 30_000, Runnable::run);
+
+        first.renewLeases(T0);
+        assertThat(first.ownedPartitions()).hasSize(PARTITIONS);
+
+        // 新节点加入：无过期分区可抢，但心跳已让原持有者看到它
+        second.renewLeases(T0 + 1_000);
+        assertThat(second.ownedPartitions()).isEmpty();
+
+        first.renewLeases(T0 + 10_000);
+        second.renewLeases(T0 + 11_000);
+
+        assertThat(first.ownedPartitions()).hasSize(PARTITIONS / 2);
+        assertThat(second.ownedPartitions()).hasSize(PARTITIONS / 2);
+        Set<Integer> all = new HashSet<>(first.ownedPartitions());
+        all.addAll(second.ownedPartitions());
+        assertThat(all).hasSize(PARTITIONS);
+
+        // 继续续约保持稳定，不再来回迁移
+        first.renewLeases(T0 + 20_000);
+        second.renewLeases(T0 + 21_000);
+        assertThat(first.ownedPartitions()).hasSize(PARTITIONS / 2);
+        assertThat(second.ownedPartitions()).hasSize(PARTITIONS / 2);
+    }
+
+    private void leasesExpired() {
+        when(repository.findLeases(PARTITIONS)).thenReturn(IntStream.range(0, PARTITIONS)
+                .mapToObj(p -> new SchedulingCronTriggerRepository.PartitionLease(p, null, 0L))
+                .toList());
+    }
+
+    private SchedulingCronTriggerRepository.CronTriggerRow row(Long dagId, long lastFireAt) {
+        return new SchedulingCronTriggerRepository.CronTriggerRow(dagId, 9L, "0 * * * * ?", "UTC", false, lastFireAt);
+    }
+
+    /**
+     * 多节点共享的内存版租约与心跳存储
+     */
+    private static final class InMemoryCronRepository extends SchedulingCronTriggerRepository {
+
+        private final Map<Integer, SchedulingCronTriggerRepository.PartitionLease> leases = new TreeMap<>();
+        private final Map<String, Long> nodes = new TreeMap<>();
+
+        InMemoryCronRepository(int partitions) {
+            super(null);
+            for (int p = 0; p < partitions; p++) {
+                leases.put(p, new SchedulingCronTriggerRepository.PartitionLease(p, null, 0L));
+            }
+        }
+
+        @Override
+        public List<CronTriggerRow> findAll() {
+            return List.of();
+        }
+
+        @Override
+        public List<PartitionLease> findLeases(int count) {
+            return List.copyOf(leases.values());
+        }
+
+        @Override
+        public int renewLeases(String ownerId, Collection<Integer> partitions, long leaseUntil) {
+            int renewed = 0;
+            for (Integer p : partitions) {
+                if (ownerId.equals(leases.get(p).ownerId())) {
+                    leases.put(p, new PartitionLease(p, ownerId, leaseUntil));
+                    renewed++;
+                }
+            }
+            return renewed;
+        }
+
+        @Override
+        public int acquireLease(int partition, String ownerId, long now, long leaseUntil) {
+            if (leases.get(partition).leaseUntil() > now) {
+                return 0;
+            }
+            leases.put(partition, new PartitionLease(partition, ownerId, leaseUntil));
+            return 1;
+        }
+
+        @Override
+        public int releaseLease(int partition, String ownerId) {
+            PartitionLease lease = leases.get(partition);
+            if (!ownerId.equals(lease.ownerId())) {
+                return 0;
+            }
+            leases.put(partition, new PartitionLease(partition, ownerId, 0L));
+            return 1;
+        }
+
+        @Override
+        public void heartbeat(String nodeId, long aliveUntil) {
+            nodes.put(nodeId, aliveUntil);
+        }
+
+        @Override
+        public List<String> findLiveNodes(long now) {
+            return nodes.entrySet().stream().filter(e -> e.getValue() > now).map(Map.Entry::getKey).toList();
+        }
+
+        @Override
+        public int deleteNodesExpiredBefore(long before) {
+            int size = nodes.size();
+            nodes.values().removeIf(aliveUntil -> aliveUntil < before);
+            return size - nodes.size();
+        }
+    }
+}
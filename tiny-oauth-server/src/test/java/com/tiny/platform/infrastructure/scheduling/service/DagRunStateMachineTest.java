@@ -0,0 +1,163 @@
+package com.tiny.platform.infrastructure.scheduling.service;
+
+import com.tiny.platform.infrastructure.scheduling.model.SchedulingDagEdge;
+import com.tiny.platform.infrastructure.scheduling.model.SchedulingTaskInstance;
+import com.tiny.platform.infrastructure.scheduling.repository.SchedulingDagEdgeRepository;
+import com.tiny.platform.infrastructure.scheduling.repository.SchedulingDagRunCounterRepository;
+import com.tiny.platform.infrastructure.scheduling.repository.SchedulingDagRunCounterRepository.Counters;
+import com.tiny.platform.infrastructure.scheduling.repository.SchedulingDagRunCounterRepository.InstanceCounts;
+import com.tiny.platform.infrastructure.scheduling.repository.SchedulingDagRunCounterRepository.RunState;
+import com.tiny.platform.infrastructure.scheduling.repository.SchedulingTaskInstanceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 校验 Run 计数增量、终态判定与按拓扑一次完成的不可达传播。
+ */
+class DagRunStateMachineTest {
+
+    private SchedulingDagRunCounterRepository counterRepository;
+    private SchedulingTaskInstanceRepository taskInstanceRepository;
+    private SchedulingDagTopologyCache topologyCache;
+    private DagRunStateMachine stateMachine;
+
+    @BeforeEach
+    void setUp() {
+        counterRepository = mock(SchedulingDagRunCounterRepository.class);
+        taskInstanceRepository = mock(SchedulingTaskInstanceRepository.class);
+        topologyCache = mock(SchedulingDagTopologyCache.class);
+        DependencyCheckerService dependencyChecker = new DependencyCheckerService(
+                taskInstanceRepository, mock(SchedulingDagEdgeRepository.class));
+        stateMachine = new DagRunStateMachine(counterRepository, taskInstanceRepository, dependencyChecker, topologyCache);
+        when(counterRepository.applyDelta(any(), any())).thenReturn(1);
+        when(counterRepository.finish(any(), anyString(), any())).thenReturn(1);
+    }
+
+    @Test
+    void last_success_should_finish_run_in_the_same_transition() {
+        SchedulingTaskInstance instance = instance(1L, "merge", "SUCCESS");
+        when(counterRepository.findState(7L)).thenReturn(Optional.of(new RunState("RUNNING", new Counters(0, 4, 0, 0, 0))));
+
+        stateMachine.onTransition(instance, "RUNNING", "SUCCESS");
+
+        verify(counterRepository).applyDelta(7L, new Counters(-1, 1, 0, 0, 0));
+        verify(counterRepository).finish(eq(7L), eq("SUCCESS"), any(LocalDateTime.class));
+        verify(topologyCache).evictRun(7L);
+        verify(taskInstanceRepository, never()).findByDagRunId(any());
+    }
+
+    @Test
+    void non_terminal_run_should_not_be_finished() {
+        SchedulingTaskInstance instance = instance(1L, "extract", "SUCCESS");
+        when(counterRepository.findState(7L)).thenReturn(Optional.of(new RunState("RUNNING", new Counters(3, 1, 0, 0, 0))));
+
+        stateMachine.onTransition(instance, "RUNNING", "SUCCESS");
+
+        verify(counterRepository, never()).finish(any(), anyString(), any());
+    }
+
+    @Test
+    void failure_should_skip_unreachable_nodes_in_one_topological_pass() {
+        // 菱形：extract -> (orders, users) -> merge；orders 失败后 merge 不可达，users 仍可执行
+        SchedulingDagTopology topology = SchedulingDagTopology.compile(3L,
+                List.of("extract", "orders", "users", "merge"),
+                List.of(edge("extract", "orders"), edge("extract", "users"),
+                        edge("orders", "merge"), edge("users", "merge")));
+        when(topologyCache.get(3L, 9L)).thenReturn(topology);
+        SchedulingTaskInstance failed = instance(2L, "orders", "FAILED");
+        SchedulingTaskInstance users = instance(3L, "users", "SUCCESS");
+        SchedulingTaskInstance merge = instance(4L, "merge", "PENDING");
+        when(taskInstanceRepository.findByDagRunId(7L))
+                .thenReturn(List.of(instance(1L, "extract", "SUCCESS"), failed, users, merge));
+        when(taskInstanceRepository.existsByDagRunIdAndStatusIn(eq(7L), anyCollection())).thenReturn(false);
+        when(counterRepository.findState(7L)).thenReturn(Optional.of(new RunState("RUNNING", new Counters(1, 2, 1, 0, 0))));
+
+        stateMachine.onTransition(failed, "RUNNING", "FAILED");
+
+        assertThat(merge.getStatus()).isEqualTo("SKIPPED");
+        assertThat(users.getStatus()).isEqualTo("SUCCESS");
+        verify(taskInstanceRepository).saveAll(List.of(merge));
+        verify(counterRepository).applyDelta(7L, new Counters(-1, 0, 0, 1, 0));
+        verify(counterRepository).finish(eq(7L), eq("PARTIAL_FAILED"), any(LocalDateTime.class));
+    }
+
+    @Test
+    void failure_should_not_skip_while_instances_are_still_executing() {
+        SchedulingTaskInstance failed = instance(2L, "orders", "FAILED");
+        when(taskInstanceRepository.existsByDagRunIdAndStatusIn(eq(7L), anyCollection())).thenReturn(true);
+        when(counterRepository.findState(7L)).thenReturn(Optional.of(new RunState("RUNNING", new Counters(2, 1, 1, 0, 0))));
+
+        stateMachine.onTransition(failed, "RUNNING", "FAILED");
+
+        verify(taskInstanceRepository, never()).findByDagRunId(any());
+        verify(taskInstanceRepository, never()).saveAll(anyList());
+        verify(counterRepository, never()).finish(any(), anyString(), any());
+    }
+
+    @Test
+    void reconcile_should_overwrite_drifted_counters_and_finish_run() {
+        Counters actual = new Counters(0, 3, 0, 1, 0);
+        when(counterRepository.findState(7L))
+                .thenReturn(Optional.of(new RunState("RUNNING", new Counters(1, 3, 0, 0, 0))))
+                .thenReturn(Optional.of(new RunState("RUNNING", actual)));
+
+        boolean corrected = stateMachine.reconcile(7L, 3L, 9L, new InstanceCounts(actual, 0));
+
+        assertThat(corrected).isTrue();
+        verify(counterRepository).overwrite(7L, actual);
+        ArgumentCaptor<String> status = ArgumentCaptor.forClass(String.class);
+        verify(counterRepository).finish(eq(7L), status.capture(), any(LocalDateTime.class));
+        assertThat(status.getValue()).isEqualTo("SUCCESS");
+    }
+
+    @Test
+    void resolve_terminal_status_should_match_full_scan_rules() {
+        assertThat(DagRunStateMachine.resolveTerminalStatus(new Counters(0, 4, 0, 0, 0))).isEqualTo("SUCCESS");
+        assertThat(DagRunStateMachine.resolveTerminalStatus(new Counters(0, 2, 1, 1, 0))).isEqualTo("PARTIAL_FAILED");
+        assertThat(DagRunStateMachine.resolveTerminalStatus(new Counters(0, 0, 1, 3, 0))).isEqualTo("FAILED");
+        assertThat(DagRunStateMachine.resolveTerminalStatus(new Counters(0, 0, 0, 0, 4))).isEqualTo("CANCELLED");
+        assertThat(DagRunStateMachine.resolveTerminalStatus(new Counters(0, 2, 0, 2, 0))).isEqualTo("SUCCESS");
+    }
+
+    @Test
+    void delta_should_move_between_buckets() {
+        assertThat(DagRunStateMachine.delta("RUNNING", "SUCCESS")).isEqualTo(new Counters(-1, 1, 0, 0, 0));
+        assertThat(DagRunStateMachine.delta("SKIPPED", "PENDING")).isEqualTo(new Counters(1, 0, 0, -1, 0));
+        assertThat(DagRunStateMachine.delta("PENDING", "RUNNING").isZero()).isTrue();
+        assertThat(DagRunStateMachine.delta("FAILED", "FAILED").isZero()).isTrue();
+    }
+
+    private static SchedulingTaskInstance instance(Long id, String nodeCode, String status) {
+        SchedulingTaskInstance instance = new SchedulingTaskInstance();
+        instance.setId(id);
+        instance.setDagRunId(7L);
+        instance.setDagVersionId(3L);
+        instance.setTenantId(9L);
+        instance.setNodeCode(nodeCode);
+        instance.setStatus(status);
+        return instance;
+    }
+
+    private static SchedulingDagEdge edge(String from, String to) {
+        SchedulingDagEdge edge = new SchedulingDagEdge();
+        edge.setFromNodeCode(from);
+        edge.setToNodeCode(to);
+        return edge;
+    }
+}
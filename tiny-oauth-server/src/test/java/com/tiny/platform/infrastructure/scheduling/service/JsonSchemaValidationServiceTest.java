@@ -75,4 +75,41 @@ class JsonSchemaValidationServiceTest {
                 .hasMessageContaining("$.name")
                 .hasMessageContaining("$.count");
     }
+
+    @Test
+    void ensureValidSchemaShouldRejectInvalidPattern() {
+        assertThatThrownBy(() -> service.ensureValidSchema("""
+                { "properties": { "name": { "type": "string", "pattern": "[a-z" } } }
+                """))
+                .hasMessageContaining("正则表达式无效");
+    }
+
+    @Test
+    void validateShouldReuseCompiledSchemaAndReportNestedPaths() {
+        String schema = """
+                {
+                  "properties": {
+                    "config": {
+                      "type": "object",
+                      "required": ["enabled"],
+                      "properties": {
+                        "retries": { "type": "integer", "maximum": 3 }
+                      }
+                    },
+                    "tags": { "type": "array", "items": { "type": "string", "maxLength": 2 } }
+                  }
+                }
+                """;
+
+        assertThatCode(() -> service.validate(schema, Map.of("config", Map.of("enabled", true, "retries", 3))))
+                .doesNotThrowAnyException();
+        assertThatThrownBy(() -> service.validate(schema, Map.of(
+                "config", Map.of("retries", 4),
+                "tags", List.of("ok", "toolong")
+        )))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("$.config.enabled 为必填字段")
+                .hasMessageContaining("$.config.retries 不能大于 3")
+                .hasMessageContaining("$.tags[1] 长度不能大于 2");
+    }
 }
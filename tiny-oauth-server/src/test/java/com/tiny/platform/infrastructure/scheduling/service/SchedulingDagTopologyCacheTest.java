@@ -0,0 +1,139 @@
+package com.tiny.platform.infrastructure.scheduling.service;
+
+import com.tiny.platform.infrastructure.scheduling.model.SchedulingDagEdge;
+import com.tiny.platform.infrastructure.scheduling.model.SchedulingDagTask;
+import com.tiny.platform.infrastructure.scheduling.model.SchedulingTaskInstance;
+import com.tiny.platform.infrastructure.scheduling.repository.SchedulingDagEdgeRepository;
+import com.tiny.platform.infrastructure.scheduling.repository.SchedulingDagTaskRepository;
+import com.tiny.platform.infrastructure.scheduling.repository.SchedulingTaskInstanceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 校验拓扑编译、版本缓存与 Run 成功位图：位图命中后依赖检查不再查库。
+ */
+class SchedulingDagTopologyCacheTest {
+
+    private SchedulingDagEdgeRepository dagEdgeRepository;
+    private SchedulingDagTaskRepository dagTaskRepository;
+    private SchedulingTaskInstanceRepository taskInstanceRepository;
+    private SchedulingDagTopologyCache topologyCache;
+    private DependencyCheckerService dependencyCheckerService;
+
+    @BeforeEach
+    void setUp() {
+        dagEdgeRepository = mock(SchedulingDagEdgeRepository.class);
+        dagTaskRepository = mock(SchedulingDagTaskRepository.class);
+        taskInstanceRepository = mock(SchedulingTaskInstanceRepository.class);
+        topologyCache = new SchedulingDagTopologyCache(dagEdgeRepository, dagTaskRepository);
+        dependencyCheckerService = new DependencyCheckerService(taskInstanceRepository, dagEdgeRepository, topologyCache);
+        // 菱形：extract -> (orders, users) -> merge，另有孤立节点 audit
+        when(dagTaskRepository.findByDagVersionIdAndTenantId(3L, 9L))
+                .thenReturn(List.of(node("extract"), node("orders"), node("users"), node("merge"), node("audit")));
+        when(dagEdgeRepository.findByDagVersionIdAndTenantId(3L, 9L)).thenReturn(List.of(
+                edge("extract", "orders"), edge("extract", "users"),
+                edge("orders", "merge"), edge("users", "merge"), edge("users", "merge")));
+    }
+
+    @Test
+    void compile_should_build_adjacency_in_degree_and_topological_order() {
+        SchedulingDagTopology topology = topologyCache.get(3L, 9L);
+
+        assertThat(topology.nodeCount()).isEqualTo(5);
+        assertThat(topology.upstreamNodeCodes("merge")).containsExactly("orders", "users");
+        assertThat(topology.downstreamNodeCodes("extract")).containsExactly("orders", "users");
+        assertThat(topology.inDegree(topology.indexOf("merge"))).isEqualTo(2);
+        assertThat(topology.upstreamNodeCodes("missing")).isEmpty();
+        assertThat(topology.hasCycle()).isFalse();
+        int[] order = topology.topologicalOrder();
+        assertThat(order).hasSize(5);
+        List<String> ordered = java.util.Arrays.stream(order).mapToObj(topology::nodeCode).toList();
+        assertThat(ordered.indexOf("extract")).isLessThan(ordered.indexOf("orders"));
+        assertThat(ordered.indexOf("users")).isLessThan(ordered.indexOf("merge"));
+    }
+
+    @Test
+    void compile_should_report_cycle() {
+        SchedulingDagTopology topology = SchedulingDagTopology.compile(1L, List.of("a", "b"),
+                List.of(edge("a", "b"), edge("b", "a")));
+
+        assertThat(topology.hasCycle()).isTrue();
+        assertThat(topology.topologicalOrder()).isEmpty();
+    }
+
+    @Test
+    void topology_should_be_loaded_once_until_evicted() {
+        topologyCache.get(3L, 9L);
+        topologyCache.get(3L, 9L);
+        verify(dagEdgeRepository, times(1)).findByDagVersionIdAndTenantId(3L, 9L);
+
+        topologyCache.evict(3L);
+        topologyCache.get(3L, 9L);
+        verify(dagEdgeRepository, times(2)).findByDagVersionIdAndTenantId(3L, 9L);
+    }
+
+    @Test
+    void dependency_check_should_query_only_unconfirmed_upstreams_and_then_hit_bitset() {
+        SchedulingTaskInstance merge = instance("merge");
+        topologyCache.markSucceeded(77L, 3L, 9L, "orders");
+        when(taskInstanceRepository.findDistinctNodeCodesByDagRunIdAndNodeCodeInAndStatus(77L, List.of("users"), "SUCCESS"))
+                .thenReturn(List.of())
+                .thenReturn(List.of("users"));
+
+        assertThat(dependencyCheckerService.checkDependencies(merge)).isFalse();
+        assertThat(dependencyCheckerService.checkDependencies(merge)).isTrue();
+        assertThat(dependencyCheckerService.checkDependencies(merge)).isTrue();
+
+        verify(taskInstanceRepository, times(2))
+                .findDistinctNodeCodesByDagRunIdAndNodeCodeInAndStatus(77L, List.of("users"), "SUCCESS");
+        verify(taskInstanceRepository, never())
+                .countDistinctNodeCodesByDagRunIdAndNodeCodeInAndStatus(anyLong(), anyCollection(), anyString());
+        verify(dagEdgeRepository, never()).findByDagVersionIdAndToNodeCodeAndTenantId(any(), any(), any());
+    }
+
+    @Test
+    void root_and_isolated_nodes_should_be_ready_without_queries() {
+        assertThat(dependencyCheckerService.checkDependencies(instance("extract"))).isTrue();
+        assertThat(dependencyCheckerService.checkDependencies(instance("audit"))).isTrue();
+        verify(taskInstanceRepository, never())
+                .findDistinctNodeCodesByDagRunIdAndNodeCodeInAndStatus(any(), anyCollection(), any());
+    }
+
+    private SchedulingTaskInstance instance(String nodeCode) {
+        SchedulingTaskInstance instance = new SchedulingTaskInstance();
+        instance.setId(100L);
+        instance.setTenantId(9L);
+        instance.setDagRunId(77L);
+        instance.setDagVersionId(3L);
+        instance.setNodeCode(nodeCode);
+        return instance;
+    }
+
+    private SchedulingDagTask node(String nodeCode) {
+        SchedulingDagTask node = new SchedulingDagTask();
+        node.setDagVersionId(3L);
+        node.setNodeCode(nodeCode);
+        return node;
+    }
+
+    private SchedulingDagEdge edge(String from, String to) {
+        SchedulingDagEdge edge = new SchedulingDagEdge();
+        edge.setDagVersionId(3L);
+        edge.setFromNodeCode(from);
+        edge.setToNodeCode(to);
+        return edge;
+    }
+}
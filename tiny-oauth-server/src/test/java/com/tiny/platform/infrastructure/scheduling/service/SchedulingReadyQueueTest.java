@@ -0,0 +1,54 @@
+package com.tiny.platform.infrastructure.scheduling.service;
+
+import com.tiny.platform.infrastructure.scheduling.model.SchedulingTaskInstance;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchedulingReadyQueueTest {
+
+    @Test
+    void offer_should_deduplicate_ids_and_drop_when_full() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SchedulingReadyQueue queue = new SchedulingReadyQueue(2, meterRegistry);
+
+        assertThat(queue.offer(instance(1L, LocalDateTime.now()))).isTrue();
+        assertThat(queue.offer(instance(1L, LocalDateTime.now()))).isFalse();
+        assertThat(queue.offer(instance(2L, null))).isTrue();
+        assertThat(queue.offer(instance(3L, LocalDateTime.now()))).isFalse();
+        assertThat(queue.offer(instance(null, LocalDateTime.now()))).isFalse();
+        assertThat(queue.size()).isEqualTo(2);
+        assertThat(meterRegistry.get("tiny.scheduling.ready-queue.dropped.total").counter().count()).isEqualTo(1.0d);
+
+        SchedulingReadyQueue.ReadyTask first = queue.poll(100, TimeUnit.MILLISECONDS);
+        assertThat(first).isNotNull();
+        assertThat(first.tenantId()).isEqualTo(7L);
+        assertThat(queue.drainReady(10)).hasSize(1);
+        assertThat(queue.size()).isZero();
+        assertThat(queue.offer(instance(1L, LocalDateTime.now()))).isTrue();
+    }
+
+    @Test
+    void future_scheduled_instances_should_only_become_available_when_due() throws Exception {
+        SchedulingReadyQueue queue = new SchedulingReadyQueue(10);
+        queue.offerAfterCommit(List.of(instance(5L, LocalDateTime.now().plusSeconds(30))));
+
+        assertThat(queue.size()).isEqualTo(1);
+        assertThat(queue.poll(10, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(queue.drainReady(10)).isEmpty();
+    }
+
+    private SchedulingTaskInstance instance(Long id, LocalDateTime scheduledAt) {
+        SchedulingTaskInstance instance = new SchedulingTaskInstance();
+        instance.setId(id);
+        instance.setTenantId(7L);
+        instance.setStatus("PENDING");
+        instance.setScheduledAt(scheduledAt);
+        return instance;
+    }
+}
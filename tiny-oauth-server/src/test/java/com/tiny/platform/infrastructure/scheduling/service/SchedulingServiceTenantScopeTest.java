@@ -1632,6 +1632,61 @@ class SchedulingServiceTenantScopeTest {
         verify(quartzSchedulerService).createOrUpdateDagJob(dag, "0 0 12 * * ?", "UTC");
     }
 
+    @Test
+    void updateDagVersionShouldEvictTopologyOfActivatedAndArchivedVersions() {
+        authenticate(8L, 88L, "alice");
+        SchedulingDagTopologyCache topologyCache = mock(SchedulingDagTopologyCache.class);
+        SchedulingService service = new SchedulingService(
+                taskTypeRepository,
+                taskRepository,
+                dagRepository,
+                dagVersionRepository,
+                dagTaskRepository,
+                dagEdgeRepository,
+                dagRunRepository,
+                taskInstanceRepository,
+                taskHistoryRepository,
+                auditRepository,
+                tenantUserRepository,
+                userUnitRepository,
+                userRepository,
+                quartzSchedulerService,
+                taskExecutorRegistry,
+                new JsonSchemaValidationService(new ObjectMapper()),
+                new ObjectMapper(),
+                new TenantLifecycleGuard(mock(TenantRepository.class)),
+                null,
+                topologyCache,
+                null,
+                null,
+                null);
+
+        SchedulingDag dag = new SchedulingDag();
+        dag.setId(10L);
+        dag.setTenantId(88L);
+        when(dagRepository.findByIdAndTenantId(10L, 88L)).thenReturn(Optional.of(dag));
+
+        SchedulingDagVersion previous = new SchedulingDagVersion();
+        previous.setId(99L);
+        previous.setDagId(10L);
+        previous.setStatus("ACTIVE");
+        SchedulingDagVersion version = new SchedulingDagVersion();
+        version.setId(100L);
+        version.setDagId(10L);
+        version.setStatus("DRAFT");
+        when(dagVersionRepository.findById(100L)).thenReturn(Optional.of(version));
+        when(dagVersionRepository.findByDagId(10L)).thenReturn(List.of(previous, version));
+        when(dagVersionRepository.save(any(SchedulingDagVersion.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        SchedulingDagVersionCreateUpdateDto dto = new SchedulingDagVersionCreateUpdateDto();
+        dto.setStatus("ACTIVE");
+        service.updateDagVersion(10L, 100L, dto);
+
+        assertThat(previous.getStatus()).isEqualTo("ARCHIVED");
+        verify(topologyCache).evictAfterCommit(99L);
+        verify(topologyCache).evictAfterCommit(100L);
+    }
+
     @Test
     void updateDagVersionShouldDeleteQuartzJobAfterCommitWhenActiveIsRemoved() throws Exception {
         authenticate(8L, 88L, "alice");
@@ -0,0 +1,126 @@
+package com.tiny.platform.infrastructure.scheduling.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tiny.platform.infrastructure.scheduling.model.SchedulingTaskInstance;
+import com.tiny.platform.infrastructure.scheduling.model.SchedulingTaskLogChunk;
+import com.tiny.platform.infrastructure.scheduling.repository.SchedulingTaskLogChunkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SchedulingTaskLogServiceTest {
+
+    private static final Long TENANT_ID = 7L;
+    private static final Long HISTORY_ID = 100L;
+
+    private final List<SchedulingTaskLogChunk> stored = new ArrayList<>();
+    private SchedulingTaskLogService service;
+
+    @BeforeEach
+    void setUp() {
+        SchedulingTaskLogChunkRepository repository = mock(SchedulingTaskLogChunkRepository.class);
+        when(repository.save(any(SchedulingTaskLogChunk.class))).thenAnswer(invocation -> {
+            SchedulingTaskLogChunk chunk = invocation.getArgument(0);
+            stored.add(chunk);
+            return chunk;
+        });
+        when(repository.findEndOffset(anyLong(), anyLong())).thenAnswer(invocation -> stored.stream()
+                .filter(chunk -> chunk.getHistoryId().equals(invocation.getArgument(0)))
+                .map(SchedulingTaskLogChunk::getEndOffset)
+                .max(Long::compare)
+                .orElse(null));
+        when(repository.findByHistoryIdAndTenantIdAndEndOffsetGreaterThanOrderByStartOffsetAsc(
+                anyLong(), anyLong(), anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            Long historyId = invocation.getArgument(0);
+            Long from = invocation.getArgument(2);
+            Pageable pageable = invocation.getArgument(3);
+            return stored.stream()
+                    .filter(chunk -> chunk.getHistoryId().equals(historyId) && chunk.getEndOffset() > from)
+                    .sorted(Comparator.comparing(SchedulingTaskLogChunk::getStartOffset))
+                    .limit(pageable.getPageSize())
+                    .toList();
+        });
+        service = new SchedulingTaskLogService(repository, new ObjectMapper(), 256, 60_000, 4096, 600, 65536);
+    }
+
+    @Test
+    void writer_should_cut_full_chunks_with_contiguous_offsets() {
+        SchedulingTaskLogService.ChunkedTaskLogWriter writer = service.open(instance(), HISTORY_ID);
+        String line = "x".repeat(99) + "\n";
+        for (int i = 0; i < 6; i++) {
+            writer.append(line);
+        }
+
+        assertThat(stored).hasSize(2);
+        assertThat(writer.offset()).isEqualTo(600L);
+        assertThat(service.openWriterCount()).isEqualTo(1);
+
+        writer.close();
+        writer.append("ignored after close");
+
+        assertThat(stored).hasSize(3);
+        assertThat(stored.get(1).getStartOffset()).isEqualTo(stored.get(0).getEndOffset());
+        assertThat(stored.get(2).getEndOffset()).isEqualTo(600L);
+        assertThat(service.openWriterCount()).isZero();
+    }
+
+    @Test
+    void read_should_resume_from_offset_and_support_tail() {
+        SchedulingTaskLogService.ChunkedTaskLogWriter writer = service.open(instance(), HISTORY_ID);
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            String line = "line-" + i + "\n";
+            expected.append(line);
+            writer.append(line);
+        }
+        writer.flush();
+
+        SchedulingTaskLogService.TaskLogSlice first = service.read(TENANT_ID, HISTORY_ID, 0, 100, false);
+        SchedulingTaskLogService.TaskLogSlice rest = service.read(TENANT_ID, HISTORY_ID, first.nextOffset(), 10_000, false);
+        assertThat(first.content()).isEqualTo(expected.substring(0, 100));
+        assertThat(first.content() + rest.content()).isEqualTo(expected.toString());
+        assertThat(rest.complete()).isFalse();
+
+        SchedulingTaskLogService.TaskLogSlice tail = service.read(TENANT_ID, HISTORY_ID, -8, 8, true);
+        assertThat(tail.content()).isEqualTo(expected.substring(expected.length() - 8));
+        assertThat(tail.nextOffset()).isEqualTo(tail.endOffset());
+        assertThat(tail.complete()).isTrue();
+    }
+
+    @Test
+    void oversized_result_should_spill_into_log_and_keep_summary() {
+        SchedulingTaskLogService.ChunkedTaskLogWriter writer = service.open(instance(), HISTORY_ID);
+        String payload = "y".repeat(2000);
+
+        TaskExecutorService.TaskExecutionResult spilled = service.spillOversizedResult(
+                TaskExecutorService.TaskExecutionResult.success(Map.of("payload", payload)), writer);
+        TaskExecutorService.TaskExecutionResult small = service.spillOversizedResult(
+                TaskExecutorService.TaskExecutionResult.success(Map.of("ok", true)), writer);
+
+        assertThat(spilled.isSuccess()).isTrue();
+        @SuppressWarnings("unchecked")
+        Map<String, Object> summary = (Map<String, Object>) spilled.getResult();
+        assertThat(summary).containsEntry("truncated", true);
+        long logOffset = ((Number) summary.get("logOffset")).longValue();
+        assertThat(service.read(TENANT_ID, HISTORY_ID, logOffset, 13, true).content()).isEqualTo("{\"payload\":\"y");
+        assertThat(small.getResult()).isEqualTo(Map.of("ok", true));
+    }
+
+    private SchedulingTaskInstance instance() {
+        SchedulingTaskInstance instance = new SchedulingTaskInstance();
+        instance.setId(1L);
+        instance.setTenantId(TENANT_ID);
+        return instance;
+    }
+}
@@ -0,0 +1,145 @@
+package com.tiny.platform.infrastructure.scheduling.service;
+
+import com.tiny.platform.infrastructure.scheduling.model.SchedulingTaskInstance;
+import com.tiny.platform.infrastructure.scheduling.repository.SchedulingTaskClaimRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 校验虚拟线程执行模式：批量心跳、取消中断与单租户许可。
+ */
+class TaskExecutionSupervisorTest {
+
+    private SchedulingTaskClaimRepository claimRepository;
+    private SimpleAsyncTaskExecutor virtualTaskExecutor;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setUp() {
+        claimRepository = mock(SchedulingTaskClaimRepository.class);
+        virtualTaskExecutor = new SimpleAsyncTaskExecutor("scheduling-vt-test-");
+        virtualTaskExecutor.setVirtualThreads(true);
+        release = new CountDownLatch(1);
+        when(claimRepository.findCancelledIds(anyCollection())).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        virtualTaskExecutor.close();
+    }
+
+    @Test
+    void heartbeat_should_touch_all_supervised_instances_in_one_update() throws Exception {
+        TaskExecutionSupervisor supervisor = supervisor(16, 16);
+        CountDownLatch started = new CountDownLatch(3);
+        for (long id = 1; id <= 3; id++) {
+            supervisor.dispatch(instance(id, 9L), () -> {
+                started.countDown();
+                awaitQuietly(release);
+            });
+        }
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        supervisor.heartbeat();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(claimRepository, times(1)).touchHeartbeats(ids.capture(), any(LocalDateTime.class));
+        verify(claimRepository, times(1)).findCancelledIds(anyCollection());
+        assertThat(ids.getValue()).containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    @Test
+    void heartbeat_should_interrupt_cancelled_execution() throws Exception {
+        TaskExecutionSupervisor supervisor = supervisor(16, 16);
+        AtomicReference<Future<String>> future = new AtomicReference<>();
+        CountDownLatch submitted = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        supervisor.dispatch(instance(5L, 9L), () -> {
+            future.set(supervisor.submit(5L, () -> {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                return "done";
+            }));
+            submitted.countDown();
+            try {
+                future.get().get();
+            } catch (Exception ignored) {
+                // 取消后 get 抛出 CancellationException
+            } finally {
+                finished.countDown();
+            }
+        });
+        assertThat(submitted.await(5, TimeUnit.SECONDS)).isTrue();
+        when(claimRepository.findCancelledIds(anyCollection())).thenReturn(List.of(5L));
+
+        supervisor.heartbeat();
+
+        assertThat(future.get().isCancelled()).isTrue();
+        assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void tenant_permits_should_bound_concurrency_per_tenant() throws Exception {
+        TaskExecutionSupervisor supervisor = supervisor(2, 1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(3);
+        CountDownLatch otherTenantStarted = new CountDownLatch(1);
+        for (long id = 1; id <= 3; id++) {
+            supervisor.dispatch(instance(id, 9L), () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                awaitQuietly(release);
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+        supervisor.dispatch(instance(4L, 10L), otherTenantStarted::countDown);
+
+        // 租户 9 排队时不占用全局许可，其他租户照常执行
+        assertThat(otherTenantStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        release.countDown();
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxRunning.get()).isEqualTo(1);
+    }
+
+    private TaskExecutionSupervisor supervisor(int maxConcurrent, int maxConcurrentPerTenant) {
+        return new TaskExecutionSupervisor(virtualTaskExecutor, claimRepository, true, maxConcurrent, maxConcurrentPerTenant);
+    }
+
+    private static SchedulingTaskInstance instance(Long id, Long tenantId) {
+        SchedulingTaskInstance instance = new SchedulingTaskInstance();
+        instance.setId(id);
+        instance.setTenantId(tenantId);
+        instance.setStatus("RESERVED");
+        return instance;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.tiny.platform.infrastructure.scheduling.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tiny.platform.infrastructure.scheduling.model.SchedulingTaskInstance;
+import com.tiny.platform.infrastructure.scheduling.repository.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 校验 SKIP LOCKED 批量抢占：持锁快照内存判定、PARALLEL 单条 UPDATE 抢占、就绪队列整批抢占，以及不支持时退回逐条模式。
+ */
+class TaskWorkerServiceBatchClaimTest {
+
+    private SchedulingTaskInstanceRepository taskInstanceRepository;
+    private SchedulingTaskClaimRepository claimRepository;
+    private DependencyCheckerService dependencyCheckerService;
+    private ExecutorService taskExecutionExecutor;
+    private ExecutorService dispatchExecutor;
+    private SchedulingReadyQueue readyQueue;
+    private TaskWorkerService worker;
+
+    @BeforeEach
+    void setUp() {
+        taskInstanceRepository = mock(SchedulingTaskInstanceRepository.class);
+        claimRepository = mock(SchedulingTaskClaimRepository.class);
+        dependencyCheckerService = mock(DependencyCheckerService.class);
+        taskExecutionExecutor = Executors.newSingleThreadExecutor();
+        dispatchExecutor = Executors.newSingleThreadExecutor();
+        readyQueue = new SchedulingReadyQueue(100);
+        worker = spy(new TaskWorkerService(
+                taskInstanceRepository,
+                mock(SchedulingTaskHistoryRepository.class),
+                mock(SchedulingTaskRepository.class),
+                mock(SchedulingTaskTypeRepository.class),
+                mock(SchedulingDagRunRepository.class),
+                mock(SchedulingDagTaskRepository.class),
+                mock(SchedulingDagEdgeRepository.class),
+                mock(TaskExecutorService.class),
+                dependencyCheckerService,
+                new ObjectMapper(),
+                taskExecutionExecutor,
+                dispatchExecutor,
+                readyQueue,
+                claimRepository,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null));
+        ReflectionTestUtils.setField(worker, "self", worker);
+        ReflectionTestUtils.setField(worker, "batchClaimEnabled", true);
+        ReflectionTestUtils.setField(worker, "batchClaimSize", 50);
+        ReflectionTestUtils.setField(worker, "maxTasksPerTenantPerCycle", 100);
+        when(dependencyCheckerService.checkDependencies(any())).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskExecutionExecutor.shutdownNow();
+        dispatchExecutor.shutdownNow();
+    }
+
+    @Test
+    void parallel_candidates_should_be_reserved_with_single_update() {
+        SchedulingTaskInstance first = instance(1L, 100L, "PARALLEL");
+        SchedulingTaskInstance second = instance(2L, 100L, "PARALLEL");
+        when(claimRepository.lockReadyIds(any(), eq(10), anyCollection())).thenReturn(List.of(1L, 2L));
+        when(taskInstanceRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(second, first));
+        when(claimRepository.findActiveLocks(anyCollection(), anyCollection())).thenReturn(List.of());
+
+        TaskWorkerService.BatchClaim claim = worker.claimReadyBatch(10, new HashSet<>(), new HashMap<>());
+
+        assertThat(claim.locked()).isEqualTo(2);
+        assertThat(claim.reserved()).containsExactly(first, second);
+        assertThat(claim.skippedIds()).isEmpty();
+        verify(claimRepository).reserveAll(eq(List.of(1L, 2L)), anyString(), any(LocalDateTime.class));
+        verify(taskInstanceRepository, never()).reserveTaskInstance(any(), any(), any(), any());
+    }
+
+    @Test
+    void singleton_should_be_skipped_when_snapshot_or_batch_already_holds_task() {
+        SchedulingTaskInstance heldElsewhere = instance(1L, 100L, "SINGLETON");
+        SchedulingTaskInstance firstOfTask = instance(2L, 200L, "SINGLETON");
+        SchedulingTaskInstance secondOfTask = instance(3L, 200L, "SINGLETON");
+        when(claimRepository.lockReadyIds(any(), anyInt(), anyCollection())).thenReturn(List.of(1L, 2L, 3L));
+        when(taskInstanceRepository.findAllById(List.of(1L, 2L, 3L)))
+                .thenReturn(List.of(heldElsewhere, firstOfTask, secondOfTask));
+        when(claimRepository.findActiveLocks(anyCollection(), anyCollection()))
+                .thenReturn(List.of(new SchedulingTaskClaimRepository.ActiveLock(100L, null, null, null)));
+        when(taskInstanceRepository.reserveSingletonTaskInstance(eq(2L), eq("RESERVED"), anyString(), any(), eq(200L)))
+                .thenReturn(1);
+
+        TaskWorkerService.BatchClaim claim = worker.claimReadyBatch(10, new HashSet<>(), new HashMap<>());
+
+        assertThat(claim.reserved()).containsExactly(firstOfTask);
+        assertThat(claim.skippedIds()).containsExactly(1L, 3L);
+        verify(claimRepository, never()).reserveAll(anyCollection(), anyString(), any());
+    }
+
+    @Test
+    void tenant_cap_should_apply_across_batches() {
+        ReflectionTestUtils.setField(worker, "maxTasksPerTenantPerCycle", 1);
+        SchedulingTaskInstance first = instance(1L, 100L, "PARALLEL");
+        SchedulingTaskInstance second = instance(2L, 101L, "PARALLEL");
+        when(claimRepository.lockReadyIds(any(), anyInt(), anyCollection())).thenReturn(List.of(1L, 2L));
+        when(taskInstanceRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(first, second));
+        when(claimRepository.findActiveLocks(anyCollection(), anyCollection())).thenReturn(List.of());
+        Map<Long, Integer> processedPerTenant = new HashMap<>();
+
+        TaskWorkerService.BatchClaim claim = worker.claimReadyBatch(10, new HashSet<>(), processedPerTenant);
+
+        assertThat(claim.reserved()).containsExactly(first);
+        assertThat(claim.skippedIds()).containsExactly(2L);
+        assertThat(processedPerTenant).containsEntry(9L, 1);
+    }
+
+    @Test
+    void sweep_should_fall_back_to_row_by_row_when_skip_locked_is_unsupported() {
+        when(claimRepository.supportsSkipLocked()).thenReturn(false);
+        Page<SchedulingTaskInstance> empty = new PageImpl<>(List.of());
+        when(taskInstanceRepository.findPendingReadyForExecution(eq("PENDING"), any(), any(), any())).thenReturn(empty);
+
+        worker.processPendingTasks();
+
+        verify(claimRepository, never()).lockReadyIds(any(), anyInt(), anyCollection());
+        verify(taskInstanceRepository).findPendingReadyForExecution(eq("PENDING"), any(), any(), any());
+    }
+
+    @Test
+    void ready_queue_should_claim_drained_tasks_in_one_batch() throws Exception {
+        SchedulingTaskInstance first = instance(1L, 100L, "PARALLEL");
+        SchedulingTaskInstance second = instance(2L, 101L, "PARALLEL");
+        SchedulingTaskInstance takenElsewhere = instance(3L, 102L, "PARALLEL");
+        readyQueue.offer(first);
+        readyQueue.offer(second);
+        readyQueue.offer(takenElsewhere);
+        when(claimRepository.supportsSkipLocked()).thenReturn(true);
+        when(claimRepository.lockReadyIdsIn(anyCollection(), any())).thenReturn(List.of(1L, 2L));
+        when(taskInstanceRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(first, second));
+        when(claimRepository.findActiveLocks(anyCollection(), anyCollection())).thenReturn(List.of());
+        doNothing().when(worker).executeTask(any());
+
+        int dispatched = worker.dispatchReadyTasks(100);
+
+        assertThat(dispatched).isEqualTo(2);
+        verify(claimRepository).lockReadyIdsIn(eq(new LinkedHashSet<>(List.of(1L, 2L, 3L))), any());
+        verify(claimRepository).reserveAll(eq(List.of(1L, 2L)), anyString(), any(LocalDateTime.class));
+        verify(worker, never()).reserveTask(any());
+        verify(dependencyCheckerService, never()).checkDependencies(any());
+        verify(worker, timeout(1000)).executeTask(first);
+        verify(worker, timeout(1000)).executeTask(second);
+    }
+
+    private SchedulingTaskInstance instance(Long id, Long taskId, String policy) {
+        SchedulingTaskInstance instance = new SchedulingTaskInstance();
+        instance.setId(id);
+        instance.setTenantId(9L);
+        instance.setTaskId(taskId);
+        instance.setStatus("PENDING");
+        instance.setScheduledAt(LocalDateTime.now().minusSeconds(1));
+        instance.setParams("{}");
+        instance.setExecutionSnapshot("{\"task\":{\"concurrencyPolicy\":\"" + policy + "\"}}");
+        return instance;
+    }
+}
@@ -0,0 +1,152 @@
+package com.tiny.platform.infrastructure.scheduling.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tiny.platform.infrastructure.scheduling.model.SchedulingDagEdge;
+import com.tiny.platform.infrastructure.scheduling.model.SchedulingTaskInstance;
+import com.tiny.platform.infrastructure.scheduling.repository.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 校验事件驱动派发：下游就绪后推入就绪队列，派发线程按 id 复查状态后抢占，不再重复依赖查询。
+ */
+class TaskWorkerServiceReadyQueueTest {
+
+    private SchedulingTaskInstanceRepository taskInstanceRepository;
+    private SchedulingDagEdgeRepository dagEdgeRepository;
+    private DependencyCheckerService dependencyCheckerService;
+    private SchedulingReadyQueue readyQueue;
+    private ExecutorService taskExecutionExecutor;
+    private ExecutorService dispatchExecutor;
+    private TaskWorkerService worker;
+
+    @BeforeEach
+    void setUp() {
+        taskInstanceRepository = mock(SchedulingTaskInstanceRepository.class);
+        dagEdgeRepository = mock(SchedulingDagEdgeRepository.class);
+        dependencyCheckerService = mock(DependencyCheckerService.class);
+        readyQueue = new SchedulingReadyQueue(100);
+        taskExecutionExecutor = Executors.newSingleThreadExecutor();
+        dispatchExecutor = Executors.newSingleThreadExecutor();
+        worker = spy(new TaskWorkerService(
+                taskInstanceRepository,
+                mock(SchedulingTaskHistoryRepository.class),
+                mock(SchedulingTaskRepository.class),
+                mock(SchedulingTaskTypeRepository.class),
+                mock(SchedulingDagRunRepository.class),
+                mock(SchedulingDagTaskRepository.class),
+                dagEdgeRepository,
+                mock(TaskExecutorService.class),
+                dependencyCheckerService,
+                new ObjectMapper(),
+                taskExecutionExecutor,
+                dispatchExecutor,
+                readyQueue,
+                null));
+        ReflectionTestUtils.setField(worker, "self", worker);
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.stop();
+        taskExecutionExecutor.shutdownNow();
+        dispatchExecutor.shutdownNow();
+    }
+
+    @Test
+    void downstream_ready_instances_should_be_dispatched_from_queue_without_rechecking_dependencies() throws Exception {
+        SchedulingTaskInstance completed = instance(1L, "A", "SUCCESS", LocalDateTime.now().minusSeconds(1));
+        SchedulingTaskInstance ready = instance(2L, "B", "PENDING", null);
+        SchedulingTaskInstance blocked = instance(3L, "C", "PENDING", null);
+        SchedulingDagEdge edgeB = edge("A", "B");
+        SchedulingDagEdge edgeC = edge("A", "C");
+        when(dagEdgeRepository.findByDagVersionIdAndFromNodeCode(30L, "A")).thenReturn(List.of(edgeB, edgeC));
+        when(taskInstanceRepository.findByDagRunIdAndNodeCodeInAndStatusAndScheduledAtIsNull(
+                eq(20L), anyList(), eq("PENDING"))).thenReturn(List.of(ready, blocked));
+        when(dependencyCheckerService.checkDependencies(ready)).thenReturn(true);
+        when(dependencyCheckerService.checkDependencies(blocked)).thenReturn(false);
+
+        worker.scheduleDownstreamTasks(completed);
+        assertThat(readyQueue.size()).isEqualTo(1);
+
+        when(taskInstanceRepository.findByIdAndTenantId(2L, 9L)).thenReturn(Optional.of(ready));
+        doReturn(true).when(worker).reserveTask(any(SchedulingTaskInstance.class));
+        doNothing().when(worker).executeTask(any());
+
+        assertThat(worker.dispatchReadyTasks(100)).isEqualTo(1);
+        verify(worker).reserveTask(ready);
+        verify(worker, timeout(1000)).executeTask(ready);
+        verify(dependencyCheckerService).checkDependencies(ready);
+    }
+
+    @Test
+    void stale_queue_entries_should_be_skipped_and_left_to_sweep() throws Exception {
+        SchedulingTaskInstance alreadyRunning = instance(4L, "D", "RUNNING", LocalDateTime.now());
+        SchedulingTaskInstance notYetDue = instance(5L, "E", "PENDING", LocalDateTime.now());
+        readyQueue.offer(alreadyRunning);
+        readyQueue.offer(notYetDue);
+        SchedulingTaskInstance notYetDueLatest = instance(5L, "E", "PENDING", LocalDateTime.now().plusMinutes(5));
+        when(taskInstanceRepository.findByIdAndTenantId(4L, 9L)).thenReturn(Optional.of(alreadyRunning));
+        when(taskInstanceRepository.findByIdAndTenantId(5L, 9L)).thenReturn(Optional.of(notYetDueLatest));
+
+        assertThat(worker.dispatchReadyTasks(100)).isZero();
+        assertThat(worker.dispatchReadyTasks(10)).isZero();
+        verify(worker, never()).reserveTask(any());
+    }
+
+    @Test
+    void lifecycle_should_start_dispatcher_thread_that_wakes_on_offer() {
+        SchedulingTaskInstance ready = instance(6L, "F", "PENDING", LocalDateTime.now());
+        when(taskInstanceRepository.findByIdAndTenantId(6L, 9L)).thenReturn(Optional.of(ready));
+        doReturn(true).when(worker).reserveTask(any(SchedulingTaskInstance.class));
+        doNothing().when(worker).executeTask(any());
+
+        worker.start();
+        assertThat(worker.isRunning()).isTrue();
+        readyQueue.offer(ready);
+
+        verify(worker, timeout(2000)).executeTask(ready);
+        worker.stop();
+        assertThat(worker.isRunning()).isFalse();
+    }
+
+    private SchedulingTaskInstance instance(Long id, String nodeCode, String status, LocalDateTime scheduledAt) {
+        SchedulingTaskInstance instance = new SchedulingTaskInstance();
+        instance.setId(id);
+        instance.setTenantId(9L);
+        instance.setDagRunId(20L);
+        instance.setDagVersionId(30L);
+        instance.setNodeCode(nodeCode);
+        instance.setStatus(status);
+        instance.setScheduledAt(scheduledAt);
+        return instance;
+    }
+
+    private SchedulingDagEdge edge(String from, String to) {
+        SchedulingDagEdge edge = new SchedulingDagEdge();
+        edge.setFromNodeCode(from);
+        edge.setToNodeCode(to);
+        return edge;
+    }
+}
@@ -0,0 +1,121 @@
+package com.tiny.platform.infrastructure.scheduling.service;
+
+import com.tiny.platform.infrastructure.tenant.service.TenantQuotaService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 按租户加权轮转：权重份额、租户并发上限、全局在途名额与队列指标。
+ */
+class TenantFairShareDispatcherTest {
+
+    private static final Long NOISY = 1L;
+    private static final Long SMALL = 2L;
+
+    @Test
+    void selection_should_follow_tenant_weights() {
+        TenantFairShareDispatcher dispatcher = dispatcher(100,
+                Map.of(NOISY, new TenantQuotaService.SchedulingShare(3, null)), null);
+        enqueue(dispatcher, NOISY, 100, 8);
+        enqueue(dispatcher, SMALL, 200, 8);
+
+        List<Long> tenants = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            tenants.add(dispatcher.next().tenantId());
+        }
+
+        assertThat(tenants).containsExactly(NOISY, NOISY, NOISY, SMALL, NOISY, NOISY, NOISY, SMALL);
+    }
+
+    @Test
+    void small_tenant_should_not_wait_behind_noisy_backlog() {
+        TenantFairShareDispatcher dispatcher = dispatcher(100, Map.of(), null);
+        enqueue(dispatcher, NOISY, 1, 1000);
+        assertThat(dispatcher.next().tenantId()).isEqualTo(NOISY);
+
+        dispatcher.enqueue(task(5000L, SMALL));
+
+        assertThat(dispatcher.next().tenantId()).isEqualTo(NOISY);
+        assertThat(dispatcher.next().instanceId()).isEqualTo(5000L);
+        assertThat(dispatcher.backlog()).isEqualTo(998);
+    }
+
+    @Test
+    void tenant_at_concurrency_limit_should_be_skipped_until_release() {
+        TenantFairShareDispatcher dispatcher = dispatcher(100,
+                Map.of(NOISY, new TenantQuotaService.SchedulingShare(5, 1)), null);
+        enqueue(dispatcher, NOISY, 100, 3);
+        enqueue(dispatcher, SMALL, 200, 3);
+
+        SchedulingReadyQueue.ReadyTask first = dispatcher.next();
+        assertThat(first.tenantId()).isEqualTo(NOISY);
+        assertThat(dispatcher.next().tenantId()).isEqualTo(SMALL);
+        assertThat(dispatcher.next().tenantId()).isEqualTo(SMALL);
+
+        dispatcher.release(first);
+        assertThat(dispatcher.next().tenantId()).isEqualTo(NOISY);
+    }
+
+    @Test
+    void next_should_return_null_when_in_flight_limit_reached() throws Exception {
+        TenantFairShareDispatcher dispatcher = dispatcher(2, Map.of(), null);
+        enqueue(dispatcher, NOISY, 100, 3);
+
+        SchedulingReadyQueue.ReadyTask first = dispatcher.next();
+        assertThat(dispatcher.next()).isNotNull();
+        assertThat(dispatcher.next()).isNull();
+        assertThat(dispatcher.inFlight()).isEqualTo(2);
+        assertThat(dispatcher.awaitRelease(10, TimeUnit.MILLISECONDS)).isFalse();
+
+        dispatcher.release(first);
+        assertThat(dispatcher.awaitRelease(10, TimeUnit.MILLISECONDS)).isTrue();
+        assertThat(dispatcher.next()).isNotNull();
+        assertThat(dispatcher.backlog()).isZero();
+    }
+
+    @Test
+    void gauges_should_report_queue_depth_and_wait_per_tenant() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TenantFairShareDispatcher dispatcher = dispatcher(100, Map.of(), registry);
+        enqueue(dispatcher, NOISY, 100, 3);
+        dispatcher.enqueue(task(200L, SMALL));
+
+        assertThat(registry.get("tiny.scheduling.fair-share.queue.depth").tag("tenant", "1").gauge().value())
+                .isEqualTo(3.0);
+        assertThat(registry.get("tiny.scheduling.fair-share.queue.head-wait").tag("tenant", "2").gauge().value())
+                .isGreaterThanOrEqualTo(0.0);
+
+        dispatcher.next();
+        dispatcher.next();
+        assertThat(registry.get("tiny.scheduling.fair-share.queue.depth").tag("tenant", "2").gauge().value())
+                .isZero();
+        assertThat(registry.get("tiny.scheduling.fair-share.in-flight").tag("tenant", "1").gauge().value())
+                .isEqualTo(1.0);
+        assertThat(registry.get("tiny.scheduling.fair-share.wait").tag("tenant", "1").timer().count()).isEqualTo(1);
+    }
+
+    private static TenantFairShareDispatcher dispatcher(int maxInFlight,
+                                                        Map<Long, TenantQuotaService.SchedulingShare> shares,
+                                                        SimpleMeterRegistry registry) {
+        return new TenantFairShareDispatcher(true, 1, 1, 0, maxInFlight, 10_000, 60,
+                tenantId -> shares.getOrDefault(tenantId, new TenantQuotaService.SchedulingShare(null, null)),
+                registry);
+    }
+
+    private static void enqueue(TenantFairShareDispatcher dispatcher, Long tenantId, long firstId, int count) {
+        for (int i = 0; i < count; i++) {
+            dispatcher.enqueue(task(firstId + i, tenantId));
+        }
+    }
+
+    private static SchedulingReadyQueue.ReadyTask task(Long instanceId, Long tenantId) {
+        return new SchedulingReadyQueue.ReadyTask(instanceId, tenantId, System.nanoTime());
+    }
+}
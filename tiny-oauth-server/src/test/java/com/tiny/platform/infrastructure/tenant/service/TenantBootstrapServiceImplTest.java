@@ -8,6 +8,10 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.never;
 
+import com.tiny.platform.core.oauth.config.PermissionVersionCacheProperties;
+import com.tiny.platform.core.oauth.security.AuthorizationChangedEvent;
+import com.tiny.platform.core.oauth.security.AuthorizationEpochRepository;
+import com.tiny.platform.core.oauth.security.PermissionVersionCache;
 import com.tiny.platform.infrastructure.auth.resource.domain.Resource;
 import com.tiny.platform.infrastructure.auth.resource.domain.ApiEndpointEntry;
 import com.tiny.platform.infrastructure.auth.resource.domain.UiActionEntry;
@@ -15,7 +19,9 @@ import com.tiny.platform.infrastructure.auth.resource.enums.ResourceType;
 import com.tiny.platform.infrastructure.auth.resource.repository.CarrierProjectionRepository;
 import com.tiny.platform.infrastructure.auth.resource.repository.RoleResourcePermissionBindingView;
 import com.tiny.platform.infrastructure.auth.resource.repository.ApiEndpointEntryRepository;
+import com.tiny.platform.infrastructure.auth.resource.repository.ApiEndpointPermissionRequirementRepository;
 import com.tiny.platform.infrastructure.auth.resource.repository.UiActionEntryRepository;
+import com.tiny.platform.infrastructure.auth.resource.service.ApiEndpointRouteRegistry;
 import com.tiny.platform.infrastructure.auth.resource.service.ResourcePermissionBindingService;
 import com.tiny.platform.infrastructure.auth.role.domain.Role;
 import com.tiny.platform.infrastructure.auth.role.repository.RoleRepository;
@@ -42,6 +48,7 @@ class TenantBootstrapServiceImplTest {
     private RoleRepository roleRepository;
     private PlatformTenantProperties platformTenantProperties;
     private ResourcePermissionBindingService resourcePermissionBindingService;
+    private PermissionVersionCache permissionVersionCache;
     private TenantBootstrapServiceImpl service;
 
     @BeforeEach
@@ -54,6 +61,16 @@ class TenantBootstrapServiceImplTest {
         roleRepository = org.mockito.Mockito.mock(RoleRepository.class);
         platformTenantProperties = new PlatformTenantProperties();
         resourcePermissionBindingService = org.mockito.Mockito.mock(ResourcePermissionBindingService.class);
+        permissionVersionCache = new PermissionVersionCache(
+            new PermissionVersionCacheProperties(), org.mockito.Mockito.mock(AuthorizationEpochRepository.class), null);
+        ApiEndpointRouteRegistry apiEndpointRouteRegistry = new ApiEndpointRouteRegistry(
+            apiEndpointEntryRepository,
+            org.mockito.Mockito.mock(ApiEndpointPermissionRequirementRepository.class),
+            permissionVersionCache,
+            event -> permissionVersionCache.onAuthorizationChanged((AuthorizationChangedEvent) event),
+            null,
+            60_000L
+        );
         AtomicLong nextCarrierId = new AtomicLong(100L);
         when(menuEntryRepository.saveAll(any())).thenAnswer(invocation -> {
             List<MenuEntry> entries = invocation.getArgument(0);
@@ -90,7 +107,8 @@ class TenantBootstrapServiceImplTest {
             apiEndpointEntryRepository,
             roleRepository,
             platformTenantProperties,
-            resourcePermissionBindingService
+            resourcePermissionBindingService,
+            apiEndpointRouteRegistry
         );
     }
 
@@ -226,6 +244,7 @@ class TenantBootstrapServiceImplTest {
         assertThat(clonedApi.getTitle()).isEqualTo("用户列表接口");
         assertThat(clonedApi.getCreatedAt()).isNotNull();
         assertThat(clonedApi.getUpdatedAt()).isNotNull();
+        assertThat(permissionVersionCache.tenantGeneration(9L)).isPositive();
 
         verify(roleRepository).addRolePermissionRelationByPermissionId(9L, 200L, 9002L);
     }